@@ -0,0 +1,25 @@
+package com.example.geospatial_service.handler;
+
+import java.nio.ByteBuffer;
+
+// 부하 생성기용 바이너리 위치 프레임 인코더 (서버는 디코딩만 하므로 main 에 두지 않음)
+// 형식은 BinaryLocationFrames 참고
+final class BinaryLocationFrameEncoder {
+
+    private static final double E7 = 1e7;
+
+    private BinaryLocationFrameEncoder() {
+    }
+
+    static byte[] encode(LocationFrame frame) {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryLocationFrames.LOCATION_FRAME_LENGTH);
+        buffer.put(BinaryLocationFrames.TYPE_LOCATION);
+        buffer.put((byte) 0);
+        buffer.putShort((short) 0);
+        buffer.putInt((int) Math.round(frame.latitude() * E7));
+        buffer.putInt((int) Math.round(frame.longitude() * E7));
+        buffer.putInt((int) (frame.timestampMs() / 1000L));
+        buffer.putInt(0);
+        return buffer.array();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.geospatial_service.handler;
+
+import com.example.geospatial_service.dto.UpdateLocationRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+
+// 웹소켓 프레임 1건당 처리 비용 (PONG 판별 + 위치 JSON 파싱)
+// -prof gc 로 실행하면 프레임당 할당량(gc.alloc.rate.norm)을 비교할 수 있음
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class LocationMessageParsingBenchmark {
+
+    private static final String LOCATION_PAYLOAD = "{\"longitude\":127.0276368,\"latitude\":37.4979502}";
+    private static final String PONG_PAYLOAD = "PONG";
+
+    private ReactiveLocationHandler handler;
+
+    private LocationFrameParser parser;
+
+    private DataBuffer locationBuffer;
+
+    private DataBuffer pongBuffer;
+
+    @Setup
+    public void setUp() {
+        handler = new ReactiveLocationHandler(null, new ObjectMapper(), null, null, null, null, null, new SimpleMeterRegistry());
+        parser = new LocationFrameParser();
+        locationBuffer = DefaultDataBufferFactory.sharedInstance.wrap(LOCATION_PAYLOAD.getBytes(StandardCharsets.UTF_8));
+        pongBuffer = DefaultDataBufferFactory.sharedInstance.wrap(PONG_PAYLOAD.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 기존 경로: DataBuffer -> String -> Jackson (boxed Double)
+    @Benchmark
+    public UpdateLocationRequest parseLocationJackson() throws JsonProcessingException {
+        return handler.parseLocation(locationBuffer.toString(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public LocationFrame parseLocation() {
+        return parser.parse(locationBuffer);
+    }
+
+    @Benchmark
+    public boolean detectPong() {
+        return LocationFrameParser.isPong(pongBuffer);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.geospatial_service.handler;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.WebsocketClientSpec;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// 웹소켓 연결 밀도 측정용 부하 생성기 (대부분 유휴 상태인 기사 소켓 N개)
+// - 바이너리 서브 프로토콜로 접속해 PING 에는 PONG 으로 응답하고, 기사마다 update-interval 마다 위치 1건 전송
+// - 모든 소켓이 붙은 뒤 /actuator/prometheus 에서 세션 수와 힙 사용량을 읽어 GB 당 소켓 수를 출력
+//
+// ./gradlew loadGenerator -Pconnections=100000 -Ptarget=ws://localhost:8085 -PupdateIntervalMs=5000
+// (클라이언트 한 대의 임시 포트는 약 6만 개이므로 그 이상은 여러 대에서 실행)
+public final class WebSocketLoadGenerator {
+
+    private static final Pattern SESSIONS = Pattern.compile("(?m)^geospatial_websocket_sessions\\{[^}]*}\\s+([0-9.eE+]+)");
+    private static final Pattern HEAP_USED = Pattern.compile("(?m)^jvm_memory_used_bytes\\{[^}]*area=\"heap\"[^}]*}\\s+([0-9.eE+]+)");
+
+    private WebSocketLoadGenerator() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String target = System.getProperty("target", "ws://localhost:8085");
+        int connections = Integer.getInteger("connections", 10_000);
+        int rampPerSecond = Integer.getInteger("rampPerSecond", 2_000);
+        long updateIntervalMs = Long.getLong("updateIntervalMs", 5_000L);
+        long holdSeconds = Long.getLong("holdSeconds", 60L);
+        String actuator = target.replaceFirst("^ws", "http") + "/actuator/prometheus";
+
+        HttpClient client = HttpClient.create(ConnectionProvider.newConnection());
+        AtomicInteger connected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        Flux.range(0, connections)
+            .delayElements(Duration.ofNanos(1_000_000_000L / rampPerSecond))
+            .subscribe(i -> connect(client, target + "/ws/location/load-" + i, updateIntervalMs)
+                    .doOnSubscribe(s -> connected.incrementAndGet())
+                    .subscribe(null, e -> {
+                        connected.decrementAndGet();
+                        failed.incrementAndGet();
+                    }, connected::decrementAndGet));
+
+        long deadline = System.currentTimeMillis() + (connections / Math.max(1, rampPerSecond) + holdSeconds) * 1000L;
+        while (System.currentTimeMillis() < deadline) {
+            Thread.sleep(5_000);
+            report(client, actuator, connected.get(), failed.get());
+        }
+        System.exit(0);
+    }
+
+    private static Mono<Void> connect(HttpClient client, String uri, long updateIntervalMs) {
+        double longitude = 126.9 + ThreadLocalRandom.current().nextDouble(0.2);
+        double latitude = 37.45 + ThreadLocalRandom.current().nextDouble(0.15);
+
+        return client.websocket(WebsocketClientSpec.builder().protocols(BinaryLocationFrames.SUB_PROTOCOL).build())
+                     .uri(uri)
+                     .handle((inbound, outbound) -> {
+                         // 서버 PING(0x03) 에 PONG(0x02) 응답
+                         Flux<WebSocketFrame> pongs = inbound.receiveFrames()
+                                                             .filter(frame -> frame instanceof BinaryWebSocketFrame
+                                                                     && frame.content().readableBytes() == 1
+                                                                     && frame.content().getByte(0) == BinaryLocationFrames.TYPE_PING)
+                                                             .map(frame -> new BinaryWebSocketFrame(Unpooled.wrappedBuffer(new byte[]{BinaryLocationFrames.TYPE_PONG})));
+                         // 접속 시각을 흩어 모든 소켓이 같은 순간에 보내지 않도록 함
+                         Flux<WebSocketFrame> updates = Flux.interval(Duration.ofMillis(ThreadLocalRandom.current().nextLong(updateIntervalMs)),
+                                                                      Duration.ofMillis(updateIntervalMs))
+                                                            .map(tick -> new BinaryWebSocketFrame(Unpooled.wrappedBuffer(BinaryLocationFrameEncoder.encode(
+                                                                    new LocationFrame(longitude, latitude, System.currentTimeMillis())))));
+                         return outbound.sendObject(Flux.merge(pongs, updates));
+                     })
+                     .then();
+    }
+
+    private static void report(HttpClient client, String actuator, int connected, int failed) {
+        String body = client.get()
+                            .uri(actuator)
+                            .responseContent()
+                            .aggregate()
+                            .asString()
+                            .onErrorReturn("")
+                            .block(Duration.ofSeconds(5));
+        double sessions = sum(SESSIONS, body);
+        double heapBytes = sum(HEAP_USED, body);
+        double socketsPerGb = heapBytes > 0 ? sessions / (heapBytes / (1024.0 * 1024 * 1024)) : 0;
+        System.out.printf("client connected=%d failed=%d | server sessions=%.0f heap=%.1fMB sockets/GB=%.0f%n",
+                          connected, failed, sessions, heapBytes / (1024.0 * 1024), socketsPerGb);
+    }
+
+    private static double sum(Pattern pattern, String body) {
+        if (body == null) {
+            return 0;
+        }
+        double total = 0;
+        Matcher matcher = pattern.matcher(body);
+        while (matcher.find()) {
+            total += Double.parseDouble(matcher.group(1));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.geospatial_service.index;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// 벤치마크용 인덱스 생성 (워밍업 대기 없이 바로 MEMORY 엔진으로 검색되도록 시계를 고정)
+public final class BenchmarkIndexes {
+
+    private static final long TTL_MILLIS = 30_000L;
+
+    private BenchmarkIndexes() {
+    }
+
+    public static GridDriverLocationIndex warm(double cellSizeDeg, Consumer<GridDriverLocationIndex> populate) {
+        AtomicLong clock = new AtomicLong();
+        GridDriverLocationIndex index = new GridDriverLocationIndex(cellSizeDeg, 64, TTL_MILLIS, clock::get);
+        populate.accept(index);
+        // 채운 시점에서 정확히 TTL 이 지난 시각: isWarm() == true 이면서 채운 기사는 아직 살아있음
+        clock.set(TTL_MILLIS);
+        return index;
+    }
+}
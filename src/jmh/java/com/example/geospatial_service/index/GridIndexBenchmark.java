@@ -0,0 +1,51 @@
+package com.example.geospatial_service.index;
+
+import com.example.geospatial_service.dto.NearbyDriverResponse;
+import com.example.geospatial_service.support.DriverFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+// 인메모리 격자 인덱스 단독 성능 (셀 크기 비교용)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class GridIndexBenchmark {
+
+    @Param({"10000", "50000"})
+    int drivers;
+
+    @Param({"0.005", "0.01", "0.05"})
+    double cellSizeDeg;
+
+    private GridDriverLocationIndex index;
+
+    private DriverFixtures fixtures;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixtures = new DriverFixtures(drivers);
+        index = BenchmarkIndexes.warm(cellSizeDeg, fixtures::populate);
+    }
+
+    @Benchmark
+    public List<NearbyDriverResponse> radius5Km() {
+        return index.findWithinRadius(DriverFixtures.CENTER_LONGITUDE, DriverFixtures.CENTER_LATITUDE, 5, 50);
+    }
+
+    @Benchmark
+    public List<NearbyDriverResponse> nearest10() {
+        return index.findNearest(DriverFixtures.CENTER_LONGITUDE, DriverFixtures.CENTER_LATITUDE, 10, 20);
+    }
+
+    @Benchmark
+    public void upsert() {
+        fixtures.moveNext(index);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.geospatial_service.service;
+
+import com.example.geospatial_service.dto.NearbyDriverResponse;
+import com.example.geospatial_service.index.BenchmarkIndexes;
+import com.example.geospatial_service.index.DriverLocationIndex;
+import com.example.geospatial_service.index.SearchEngine;
+import com.example.geospatial_service.kafka.LocationEventPublisher;
+import com.example.geospatial_service.support.DriverFixtures;
+import com.example.geospatial_service.support.InMemoryRedisStandIn;
+import com.example.geospatial_service.trajectory.DriverTrajectoryStore;
+import com.example.geospatial_service.zone.DriverZoneTracker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.example.geospatial_service.support.InMemoryRedisStandIn.stub;
+
+// findNearbyDrivers: 기사 밀도 x 반경 x 검색 엔진 조합
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class FindNearbyDriversBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    int drivers;
+
+    @Param({"1", "5", "20"})
+    int radiusKm;
+
+    @Param({"REDIS", "MEMORY"})
+    SearchEngine engine;
+
+    // Geo 에는 남아있지만 생존 키가 없는 유령 기사 비율 (%)
+    @Param({"0", "20"})
+    int stalePercent;
+
+    private LocationService locationService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DriverFixtures fixtures = new DriverFixtures(drivers);
+        InMemoryRedisStandIn redis = new InMemoryRedisStandIn();
+        for (int i = 0; i < fixtures.size(); i++) {
+            boolean alive = i % 100 >= stalePercent;
+            redis.putLocation(fixtures.driverId(i), fixtures.longitude(i), fixtures.latitude(i), alive);
+        }
+
+        DriverLocationIndex index = BenchmarkIndexes.warm(0.01, fixtures::populate);
+        DriverLivenessResolver livenessResolver = new DriverLivenessResolver(redis.storageRedisTemplate(), LivenessMode.KEY, 30, 200);
+        DriverLocationShards shards = new DriverLocationShards(redis.cacheRedisTemplate(), false, 4);
+        LocationEventPublisher eventPublisher = stub(LocationEventPublisher.class);
+        LocationWriteBehindBuffer writeBehindBuffer = new LocationWriteBehindBuffer(
+                redis.cacheRedisTemplate(), livenessResolver, shards, new SimpleMeterRegistry(), false, 5, 50_000, 1000);
+
+        locationService = new LocationService(redis.cacheRedisTemplate(), livenessResolver,
+                                              new DriverAvailability(redis.storageRedisTemplate(), false, engine, 2, 12, 200),
+                                              writeBehindBuffer, shards,
+                                              eventPublisher, index,
+                                              new NearbySearchCache(new SimpleMeterRegistry(), false, 7, 500),
+                                              new DriverCellNearCache(redis.cacheRedisTemplate(), shards, new SimpleMeterRegistry(), false, 5, 1024, 2000, 16,
+                                                                      Map.of(), System::currentTimeMillis),
+                                              new DriverTrajectoryStore(null, new SimpleMeterRegistry(), false, 32, 30_000),
+                                              new DriverZoneTracker(null, new ObjectMapper(), new SimpleMeterRegistry(), false, null, 0.005, 1_000_000, 30_000),
+                                              new SimpleMeterRegistry(), engine);
+    }
+
+    @Benchmark
+    public List<NearbyDriverResponse> findNearbyDrivers() {
+        return locationService.findNearbyDrivers(DriverFixtures.CENTER_LONGITUDE, DriverFixtures.CENTER_LATITUDE, radiusKm)
+                              .collectList()
+                              .block();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.geospatial_service.service;
+
+import com.example.geospatial_service.index.BenchmarkIndexes;
+import com.example.geospatial_service.index.SearchEngine;
+import com.example.geospatial_service.kafka.LocationEventPublisher;
+import com.example.geospatial_service.support.DriverFixtures;
+import com.example.geospatial_service.support.InMemoryRedisStandIn;
+import com.example.geospatial_service.trajectory.DriverTrajectoryStore;
+import com.example.geospatial_service.zone.DriverZoneTracker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.geospatial_service.support.InMemoryRedisStandIn.stub;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+// updateDriverLocation 처리량: 직접 쓰기 vs Write-Behind, Redis 엔진 vs 인메모리 인덱스 동시 반영
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class UpdateDriverLocationBenchmark {
+
+    @Param({"10000"})
+    int drivers;
+
+    @Param({"false", "true"})
+    boolean writeBehind;
+
+    @Param({"REDIS", "MEMORY"})
+    SearchEngine engine;
+
+    private DriverFixtures fixtures;
+
+    private LocationService locationService;
+
+    private LocationWriteBehindBuffer writeBehindBuffer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixtures = new DriverFixtures(drivers);
+        InMemoryRedisStandIn redis = new InMemoryRedisStandIn();
+
+        DriverLivenessResolver livenessResolver = new DriverLivenessResolver(redis.storageRedisTemplate(), LivenessMode.KEY, 30, 200);
+        DriverLocationShards shards = new DriverLocationShards(redis.cacheRedisTemplate(), false, 4);
+        LocationEventPublisher eventPublisher = stub(LocationEventPublisher.class);
+        when(eventPublisher.publish(anyString(), anyDouble(), anyDouble())).thenReturn(Mono.empty());
+        writeBehindBuffer = new LocationWriteBehindBuffer(
+                redis.cacheRedisTemplate(), livenessResolver, shards, new SimpleMeterRegistry(), writeBehind, 5, 1_000_000, 1000);
+        writeBehindBuffer.start();
+
+        locationService = new LocationService(redis.cacheRedisTemplate(), livenessResolver,
+                                              new DriverAvailability(redis.storageRedisTemplate(), false, engine, 2, 12, 200),
+                                              writeBehindBuffer, shards,
+                                              eventPublisher, BenchmarkIndexes.warm(0.01, index -> { }),
+                                              new NearbySearchCache(new SimpleMeterRegistry(), false, 7, 500),
+                                              new DriverCellNearCache(redis.cacheRedisTemplate(), shards, new SimpleMeterRegistry(), false, 5, 1024, 2000, 16,
+                                                                      Map.of(), System::currentTimeMillis),
+                                              new DriverTrajectoryStore(null, new SimpleMeterRegistry(), false, 32, 30_000),
+                                              new DriverZoneTracker(null, new ObjectMapper(), new SimpleMeterRegistry(), false, null, 0.005, 1_000_000, 30_000),
+                                              new SimpleMeterRegistry(), engine);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        writeBehindBuffer.stop();
+    }
+
+    @Benchmark
+    public void updateDriverLocation() {
+        int i = ThreadLocalRandom.current().nextInt(drivers);
+        Mono<Void> update = locationService.updateDriverLocation(fixtures.driverId(i), fixtures.longitude(i), fixtures.latitude(i));
+        // Write-Behind 는 flush 까지 기다려야 완료되므로, 요청 스레드 비용(대기열 적재)만 측정
+        if (writeBehind) {
+            update.subscribe();
+        } else {
+            update.block();
+        }
+    }
+}
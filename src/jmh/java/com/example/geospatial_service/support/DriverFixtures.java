@@ -0,0 +1,64 @@
+package com.example.geospatial_service.support;
+
+import com.example.geospatial_service.index.DriverLocationIndex;
+
+import java.util.SplittableRandom;
+
+// 서울 도심(약 30km x 30km)에 고르게 흩어진 기사 좌표
+public final class DriverFixtures {
+
+    public static final double CENTER_LONGITUDE = 127.0;
+    public static final double CENTER_LATITUDE = 37.5;
+    private static final double SPAN_DEG = 0.3;
+
+    private final String[] driverIds;
+    private final double[] longitudes;
+    private final double[] latitudes;
+    private int cursor;
+
+    public DriverFixtures(int drivers) {
+        SplittableRandom random = new SplittableRandom(42);
+        driverIds = new String[drivers];
+        longitudes = new double[drivers];
+        latitudes = new double[drivers];
+        for (int i = 0; i < drivers; i++) {
+            driverIds[i] = "driver-" + i;
+            longitudes[i] = CENTER_LONGITUDE - SPAN_DEG / 2 + random.nextDouble() * SPAN_DEG;
+            latitudes[i] = CENTER_LATITUDE - SPAN_DEG / 2 + random.nextDouble() * SPAN_DEG;
+        }
+    }
+
+    public int size() {
+        return driverIds.length;
+    }
+
+    public String driverId(int i) {
+        return driverIds[i];
+    }
+
+    public double longitude(int i) {
+        return longitudes[i];
+    }
+
+    public double latitude(int i) {
+        return latitudes[i];
+    }
+
+    public void populate(DriverLocationIndex index) {
+        for (int i = 0; i < driverIds.length; i++) {
+            index.upsert(driverIds[i], longitudes[i], latitudes[i]);
+        }
+    }
+
+    // 다음 기사를 조금 이동시킨 위치로 업데이트 (1Hz 위치 스트림 흉내)
+    public void moveNext(DriverLocationIndex index) {
+        int i = next();
+        index.upsert(driverIds[i], longitudes[i] + 0.0001, latitudes[i]);
+    }
+
+    public int next() {
+        int i = cursor;
+        cursor = i + 1 == driverIds.length ? 0 : i + 1;
+        return i;
+    }
+}
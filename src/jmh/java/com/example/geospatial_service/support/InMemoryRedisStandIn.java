@@ -0,0 +1,146 @@
+package com.example.geospatial_service.support;
+
+import com.example.geospatial_service.dto.NearbyDriverResponse;
+import com.example.geospatial_service.index.GridDriverLocationIndex;
+import com.example.geospatial_service.service.DriverLocationKeys;
+import org.springframework.data.geo.Circle;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.redis.connection.RedisGeoCommands;
+import org.springframework.data.redis.core.ReactiveGeoOperations;
+import org.springframework.data.redis.core.ReactiveRedisCallback;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+// 오프라인 벤치마크용 Redis Stand-in
+// - Cache Redis: GEOADD / GEORADIUS / ZREM 을 인메모리 격자 인덱스로 응답
+// - Storage Redis: driver_active:{id} 키를 인메모리 Set 으로 응답
+// 네트워크 왕복이 없으므로 절대값이 아니라 서비스 코드 자체의 CPU/할당 비용 비교에 사용
+// Mock 은 stubOnly 로 만들어 호출 기록(호출마다 할당)이 측정에 섞이지 않도록 함
+public final class InMemoryRedisStandIn {
+
+    private final GridDriverLocationIndex geo = new GridDriverLocationIndex(0.01, 64, Duration.ofDays(1).toSeconds());
+
+    private final Set<String> activeKeys = ConcurrentHashMap.newKeySet();
+
+    private final ReactiveRedisTemplate<String, String> cacheRedisTemplate;
+
+    private final ReactiveRedisTemplate<String, String> storageRedisTemplate;
+
+    public InMemoryRedisStandIn() {
+        this.cacheRedisTemplate = createCacheTemplate();
+        this.storageRedisTemplate = createStorageTemplate();
+    }
+
+    // 벤치마크 루프 안에서 호출되는 Mock (호출 기록 없음)
+    public static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    public ReactiveRedisTemplate<String, String> cacheRedisTemplate() {
+        return cacheRedisTemplate;
+    }
+
+    public ReactiveRedisTemplate<String, String> storageRedisTemplate() {
+        return storageRedisTemplate;
+    }
+
+    // 생존 키 없이 Geo 에만 남은 유령 기사 비율을 조절하기 위해 직접 채우는 용도
+    public void putLocation(String driverId, double longitude, double latitude, boolean alive) {
+        geo.upsert(driverId, longitude, latitude);
+        if (alive) {
+            activeKeys.add("driver_active:" + driverId);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ReactiveRedisTemplate<String, String> createCacheTemplate() {
+        ReactiveRedisTemplate<String, String> template = stub(ReactiveRedisTemplate.class);
+        ReactiveGeoOperations<String, String> geoOperations = stub(ReactiveGeoOperations.class);
+        when(template.opsForGeo()).thenReturn(geoOperations);
+
+        when(geoOperations.add(anyString(), any(Point.class), anyString())).thenAnswer(invocation -> {
+            Point point = invocation.getArgument(1);
+            geo.upsert(DriverLocationKeys.driverId(invocation.getArgument(2)), point.getX(), point.getY());
+            return Mono.just(1L);
+        });
+
+        when(geoOperations.add(anyString(), anyMap())).thenAnswer(invocation -> {
+            Map<String, Point> members = invocation.getArgument(1);
+            members.forEach((member, point) -> geo.upsert(DriverLocationKeys.driverId(member), point.getX(), point.getY()));
+            return Mono.just((long) members.size());
+        });
+
+        when(geoOperations.radius(anyString(), any(Circle.class), any(RedisGeoCommands.GeoRadiusCommandArgs.class))).thenAnswer(invocation -> {
+            Circle circle = invocation.getArgument(1);
+            RedisGeoCommands.GeoRadiusCommandArgs args = invocation.getArgument(2);
+            int limit = args.getLimit() == null ? Integer.MAX_VALUE : args.getLimit().intValue();
+            List<NearbyDriverResponse> found = geo.findWithinRadius(circle.getCenter().getX(), circle.getCenter().getY(),
+                                                                    circle.getRadius().getValue(), limit);
+            List<GeoResult<RedisGeoCommands.GeoLocation<String>>> results = new ArrayList<>(found.size());
+            for (NearbyDriverResponse driver : found) {
+                results.add(new GeoResult<>(
+                        new RedisGeoCommands.GeoLocation<>(DriverLocationKeys.member(driver.driverId()), circle.getCenter()),
+                        new Distance(driver.distanceKm(), Metrics.KILOMETERS)));
+            }
+            return Flux.fromIterable(results);
+        });
+
+        when(geoOperations.remove(anyString(), any(String[].class))).thenAnswer(invocation -> {
+            Object[] members = (Object[]) invocation.getRawArguments()[1];
+            for (Object member : members) {
+                geo.remove(DriverLocationKeys.driverId((String) member));
+            }
+            return Mono.just((long) members.length);
+        });
+
+        return template;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ReactiveRedisTemplate<String, String> createStorageTemplate() {
+        ReactiveRedisTemplate<String, String> template = stub(ReactiveRedisTemplate.class);
+        ReactiveValueOperations<String, String> valueOperations = stub(ReactiveValueOperations.class);
+        when(template.opsForValue()).thenReturn(valueOperations);
+
+        when(valueOperations.set(anyString(), eq("1"), any(Duration.class))).thenAnswer(invocation -> {
+            activeKeys.add(invocation.getArgument(0));
+            return Mono.just(true);
+        });
+
+        when(valueOperations.multiGet(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> keys = invocation.getArgument(0);
+            List<String> values = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                values.add(activeKeys.contains(key) ? "1" : null);
+            }
+            return Mono.just(values);
+        });
+
+        // Write-Behind 의 파이프라인 SET EX 는 결과만 흉내 냄
+        when(template.execute(any(ReactiveRedisCallback.class))).thenReturn(Flux.empty());
+
+        return template;
+    }
+}
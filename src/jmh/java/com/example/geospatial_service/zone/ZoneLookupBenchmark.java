@@ -0,0 +1,83 @@
+package com.example.geospatial_service.zone;
+
+import com.example.geospatial_service.kafka.ZoneEventPublisher;
+import com.example.geospatial_service.support.DriverFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.geospatial_service.support.InMemoryRedisStandIn.stub;
+
+// 위치 업데이트마다 구역 판정 처리량 (1Hz x 기사 수를 한 파드가 감당하는지)
+// 서울 도심에 반경 약 1km 의 12각형 구역을 흩어 놓고, 기사 좌표로 판정 (-prof gc 로 할당 확인)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class ZoneLookupBenchmark {
+
+    private static final int POLYGON_VERTICES = 12;
+    private static final double ZONE_RADIUS_DEG = 0.01;
+
+    @Param({"50000"})
+    int drivers;
+
+    @Param({"100", "1000"})
+    int zones;
+
+    @Param({"0.005", "0.01"})
+    double cellSizeDeg;
+
+    private DriverFixtures fixtures;
+
+    private DriverZoneTracker tracker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixtures = new DriverFixtures(drivers);
+        tracker = new DriverZoneTracker(stub(ZoneEventPublisher.class), polygons(zones), new SimpleMeterRegistry(), true,
+                                        cellSizeDeg, 1_000_000, 30_000, System::currentTimeMillis);
+        // 구역 안 기사 상태를 미리 채움 (이후 대부분의 업데이트는 전이 없음)
+        for (int i = 0; i < drivers; i++) {
+            tracker.onLocation(fixtures.driverId(i), fixtures.longitude(i), fixtures.latitude(i));
+        }
+    }
+
+    private static List<GeofenceZone> polygons(int count) {
+        SplittableRandom random = new SplittableRandom(7);
+        List<GeofenceZone> result = new ArrayList<>(count);
+        for (int z = 0; z < count; z++) {
+            double centerLon = DriverFixtures.CENTER_LONGITUDE - 0.15 + random.nextDouble() * 0.3;
+            double centerLat = DriverFixtures.CENTER_LATITUDE - 0.15 + random.nextDouble() * 0.3;
+            double[][] polygon = new double[POLYGON_VERTICES][];
+            for (int v = 0; v < POLYGON_VERTICES; v++) {
+                double angle = 2 * Math.PI * v / POLYGON_VERTICES;
+                double radius = ZONE_RADIUS_DEG * (0.6 + random.nextDouble() * 0.4);
+                polygon[v] = new double[]{centerLon + radius * Math.cos(angle), centerLat + radius * Math.sin(angle)};
+            }
+            result.add(new GeofenceZone("zone-" + z, ZoneType.values()[z % ZoneType.values().length], polygon));
+        }
+        return result;
+    }
+
+    // 같은 위치 재전송 (전이 없음)
+    @Benchmark
+    public void onLocation() {
+        int i = ThreadLocalRandom.current().nextInt(drivers);
+        tracker.onLocation(fixtures.driverId(i), fixtures.longitude(i), fixtures.latitude(i));
+    }
+}
@@ -3,10 +3,12 @@ package com.example.geospatial_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import reactor.core.publisher.Hooks;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
 public class GeospatialServiceApplication {
 
 	public static void main(String[] args) {
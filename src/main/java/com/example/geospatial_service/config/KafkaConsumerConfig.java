@@ -1,11 +1,13 @@
 package com.example.geospatial_service.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.util.backoff.FixedBackOff;
 
@@ -13,6 +15,13 @@ import org.springframework.util.backoff.FixedBackOff;
 @Slf4j
 public class KafkaConsumerConfig {
 
+    // 직접 만든 컨테이너 팩토리에는 Boot 의 spring.threads.virtual.enabled 가 적용되지 않으므로 같은 값을 읽어 직접 설정
+    private final boolean virtualThreads;
+
+    public KafkaConsumerConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(
             ConsumerFactory<String, Object> consumerFactory) {
@@ -22,7 +31,37 @@ public class KafkaConsumerConfig {
 
         factory.getContainerProperties().setObservationEnabled(true);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
+        applyListenerExecutor(factory, "kafka-listener-");
+
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(
+                (record, exception) -> log.error("🚨 [Config 전송 실패] 기사({}) 설정값 전달 포기. Payload: {}", record.key(), record.value()),
+                new FixedBackOff(1000L, 3)
+        );
+
+        errorHandler.setAckAfterHandle(true);
+
+        factory.setCommonErrorHandler(errorHandler);
 
+        return factory;
+    }
+
+    // 운행 이벤트(trip_events) 배치 리스너: poll 단위로 처리하고 배치 단위로 커밋
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> tripEventBatchContainerFactory(
+            ConsumerFactory<String, Object> consumerFactory,
+            @Value("${geospatial.kafka.trip-events.concurrency:1}") int concurrency) {
+
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        // 리스너는 배치마다 Redis 방송을 block 으로 기다리므로, 가상 스레드에서는 파티션 수만큼 늘려도 플랫폼 스레드가 늘지 않음
+        factory.setConcurrency(concurrency);
+        applyListenerExecutor(factory, "kafka-trip-events-");
+
+        factory.getContainerProperties().setObservationEnabled(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+
+        // 설정 방송은 멱등이므로 실패 시 배치 전체를 재시도하고, 끝내 실패하면 레코드별로 기록 후 커밋
         DefaultErrorHandler errorHandler = new DefaultErrorHandler(
                 (record, exception) -> log.error("🚨 [Config 전송 실패] 기사({}) 설정값 전달 포기. Payload: {}", record.key(), record.value()),
                 new FixedBackOff(1000L, 3)
@@ -34,4 +73,14 @@ public class KafkaConsumerConfig {
 
         return factory;
     }
+
+    // 컨슈머 스레드(poll + 리스너 호출)를 가상 스레드로 실행
+    private void applyListenerExecutor(ConcurrentKafkaListenerContainerFactory<String, Object> factory, String threadNamePrefix) {
+        if (!virtualThreads) {
+            return;
+        }
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        factory.getContainerProperties().setListenerTaskExecutor(executor);
+    }
 }
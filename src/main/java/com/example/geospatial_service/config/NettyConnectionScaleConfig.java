@@ -0,0 +1,37 @@
+package com.example.geospatial_service.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.channel.WriteBufferWaterMark;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 연결 밀도 모드 (geospatial.websocket.connection-scale.enabled)
+// 대부분 유휴 상태인 기사 소켓을 파드당 10만 개 이상 유지하기 위한 Netty 설정
+// - 소켓 송수신 커널 버퍼를 작은 프레임에 맞게 축소
+// - 채널 쓰기 버퍼 워터마크로 느린 클라이언트의 미전송 데이터를 제한 (high 를 넘으면 writable=false 로 Reactor 에 배압 전달)
+// - 대량 재접속에 대비해 accept backlog 확대
+@Configuration
+@Slf4j
+@ConditionalOnProperty(prefix = "geospatial.websocket.connection-scale", name = "enabled", havingValue = "true")
+public class NettyConnectionScaleConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<NettyReactiveWebServerFactory> connectionScaleCustomizer(
+            @Value("${geospatial.websocket.connection-scale.so-backlog:4096}") int backlog,
+            @Value("${geospatial.websocket.connection-scale.socket-buffer-bytes:16384}") int socketBufferBytes,
+            @Value("${geospatial.websocket.connection-scale.write-buffer-low-bytes:8192}") int writeBufferLow,
+            @Value("${geospatial.websocket.connection-scale.write-buffer-high-bytes:32768}") int writeBufferHigh) {
+        log.info("연결 밀도 모드: backlog {}, 소켓 버퍼 {}B, 쓰기 워터마크 {}B/{}B", backlog, socketBufferBytes, writeBufferLow, writeBufferHigh);
+
+        return factory -> factory.addServerCustomizers(server -> server
+                .option(ChannelOption.SO_BACKLOG, backlog)
+                .childOption(ChannelOption.SO_RCVBUF, socketBufferBytes)
+                .childOption(ChannelOption.SO_SNDBUF, socketBufferBytes)
+                .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(writeBufferLow, writeBufferHigh)));
+    }
+}
@@ -6,20 +6,28 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.util.StringUtils;
 
 @Configuration
 public class RedisConfig {
 
     // 1. Cache Redis (영속성 x)
+    // cluster-nodes 가 지정되면 클러스터로 접속 (샤딩된 driver_locations:{cell} 키가 슬롯별로 분산됨)
     @Bean
     @Primary
     public ReactiveRedisConnectionFactory cacheConnectionFactory(
             @Value("${spring.redis.cache.host}") String host,
-            @Value("${spring.redis.cache.port}") int port) {
+            @Value("${spring.redis.cache.port}") int port,
+            @Value("${spring.redis.cache.cluster-nodes:}") String clusterNodes) {
+        if (StringUtils.hasText(clusterNodes)) {
+            return new LettuceConnectionFactory(new RedisClusterConfiguration(
+                    StringUtils.commaDelimitedListToSet(clusterNodes)));
+        }
         return new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
     }
 
@@ -1,11 +1,15 @@
 package com.example.geospatial_service.config;
 
 import com.example.geospatial_service.handler.ReactiveLocationHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.reactive.socket.server.support.HandshakeWebSocketService;
 import org.springframework.web.reactive.socket.server.support.WebSocketHandlerAdapter;
+import org.springframework.web.reactive.socket.server.upgrade.ReactorNettyRequestUpgradeStrategy;
+import reactor.netty.http.server.WebsocketServerSpec;
 
 import java.util.Map;
 
@@ -22,8 +26,12 @@ public class WebSocketConfig {
         return mapping;
     }
 
+    // 위치 프레임은 수십 바이트이므로 최대 프레임 크기를 줄여 세션별 집계 버퍼 상한을 낮춤
     @Bean
-    public WebSocketHandlerAdapter handlerAdapter() {
-        return new WebSocketHandlerAdapter();
+    public WebSocketHandlerAdapter handlerAdapter(
+            @Value("${geospatial.websocket.max-frame-payload-bytes:65536}") int maxFramePayloadBytes) {
+        WebsocketServerSpec.Builder spec = WebsocketServerSpec.builder()
+                                                              .maxFramePayloadLength(maxFramePayloadBytes);
+        return new WebSocketHandlerAdapter(new HandshakeWebSocketService(new ReactorNettyRequestUpgradeStrategy(spec)));
     }
-}
\ No newline at end of file
+}
@@ -1,23 +1,54 @@
 package com.example.geospatial_service.controller;
 
 import com.example.geospatial_service.dto.NearbyDriverResponse;
+import com.example.geospatial_service.dto.NearbySearchQuery;
+import com.example.geospatial_service.dto.NearbySearchResult;
+import com.example.geospatial_service.dto.SupplyHeatmapResponse;
+import com.example.geospatial_service.dto.TrajectoryPoint;
+import com.example.geospatial_service.dto.ViewportUpdate;
 import com.example.geospatial_service.service.LocationService;
+import com.example.geospatial_service.service.SupplyHeatmap;
+import com.example.geospatial_service.service.ViewportSubscriptionHub;
+import com.example.geospatial_service.trajectory.DriverTrajectoryStore;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/locations")
 @RequiredArgsConstructor
 public class LocationController {
 
+    // 뷰포트 구독 한 건이 볼 수 있는 최대 범위 (위/경도 각각)
+    private static final double MAX_VIEWPORT_SPAN_DEGREES = 0.5;
+
+    // 히트맵 한 번에 조회할 수 있는 최대 범위 (위/경도 각각)
+    private static final double MAX_HEATMAP_SPAN_DEGREES = 5.0;
+
     private final LocationService locationService;
 
+    private final ViewportSubscriptionHub viewportSubscriptionHub;
+
+    private final DriverTrajectoryStore trajectoryStore;
+
+    private final SupplyHeatmap supplyHeatmap;
+
     @GetMapping("/search")
     public Flux<NearbyDriverResponse> searchNearbyDrivers(
             @RequestParam @Min(-180) @Max(180) Double longitude,
@@ -25,4 +56,66 @@ public class LocationController {
             @RequestParam(defaultValue = "5") @Min(1) @Max(20) int radius) {
         return locationService.findNearbyDrivers(longitude, latitude, radius);
     }
-}
\ No newline at end of file
+
+    // 배차용: 살아있는 기사 중 가까운 K명 (서버에서 반경을 넓혀가며 검색)
+    @GetMapping("/nearest")
+    public Flux<NearbyDriverResponse> searchNearestDrivers(
+            @RequestParam @Min(-180) @Max(180) Double longitude,
+            @RequestParam @Min(-90) @Max(90) Double latitude,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(50) int k,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(20) int maxRadius) {
+        return locationService.findNearestDrivers(longitude, latitude, k, maxRadius);
+    }
+
+    // 배차용 일괄 검색: 여러 승객의 주변 기사를 한 번에 조회, 질의 순서대로 한 줄씩(NDJSON) 스트리밍
+    @PostMapping(value = "/search/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<NearbySearchResult> searchNearbyDriversBatch(
+            @RequestBody @Size(min = 1, max = 1000) List<@Valid NearbySearchQuery> queries) {
+        return locationService.findNearbyDriversBatch(queries);
+    }
+
+    // 지도 화면 안의 기사 변화 구독 (폴링 대체): 첫 이벤트는 스냅샷, 이후 tick 마다 들어옴/이동/나감
+    @GetMapping(value = "/viewport", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ViewportUpdate> subscribeViewport(
+            @RequestParam @Min(-180) @Max(180) Double minLongitude,
+            @RequestParam @Min(-90) @Max(90) Double minLatitude,
+            @RequestParam @Min(-180) @Max(180) Double maxLongitude,
+            @RequestParam @Min(-90) @Max(90) Double maxLatitude) {
+        if (!viewportSubscriptionHub.isEnabled()) {
+            return Flux.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "뷰포트 구독이 비활성화되어 있습니다."));
+        }
+        if (minLongitude > maxLongitude || minLatitude > maxLatitude
+                || maxLongitude - minLongitude > MAX_VIEWPORT_SPAN_DEGREES || maxLatitude - minLatitude > MAX_VIEWPORT_SPAN_DEGREES) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "뷰포트 범위가 올바르지 않습니다."));
+        }
+        return viewportSubscriptionHub.subscribe(minLongitude, minLatitude, maxLongitude, maxLatitude);
+    }
+
+    // ETA / 이상 운행 확인용: 기사의 최근 N분 경로 (시간 순서)
+    @GetMapping("/drivers/{driverId}/trajectory")
+    public Flux<TrajectoryPoint> getDriverTrajectory(
+            @PathVariable String driverId,
+            @RequestParam(defaultValue = "5") @Min(1) @Max(60) int minutes) {
+        if (!trajectoryStore.isEnabled()) {
+            return Flux.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "궤적 저장이 비활성화되어 있습니다."));
+        }
+        return trajectoryStore.recentPath(driverId, minutes);
+    }
+
+    // 운영/요금용: 범위 안 셀별 기사 수 (셀 카운터만 읽음)
+    @GetMapping("/heatmap")
+    public Mono<SupplyHeatmapResponse> getSupplyHeatmap(
+            @RequestParam @Min(-180) @Max(180) Double minLongitude,
+            @RequestParam @Min(-90) @Max(90) Double minLatitude,
+            @RequestParam @Min(-180) @Max(180) Double maxLongitude,
+            @RequestParam @Min(-90) @Max(90) Double maxLatitude) {
+        if (!supplyHeatmap.isEnabled()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "공급 히트맵이 비활성화되어 있습니다."));
+        }
+        if (minLongitude > maxLongitude || minLatitude > maxLatitude
+                || maxLongitude - minLongitude > MAX_HEATMAP_SPAN_DEGREES || maxLatitude - minLatitude > MAX_HEATMAP_SPAN_DEGREES) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "히트맵 범위가 올바르지 않습니다."));
+        }
+        return Mono.fromSupplier(() -> supplyHeatmap.region(minLongitude, minLatitude, maxLongitude, maxLatitude));
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.geospatial_service.dto;
+
+public record DriverPosition(
+        String driverId,
+        double longitude,
+        double latitude
+) {}
@@ -0,0 +1,35 @@
+package com.example.geospatial_service.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+// 일괄 검색의 질의 하나 (queryId 는 응답을 요청과 짝짓기 위한 호출 측 식별자, 예: 승객 ID)
+public record NearbySearchQuery(
+        @NotBlank(message = "queryId 는 비어 있을 수 없습니다.")
+        String queryId,
+
+        @NotNull
+        @Min(value = -180, message = "경도는 -180보다 커야 합니다.")
+        @Max(value = 180, message = "경도는 180보다 작아야 합니다.")
+        Double longitude,
+
+        @NotNull
+        @Min(value = -90, message = "위도는 -90보다 커야 합니다.")
+        @Max(value = 90, message = "위도는 90보다 작아야 합니다.")
+        Double latitude,
+
+        @Min(value = 1, message = "반경은 1km 이상이어야 합니다.")
+        @Max(value = 20, message = "반경은 20km 이하여야 합니다.")
+        Integer radius
+) {
+
+    public static final int DEFAULT_RADIUS_KM = 5;
+
+    public NearbySearchQuery {
+        if (radius == null) {
+            radius = DEFAULT_RADIUS_KM;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.geospatial_service.dto;
+
+import java.util.List;
+
+// 일괄 검색 응답 한 줄 (NDJSON), drivers 는 거리순
+public record NearbySearchResult(
+        String queryId,
+        List<NearbyDriverResponse> drivers
+) {}
@@ -0,0 +1,9 @@
+package com.example.geospatial_service.dto;
+
+// 히트맵 셀 하나 (중심 좌표와 셀 안의 기사 수)
+public record SupplyCell(
+        String geohash,
+        double latitude,
+        double longitude,
+        long drivers
+) {}
@@ -0,0 +1,10 @@
+package com.example.geospatial_service.dto;
+
+import java.util.List;
+
+// 지역 공급 히트맵 (기사가 있는 셀만, generatedAt: 집계 시각 ms)
+public record SupplyHeatmapResponse(
+        int precision,
+        long generatedAt,
+        List<SupplyCell> cells
+) {}
@@ -0,0 +1,7 @@
+package com.example.geospatial_service.dto;
+
+public record TrajectoryPoint(
+        long timestampMs,
+        double longitude,
+        double latitude
+) {}
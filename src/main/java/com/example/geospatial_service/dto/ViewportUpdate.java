@@ -0,0 +1,12 @@
+package com.example.geospatial_service.dto;
+
+import java.util.List;
+
+// 뷰포트 구독 이벤트 (tick 단위로 모은 변화)
+// - snapshot=true 이면 entered 가 현재 화면 안의 전체 기사 (구독 직후, 또는 느린 클라이언트가 변화를 놓친 뒤 재동기화)
+public record ViewportUpdate(
+        boolean snapshot,
+        List<DriverPosition> entered,
+        List<DriverPosition> moved,
+        List<String> left
+) {}
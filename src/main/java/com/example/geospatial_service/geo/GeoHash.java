@@ -0,0 +1,165 @@
+package com.example.geospatial_service.geo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+// Base32 Geohash 인코딩 및 영역 커버링 유틸
+public final class GeoHash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final int MAX_PRECISION = 12;
+
+    private GeoHash() {
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        checkPrecision(precision);
+        return toBase32(encodeBits(latitude, longitude, precision * 5), precision);
+    }
+
+    // 경도/위도 비트를 교차(interleave)한 정수 값 (상위 비트부터 경도, 위도 순)
+    public static long encodeBits(double latitude, double longitude, int bitCount) {
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        long bits = 0;
+        for (int i = 0; i < bitCount; i++) {
+            bits <<= 1;
+            if ((i & 1) == 0) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    bits |= 1;
+                    minLon = mid;
+                } else {
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    bits |= 1;
+                    minLat = mid;
+                } else {
+                    maxLat = mid;
+                }
+            }
+        }
+        return bits;
+    }
+
+    public static double cellWidthDeg(int precision) {
+        int lonBits = (precision * 5 + 1) / 2;
+        return 360.0 / (1L << lonBits);
+    }
+
+    public static double cellHeightDeg(int precision) {
+        int latBits = precision * 5 / 2;
+        return 180.0 / (1L << latBits);
+    }
+
+    // 셀 중심 좌표 {위도, 경도}
+    public static double[] center(String hash) {
+        long bits = 0;
+        for (int i = 0; i < hash.length(); i++) {
+            bits = (bits << 5) | indexOf(hash.charAt(i));
+        }
+        return center(bits, hash.length());
+    }
+
+    // encodeBits(…, precision * 5) 로 만든 셀 값의 중심 좌표 {위도, 경도}
+    public static double[] center(long bits, int precision) {
+        checkPrecision(precision);
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        boolean lonBit = true;
+        for (int i = precision * 5 - 1; i >= 0; i--) {
+            boolean set = ((bits >>> i) & 1) != 0;
+            if (lonBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (set) {
+                    minLon = mid;
+                } else {
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (set) {
+                    minLat = mid;
+                } else {
+                    maxLat = mid;
+                }
+            }
+            lonBit = !lonBit;
+        }
+        return new double[]{(minLat + maxLat) / 2, (minLon + maxLon) / 2};
+    }
+
+    // 주어진 셀과 주변 8개 셀 (극/날짜변경선 근처에서는 중복 없이 가능한 것만)
+    public static List<String> withNeighbors(String hash) {
+        double[] center = center(hash);
+        double width = cellWidthDeg(hash.length());
+        double height = cellHeightDeg(hash.length());
+        return covering(center[0] - height, center[1] - width, center[0] + height, center[1] + width, hash.length());
+    }
+
+    // 위경도 사각형과 겹치는 모든 셀
+    public static List<String> covering(double minLat, double minLon, double maxLat, double maxLon, int precision) {
+        long[] bits = coveringBits(minLat, minLon, maxLat, maxLon, precision);
+        List<String> cells = new ArrayList<>(bits.length);
+        for (long cell : bits) {
+            cells.add(toBase32(cell, precision));
+        }
+        return cells;
+    }
+
+    // covering 과 같은 셀을 encodeBits(…, precision * 5) 값으로 반환 (문자열 할당 없이 셀을 키로 쓸 때)
+    public static long[] coveringBits(double minLat, double minLon, double maxLat, double maxLon, int precision) {
+        checkPrecision(precision);
+        double width = cellWidthDeg(precision);
+        double height = cellHeightDeg(precision);
+
+        double south = clampLat(minLat);
+        double north = clampLat(maxLat);
+        double west = Math.max(-180, minLon);
+        double east = Math.min(180 - 1e-9, maxLon);
+
+        // 셀 경계에 맞춰 시작점을 정렬한 뒤 셀 중심으로 인코딩
+        double startLat = Math.floor((south + 90) / height) * height - 90;
+        double startLon = Math.floor((west + 180) / width) * width - 180;
+
+        LongStream.Builder cells = LongStream.builder();
+        for (double lat = startLat; lat <= north; lat += height) {
+            for (double lon = startLon; lon <= east; lon += width) {
+                cells.add(encodeBits(lat + height / 2, lon + width / 2, precision * 5));
+            }
+        }
+        return cells.build().toArray();
+    }
+
+    private static String toBase32(long bits, int precision) {
+        char[] hash = new char[precision];
+        for (int i = precision - 1; i >= 0; i--) {
+            hash[i] = BASE32[(int) (bits & 0x1f)];
+            bits >>>= 5;
+        }
+        return new String(hash);
+    }
+
+    private static double clampLat(double latitude) {
+        return Math.min(90 - 1e-9, Math.max(-90, latitude));
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < BASE32.length; i++) {
+            if (BASE32[i] == c) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("잘못된 geohash 문자: " + c);
+    }
+
+    private static void checkPrecision(int precision) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("geohash precision 은 1~" + MAX_PRECISION + " 범위여야 합니다: " + precision);
+        }
+    }
+}
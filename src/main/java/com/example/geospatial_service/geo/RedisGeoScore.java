@@ -0,0 +1,55 @@
+package com.example.geospatial_service.geo;
+
+// Redis GEO Sorted Set 의 score (52비트 geohash) 변환
+// 위도 [-85.05112878, 85.05112878], 경도 [-180, 180] 을 각각 26비트로 나눠 교차 (짝수 비트 위도, 홀수 비트 경도)
+// GEOPOS 없이 ZRANGE WITHSCORES 결과만으로 좌표를 복원하기 위함 (복원 좌표는 셀 중심, 오차 약 0.6m 이내)
+public final class RedisGeoScore {
+
+    private static final double LAT_MIN = -85.05112878;
+    private static final double LAT_MAX = 85.05112878;
+    private static final double LON_MIN = -180;
+    private static final double LON_MAX = 180;
+    private static final int STEP = 26;
+    private static final double CELLS = 1L << STEP;
+
+    private RedisGeoScore() {
+    }
+
+    public static long encode(double longitude, double latitude) {
+        long latOffset = (long) ((latitude - LAT_MIN) / (LAT_MAX - LAT_MIN) * CELLS);
+        long lonOffset = (long) ((longitude - LON_MIN) / (LON_MAX - LON_MIN) * CELLS);
+        return spread(latOffset) | (spread(lonOffset) << 1);
+    }
+
+    public static double longitude(long score) {
+        long lonOffset = squash(score >>> 1);
+        return LON_MIN + (lonOffset + 0.5) / CELLS * (LON_MAX - LON_MIN);
+    }
+
+    public static double latitude(long score) {
+        long latOffset = squash(score);
+        return LAT_MIN + (latOffset + 0.5) / CELLS * (LAT_MAX - LAT_MIN);
+    }
+
+    // 32비트 값의 각 비트 사이에 0 을 끼워 넣음
+    private static long spread(long x) {
+        x &= 0xFFFFFFFFL;
+        x = (x | (x << 16)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x << 8)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x << 2)) & 0x3333333333333333L;
+        x = (x | (x << 1)) & 0x5555555555555555L;
+        return x;
+    }
+
+    // spread 의 역 (짝수 비트만 모음)
+    private static long squash(long x) {
+        x &= 0x5555555555555555L;
+        x = (x | (x >>> 1)) & 0x3333333333333333L;
+        x = (x | (x >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x >>> 4)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x >>> 8)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x >>> 16)) & 0x00000000FFFFFFFFL;
+        return x;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.geospatial_service.handler;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+// 바이너리 위치 프레임 서브 프로토콜 (Sec-WebSocket-Protocol: geo-location.v1.bin)
+// 협상하지 않은 클라이언트는 기존 JSON 텍스트 프레임을 그대로 사용
+//
+// 모든 값은 big-endian
+// [0]     type        0x01 위치 / 0x02 PONG / 0x03 PING (PONG, PING 은 1바이트)
+// [1]     flags       예약 (0)
+// [2-3]   reserved    예약 (0, 서버는 읽지 않음)
+// [4-7]   latitude    int32, 1e-7도 단위 (약 1.1cm)
+// [8-11]  longitude   int32, 1e-7도 단위
+// [12-15] timestamp   uint32, epoch 초 (0 = 알 수 없음, 이전 프레임보다 이르면 버림)
+// [16-19] reserved    예약 (0, 서버는 읽지 않음)
+final class BinaryLocationFrames {
+
+    static final String SUB_PROTOCOL = "geo-location.v1.bin";
+
+    static final byte TYPE_LOCATION = 0x01;
+    static final byte TYPE_PONG = 0x02;
+    static final byte TYPE_PING = 0x03;
+
+    static final int LOCATION_FRAME_LENGTH = 20;
+
+    private static final double E7 = 1e7;
+
+    private static final byte[] PING_FRAME = {TYPE_PING};
+
+    private BinaryLocationFrames() {
+    }
+
+    static boolean isPong(DataBuffer payload) {
+        return payload.readableByteCount() == 1 && payload.getByte(payload.readPosition()) == TYPE_PONG;
+    }
+
+    static byte[] pingFrame() {
+        return PING_FRAME;
+    }
+
+    // 형식이 맞지 않거나 좌표 범위를 벗어나면 null
+    static LocationFrame decode(DataBuffer payload) {
+        if (payload.readableByteCount() != LOCATION_FRAME_LENGTH) {
+            return null;
+        }
+        int start = payload.readPosition();
+        if (payload.getByte(start) != TYPE_LOCATION) {
+            return null;
+        }
+
+        int latitudeE7 = readI32(payload, start + 4);
+        int longitudeE7 = readI32(payload, start + 8);
+        long timestampSec = readI32(payload, start + 12) & 0xFFFFFFFFL;
+
+        // int 최솟값은 Math.abs 가 음수를 돌려주므로 long 으로 비교
+        if (Math.abs((long) latitudeE7) > 90 * E7 || Math.abs((long) longitudeE7) > 180 * E7) {
+            return null;
+        }
+
+        return new LocationFrame(longitudeE7 / E7, latitudeE7 / E7, timestampSec * 1000L);
+    }
+
+    private static int readI32(DataBuffer payload, int index) {
+        return ((payload.getByte(index) & 0xFF) << 24)
+                | ((payload.getByte(index + 1) & 0xFF) << 16)
+                | ((payload.getByte(index + 2) & 0xFF) << 8)
+                | (payload.getByte(index + 3) & 0xFF);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.geospatial_service.handler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 기사 설정 메시지 노드 단위 라우터
+// - 파드마다 driver:config:* 패턴 구독 1개만 유지 (기사 수만큼 구독하지 않음)
+// - 받은 메시지는 driverId -> 세션 Sink 맵에서 찾아 전달, 이 파드에 없는 기사는 무시
+@Component
+@Slf4j
+public class DriverConfigRouter {
+
+    public static final String CONFIG_CHANNEL_PREFIX = "driver:config:";
+
+    // 재접속(이전 세션 complete)과 라우팅(next)이 같은 Sink 에 겹쳤을 때 다시 시도하는 시간
+    private static final Duration EMIT_RETRY_DURATION = Duration.ofMillis(50);
+
+    private final ReactiveRedisTemplate<String, String> cacheRedisTemplate;
+
+    private final ConcurrentHashMap<String, Sinks.Many<String>> sessions = new ConcurrentHashMap<>();
+
+    private final int outboundQueueSize;
+
+    private final Counter deliveredCounter;
+
+    private final Counter notLocalCounter;
+
+    private final Counter failedCounter;
+
+    private Disposable subscription;
+
+    public DriverConfigRouter(@Qualifier("cacheRedisTemplate") ReactiveRedisTemplate<String, String> cacheRedisTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${geospatial.websocket.outbound-queue-size:16}") int outboundQueueSize) {
+        this.cacheRedisTemplate = cacheRedisTemplate;
+        this.outboundQueueSize = outboundQueueSize;
+
+        Gauge.builder("geospatial.config.router.sessions", sessions, Map::size)
+             .description("설정 메시지를 받을 수 있게 등록된 이 노드의 세션 수")
+             .register(meterRegistry);
+        this.deliveredCounter = messageCounter(meterRegistry, "delivered");
+        this.notLocalCounter = messageCounter(meterRegistry, "not_local");
+        this.failedCounter = messageCounter(meterRegistry, "failed");
+    }
+
+    private static Counter messageCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("geospatial.config.router.messages")
+                      .description("패턴 구독으로 받은 설정 메시지 라우팅 결과")
+                      .tag("result", result)
+                      .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        subscription = cacheRedisTemplate.listenToPattern(PatternTopic.of(CONFIG_CHANNEL_PREFIX + "*"))
+                                         // 세션과 무관하게 노드 구독은 끊기면 계속 재시도
+                                         .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(2))
+                                                         .maxBackoff(Duration.ofSeconds(30))
+                                                         .doBeforeRetry(retrySignal ->
+                                                                 log.warn("설정 채널 패턴 구독 재시도 중... (시도 횟수: {})", retrySignal.totalRetries() + 1)))
+                                         .subscribe(
+                                                 message -> route(message.getChannel(), message.getMessage()),
+                                                 e -> log.error("설정 채널 패턴 구독 종료: {}", e.getMessage())
+                                         );
+    }
+
+    @PreDestroy
+    void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    // 세션의 설정 메시지 스트림. 같은 기사가 다시 접속하면 이전 세션 스트림은 종료됨
+    // 전송하지 못한 메시지는 outbound-queue-size 까지만 쌓음 (넘치면 버리고 failed 로 기록)
+    public Flux<String> register(String driverId) {
+        Sinks.Many<String> sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<String>get(outboundQueueSize).get());
+        Sinks.Many<String> previous = sessions.put(driverId, sink);
+        if (previous != null) {
+            // 라우팅 스레드의 tryEmitNext 와 겹치면 FAIL_NON_SERIALIZED 이므로 잠깐 재시도
+            previous.emitComplete(Sinks.EmitFailureHandler.busyLooping(EMIT_RETRY_DURATION));
+        }
+        return sink.asFlux()
+                   .doFinally(signal -> sessions.remove(driverId, sink));
+    }
+
+    void route(String channel, String message) {
+        String driverId = channel.substring(CONFIG_CHANNEL_PREFIX.length());
+        Sinks.Many<String> sink = sessions.get(driverId);
+        if (sink == null) {
+            notLocalCounter.increment();
+            return;
+        }
+        Sinks.EmitResult result = emitNext(sink, message);
+        // 전달하는 사이 재접속으로 이전 세션이 닫혔으면 새 세션으로 전달
+        while (result == Sinks.EmitResult.FAIL_TERMINATED || result == Sinks.EmitResult.FAIL_CANCELLED) {
+            Sinks.Many<String> current = sessions.get(driverId);
+            if (current == null || current == sink) {
+                break;
+            }
+            sink = current;
+            result = emitNext(sink, message);
+        }
+        if (result.isSuccess()) {
+            deliveredCounter.increment();
+        } else {
+            failedCounter.increment();
+            log.warn("기사 설정 전달 실패 ({}): {}", result, channel);
+        }
+    }
+
+    // 직렬화 충돌(FAIL_NON_SERIALIZED)만 재시도하고, 한도 초과 등 나머지 실패는 그대로 반환 (Sink 를 오류로 끝내지 않음)
+    private static Sinks.EmitResult emitNext(Sinks.Many<String> sink, String message) {
+        Sinks.EmitFailureHandler retry = Sinks.EmitFailureHandler.busyLooping(EMIT_RETRY_DURATION);
+        Sinks.EmitResult result;
+        do {
+            result = sink.tryEmitNext(message);
+        } while (result == Sinks.EmitResult.FAIL_NON_SERIALIZED && retry.onEmitFailure(SignalType.ON_NEXT, result));
+        return result;
+    }
+
+    int sessionCount() {
+        return sessions.size();
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.geospatial_service.handler;
+
+// 웹소켓으로 받은 위치 한 건
+// timestampMs 는 클라이언트 측정 시각 (순서가 뒤바뀐 프레임 판단용), JSON 프레임은 좌표만 담으므로 0 (알 수 없음)
+record LocationFrame(double longitude, double latitude, long timestampMs) {
+
+    static LocationFrame position(double longitude, double latitude) {
+        return new LocationFrame(longitude, latitude, 0L);
+    }
+}
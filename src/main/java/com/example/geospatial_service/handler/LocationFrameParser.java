@@ -0,0 +1,252 @@
+package com.example.geospatial_service.handler;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.charset.StandardCharsets;
+
+// 웹소켓 위치 프레임 전용 파서
+// - DataBuffer 를 String 으로 바꾸지 않고 바이트를 직접 읽어 longitude/latitude 만 primitive 로 꺼냄
+// - 중첩 객체/배열, 이스케이프된 키 등 예외적인 형태는 null 을 반환하여 호출 측의 Jackson 경로로 넘김
+// - 파싱 위치를 필드로 들고 있으므로 세션(단일 구독)마다 하나씩 사용
+final class LocationFrameParser {
+
+    private static final byte[] PONG = "PONG".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LONGITUDE = "longitude".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LATITUDE = "latitude".getBytes(StandardCharsets.US_ASCII);
+
+    // 10^22 까지는 double 로 정확히 표현되므로 (가수 < 2^53) / 10^n 은 올바르게 반올림됨
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_FAST_DIGITS = 18;
+
+    private DataBuffer buffer;
+    private int pos;
+    private int end;
+
+    // PONG 판별 (대소문자 무시, String 생성 없음)
+    static boolean isPong(DataBuffer payload) {
+        if (payload.readableByteCount() != PONG.length) {
+            return false;
+        }
+        int start = payload.readPosition();
+        for (int i = 0; i < PONG.length; i++) {
+            if ((payload.getByte(start + i) | 0x20) != (PONG[i] | 0x20)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // {"longitude": .., "latitude": ..} 를 파싱. 빠른 경로로 처리할 수 없으면 null
+    LocationFrame parse(DataBuffer payload) {
+        this.buffer = payload;
+        this.pos = payload.readPosition();
+        this.end = payload.writePosition();
+        try {
+            return parseObject();
+        } finally {
+            this.buffer = null;
+        }
+    }
+
+    private LocationFrame parseObject() {
+        double longitude = Double.NaN;
+        double latitude = Double.NaN;
+
+        skipWhitespace();
+        if (!consume('{')) {
+            return null;
+        }
+        skipWhitespace();
+        if (consume('}')) {
+            return null;
+        }
+
+        while (true) {
+            skipWhitespace();
+            if (!consume('"')) {
+                return null;
+            }
+            int keyStart = pos;
+            if (!skipString()) {
+                return null;
+            }
+            int keyEnd = pos - 1;
+
+            skipWhitespace();
+            if (!consume(':')) {
+                return null;
+            }
+            skipWhitespace();
+
+            if (keyEquals(keyStart, keyEnd, LONGITUDE)) {
+                longitude = parseNumber();
+                if (Double.isNaN(longitude)) {
+                    return null;
+                }
+            } else if (keyEquals(keyStart, keyEnd, LATITUDE)) {
+                latitude = parseNumber();
+                if (Double.isNaN(latitude)) {
+                    return null;
+                }
+            } else if (!skipScalar()) {
+                return null;
+            }
+
+            skipWhitespace();
+            if (consume(',')) {
+                continue;
+            }
+            if (consume('}')) {
+                break;
+            }
+            return null;
+        }
+
+        skipWhitespace();
+        if (pos != end || Double.isNaN(longitude) || Double.isNaN(latitude)) {
+            return null;
+        }
+        return LocationFrame.position(longitude, latitude);
+    }
+
+    private double parseNumber() {
+        int start = pos;
+        boolean negative = consume('-');
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+
+        int integerStart = pos;
+        while (pos < end && isDigit(at(pos))) {
+            mantissa = mantissa * 10 + (at(pos) - '0');
+            digits++;
+            pos++;
+        }
+        if (pos == integerStart) {
+            return Double.NaN;
+        }
+
+        if (consume('.')) {
+            int fractionStart = pos;
+            while (pos < end && isDigit(at(pos))) {
+                mantissa = mantissa * 10 + (at(pos) - '0');
+                digits++;
+                fractionDigits++;
+                pos++;
+            }
+            if (pos == fractionStart) {
+                return Double.NaN;
+            }
+        }
+
+        boolean exponent = pos < end && (at(pos) == 'e' || at(pos) == 'E');
+        if (exponent) {
+            pos++;
+            if (pos < end && (at(pos) == '+' || at(pos) == '-')) {
+                pos++;
+            }
+            int exponentStart = pos;
+            while (pos < end && isDigit(at(pos))) {
+                pos++;
+            }
+            if (pos == exponentStart) {
+                return Double.NaN;
+            }
+        }
+
+        // 지수 표기나 자릿수가 긴 값은 드물기 때문에 JDK 파서로 처리
+        if (exponent || digits > MAX_FAST_DIGITS || mantissa >= MAX_EXACT_MANTISSA) {
+            return parseSlow(start, pos);
+        }
+
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private double parseSlow(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = at(from + i);
+        }
+        try {
+            return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    // 여는 따옴표 다음 위치에서 시작, 닫는 따옴표 다음으로 이동
+    private boolean skipString() {
+        while (pos < end) {
+            byte b = at(pos++);
+            if (b == '\\') {
+                pos++;
+            } else if (b == '"') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 관심 없는 필드의 값 (문자열/숫자/true/false/null). 객체/배열은 빠른 경로에서 다루지 않음
+    private boolean skipScalar() {
+        if (consume('"')) {
+            return skipString();
+        }
+        int start = pos;
+        while (pos < end) {
+            byte b = at(pos);
+            if (b == ',' || b == '}' || isWhitespace(b)) {
+                break;
+            }
+            if (b == '{' || b == '[') {
+                return false;
+            }
+            pos++;
+        }
+        return pos > start;
+    }
+
+    private boolean keyEquals(int from, int to, byte[] expected) {
+        if (to - from != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (at(from + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void skipWhitespace() {
+        while (pos < end && isWhitespace(at(pos))) {
+            pos++;
+        }
+    }
+
+    private boolean consume(char expected) {
+        if (pos < end && at(pos) == expected) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private byte at(int index) {
+        return buffer.getByte(index);
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.geospatial_service.handler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// 웹소켓 위치 수신 정책 (세션별 적응형 샘플링)
+// - 운행 중 기사만 높은 주기로 저장, 대기 기사는 낮은 주기
+// - 클라이언트 측정 시각이 직전 프레임보다 이르면 (늦게 도착한 프레임) 버림
+// - 직전 저장 위치에서 deadband 미만으로 움직였으면 버림 (단, max-silence 마다 생존 신고 겸 한 번은 저장)
+// - 노드 전체의 처리 중 업데이트가 한도를 넘으면 대기 기사는 생존 신고용 업데이트만 저장
+@Component
+public class LocationIngestPolicy {
+
+    // 클라이언트 전송 간격의 흔들림 허용 (1초 주기 기사가 0.9초 만에 보내도 저장)
+    private static final double INTERVAL_TOLERANCE = 0.8;
+
+    private static final double METERS_PER_DEGREE_LAT = 110_540.0;
+    private static final double METERS_PER_DEGREE_LON = 111_320.0;
+
+    private final double deadbandMeters;
+
+    private final long onTripIntervalMs;
+
+    private final long idleIntervalMs;
+
+    private final long maxSilenceMs;
+
+    private final int pressureThreshold;
+
+    private final LongSupplier clock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Counter storedCounter;
+
+    private final Counter deadbandCounter;
+
+    private final Counter rateLimitedCounter;
+
+    private final Counter shedCounter;
+
+    private final Counter outOfOrderCounter;
+
+    @Autowired
+    public LocationIngestPolicy(
+            MeterRegistry meterRegistry,
+            @Value("${geospatial.ingest.deadband-meters:15}") double deadbandMeters,
+            @Value("${geospatial.ingest.on-trip-interval-ms:1000}") long onTripIntervalMs,
+            @Value("${geospatial.ingest.idle-interval-ms:5000}") long idleIntervalMs,
+            @Value("${geospatial.ingest.max-silence-ms:10000}") long maxSilenceMs,
+            @Value("${geospatial.ingest.pressure-threshold:5000}") int pressureThreshold) {
+        this(meterRegistry, deadbandMeters, onTripIntervalMs, idleIntervalMs, maxSilenceMs, pressureThreshold, System::currentTimeMillis);
+    }
+
+    LocationIngestPolicy(MeterRegistry meterRegistry, double deadbandMeters, long onTripIntervalMs, long idleIntervalMs,
+                         long maxSilenceMs, int pressureThreshold, LongSupplier clock) {
+        this.deadbandMeters = deadbandMeters;
+        this.onTripIntervalMs = onTripIntervalMs;
+        this.idleIntervalMs = idleIntervalMs;
+        this.maxSilenceMs = maxSilenceMs;
+        this.pressureThreshold = pressureThreshold;
+        this.clock = clock;
+
+        this.storedCounter = frameCounter(meterRegistry, "stored");
+        this.deadbandCounter = frameCounter(meterRegistry, "deadband");
+        this.rateLimitedCounter = frameCounter(meterRegistry, "rate_limited");
+        this.shedCounter = frameCounter(meterRegistry, "shed");
+        this.outOfOrderCounter = frameCounter(meterRegistry, "out_of_order");
+        Gauge.builder("geospatial.ingest.in.flight", inFlight, AtomicInteger::get)
+             .description("저장 중인 위치 업데이트 수 (노드 전체)")
+             .register(meterRegistry);
+    }
+
+    private static Counter frameCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("geospatial.ingest.frames")
+                      .description("수신한 위치 프레임 처리 결과")
+                      .tag("result", result)
+                      .register(meterRegistry);
+    }
+
+    public Session newSession() {
+        return new Session();
+    }
+
+    // 저장 작업의 처리 중 개수를 추적 (부하 판단용)
+    public Mono<Void> track(Mono<Void> update) {
+        return Mono.defer(() -> {
+            inFlight.incrementAndGet();
+            return update.doFinally(signal -> inFlight.decrementAndGet());
+        });
+    }
+
+    boolean underPressure() {
+        return inFlight.get() >= pressureThreshold;
+    }
+
+    // 세션 하나의 수신 상태. shouldStore 는 수신 스트림(단일 스레드)에서만 호출
+    public final class Session {
+
+        private volatile boolean onTrip;
+
+        // 설정 메시지를 한 번이라도 받았는지 (받았다면 세션 시작 시 조회한 운행 여부보다 우선)
+        private volatile boolean configured;
+
+        private boolean stored;
+        private long lastTimestampMs;
+        private long lastStoredAt;
+        private double lastLongitude;
+        private double lastLatitude;
+
+        private Session() {
+        }
+
+        // 설정 메시지(운행 이벤트)로 받은 전송 주기로 운행 여부 판단
+        public void applyLocationInterval(long locationIntervalMs) {
+            this.onTrip = locationIntervalMs <= onTripIntervalMs;
+            this.configured = true;
+        }
+
+        // 세션 시작 시 drivers_on_trip 으로 조회한 운행 여부 (운행 중 재접속한 기사는 설정 메시지가 다시 오지 않음)
+        // 조회 중에 설정 메시지가 먼저 왔다면 무시
+        public void seedOnTrip(boolean onTrip) {
+            if (!configured) {
+                this.onTrip = onTrip;
+            }
+        }
+
+        public boolean isOnTrip() {
+            return onTrip;
+        }
+
+        boolean shouldStore(double longitude, double latitude) {
+            return shouldStore(longitude, latitude, 0L);
+        }
+
+        // timestampMs 는 클라이언트 측정 시각 (0 = 알 수 없음, 순서 판단 안 함)
+        boolean shouldStore(double longitude, double latitude, long timestampMs) {
+            if (timestampMs > 0) {
+                if (timestampMs < lastTimestampMs) {
+                    outOfOrderCounter.increment();
+                    return false;
+                }
+                lastTimestampMs = timestampMs;
+            }
+
+            long now = clock.getAsLong();
+            if (!stored) {
+                return accept(longitude, latitude, now);
+            }
+
+            long elapsed = now - lastStoredAt;
+            // 생존 TTL 이 끝나기 전에 한 번은 반드시 저장
+            if (elapsed >= maxSilenceMs) {
+                return accept(longitude, latitude, now);
+            }
+
+            boolean onTrip = this.onTrip;
+            if (!onTrip && underPressure()) {
+                shedCounter.increment();
+                return false;
+            }
+            if (elapsed < (onTrip ? onTripIntervalMs : idleIntervalMs) * INTERVAL_TOLERANCE) {
+                rateLimitedCounter.increment();
+                return false;
+            }
+            if (distanceMeters(longitude, latitude) < deadbandMeters) {
+                deadbandCounter.increment();
+                return false;
+            }
+            return accept(longitude, latitude, now);
+        }
+
+        private boolean accept(double longitude, double latitude, long now) {
+            stored = true;
+            lastStoredAt = now;
+            lastLongitude = longitude;
+            lastLatitude = latitude;
+            storedCounter.increment();
+            return true;
+        }
+
+        // 수십 m 범위에서는 등장방형 근사로 충분
+        private double distanceMeters(double longitude, double latitude) {
+            double dx = (longitude - lastLongitude) * METERS_PER_DEGREE_LON * Math.cos(Math.toRadians(latitude));
+            double dy = (latitude - lastLatitude) * METERS_PER_DEGREE_LAT;
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+}
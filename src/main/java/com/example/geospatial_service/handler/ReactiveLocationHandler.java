@@ -1,117 +1,252 @@
 package com.example.geospatial_service.handler;
 
 import com.example.geospatial_service.dto.UpdateLocationRequest;
+import com.example.geospatial_service.kafka.dto.socket.DriverConfigMessage;
+import com.example.geospatial_service.service.DriverAvailability;
+import com.example.geospatial_service.service.DriverKeys;
 import com.example.geospatial_service.service.LocationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
-import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
 import org.springframework.web.reactive.socket.WebSocketHandler;
 import org.springframework.web.reactive.socket.WebSocketMessage;
 import org.springframework.web.reactive.socket.WebSocketSession;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
+import reactor.core.publisher.Sinks;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class ReactiveLocationHandler implements WebSocketHandler {
 
+    private static final Duration SET_OFFLINE_TIMEOUT = Duration.ofSeconds(2);
+
     private final LocationService locationService;
     private final ObjectMapper objectMapper;
 
-    @Qualifier("cacheRedisTemplate")
-    private final ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+    private final DriverConfigRouter configRouter;
+
+    private final LocationIngestPolicy ingestPolicy;
+
+    private final DriverAvailability availability;
 
-    @Qualifier("storageRedisTemplate")
     private final ReactiveRedisTemplate<String, String> storageRedisTemplate;
 
+    private final SessionHeartbeat heartbeat;
+
+    private final AtomicInteger activeSessions = new AtomicInteger();
+
+    private final Counter invalidFrameCounter;
+
+    private final Counter updateFailureCounter;
+
+    // Lombok 생성자는 필드의 @Qualifier 를 옮기지 않으므로 직접 선언
+    public ReactiveLocationHandler(
+            LocationService locationService,
+            ObjectMapper objectMapper,
+            DriverConfigRouter configRouter,
+            LocationIngestPolicy ingestPolicy,
+            DriverAvailability availability,
+            @Qualifier("storageRedisTemplate") ReactiveRedisTemplate<String, String> storageRedisTemplate,
+            SessionHeartbeat heartbeat,
+            MeterRegistry meterRegistry) {
+        this.locationService = locationService;
+        this.objectMapper = objectMapper;
+        this.configRouter = configRouter;
+        this.ingestPolicy = ingestPolicy;
+        this.availability = availability;
+        this.storageRedisTemplate = storageRedisTemplate;
+        this.heartbeat = heartbeat;
+
+        Gauge.builder("geospatial.websocket.sessions", activeSessions, AtomicInteger::get)
+             .description("이 노드에 연결된 기사 웹소켓 세션 수")
+             .register(meterRegistry);
+        // 저장/샘플링 결과(stored, deadband ...)와 같은 지표에 해석 실패를 함께 기록
+        this.invalidFrameCounter = Counter.builder("geospatial.ingest.frames")
+                                          .description("수신한 위치 프레임 처리 결과")
+                                          .tag("result", "invalid")
+                                          .register(meterRegistry);
+        this.updateFailureCounter = Counter.builder("geospatial.ingest.update.failures")
+                                           .description("위치 업데이트 실패 수 (저장 또는 location_events 발행)")
+                                           .register(meterRegistry);
+    }
+
     @Override
     public Mono<Void> handle(WebSocketSession session) {
         String driverId = extractDriverId(session);
-        String configTopic = "driver:config:" + driverId;
+        // 세션 동안 재사용 (프레임마다 키 문자열/파서를 만들지 않음)
+        DriverKeys driverKeys = DriverKeys.of(driverId);
+        LocationFrameParser parser = new LocationFrameParser();
+        LocationIngestPolicy.Session ingest = ingestPolicy.newSession();
         String statusKey = "driver_status:" + driverId;
 
+        // PING / 유휴 타임아웃은 노드 공용 타이머 휠에서 처리 (세션별 타이머 없음)
+        // PING 신호는 버퍼 없이 전달하고, 이전 PING 이 아직 나가지 못했으면 버림
+        Sinks.Many<Boolean> pings = Sinks.many().multicast().directBestEffort();
+        // 유휴 타임아웃은 신호만 보내고, 닫기는 세션 파이프라인 안에서 구독 (실패도 usingWhen 정리 경로로)
+        Sinks.Empty<Void> idleTimeout = Sinks.empty();
+        SessionHeartbeat.Registration heartbeatRegistration = heartbeat.register(
+                () -> pings.tryEmitNext(Boolean.TRUE),
+                () -> {
+                    log.warn("기사 연결 타임아웃 종료: {}", driverId);
+                    idleTimeout.tryEmitEmpty();
+                });
+
+        // 타임아웃 신호가 오면 세션을 닫고 입출력 스트림보다 먼저 끝남
+        Mono<Void> closeOnIdle = idleTimeout.asMono()
+                                            .then(Mono.defer(() -> session.close(CloseStatus.GOING_AWAY)))
+                                            .doOnError(e -> log.warn("타임아웃 세션 닫기 실패: {} ({})", driverId, e.toString()));
+
         // 연결 시작 시: Storage Redis에 'isAvailable = 1' 설정
         Mono<Void> setOnline = storageRedisTemplate.opsForHash()
                                                    .put(statusKey, "isAvailable", "1")
                                                    .doOnSuccess(v -> log.info("기사({}) 상태 변경: ONLINE (1)", driverId))
                                                    .then();
 
+        // 운행 중에 재접속한 기사는 운행 이벤트(설정 메시지)가 다시 오지 않으므로 drivers_on_trip 으로 저장 주기를 맞춤
+        Mono<Void> seedOnTrip = availability.isOnTrip(driverId)
+                                            .doOnNext(ingest::seedOnTrip)
+                                            .then();
+
         // Input: 기사가 보내는 위치 정보 처리
         Mono<Void> input = session.receive()
-                                  // 타임아웃을 맨 위로 (메시지가 들어오면 무조건 타이머 리셋)
-                                  .timeout(Duration.ofSeconds(30))
-                                  // [Filter] PONG은 타임아웃 리셋용이므로, 비즈니스 로직으로 넘기지 않고 여기서 소멸시킴
-                                  .filter(msg -> {
-                                      String payload = msg.getPayloadAsText();
-                                      // PONG이면 로그만 찍고 버림 (false 반환)
-                                      if ("PONG".equalsIgnoreCase(payload)) {
-                                          log.trace("기사({}) 생존 확인 (PONG)", driverId);
-                                          return false;
-                                      }
-                                      return true; // 위치 정보면 통과
-                                  })
-                                  .sample(Duration.ofMillis(1000))
-                                  .flatMap(msg -> {
-                                      String payload = msg.getPayloadAsText();
-
-                                      // 실제 위치 정보 처리
-                                      return Mono.fromCallable(() -> objectMapper.readValue(payload, UpdateLocationRequest.class))
-                                                 .flatMap(req -> locationService.updateDriverLocation(driverId, req.longitude(), req.latitude()))
-                                                 .doOnError(e -> log.error("위치 업데이트 실패: {}", driverId, e))
-                                                 .onErrorResume(e -> Mono.empty());
-                                  })
-                                  .onErrorResume(e -> {
-                                      // Timeout 발생 시 로그 찍고 종료
-                                      if (e instanceof java.util.concurrent.TimeoutException) {
-                                          log.warn("기사 연결 타임아웃 종료: {}", driverId);
+                                  // 메시지가 들어오면 마지막 수신 시각만 갱신 (유휴 판단은 하트비트 휠)
+                                  .doOnNext(msg -> heartbeatRegistration.touch())
+                                  // [Parse] 프레임 바이트를 직접 읽어 PONG 은 버리고 위치만 통과 (String 변환 없음)
+                                  .<LocationFrame>handle((msg, sink) -> {
+                                      LocationFrame frame = readFrame(driverId, parser, msg);
+                                      if (frame != null) {
+                                          sink.next(frame);
                                       }
-                                      return Mono.empty();
                                   })
+                                  // [Sampling] 순서/운행 여부/이동 거리/노드 부하에 따라 저장할 프레임만 통과
+                                  .filter(frame -> ingest.shouldStore(frame.longitude(), frame.latitude(), frame.timestampMs()))
+                                  // [Store] 부하 판단(track)은 Redis 저장 구간만, 업데이트는 location_events ack 까지
+                                  .flatMap(frame -> locationService.updateDriverLocation(driverKeys, frame.longitude(), frame.latitude(), ingestPolicy::track)
+                                                                   .doOnError(e -> {
+                                                                       updateFailureCounter.increment();
+                                                                       log.error("위치 업데이트 실패: {}", driverId, e);
+                                                                   })
+                                                                   .onErrorResume(e -> Mono.empty()))
+                                  .onErrorResume(e -> Mono.empty())
                                   .then();
 
-        Flux<WebSocketMessage> configFlux = reactiveRedisTemplate.listenTo(ChannelTopic.of(configTopic))
-                                                                .map(message -> session.textMessage(message.getMessage()))
-                                                                .retryWhen(Retry.backoff(3, Duration.ofSeconds(2)) // 최대 3번 재시도, 시작은 2초부터 지수적으로 증가
-                                                                                .doBeforeRetry(retrySignal ->
-                                                                                        log.warn("Redis 구독 재시도 중... (시도 횟수: {})", retrySignal.totalRetries() + 1)
-                                                                                )
-                                                                                .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> {
-                                                                                    log.error("Redis 구독 최종 실패: 재시도 횟수 초과");
-                                                                                    return retrySignal.failure();
-                                                                                })
-                                                                )
-                                                                .doOnError(e -> log.error("Redis Pub/Sub Fatal Error: {}", e.getMessage()));
-
-        // 10초마다 PING 전송
-        Flux<WebSocketMessage> pingFlux = Flux.interval(Duration.ofSeconds(10))
-                                              .map(i -> session.textMessage("PING"));
+        // 설정 메시지는 노드 공용 패턴 구독에서 이 세션으로 라우팅됨
+        // 운행 상태가 바뀌면 이 세션의 저장 주기도 함께 바꿈
+        Flux<WebSocketMessage> configFlux = configRouter.register(driverId)
+                                                        .doOnNext(json -> applyConfig(driverId, ingest, json))
+                                                        .map(session::textMessage);
+
+        // 하트비트 휠이 PING 주기마다 신호 (바이너리 프로토콜이면 1바이트 PING 프레임)
+        boolean binary = BinaryLocationFrames.SUB_PROTOCOL.equals(session.getHandshakeInfo().getSubProtocol());
+        Flux<WebSocketMessage> pingFlux = pings.asFlux()
+                                              .map(signal -> binary
+                                                      ? session.binaryMessage(factory -> factory.wrap(BinaryLocationFrames.pingFrame()))
+                                                      : session.textMessage("PING"));
 
         // Output: Config + Ping 병합 전송
         Mono<Void> output = session.send(Flux.merge(configFlux, pingFlux));
 
-        // setOnline 실행 후 -> 입출력 스트림 실행 -> 종료 시 setOffline
-        return setOnline
-                .then(Mono.zip(input, output))
-                .then()
-                .doFinally(signal -> {
-                    log.info("기사 연결 종료 (Signal: {}): {}", signal, driverId);
-
-                    // 연결 종료 시: 키 삭제 (메모리 확보 및 배차 대상 제외)
-                    storageRedisTemplate.delete(statusKey)
-                                        .subscribe(
-                                                null,
-                                                e -> log.error("상태 키 삭제 실패: {}", driverId, e)
-                                        );
-                });
+        // 연결 종료 시: 키 삭제 (메모리 확보 및 배차 대상 제외)
+        Mono<Void> setOffline = storageRedisTemplate.delete(statusKey)
+                                                    .timeout(SET_OFFLINE_TIMEOUT)
+                                                    .doOnError(e -> log.error("상태 키 삭제 실패: {}", driverId, e))
+                                                    .onErrorResume(e -> Mono.empty())
+                                                    .then();
+
+        // setOnline/운행 여부 조회 후 -> 입출력 스트림 실행 (유휴 타임아웃이면 닫기가 먼저 끝남) -> 종료 시 setOffline
+        // 정리는 usingWhen 이 완료/오류/취소 모두에서 구독 (doFinally 안에서 따로 subscribe 하지 않음)
+        return Mono.usingWhen(Mono.when(setOnline, seedOnTrip).thenReturn(statusKey),
+                              key -> Mono.firstWithSignal(Mono.zip(input, output).then(), closeOnIdle),
+                              key -> setOffline,
+                              (key, e) -> setOffline,
+                              key -> setOffline)
+                   .doOnSubscribe(s -> activeSessions.incrementAndGet())
+                   .doFinally(signal -> {
+                       heartbeatRegistration.cancel();
+                       locationService.driverDisconnected(driverId);
+                       activeSessions.decrementAndGet();
+                       log.info("기사 연결 종료 (Signal: {}): {}", signal, driverId);
+                   });
+    }
+
+    private void applyConfig(String driverId, LocationIngestPolicy.Session ingest, String json) {
+        try {
+            DriverConfigMessage config = objectMapper.readValue(json, DriverConfigMessage.class);
+            if (config.payload() == null) {
+                return;
+            }
+            ingest.applyLocationInterval(config.payload().locationIntervalMs());
+            log.debug("기사({}) 수신 주기 변경: {}ms (운행 중: {})", driverId, config.payload().locationIntervalMs(), ingest.isOnTrip());
+        } catch (JsonProcessingException e) {
+            log.warn("설정 메시지 해석 실패: {}", driverId);
+        }
+    }
+
+    // 바이너리 서브 프로토콜을 지원 (협상하지 않은 클라이언트는 JSON 텍스트 그대로)
+    @Override
+    public List<String> getSubProtocols() {
+        return List.of(BinaryLocationFrames.SUB_PROTOCOL);
+    }
+
+    // PONG 이거나 해석할 수 없는 프레임이면 null
+    private LocationFrame readFrame(String driverId, LocationFrameParser parser, WebSocketMessage msg) {
+        DataBuffer payload = msg.getPayload();
+
+        if (msg.getType() == WebSocketMessage.Type.BINARY) {
+            if (BinaryLocationFrames.isPong(payload)) {
+                log.trace("기사({}) 생존 확인 (PONG)", driverId);
+                return null;
+            }
+            LocationFrame frame = BinaryLocationFrames.decode(payload);
+            if (frame == null) {
+                invalidFrameCounter.increment();
+                log.warn("잘못된 바이너리 위치 프레임 ({} bytes): {}", payload.readableByteCount(), driverId);
+            }
+            return frame;
+        }
+
+        if (LocationFrameParser.isPong(payload)) {
+            log.trace("기사({}) 생존 확인 (PONG)", driverId);
+            return null;
+        }
+        LocationFrame frame = parser.parse(payload);
+        return frame != null ? frame : parseFallback(driverId, payload);
+    }
+
+    // 빠른 파서가 처리하지 못한 형태(이스케이프, 중첩 필드 등)는 Jackson 으로 파싱
+    private LocationFrame parseFallback(String driverId, DataBuffer payload) {
+        try {
+            UpdateLocationRequest req = parseLocation(payload.toString(StandardCharsets.UTF_8));
+            if (req.longitude() == null || req.latitude() == null) {
+                invalidFrameCounter.increment();
+                log.warn("위치 정보 누락: {}", driverId);
+                return null;
+            }
+            return LocationFrame.position(req.longitude(), req.latitude());
+        } catch (JsonProcessingException e) {
+            invalidFrameCounter.increment();
+            log.error("위치 메시지 파싱 실패: {}", driverId, e);
+            return null;
+        }
+    }
+
+    UpdateLocationRequest parseLocation(String payload) throws JsonProcessingException {
+        return objectMapper.readValue(payload, UpdateLocationRequest.class);
     }
 
     private String extractDriverId(WebSocketSession session) {
@@ -0,0 +1,190 @@
+package com.example.geospatial_service.handler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// 노드 공용 웹소켓 하트비트 / 유휴 타임아웃 (세션마다 Flux.interval, timeout 연산자를 두지 않음)
+// - tick 단위 타이머 휠: 세션은 다음 할 일(PING 또는 만료 확인) 시각의 칸에 한 번만 들어감
+// - 메시지 수신은 마지막 수신 시각만 갱신 (타이머 재등록 없음), 칸을 방문했을 때 다시 계산해 다음 칸으로 옮김
+// - 세션 하나당 tick 스레드 방문은 PING 주기에 한 번
+@Component
+@Slf4j
+public class SessionHeartbeat {
+
+    private final long tickMillis;
+
+    private final long pingIntervalMillis;
+
+    private final long idleTimeoutMillis;
+
+    private final LongSupplier clock;
+
+    private final Queue<Registration>[] wheel;
+
+    // tick 스레드에서만 증가
+    private volatile long currentTick;
+
+    private final AtomicInteger registered = new AtomicInteger();
+
+    private final Counter expiredCounter;
+
+    private Scheduler scheduler;
+
+    private Disposable ticking;
+
+    @Autowired
+    public SessionHeartbeat(
+            MeterRegistry meterRegistry,
+            @Value("${geospatial.websocket.heartbeat-tick-ms:1000}") long tickMillis,
+            @Value("${geospatial.websocket.ping-interval-ms:10000}") long pingIntervalMillis,
+            @Value("${geospatial.websocket.idle-timeout-ms:30000}") long idleTimeoutMillis) {
+        this(meterRegistry, tickMillis, pingIntervalMillis, idleTimeoutMillis, System::currentTimeMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    SessionHeartbeat(MeterRegistry meterRegistry, long tickMillis, long pingIntervalMillis, long idleTimeoutMillis,
+                     LongSupplier clock) {
+        this.tickMillis = tickMillis;
+        this.pingIntervalMillis = pingIntervalMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.clock = clock;
+
+        // 가장 먼 예약(PING 주기 / 유휴 타임아웃 중 짧은 쪽)까지 한 바퀴 안에 들어가도록
+        int slots = (int) (Math.min(pingIntervalMillis, idleTimeoutMillis) / tickMillis) + 2;
+        this.wheel = new Queue[slots];
+        for (int i = 0; i < slots; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+
+        Gauge.builder("geospatial.websocket.heartbeat.registered", registered, AtomicInteger::get)
+             .description("하트비트 휠에 등록된 세션 수")
+             .register(meterRegistry);
+        this.expiredCounter = Counter.builder("geospatial.websocket.timeouts")
+                                     .description("수신 타임아웃으로 종료된 세션 수")
+                                     .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Schedulers.newSingle("session-heartbeat", true);
+        ticking = scheduler.schedulePeriodically(this::safeTick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticking != null) {
+            ticking.dispose();
+        }
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+
+    // ping: PING 프레임 전송, expire: 유휴 타임아웃 시 세션 종료
+    public Registration register(Runnable ping, Runnable expire) {
+        long now = clock.getAsLong();
+        Registration registration = new Registration(ping, expire, now);
+        registered.incrementAndGet();
+        schedule(registration, now);
+        return registration;
+    }
+
+    private void safeTick() {
+        try {
+            tick();
+        } catch (Exception e) {
+            log.error("하트비트 처리 중 오류", e);
+        }
+    }
+
+    void tick() {
+        long now = clock.getAsLong();
+        long tick = currentTick + 1;
+        currentTick = tick;
+
+        Queue<Registration> slot = wheel[(int) (tick % wheel.length)];
+        // 이번 칸에서 다시 예약되는 세션이 같은 칸에 들어와도 이번 tick 에 다시 처리하지 않도록 먼저 비움
+        List<Registration> due = new ArrayList<>();
+        Registration registration;
+        while ((registration = slot.poll()) != null) {
+            due.add(registration);
+        }
+
+        for (Registration target : due) {
+            if (target.cancelled) {
+                continue;
+            }
+            if (now - target.lastActivity >= idleTimeoutMillis) {
+                target.cancel();
+                expiredCounter.increment();
+                target.expire.run();
+                continue;
+            }
+            if (now >= target.nextPingAt) {
+                target.nextPingAt = now + pingIntervalMillis;
+                target.ping.run();
+            }
+            schedule(target, now);
+        }
+    }
+
+    // 다음 PING 과 유휴 만료 중 빠른 시각의 칸에 넣음
+    private void schedule(Registration registration, long now) {
+        long dueAt = Math.min(registration.nextPingAt, registration.lastActivity + idleTimeoutMillis);
+        long ticksAhead = Math.max(1, (dueAt - now + tickMillis - 1) / tickMillis);
+        ticksAhead = Math.min(ticksAhead, wheel.length - 1);
+        wheel[(int) ((currentTick + ticksAhead) % wheel.length)].add(registration);
+    }
+
+    int registeredCount() {
+        return registered.get();
+    }
+
+    public final class Registration {
+
+        private final Runnable ping;
+        private final Runnable expire;
+
+        private volatile long lastActivity;
+        private long nextPingAt;
+        private volatile boolean cancelled;
+
+        private Registration(Runnable ping, Runnable expire, long now) {
+            this.ping = ping;
+            this.expire = expire;
+            this.lastActivity = now;
+            this.nextPingAt = now + pingIntervalMillis;
+        }
+
+        // 메시지 수신 시 호출 (시각만 기록)
+        public void touch() {
+            lastActivity = clock.getAsLong();
+        }
+
+        // 세션 종료 시 호출. 휠에서는 다음 방문 때 빠짐
+        public synchronized void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                registered.decrementAndGet();
+            }
+        }
+    }
+}
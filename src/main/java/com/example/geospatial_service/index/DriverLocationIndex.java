@@ -0,0 +1,27 @@
+package com.example.geospatial_service.index;
+
+import com.example.geospatial_service.dto.NearbyDriverResponse;
+
+import java.util.List;
+
+// JVM 내부 기사 위치 인덱스 (Redis GEO 는 원본/Fallback 으로 유지)
+public interface DriverLocationIndex {
+
+    void upsert(String driverId, double longitude, double latitude);
+
+    void remove(String driverId);
+
+    // 반경 내 기사를 거리 오름차순으로 최대 limit 명 반환
+    List<NearbyDriverResponse> findWithinRadius(double longitude, double latitude, double radiusKm, int limit);
+
+    // 가까운 순서로 최대 k 명 반환 (maxRadiusKm 밖은 제외)
+    List<NearbyDriverResponse> findNearest(double longitude, double latitude, int k, double maxRadiusKm);
+
+    // 생존 TTL 한 주기 이상 위치를 받아, 살아있는 기사가 모두 인덱스에 올라온 상태인지
+    boolean isWarm();
+
+    // 스냅샷 + location_events 재생으로 전체 기사를 채운 경우 TTL 대기 없이 바로 사용
+    void markWarm();
+
+    int size();
+}
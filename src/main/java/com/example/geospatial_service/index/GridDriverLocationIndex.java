@@ -0,0 +1,461 @@
+package com.example.geospatial_service.index;
+
+import com.example.geospatial_service.dto.NearbyDriverResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+// 위경도 격자(cell) 기반 인덱스
+// - 셀은 lock stripe 단위로 나뉘어 검색(read)과 업데이트(write)가 서로 다른 stripe 에서는 경합하지 않음
+// - 셀 내부 좌표는 primitive 배열로 보관하여 검색 시 객체 할당/포인터 추적을 최소화
+@Component
+@Slf4j
+public class GridDriverLocationIndex implements DriverLocationIndex {
+
+    // Redis GEO 와 동일한 지구 반경 (거리 값이 Redis 결과와 일치하도록)
+    static final double EARTH_RADIUS_KM = 6372.797560856;
+    private static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180.0;
+    // 고위도에서 경도 1도 길이가 0에 수렴하여 셀 범위가 폭주하는 것을 방지
+    private static final double MIN_COS_LATITUDE = 0.01;
+
+    private final double cellSizeDeg;
+    private final int lonCells;
+    private final int latCells;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    // driverId -> 현재 속한 셀 키 (기사별 업데이트 직렬화 용도로 compute 사용)
+    private final ConcurrentHashMap<String, Long> driverCells = new ConcurrentHashMap<>();
+
+    private volatile long feedingSince;
+
+    @Autowired
+    public GridDriverLocationIndex(
+            @Value("${geospatial.index.cell-size-deg:0.01}") double cellSizeDeg,
+            @Value("${geospatial.index.stripes:64}") int stripeCount,
+            @Value("${geospatial.liveness.ttl-seconds:30}") long ttlSeconds) {
+        this(cellSizeDeg, stripeCount, ttlSeconds * 1000, System::currentTimeMillis);
+    }
+
+    GridDriverLocationIndex(double cellSizeDeg, int stripeCount, long ttlMillis, LongSupplier clock) {
+        if (cellSizeDeg <= 0 || cellSizeDeg > 10) {
+            throw new IllegalArgumentException("cell-size-deg 는 (0, 10] 범위여야 합니다: " + cellSizeDeg);
+        }
+        this.cellSizeDeg = cellSizeDeg;
+        this.lonCells = (int) Math.ceil(360.0 / cellSizeDeg);
+        this.latCells = (int) Math.ceil(180.0 / cellSizeDeg);
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+
+        // stripe 수는 2의 거듭제곱으로 올림 (mask 연산)
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = size - 1;
+    }
+
+    @Override
+    public void upsert(String driverId, double longitude, double latitude) {
+        long now = clock.getAsLong();
+        if (feedingSince == 0) {
+            feedingSince = now;
+        }
+        long cellKey = cellKey(lonIndex(longitude), latIndex(latitude));
+
+        driverCells.compute(driverId, (id, previousCell) -> {
+            if (previousCell != null && previousCell != cellKey) {
+                removeFromCell(previousCell, id);
+            }
+            Stripe stripe = stripe(cellKey);
+            stripe.lock.writeLock().lock();
+            try {
+                stripe.cells.computeIfAbsent(cellKey, k -> new Cell()).put(id, longitude, latitude, now);
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+            return cellKey;
+        });
+    }
+
+    @Override
+    public void remove(String driverId) {
+        driverCells.computeIfPresent(driverId, (id, cellKey) -> {
+            removeFromCell(cellKey, id);
+            return null;
+        });
+    }
+
+    @Override
+    public List<NearbyDriverResponse> findWithinRadius(double longitude, double latitude, double radiusKm, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        long cutoff = clock.getAsLong() - ttlMillis;
+        TopK top = new TopK(limit);
+
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        double lonDelta = radiusKm / (KM_PER_DEGREE * cosLatitude(latitude));
+
+        int minLat = latIndex(latitude - latDelta);
+        int maxLat = latIndex(latitude + latDelta);
+        int minLon = lonIndex(longitude - lonDelta);
+        int maxLon = lonIndex(longitude + lonDelta);
+
+        for (int la = minLat; la <= maxLat; la++) {
+            for (int lo = minLon; lo <= maxLon; lo++) {
+                scanCell(cellKey(lo, la), longitude, latitude, radiusKm, cutoff, top);
+            }
+        }
+        return top.toSortedResponses();
+    }
+
+    @Override
+    public List<NearbyDriverResponse> findNearest(double longitude, double latitude, int k, double maxRadiusKm) {
+        if (k <= 0) {
+            return List.of();
+        }
+        long cutoff = clock.getAsLong() - ttlMillis;
+        TopK top = new TopK(k);
+
+        int centerLat = latIndex(latitude);
+        int centerLon = lonIndex(longitude);
+        // 링 r 까지 훑었다면, 아직 보지 않은 셀의 점은 최소 r * ringKm 이상 떨어져 있음
+        double ringKm = cellSizeDeg * KM_PER_DEGREE * cosLatitude(latitude);
+        int maxRing = (int) Math.ceil(maxRadiusKm / ringKm) + 1;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            scanRing(centerLon, centerLat, ring, longitude, latitude, maxRadiusKm, cutoff, top);
+            if (top.isFull() && top.worstDistance() <= ring * ringKm) {
+                break;
+            }
+        }
+        return top.toSortedResponses();
+    }
+
+    @Override
+    public boolean isWarm() {
+        long since = feedingSince;
+        return since != 0 && clock.getAsLong() - since >= ttlMillis;
+    }
+
+    @Override
+    public void markWarm() {
+        feedingSince = clock.getAsLong() - ttlMillis;
+    }
+
+    @Override
+    public int size() {
+        return driverCells.size();
+    }
+
+    // 생존 TTL 이 지난 기사를 인덱스에서 제거 (Storage Redis 의 30초 Active Key 와 동일한 기준)
+    @Scheduled(fixedDelayString = "${geospatial.index.sweep-interval-ms:5000}")
+    public void evictExpired() {
+        long cutoff = clock.getAsLong() - ttlMillis;
+
+        List<String> expired = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                for (Cell cell : stripe.cells.values()) {
+                    for (int i = 0; i < cell.size; i++) {
+                        if (cell.seenAt[i] < cutoff) {
+                            expired.add(cell.ids[i]);
+                        }
+                    }
+                }
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+
+        int evicted = 0;
+        for (String driverId : expired) {
+            // 수집 이후 갱신된 기사는 남겨둠 (compute 안에서 재확인)
+            boolean[] removed = new boolean[1];
+            driverCells.computeIfPresent(driverId, (id, cellKey) -> {
+                Stripe stripe = stripe(cellKey);
+                stripe.lock.writeLock().lock();
+                try {
+                    Cell cell = stripe.cells.get(cellKey);
+                    int slot = cell == null ? -1 : cell.indexOf(id);
+                    if (slot >= 0 && cell.seenAt[slot] >= cutoff) {
+                        return cellKey;
+                    }
+                    if (slot >= 0) {
+                        cell.removeAt(slot);
+                        if (cell.size == 0) {
+                            stripe.cells.remove(cellKey);
+                        }
+                    }
+                } finally {
+                    stripe.lock.writeLock().unlock();
+                }
+                removed[0] = true;
+                return null;
+            });
+            if (removed[0]) {
+                evicted++;
+            }
+        }
+
+        if (evicted > 0) {
+            log.debug("위치 인덱스 만료 기사 정리: {}명 (남은 기사: {}명)", evicted, driverCells.size());
+        }
+    }
+
+    private void scanRing(int centerLon, int centerLat, int ring,
+                          double longitude, double latitude, double radiusKm, long cutoff, TopK top) {
+        int minLat = Math.max(0, centerLat - ring);
+        int maxLat = Math.min(latCells - 1, centerLat + ring);
+        for (int la = minLat; la <= maxLat; la++) {
+            boolean edgeRow = la == centerLat - ring || la == centerLat + ring;
+            if (edgeRow) {
+                int minLon = Math.max(0, centerLon - ring);
+                int maxLon = Math.min(lonCells - 1, centerLon + ring);
+                for (int lo = minLon; lo <= maxLon; lo++) {
+                    scanCell(cellKey(lo, la), longitude, latitude, radiusKm, cutoff, top);
+                }
+            } else {
+                if (centerLon - ring >= 0) {
+                    scanCell(cellKey(centerLon - ring, la), longitude, latitude, radiusKm, cutoff, top);
+                }
+                if (ring > 0 && centerLon + ring < lonCells) {
+                    scanCell(cellKey(centerLon + ring, la), longitude, latitude, radiusKm, cutoff, top);
+                }
+            }
+        }
+    }
+
+    private void scanCell(long cellKey, double longitude, double latitude, double radiusKm, long cutoff, TopK top) {
+        Stripe stripe = stripe(cellKey);
+        stripe.lock.readLock().lock();
+        try {
+            Cell cell = stripe.cells.get(cellKey);
+            if (cell == null) {
+                return;
+            }
+            for (int i = 0; i < cell.size; i++) {
+                if (cell.seenAt[i] < cutoff) {
+                    continue;
+                }
+                double distance = distanceKm(longitude, latitude, cell.lons[i], cell.lats[i]);
+                if (distance <= radiusKm) {
+                    top.offer(cell.ids[i], distance);
+                }
+            }
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    private void removeFromCell(long cellKey, String driverId) {
+        Stripe stripe = stripe(cellKey);
+        stripe.lock.writeLock().lock();
+        try {
+            Cell cell = stripe.cells.get(cellKey);
+            if (cell != null && cell.remove(driverId) && cell.size == 0) {
+                stripe.cells.remove(cellKey);
+            }
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    private Stripe stripe(long cellKey) {
+        long h = cellKey * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h ^ (h >>> 32)) & stripeMask];
+    }
+
+    private long cellKey(int lonIndex, int latIndex) {
+        return (long) latIndex * lonCells + lonIndex;
+    }
+
+    // 경도 경계(±180)는 넘기지 않고 잘라냄 (서비스 지역이 날짜변경선과 무관)
+    private int lonIndex(double longitude) {
+        int index = (int) Math.floor((longitude + 180.0) / cellSizeDeg);
+        return Math.min(lonCells - 1, Math.max(0, index));
+    }
+
+    private int latIndex(double latitude) {
+        int index = (int) Math.floor((latitude + 90.0) / cellSizeDeg);
+        return Math.min(latCells - 1, Math.max(0, index));
+    }
+
+    private static double cosLatitude(double latitude) {
+        return Math.max(Math.cos(Math.toRadians(latitude)), MIN_COS_LATITUDE);
+    }
+
+    // Redis geohashGetDistance 와 동일한 Haversine 공식
+    static double distanceKm(double lon1, double lat1, double lon2, double lat2) {
+        double lat1r = Math.toRadians(lat1);
+        double lat2r = Math.toRadians(lat2);
+        double u = Math.sin((lat2r - lat1r) / 2);
+        double v = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        return 2.0 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(u * u + Math.cos(lat1r) * Math.cos(lat2r) * v * v));
+    }
+
+    private static final class Stripe {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Cell> cells = new HashMap<>();
+    }
+
+    // 한 셀에 속한 기사들 (swap-remove 로 배열을 빈틈없이 유지)
+    // 기사 -> 배열 위치는 slots 로 찾음 (공항 대기열처럼 기사가 몰린 셀에서도 업데이트/삭제가 O(1))
+    private static final class Cell {
+        private String[] ids = new String[4];
+        private double[] lons = new double[4];
+        private double[] lats = new double[4];
+        private long[] seenAt = new long[4];
+        private final Map<String, Integer> slots = new HashMap<>();
+        private int size;
+
+        int indexOf(String driverId) {
+            Integer slot = slots.get(driverId);
+            return slot == null ? -1 : slot;
+        }
+
+        void put(String driverId, double longitude, double latitude, long now) {
+            int slot = indexOf(driverId);
+            if (slot < 0) {
+                if (size == ids.length) {
+                    int capacity = size << 1;
+                    ids = Arrays.copyOf(ids, capacity);
+                    lons = Arrays.copyOf(lons, capacity);
+                    lats = Arrays.copyOf(lats, capacity);
+                    seenAt = Arrays.copyOf(seenAt, capacity);
+                }
+                slot = size++;
+                ids[slot] = driverId;
+                slots.put(driverId, slot);
+            }
+            lons[slot] = longitude;
+            lats[slot] = latitude;
+            seenAt[slot] = now;
+        }
+
+        boolean remove(String driverId) {
+            int slot = indexOf(driverId);
+            if (slot < 0) {
+                return false;
+            }
+            removeAt(slot);
+            return true;
+        }
+
+        // 마지막 원소를 빈 자리로 옮기고 그 위치를 갱신
+        void removeAt(int slot) {
+            int last = --size;
+            slots.remove(ids[slot]);
+            if (slot != last) {
+                ids[slot] = ids[last];
+                lons[slot] = lons[last];
+                lats[slot] = lats[last];
+                seenAt[slot] = seenAt[last];
+                slots.put(ids[slot], slot);
+            }
+            ids[last] = null;
+        }
+    }
+
+    // 거리 기준 상위 K 개만 유지하는 max-heap (primitive 배열)
+    private static final class TopK {
+        private final String[] ids;
+        private final double[] distances;
+        private int size;
+
+        TopK(int capacity) {
+            this.ids = new String[capacity];
+            this.distances = new double[capacity];
+        }
+
+        boolean isFull() {
+            return size == ids.length;
+        }
+
+        double worstDistance() {
+            return distances[0];
+        }
+
+        void offer(String driverId, double distance) {
+            if (size < ids.length) {
+                int i = size++;
+                ids[i] = driverId;
+                distances[i] = distance;
+                siftUp(i);
+            } else if (distance < distances[0]) {
+                ids[0] = driverId;
+                distances[0] = distance;
+                siftDown(0);
+            }
+        }
+
+        List<NearbyDriverResponse> toSortedResponses() {
+            NearbyDriverResponse[] sorted = new NearbyDriverResponse[size];
+            // 루트(최대값)를 뒤에서부터 채우는 heap sort
+            while (size > 0) {
+                int last = --size;
+                sorted[last] = new NearbyDriverResponse(ids[0], distances[0]);
+                ids[0] = ids[last];
+                distances[0] = distances[last];
+                ids[last] = null;
+                siftDown(0);
+            }
+            return Arrays.asList(sorted);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (distances[parent] >= distances[i]) {
+                    return;
+                }
+                swap(parent, i);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    return;
+                }
+                int largest = left;
+                int right = left + 1;
+                if (right < size && distances[right] > distances[left]) {
+                    largest = right;
+                }
+                if (distances[i] >= distances[largest]) {
+                    return;
+                }
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            String id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            double distance = distances[a];
+            distances[a] = distances[b];
+            distances[b] = distance;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.geospatial_service.index;
+
+// 주변 기사 검색 엔진 선택 (geospatial.search.engine)
+public enum SearchEngine {
+    // 매 검색마다 Cache Redis GEORADIUS + 생존 키 확인
+    REDIS,
+    // JVM 내부 격자 인덱스, 워밍업 전에는 REDIS 로 Fallback
+    MEMORY
+}
@@ -1,62 +1,169 @@
 package com.example.geospatial_service.kafka;
 
+import com.example.geospatial_service.handler.DriverConfigRouter;
 import com.example.geospatial_service.kafka.dto.TripCanceledEvent;
 import com.example.geospatial_service.kafka.dto.TripCompletedEvent;
 import com.example.geospatial_service.kafka.dto.TripMatchedEvent;
 import com.example.geospatial_service.kafka.dto.socket.DriverConfigMessage;
+import com.example.geospatial_service.service.DriverAvailability;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
-import org.springframework.kafka.annotation.KafkaHandler;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+// 운행 이벤트 -> 기사 앱 위치 전송 주기 설정 방송
+// poll 한 번(최대 max.poll.records)을 배치로 받아
+// - 기사별 마지막 이벤트만 남기고 (같은 배치 안의 순서 = 기사별 최종 상태)
+// - 모든 방송을 동시에 보내 Lettuce 가 한 커넥션으로 파이프라이닝하도록 한 뒤
+// - 같은 배치의 운행 중 여부를 drivers_on_trip 에 함께 기록 (배차 가능 기사 검색용)
+// - 배치 전체가 끝나면 한 번에 커밋 (AckMode.BATCH)
 @Component
 @Slf4j
-@RequiredArgsConstructor
-@KafkaListener(topics = "trip_events", groupId = "geospatial-service-group")
 public class DriverConfigConsumer {
 
+    private static final Duration BATCH_PUBLISH_TIMEOUT = Duration.ofSeconds(5);
+    private static final int PUBLISH_CONCURRENCY = 256;
+
     private final ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
     private final ObjectMapper objectMapper;
+    private final DriverAvailability availability;
 
-    @KafkaHandler
-    public void handleTripMatched(TripMatchedEvent event) {
-        publishConfig(event.driverId(), DriverConfigMessage.highFrequency());
-    }
+    private final DistributionSummary batchSize;
+
+    private final Timer publishTimer;
+
+    private final Counter publishedCounter;
+
+    private final Counter skippedCounter;
+
+    private final Counter offlineCounter;
 
-    @KafkaHandler
-    public void handleTripCompleted(TripCompletedEvent event) {
-        publishConfig(event.driverId(), DriverConfigMessage.lowFrequency());
+    private final Counter failedCounter;
+
+    public DriverConfigConsumer(ReactiveRedisTemplate<String, String> reactiveRedisTemplate,
+                                ObjectMapper objectMapper,
+                                DriverAvailability availability,
+                                MeterRegistry meterRegistry) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.availability = availability;
+
+        this.batchSize = DistributionSummary.builder("geospatial.config.batch.size")
+                                            .description("poll 한 번에 받은 운행 이벤트 수")
+                                            .register(meterRegistry);
+        this.publishTimer = Timer.builder("geospatial.config.publish")
+                                 .description("배치 전체 설정 방송 지연")
+                                 .publishPercentileHistogram()
+                                 .register(meterRegistry);
+        this.publishedCounter = eventCounter(meterRegistry, "published");
+        this.skippedCounter = eventCounter(meterRegistry, "skipped");
+        this.offlineCounter = Counter.builder("geospatial.config.offline")
+                                     .description("수신 서버가 없어(오프라인) 전달되지 않은 설정 수")
+                                     .register(meterRegistry);
+        this.failedCounter = Counter.builder("geospatial.config.publish.failures")
+                                    .description("Redis 방송 실패로 재시도한 배치 수")
+                                    .register(meterRegistry);
     }
 
-    @KafkaHandler
-    public void handleTripCanceled(TripCanceledEvent event) {
-        publishConfig(event.driverId(), DriverConfigMessage.lowFrequency());
+    // skipped: 같은 배치의 이전 상태로 합쳐졌거나, 처리 대상이 아니거나, 역직렬화에 실패한 이벤트
+    private static Counter eventCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("geospatial.config.events")
+                      .description("운행 이벤트 처리 결과")
+                      .tag("result", result)
+                      .register(meterRegistry);
     }
 
-    private void publishConfig(String driverId, DriverConfigMessage message) {
-        String topic = "driver:config:" + driverId;
+    @KafkaListener(topics = "trip_events",
+                   groupId = "geospatial-service-group",
+                   containerFactory = "tripEventBatchContainerFactory")
+    public void handleTripEvents(List<Object> events) {
+        batchSize.record(events.size());
+        Map<String, DriverConfigMessage> configs = coalesce(events);
+        skippedCounter.increment(events.size() - configs.size());
+        if (configs.isEmpty()) {
+            return;
+        }
 
+        Timer.Sample sample = Timer.start();
         try {
-            Boolean success = Mono.fromCallable(() -> objectMapper.writeValueAsString(message))
-                                  .flatMap(json -> reactiveRedisTemplate.convertAndSend(topic, json))
-                                  .map(count -> count > 0)
-                                  .block(Duration.ofSeconds(2));
+            // 리스너 스레드는 배치당 한 번만 기다림 (레코드마다 block 하지 않음)
+            Long offline = publishAll(configs).zipWith(availability.recordTrips(onTripStates(configs)).thenReturn(Boolean.TRUE),
+                                                       (offlineCount, recorded) -> offlineCount)
+                                              .block(BATCH_PUBLISH_TIMEOUT);
+            sample.stop(publishTimer);
+            publishedCounter.increment(configs.size());
+            if (offline != null) {
+                offlineCounter.increment(offline);
+            }
+            log.info("기사 설정 방송 완료: {}명 (이벤트 {}건, 수신 서버 없음 {}명)", configs.size(), events.size(), offline);
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.error("Redis 방송 실패 (배치 재시도 대상): {}명", configs.size());
+            throw new RuntimeException("Redis 전송 장애로 인한 재시도 유도", e);
+        }
+    }
 
-            if (Boolean.TRUE.equals(success)) {
-                log.info("기사({}) 설정 방송 성공", driverId);
+    // 기사별 마지막 설정만 남김 (순서 유지)
+    static Map<String, DriverConfigMessage> coalesce(List<?> events) {
+        Map<String, DriverConfigMessage> configs = new LinkedHashMap<>();
+        for (Object event : events) {
+            if (event instanceof TripMatchedEvent matched) {
+                configs.put(matched.driverId(), DriverConfigMessage.highFrequency());
+            } else if (event instanceof TripCompletedEvent completed) {
+                configs.put(completed.driverId(), DriverConfigMessage.lowFrequency());
+            } else if (event instanceof TripCanceledEvent canceled) {
+                configs.put(canceled.driverId(), DriverConfigMessage.lowFrequency());
+            } else if (event == null) {
+                // ErrorHandlingDeserializer 가 역직렬화에 실패한 레코드는 null 로 전달됨
+                log.warn("역직렬화 실패한 운행 이벤트 건너뜀");
             } else {
-                log.warn("기사 오프라인 (수신 서버 없음): {}", driverId);
+                log.debug("처리 대상이 아닌 운행 이벤트: {}", event.getClass().getSimpleName());
             }
+        }
+        return configs;
+    }
 
-        } catch (Exception e) {
-            log.error("Redis 방송 실패 (재시도 대상): {}", driverId);
-            throw new RuntimeException("Redis 전송 장애로 인한 재시도 유도", e);
+    // 고속 모드 = 운행 중
+    static Map<String, Boolean> onTripStates(Map<String, DriverConfigMessage> configs) {
+        Map<String, Boolean> states = new LinkedHashMap<>();
+        configs.forEach((driverId, message) -> states.put(driverId, DriverConfigMessage.highFrequency().equals(message)));
+        return states;
+    }
+
+    // 수신 서버가 없었던(오프라인) 기사 수를 반환
+    private Mono<Long> publishAll(Map<String, DriverConfigMessage> configs) throws JsonProcessingException {
+        // 설정 종류는 몇 개뿐이므로 종류별로 한 번만 직렬화
+        Map<DriverConfigMessage, String> payloads = new HashMap<>();
+        for (DriverConfigMessage message : configs.values()) {
+            if (!payloads.containsKey(message)) {
+                payloads.put(message, objectMapper.writeValueAsString(message));
+            }
         }
+
+        return Flux.fromIterable(configs.entrySet())
+                   .flatMap(entry -> reactiveRedisTemplate.convertAndSend(
+                                           DriverConfigRouter.CONFIG_CHANNEL_PREFIX + entry.getKey(), payloads.get(entry.getValue()))
+                                   .doOnNext(receivers -> {
+                                       if (receivers == 0) {
+                                           log.debug("기사 오프라인 (수신 서버 없음): {}", entry.getKey());
+                                       }
+                                   }),
+                            PUBLISH_CONCURRENCY)
+                   .filter(receivers -> receivers == 0)
+                   .count();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package com.example.geospatial_service.kafka;
+
+import com.example.geospatial_service.kafka.dto.DriverLocationUpdatedEvent;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.charset.StandardCharsets;
+
+// DriverLocationUpdatedEvent 전용 직렬화기
+// Jackson 과 같은 JSON 을 리플렉션 없이 직접 만들어 기존 JsonDeserializer 소비자와 호환됨
+public class DriverLocationEventSerializer implements Serializer<DriverLocationUpdatedEvent> {
+
+    @Override
+    public byte[] serialize(String topic, DriverLocationUpdatedEvent event) {
+        if (event == null) {
+            return null;
+        }
+        StringBuilder json = new StringBuilder(64);
+        json.append("{\"driverId\":");
+        appendString(json, event.driverId());
+        json.append(",\"latitude\":").append(event.latitude());
+        json.append(",\"longitude\":").append(event.longitude());
+        json.append('}');
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
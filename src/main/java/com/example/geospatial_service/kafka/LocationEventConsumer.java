@@ -0,0 +1,198 @@
+package com.example.geospatial_service.kafka;
+
+import com.example.geospatial_service.index.DriverLocationIndex;
+import com.example.geospatial_service.index.SearchEngine;
+import com.example.geospatial_service.kafka.dto.DriverLocationUpdatedEvent;
+import com.example.geospatial_service.service.DriverCellNearCache;
+import com.example.geospatial_service.service.SupplyHeatmap;
+import com.example.geospatial_service.service.ViewportSubscriptionHub;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+// 모든 파드의 위치 업데이트를 이 파드의 위치 상태에 반영 (파드마다 소비자 하나, 받은 이벤트를 각 대상에 나눠 줌)
+// - 인메모리 인덱스 (memory 엔진), 뷰포트 구독, 셀 near-cache, 공급 히트맵
+// - 각 대상은 자기 enabled 설정을 직접 확인하므로, 하나라도 켜져 있을 때만 소비자를 띄움
+// - 모든 파드가 전체 위치 스트림을 받아야 하므로 그룹 구독 대신 전체 파티션을 직접 지정(assign)하고 끝에서부터 읽음
+//   오프셋을 커밋하지 않으므로 파드가 재시작돼도 __consumer_offsets 에 그룹이 쌓이지 않음 (과거 이벤트는 재생하지 않음)
+// Kafka poll 을 block 으로 기다리므로 전용 가상 스레드에서 실행
+@Component
+@Slf4j
+@ConditionalOnExpression("'${geospatial.search.engine:redis}'.equalsIgnoreCase('memory')"
+        + " or ${geospatial.viewport.enabled:false}"
+        + " or ${geospatial.search.near-cache.enabled:false}"
+        + " or ${geospatial.heatmap.enabled:false}")
+public class LocationEventConsumer implements SmartLifecycle {
+
+    private static final String LOCATION_EVENTS_TOPIC = "location_events";
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    // 파티션이 늘었는지 확인하는 주기
+    private static final long PARTITION_REFRESH_MILLIS = 60_000;
+
+    // 연결 오류 후 다시 붙기 전 대기
+    private static final long RECONNECT_BACKOFF_MILLIS = 1_000;
+
+    private final ConsumerFactory<String, Object> consumerFactory;
+
+    private final DriverLocationIndex locationIndex;
+
+    private final ViewportSubscriptionHub subscriptionHub;
+
+    private final DriverCellNearCache nearCache;
+
+    private final SupplyHeatmap heatmap;
+
+    private final SearchEngine searchEngine;
+
+    private volatile boolean running;
+
+    // stop 에서 wakeup 으로 poll 을 깨우기 위함 (wakeup 외에는 poll 스레드만 사용)
+    private volatile Consumer<String, Object> consumer;
+
+    private Thread pollThread;
+
+    public LocationEventConsumer(
+            ConsumerFactory<String, Object> consumerFactory,
+            DriverLocationIndex locationIndex,
+            ViewportSubscriptionHub subscriptionHub,
+            DriverCellNearCache nearCache,
+            SupplyHeatmap heatmap,
+            @Value("${geospatial.search.engine:redis}") SearchEngine searchEngine) {
+        this.consumerFactory = consumerFactory;
+        this.locationIndex = locationIndex;
+        this.subscriptionHub = subscriptionHub;
+        this.nearCache = nearCache;
+        this.heatmap = heatmap;
+        this.searchEngine = searchEngine;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        pollThread = Thread.ofVirtual().name("location-events").start(this::pollLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Consumer<String, Object> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        if (pollThread == null) {
+            return;
+        }
+        try {
+            pollThread.join(POLL_TIMEOUT.multipliedBy(4));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void consume(DriverLocationUpdatedEvent event) {
+        String driverId = event.driverId();
+        double longitude = event.longitude();
+        double latitude = event.latitude();
+        if (searchEngine == SearchEngine.MEMORY) {
+            locationIndex.upsert(driverId, longitude, latitude);
+        }
+        subscriptionHub.onLocation(driverId, longitude, latitude);
+        nearCache.onLocation(driverId, longitude, latitude);
+        heatmap.onLocation(driverId, longitude, latitude);
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try (Consumer<String, Object> created = createConsumer()) {
+                consumer = created;
+                poll(created);
+            } catch (WakeupException e) {
+                // stop
+            } catch (Exception e) {
+                log.error("location_events 수신 오류, {}ms 후 다시 연결 (그동안의 위치는 다음 업데이트로 채워짐)", RECONNECT_BACKOFF_MILLIS, e);
+                sleepBeforeReconnect();
+            } finally {
+                consumer = null;
+            }
+        }
+    }
+
+    private void poll(Consumer<String, Object> consumer) {
+        List<TopicPartition> partitions = assign(consumer, List.of());
+        long nextRefresh = System.currentTimeMillis() + PARTITION_REFRESH_MILLIS;
+        while (running) {
+            for (ConsumerRecord<String, Object> record : consumer.poll(POLL_TIMEOUT)) {
+                if (!(record.value() instanceof DriverLocationUpdatedEvent event)) {
+                    continue;
+                }
+                try {
+                    consume(event);
+                } catch (RuntimeException e) {
+                    log.warn("위치 이벤트 반영 실패: driverId={}", event.driverId(), e);
+                }
+            }
+            if (System.currentTimeMillis() >= nextRefresh) {
+                partitions = assign(consumer, partitions);
+                nextRefresh = System.currentTimeMillis() + PARTITION_REFRESH_MILLIS;
+            }
+        }
+    }
+
+    // 처음 지정할 때는 끝에서부터, 이후 새로 생긴 파티션은 처음부터 읽음
+    private static List<TopicPartition> assign(Consumer<String, Object> consumer, List<TopicPartition> assigned) {
+        List<TopicPartition> partitions = consumer.partitionsFor(LOCATION_EVENTS_TOPIC)
+                                                  .stream()
+                                                  .map(info -> new TopicPartition(LOCATION_EVENTS_TOPIC, info.partition()))
+                                                  .toList();
+        if (partitions.size() == assigned.size()) {
+            return assigned;
+        }
+        consumer.assign(partitions);
+        if (assigned.isEmpty()) {
+            consumer.seekToEnd(partitions);
+        } else {
+            List<TopicPartition> added = new ArrayList<>(partitions);
+            added.removeAll(assigned);
+            consumer.seekToBeginning(added);
+            log.info("location_events 파티션 추가 반영: {}", added);
+        }
+        return partitions;
+    }
+
+    // 오프셋 커밋 없이 파티션을 직접 지정해 읽는 소비자 (그룹에 참여하지 않음)
+    private Consumer<String, Object> createConsumer() {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        return consumerFactory.createConsumer("geospatial-location", "location-events", null, overrides);
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_BACKOFF_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
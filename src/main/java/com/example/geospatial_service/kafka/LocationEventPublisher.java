@@ -0,0 +1,164 @@
+package com.example.geospatial_service.kafka;
+
+import com.example.geospatial_service.kafka.dto.DriverLocationUpdatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// location_events 발행기
+// - driverId 를 키로 보내 같은 기사의 이벤트는 같은 파티션(순서 보장)으로
+// - publish 의 Mono 는 브로커 ack 까지 기다림 (실패/버림은 에러로 끝남)
+// - KafkaProducer.send 는 메타데이터/버퍼를 기다리며 max.block.ms 까지 막힐 수 있으므로
+//   전용 가상 스레드 하나에서 호출 (Netty 스레드를 막지 않고, 한 스레드라 파드 내 전송 순서도 유지)
+// - ack 를 기다리는 전송 수는 max-in-flight 로 제한 (초과분은 버림)
+// - 실패/버림은 지표와 로그로도 남김
+// - 초당 수만 건이므로 전송 단위 트레이싱(observation)은 붙이지 않음
+@Component
+@Slf4j
+public class LocationEventPublisher {
+
+    static final String LOCATION_EVENTS_TOPIC = "location_events";
+
+    // 기존 JsonSerializer 가 붙이던 타입 헤더 (소비 측 호환용, 고정 바이트)
+    private static final byte[] TYPE_ID = DriverLocationUpdatedEvent.class.getName().getBytes(StandardCharsets.UTF_8);
+
+    private final DefaultKafkaProducerFactory<String, DriverLocationUpdatedEvent> producerFactory;
+
+    private final KafkaTemplate<String, DriverLocationUpdatedEvent> kafkaTemplate;
+
+    // send 호출 전용 (Netty 스레드 밖)
+    private final Scheduler sendScheduler;
+
+    private final Semaphore inFlight;
+
+    private final int maxInFlight;
+
+    private final Timer ackTimer;
+
+    private final Counter failedCounter;
+
+    private final Counter droppedCounter;
+
+    // 한도에 걸려 버리는 중인지 (버리기 시작/해소 시점에만 로그)
+    private final AtomicBoolean saturated = new AtomicBoolean();
+
+    @Autowired
+    public LocationEventPublisher(
+            KafkaProperties kafkaProperties,
+            MeterRegistry meterRegistry,
+            @Value("${geospatial.location-events.max-in-flight:10000}") int maxInFlight) {
+        this(producerFactory(kafkaProperties.buildProducerProperties(null)), meterRegistry, maxInFlight);
+    }
+
+    private LocationEventPublisher(DefaultKafkaProducerFactory<String, DriverLocationUpdatedEvent> producerFactory,
+                                   MeterRegistry meterRegistry, int maxInFlight) {
+        this(producerFactory, new KafkaTemplate<>(producerFactory),
+             Schedulers.fromExecutorService(Executors.newSingleThreadExecutor(Thread.ofVirtual().name("location-events-send").factory()),
+                                            "location-events-send"),
+             meterRegistry, maxInFlight);
+    }
+
+    LocationEventPublisher(DefaultKafkaProducerFactory<String, DriverLocationUpdatedEvent> producerFactory,
+                           KafkaTemplate<String, DriverLocationUpdatedEvent> kafkaTemplate,
+                           Scheduler sendScheduler, MeterRegistry meterRegistry, int maxInFlight) {
+        this.producerFactory = producerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.sendScheduler = sendScheduler;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+
+        this.ackTimer = Timer.builder("geospatial.location.events.ack")
+                             .description("location_events 전송부터 브로커 ack 까지 걸린 시간 (성공 건수 = 처리량)")
+                             .publishPercentiles(0.5, 0.99)
+                             .register(meterRegistry);
+        this.failedCounter = Counter.builder("geospatial.location.events.failed")
+                                    .description("브로커 전송에 실패한 위치 이벤트 수")
+                                    .register(meterRegistry);
+        this.droppedCounter = Counter.builder("geospatial.location.events.dropped")
+                                     .description("in-flight 한도 초과로 보내지 않은 위치 이벤트 수")
+                                     .register(meterRegistry);
+        Gauge.builder("geospatial.location.events.in.flight", inFlight, s -> maxInFlight - s.availablePermits())
+             .description("ack 를 기다리는 위치 이벤트 수")
+             .register(meterRegistry);
+    }
+
+    private static DefaultKafkaProducerFactory<String, DriverLocationUpdatedEvent> producerFactory(Map<String, Object> producerProperties) {
+        return new DefaultKafkaProducerFactory<>(producerProperties, new StringSerializer(), new DriverLocationEventSerializer());
+    }
+
+    // 전송 스레드에서 send 를 호출하고 브로커 ack 까지 기다림
+    // 구독을 취소해도 이미 시작한 전송은 취소하지 않음 (in-flight 자리는 ack/실패 시 반환)
+    public Mono<Void> publish(String driverId, double latitude, double longitude) {
+        return Mono.fromFuture(() -> send(driverId, latitude, longitude), true)
+                   .subscribeOn(sendScheduler)
+                   .then();
+    }
+
+    private CompletableFuture<SendResult<String, DriverLocationUpdatedEvent>> send(String driverId, double latitude, double longitude) {
+        if (!inFlight.tryAcquire()) {
+            droppedCounter.increment();
+            if (saturated.compareAndSet(false, true)) {
+                log.warn("위치 이벤트 in-flight 한도({}) 도달: ack 가 돌아올 때까지 위치 이벤트를 버림", maxInFlight);
+            }
+            return CompletableFuture.failedFuture(new IllegalStateException("위치 이벤트 in-flight 한도 초과: " + driverId));
+        }
+        if (saturated.get() && saturated.compareAndSet(true, false)) {
+            log.info("위치 이벤트 in-flight 한도 해소: 발행 재개");
+        }
+
+        ProducerRecord<String, DriverLocationUpdatedEvent> record = new ProducerRecord<>(
+                LOCATION_EVENTS_TOPIC, driverId, new DriverLocationUpdatedEvent(driverId, latitude, longitude));
+        record.headers().add(new RecordHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, TYPE_ID));
+
+        long startNanos = System.nanoTime();
+        try {
+            return kafkaTemplate.send(record)
+                                .whenComplete((result, e) -> {
+                                    inFlight.release();
+                                    if (e == null) {
+                                        ackTimer.record(Duration.ofNanos(System.nanoTime() - startNanos));
+                                    } else {
+                                        failedCounter.increment();
+                                        log.warn("위치 이벤트 전송 실패: {} ({})", driverId, e.toString());
+                                    }
+                                });
+        } catch (RuntimeException e) {
+            // 메타데이터 조회 실패 등 send 호출 자체가 실패한 경우
+            inFlight.release();
+            failedCounter.increment();
+            log.warn("위치 이벤트 전송 실패: {} ({})", driverId, e.toString());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        sendScheduler.dispose();
+        producerFactory.destroy();
+    }
+}
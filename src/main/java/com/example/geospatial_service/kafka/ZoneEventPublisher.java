@@ -0,0 +1,45 @@
+package com.example.geospatial_service.kafka;
+
+import com.example.geospatial_service.kafka.dto.DriverZoneEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+// zone_events 발행기
+// - 구역 전이는 위치 업데이트보다 훨씬 드물므로 기본 KafkaTemplate(JsonSerializer)을 사용
+// - driverId 를 키로 보내 같은 기사의 들어옴/나감 순서를 유지
+// - 위치 저장 응답을 기다리게 하지 않도록 ack 를 기다리지 않고, 실패는 지표와 로그로만 남김
+@Component
+@Slf4j
+public class ZoneEventPublisher {
+
+    static final String ZONE_EVENTS_TOPIC = "zone_events";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    private final Counter failedCounter;
+
+    public ZoneEventPublisher(KafkaTemplate<String, Object> kafkaTemplate, MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.failedCounter = Counter.builder("geospatial.zone.events.failed")
+                                    .description("브로커 전송에 실패한 구역 이벤트 수")
+                                    .register(meterRegistry);
+    }
+
+    public void publish(DriverZoneEvent event) {
+        try {
+            kafkaTemplate.send(ZONE_EVENTS_TOPIC, event.driverId(), event)
+                         .whenComplete((result, e) -> {
+                             if (e != null) {
+                                 failedCounter.increment();
+                                 log.warn("구역 이벤트 전송 실패: {} {} {} ({})", event.driverId(), event.zoneId(), event.transition(), e.toString());
+                             }
+                         });
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            log.warn("구역 이벤트 전송 실패: {} {} {} ({})", event.driverId(), event.zoneId(), event.transition(), e.toString());
+        }
+    }
+}
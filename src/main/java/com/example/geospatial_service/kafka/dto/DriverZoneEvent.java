@@ -0,0 +1,19 @@
+package com.example.geospatial_service.kafka.dto;
+
+// zone_events: 기사가 구역에 들어오거나 나갈 때만 발행 (key: driverId)
+// occurredAt 은 전이를 판단한 위치의 수신 시각 (ms)
+public record DriverZoneEvent(
+        String driverId,
+        String zoneId,
+        String zoneType,
+        Transition transition,
+        double latitude,
+        double longitude,
+        long occurredAt
+) {
+
+    public enum Transition {
+        ENTER,
+        EXIT
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.geospatial_service.service;
+
+import com.example.geospatial_service.index.SearchEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+// 운행 중(배차 가능하지 않은) 기사 (Storage Redis drivers_on_trip Sorted Set, score = 배차 시각)
+// - 운행 이벤트(DriverConfigConsumer)로 배차 시 추가, 완료/취소 시 제거
+// - 완료 이벤트를 놓쳐도 max-trip-hours 가 지나면 운행 중으로 보지 않음 (기록 시 함께 정리)
+// - 검색(geospatial.availability.enabled)은 생존 확인과 같은 Storage Redis 로 ZMSCORE 를 함께 보내 한 번의 왕복으로 거름
+// - memory 엔진은 refresh-ms 마다 운행 중 목록 전체를 받아 파드 메모리에서 거름
+@Component
+@Slf4j
+public class DriverAvailability {
+
+    static final String DRIVERS_ON_TRIP_KEY = "drivers_on_trip";
+
+    private final ReactiveRedisTemplate<String, String> storageRedisTemplate;
+
+    private final boolean enabled;
+
+    private final SearchEngine searchEngine;
+
+    private final int overFetchFactor;
+
+    private final long maxTripMillis;
+
+    private final Duration timeout;
+
+    private final LongSupplier clock;
+
+    // memory 엔진용 (refresh 마다 통째로 교체)
+    private volatile Set<String> onTripSnapshot = Set.of();
+
+    @Autowired
+    public DriverAvailability(
+            @Qualifier("storageRedisTemplate") ReactiveRedisTemplate<String, String> storageRedisTemplate,
+            @Value("${geospatial.availability.enabled:false}") boolean enabled,
+            @Value("${geospatial.search.engine:redis}") SearchEngine searchEngine,
+            @Value("${geospatial.availability.over-fetch-factor:2}") int overFetchFactor,
+            @Value("${geospatial.availability.max-trip-hours:12}") long maxTripHours,
+            @Value("${geospatial.liveness.timeout-ms:200}") long timeoutMs) {
+        this(storageRedisTemplate, enabled, searchEngine, overFetchFactor, maxTripHours * 3_600_000L, timeoutMs,
+             System::currentTimeMillis);
+    }
+
+    DriverAvailability(ReactiveRedisTemplate<String, String> storageRedisTemplate, boolean enabled, SearchEngine searchEngine,
+                       int overFetchFactor, long maxTripMillis, long timeoutMs, LongSupplier clock) {
+        this.storageRedisTemplate = storageRedisTemplate;
+        this.enabled = enabled;
+        this.searchEngine = searchEngine;
+        this.overFetchFactor = Math.max(1, overFetchFactor);
+        this.maxTripMillis = maxTripMillis;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 운행 중 기사를 걸러낸 뒤에도 limit 명을 채울 수 있도록 후보를 더 가져옴
+    public int fetchLimit(int limit) {
+        return enabled ? limit * overFetchFactor : limit;
+    }
+
+    // driverId -> 운행 중 여부 (검색 필터 사용 여부와 무관하게 항상 기록)
+    public Mono<Void> recordTrips(Map<String, Boolean> onTripByDriver) {
+        if (onTripByDriver.isEmpty()) {
+            return Mono.empty();
+        }
+        double now = clock.getAsLong();
+        List<ZSetOperations.TypedTuple<String>> started = new ArrayList<>();
+        List<String> finished = new ArrayList<>();
+        onTripByDriver.forEach((driverId, onTrip) -> {
+            if (onTrip) {
+                started.add(new DefaultTypedTuple<>(driverId, now));
+            } else {
+                finished.add(driverId);
+            }
+        });
+
+        Mono<Long> add = started.isEmpty() ? Mono.empty() : storageRedisTemplate.opsForZSet().addAll(DRIVERS_ON_TRIP_KEY, started);
+        Mono<Long> remove = finished.isEmpty() ? Mono.empty() : storageRedisTemplate.opsForZSet().remove(DRIVERS_ON_TRIP_KEY, finished.toArray());
+        Mono<Long> expire = storageRedisTemplate.opsForZSet().removeRangeByScore(DRIVERS_ON_TRIP_KEY, expiredRange());
+        return Mono.when(add, remove, expire);
+    }
+
+    // 후보 중 운행 중인 기사 (조회가 지연/실패하면 거르지 않음: 배차 쪽 확인에 맡기고 검색 결과는 유지)
+    public Mono<Set<String>> findOnTrip(List<String> driverIds) {
+        if (!enabled || driverIds.isEmpty()) {
+            return Mono.just(Set.of());
+        }
+        long cutoff = cutoff();
+        return storageRedisTemplate.opsForZSet()
+                                   .score(DRIVERS_ON_TRIP_KEY, driverIds.toArray())
+                                   .map(scores -> {
+                                       Set<String> onTrip = new HashSet<>();
+                                       for (int i = 0; i < scores.size(); i++) {
+                                           Double matchedAt = scores.get(i);
+                                           if (matchedAt != null && matchedAt >= cutoff) {
+                                               onTrip.add(driverIds.get(i));
+                                           }
+                                       }
+                                       return onTrip;
+                                   })
+                                   .timeout(timeout)
+                                   .onErrorResume(e -> {
+                                       log.warn("운행 중 기사 확인 실패 (후보 {}명), 거르지 않고 응답: {}", driverIds.size(), e.toString());
+                                       return Mono.just(Set.of());
+                                   });
+    }
+
+    // 한 기사의 운행 중 여부 (세션 시작 시 수신 주기 초기값용, 검색 필터 사용 여부와 무관)
+    // 조회가 지연/실패하면 대기로 봄: 다음 설정 메시지나 max-silence 저장으로 보정됨
+    public Mono<Boolean> isOnTrip(String driverId) {
+        long cutoff = cutoff();
+        return storageRedisTemplate.opsForZSet()
+                                   .score(DRIVERS_ON_TRIP_KEY, driverId)
+                                   .map(matchedAt -> matchedAt >= cutoff)
+                                   .defaultIfEmpty(false)
+                                   .timeout(timeout)
+                                   .onErrorResume(e -> {
+                                       log.warn("기사({}) 운행 중 여부 확인 실패, 대기로 시작: {}", driverId, e.toString());
+                                       return Mono.just(false);
+                                   });
+    }
+
+    // memory 엔진 검색용 (refresh 주기만큼 늦을 수 있음)
+    public boolean isOnTripLocally(String driverId) {
+        return enabled && onTripSnapshot.contains(driverId);
+    }
+
+    @Scheduled(fixedDelayString = "${geospatial.availability.refresh-ms:1000}")
+    public void refresh() {
+        if (!enabled || searchEngine != SearchEngine.MEMORY) {
+            return;
+        }
+        storageRedisTemplate.opsForZSet()
+                            .rangeByScore(DRIVERS_ON_TRIP_KEY, Range.of(Range.Bound.inclusive((double) cutoff()), Range.Bound.unbounded()))
+                            .collect(HashSet<String>::new, Set::add)
+                            .timeout(Duration.ofSeconds(5))
+                            .subscribe(onTrip -> onTripSnapshot = onTrip,
+                                       e -> log.warn("운행 중 기사 목록 갱신 실패: {}", e.toString()));
+    }
+
+    private Range<Double> expiredRange() {
+        return Range.of(Range.Bound.unbounded(), Range.Bound.exclusive((double) cutoff()));
+    }
+
+    private long cutoff() {
+        return clock.getAsLong() - maxTripMillis;
+    }
+}
@@ -0,0 +1,437 @@
+package com.example.geospatial_service.service;
+
+import com.example.geospatial_service.geo.GeoHash;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.geo.Circle;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.redis.connection.RedisGeoCommands;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+// Cache Redis 앞단의 파드 로컬 셀 멤버십 캐시 (geospatial.search.near-cache.enabled, redis 엔진 전용)
+// - geohash 셀(precision, 기본 5 ≈ 4.9km) 단위로 셀 안의 기사 좌표를 GEORADIUS 한 번으로 받아 보관 (키는 셀 비트 값 long)
+// - 받은 뒤에는 location_events 로 셀 사이 이동을 반영하고, 검색 종류별 max-staleness-ms 가 지나면 Redis 에서 다시 받음
+//   (생존 정리로 인한 ZREM 등 이벤트로 오지 않는 변화는 이 주기 안에서만 남음. 생존 확인은 항상 Storage Redis 로 함)
+// - 검색 원을 덮는 셀이 모두 신선하면 로컬에서 후보를 만들고, 하나라도 없거나 오래되면 Redis 로 검색하고 셀은 비동기로 채움
+// - 셀 수가 max-cells 에 차면 요청 경로는 새 셀을 만들지 않고(Redis 로 검색), 주기 작업이 가장 오래 쓰이지 않은 셀부터 버림
+//   (정렬은 요청 스레드가 아닌 sweep 에서만), 기사가 너무 많은 셀(max-drivers-per-cell)은 보관하지 않음
+// - 셀 키는 Long 으로 박싱됨: 셀 수는 max-cells 로, 검색 한 번에 보는 셀은 max-cells-per-search 개로 묶여 있어
+//   조회마다 Long 몇 개를 만드는 비용이 GEORADIUS 왕복에 비해 작으므로 primitive long 맵 의존성을 들이지 않음
+//   (셀 안의 기사 좌표도 같은 이유로 HashMap<String, double[]>, 셀당 기사 수는 max-drivers-per-cell 로 묶임)
+@Component
+@Slf4j
+public class DriverCellNearCache {
+
+    // Redis GEO 와 동일한 지구 반경 (거리 값이 Redis 결과와 일치하도록)
+    private static final double EARTH_RADIUS_KM = 6372.797560856;
+    private static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180.0;
+    private static final double MIN_COS_LATITUDE = 0.01;
+    private static final Duration LOAD_TIMEOUT = Duration.ofSeconds(2);
+
+    private final ReactiveRedisTemplate<String, String> cacheRedisTemplate;
+
+    private final DriverLocationShards locationShards;
+
+    private final boolean enabled;
+
+    private final int precision;
+
+    private final int maxCells;
+
+    private final int maxDriversPerCell;
+
+    private final int maxCellsPerSearch;
+
+    private final Map<String, Long> maxStalenessMillis;
+
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<Long, Cell> cells = new ConcurrentHashMap<>();
+
+    // driverId -> 보관 중인 셀 (기사별 이동 반영을 compute 로 직렬화)
+    private final ConcurrentHashMap<String, Long> driverCells = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+
+    private final Counter missCounter;
+
+    private final Counter bypassCounter;
+
+    private final Counter loadCounter;
+
+    private final Counter loadFailureCounter;
+
+    private final Counter evictionCounter;
+
+    @Autowired
+    public DriverCellNearCache(
+            @Qualifier("cacheRedisTemplate") ReactiveRedisTemplate<String, String> cacheRedisTemplate,
+            DriverLocationShards locationShards,
+            MeterRegistry meterRegistry,
+            @Value("${geospatial.search.near-cache.enabled:false}") boolean enabled,
+            @Value("${geospatial.search.near-cache.precision:5}") int precision,
+            @Value("${geospatial.search.near-cache.max-cells:1024}") int maxCells,
+            @Value("${geospatial.search.near-cache.max-drivers-per-cell:2000}") int maxDriversPerCell,
+            @Value("${geospatial.search.near-cache.max-cells-per-search:16}") int maxCellsPerSearch,
+            @Value("${geospatial.search.near-cache.max-staleness-ms.nearby:5000}") long nearbyStalenessMillis,
+            @Value("${geospatial.search.near-cache.max-staleness-ms.batch:10000}") long batchStalenessMillis,
+            @Value("${geospatial.search.near-cache.max-staleness-ms.nearest:3000}") long nearestStalenessMillis) {
+        this(cacheRedisTemplate, locationShards, meterRegistry, enabled, precision, maxCells, maxDriversPerCell, maxCellsPerSearch,
+             Map.of(SearchMetrics.NEARBY, nearbyStalenessMillis,
+                    SearchMetrics.BATCH, batchStalenessMillis,
+                    SearchMetrics.NEAREST, nearestStalenessMillis),
+             System::currentTimeMillis);
+    }
+
+    DriverCellNearCache(ReactiveRedisTemplate<String, String> cacheRedisTemplate, DriverLocationShards locationShards,
+                        MeterRegistry meterRegistry, boolean enabled, int precision, int maxCells, int maxDriversPerCell,
+                        int maxCellsPerSearch, Map<String, Long> maxStalenessMillis, LongSupplier clock) {
+        this.cacheRedisTemplate = cacheRedisTemplate;
+        this.locationShards = locationShards;
+        this.enabled = enabled;
+        this.precision = precision;
+        this.maxCells = maxCells;
+        this.maxDriversPerCell = maxDriversPerCell;
+        this.maxCellsPerSearch = maxCellsPerSearch;
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.clock = clock;
+
+        this.hitCounter = requestCounter(meterRegistry, "hit");
+        this.missCounter = requestCounter(meterRegistry, "miss");
+        this.bypassCounter = requestCounter(meterRegistry, "bypass");
+        this.loadCounter = Counter.builder("geospatial.search.near-cache.loads")
+                                  .description("Redis 에서 셀을 새로 받은 횟수")
+                                  .register(meterRegistry);
+        this.loadFailureCounter = Counter.builder("geospatial.search.near-cache.load.failures")
+                                         .description("셀 받기 실패 또는 기사 수 초과로 보관하지 않은 횟수")
+                                         .register(meterRegistry);
+        this.evictionCounter = Counter.builder("geospatial.search.near-cache.evictions")
+                                      .description("max-cells 초과로 버린 셀 수")
+                                      .register(meterRegistry);
+        Gauge.builder("geospatial.search.near-cache.cells", cells, Map::size)
+             .description("보관 중인 셀 수")
+             .register(meterRegistry);
+    }
+
+    // hit: 로컬 응답 / miss: 셀이 없거나 오래되어 Redis 로 검색 / bypass: 검색 원이 너무 커서 Redis 로 검색
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("geospatial.search.near-cache.requests")
+                      .description("셀 멤버십 캐시 조회 결과")
+                      .tag("result", result)
+                      .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 검색 원 안의 기사를 거리 오름차순으로 최대 limit 명 반환
+    // 덮는 셀 중 하나라도 없거나 max-staleness 보다 오래되었으면 null (호출 측은 Redis 로 검색)
+    public List<Candidate> lookup(String searchType, double longitude, double latitude, double radiusKm, int limit) {
+        if (!enabled) {
+            return null;
+        }
+        long[] covering = covering(longitude, latitude, radiusKm);
+        if (covering.length > maxCellsPerSearch) {
+            bypassCounter.increment();
+            return null;
+        }
+
+        long now = clock.getAsLong();
+        long maxStaleness = maxStalenessMillis.getOrDefault(searchType, 0L);
+        List<Cell> fresh = new ArrayList<>(covering.length);
+        boolean complete = true;
+        for (long cellKey : covering) {
+            Cell cell = cells.get(cellKey);
+            if (cell != null && cell.isFresh(now, maxStaleness)) {
+                cell.lastAccessAt = now;
+                fresh.add(cell);
+            } else {
+                complete = false;
+                load(cellKey, cell, now);
+            }
+        }
+        if (!complete) {
+            missCounter.increment();
+            return null;
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (Cell cell : fresh) {
+            cell.collectWithin(longitude, latitude, radiusKm, candidates);
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::distanceKm));
+        hitCounter.increment();
+        return candidates.size() > limit ? new ArrayList<>(candidates.subList(0, limit)) : candidates;
+    }
+
+    // location_events: 보관 중인 셀로 들어오면 반영, 셀 밖으로 나가면 이전 셀에서 제거
+    public void onLocation(String driverId, double longitude, double latitude) {
+        if (!enabled || cells.isEmpty()) {
+            return;
+        }
+        long cellKey = GeoHash.encodeBits(latitude, longitude, precision * 5);
+        driverCells.compute(driverId, (id, previousCell) -> {
+            if (previousCell != null && previousCell != cellKey) {
+                Cell previous = cells.get(previousCell);
+                if (previous != null) {
+                    previous.remove(id);
+                }
+            }
+            Cell cell = cells.get(cellKey);
+            if (cell == null) {
+                return null;
+            }
+            cell.put(id, longitude, latitude);
+            return cellKey;
+        });
+    }
+
+    // 검색 중 유령 기사로 판정되어 Redis 에서 지운 기사
+    public void evict(String driverId) {
+        if (!enabled) {
+            return;
+        }
+        driverCells.computeIfPresent(driverId, (id, cellKey) -> {
+            Cell cell = cells.get(cellKey);
+            if (cell != null) {
+                cell.remove(id);
+            }
+            return null;
+        });
+    }
+
+    private long[] covering(double longitude, double latitude, double radiusKm) {
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        double lonDelta = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(latitude)), MIN_COS_LATITUDE));
+        return GeoHash.coveringBits(latitude - latDelta, longitude - lonDelta, latitude + latDelta, longitude + lonDelta, precision);
+    }
+
+    // 셀의 외접원으로 GEORADIUS 후 셀 안의 기사만 남김 (셀마다 동시에 한 번만)
+    private void load(long cellKey, Cell existing, long now) {
+        Cell cell = existing;
+        if (cell == null) {
+            // 한도에 찼으면 sweep 이 자리를 만들 때까지 새 셀은 보관하지 않음 (요청 스레드에서 정렬하지 않도록)
+            if (cells.size() >= maxCells) {
+                return;
+            }
+            cell = cells.computeIfAbsent(cellKey, key -> new Cell(key, now));
+        }
+        if (!cell.startLoading()) {
+            return;
+        }
+
+        Cell target = cell;
+        double[] center = GeoHash.center(cellKey, precision);
+        double radiusKm = circumradiusKm(center[0]);
+        Circle circle = new Circle(new Point(center[1], center[0]), new Distance(radiusKm, Metrics.KILOMETERS));
+        // 외접원은 셀보다 넓으므로 셀 안의 기사가 max-drivers-per-cell 명이어도 잘리지 않도록 여유를 둠
+        int fetchLimit = maxDriversPerCell * 2;
+        RedisGeoCommands.GeoRadiusCommandArgs args = RedisGeoCommands.GeoRadiusCommandArgs.newGeoRadiusArgs()
+                                                                                          .includeCoordinates()
+                                                                                          .limit(fetchLimit);
+        loadCounter.increment();
+        Flux.fromIterable(locationShards.shardKeys(center[1], center[0], radiusKm))
+            .flatMap(shardKey -> cacheRedisTemplate.opsForGeo().radius(shardKey, circle, args))
+            .collectList()
+            .timeout(LOAD_TIMEOUT)
+            .subscribe(results -> {
+                           Map<String, double[]> members = new HashMap<>();
+                           for (var result : results) {
+                               Point point = result.getContent().getPoint();
+                               if (point != null && GeoHash.encodeBits(point.getY(), point.getX(), precision * 5) == cellKey) {
+                                   members.put(DriverLocationKeys.driverId(result.getContent().getName()),
+                                               new double[]{point.getX(), point.getY()});
+                               }
+                           }
+                           if (results.size() >= fetchLimit || members.size() > maxDriversPerCell) {
+                               loadFailureCounter.increment();
+                               log.debug("기사가 많은 셀은 near-cache 에 보관하지 않음 ({}명)", members.size());
+                               target.failLoading();
+                               return;
+                           }
+                           complete(target, members);
+                       },
+                       e -> {
+                           loadFailureCounter.increment();
+                           log.warn("near-cache 셀 받기 실패: {}", e.toString());
+                           target.failLoading();
+                       });
+    }
+
+    private void complete(Cell cell, Map<String, double[]> members) {
+        if (cells.get(cell.key) != cell) {
+            return; // 받는 동안 버려진 셀
+        }
+        Set<String> loaded = cell.completeLoading(members, clock.getAsLong());
+        for (String driverId : loaded) {
+            // 받은 직후 이벤트로 다른 셀에 들어간 기사는 그쪽을 유지
+            driverCells.compute(driverId, (id, previous) -> {
+                if (previous == null || previous == cell.key) {
+                    return cell.key;
+                }
+                Cell previousCell = cells.get(previous);
+                return previousCell != null && previousCell.contains(id) ? previous : cell.key;
+            });
+        }
+    }
+
+    // 한도에 찬 셀을 가장 오래 쓰이지 않은 것부터 버려 10% 여유를 만듦
+    @Scheduled(fixedDelayString = "${geospatial.search.near-cache.sweep-interval-ms:1000}")
+    public void evictLeastRecentlyUsed() {
+        if (!enabled || cells.size() < maxCells) {
+            return;
+        }
+        int target = Math.max(0, maxCells - Math.max(1, maxCells / 10));
+        List<Cell> ordered = new ArrayList<>(cells.values());
+        ordered.sort(Comparator.comparingLong(cell -> cell.lastAccessAt));
+        for (Cell cell : ordered) {
+            if (cells.size() <= target) {
+                break;
+            }
+            if (cells.remove(cell.key, cell)) {
+                evictionCounter.increment();
+                for (String driverId : cell.driverIds()) {
+                    driverCells.remove(driverId, cell.key);
+                }
+            }
+        }
+    }
+
+    // 셀 중심에서 꼭짓점까지 거리
+    private double circumradiusKm(double latitude) {
+        double halfHeightKm = GeoHash.cellHeightDeg(precision) / 2 * KM_PER_DEGREE;
+        double halfWidthKm = GeoHash.cellWidthDeg(precision) / 2 * KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(latitude)), MIN_COS_LATITUDE);
+        return Math.hypot(halfHeightKm, halfWidthKm) * 1.01;
+    }
+
+    // Redis GEODIST 와 같은 하버사인 거리
+    private static double distanceKm(double lon1, double lat1, double lon2, double lat2) {
+        double lat1r = Math.toRadians(lat1);
+        double lat2r = Math.toRadians(lat2);
+        double u = Math.sin((lat2r - lat1r) / 2);
+        double v = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        return 2.0 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(u * u + Math.cos(lat1r) * Math.cos(lat2r) * v * v));
+    }
+
+    int size() {
+        return cells.size();
+    }
+
+    public record Candidate(String driverId, double longitude, double latitude, double distanceKm) {
+    }
+
+    private static final class Cell {
+
+        private final long key;
+
+        // driverId -> {경도, 위도}
+        private final Map<String, double[]> positions = new HashMap<>();
+
+        // 받는 동안 이벤트로 바뀐 기사 (받은 결과보다 이벤트가 최신)
+        private Set<String> changedWhileLoading;
+
+        private boolean loading;
+
+        private long loadedAt;
+
+        private volatile long lastAccessAt;
+
+        private Cell(long key, long now) {
+            this.key = key;
+            this.lastAccessAt = now;
+        }
+
+        private synchronized boolean isFresh(long now, long maxStaleness) {
+            return loadedAt > 0 && now - loadedAt <= maxStaleness;
+        }
+
+        private synchronized boolean startLoading() {
+            if (loading) {
+                return false;
+            }
+            loading = true;
+            changedWhileLoading = new HashSet<>();
+            return true;
+        }
+
+        private synchronized void failLoading() {
+            loading = false;
+            changedWhileLoading = null;
+        }
+
+        // 받은 결과로 교체하되 받는 동안 이벤트로 바뀐 기사는 이벤트 쪽을 유지, 받은 기사 목록을 반환
+        private synchronized Set<String> completeLoading(Map<String, double[]> members, long now) {
+            Map<String, double[]> kept = new HashMap<>();
+            for (String driverId : changedWhileLoading) {
+                double[] position = positions.get(driverId);
+                if (position != null) {
+                    kept.put(driverId, position);
+                }
+            }
+            positions.clear();
+            members.forEach((driverId, position) -> {
+                if (!changedWhileLoading.contains(driverId)) {
+                    positions.put(driverId, position);
+                }
+            });
+            positions.putAll(kept);
+            loading = false;
+            changedWhileLoading = null;
+            loadedAt = now;
+            return new HashSet<>(positions.keySet());
+        }
+
+        private synchronized void put(String driverId, double longitude, double latitude) {
+            positions.put(driverId, new double[]{longitude, latitude});
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(driverId);
+            }
+        }
+
+        private synchronized void remove(String driverId) {
+            positions.remove(driverId);
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(driverId);
+            }
+        }
+
+        private synchronized boolean contains(String driverId) {
+            return positions.containsKey(driverId);
+        }
+
+        private synchronized List<String> driverIds() {
+            return new ArrayList<>(positions.keySet());
+        }
+
+        private synchronized void collectWithin(double longitude, double latitude, double radiusKm, List<Candidate> out) {
+            positions.forEach((driverId, position) -> {
+                double distance = distanceKm(longitude, latitude, position[0], position[1]);
+                if (distance <= radiusKm) {
+                    out.add(new Candidate(driverId, position[0], position[1], distance));
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.geospatial_service.service;
+
+// 기사 한 명의 Redis 키/멤버 이름 묶음
+// 웹소켓 세션마다 한 번 만들어 두고 위치 업데이트마다 재사용
+public record DriverKeys(String driverId, String member, String activeKey) {
+
+    public static DriverKeys of(String driverId) {
+        return new DriverKeys(driverId, DriverLocationKeys.member(driverId), DriverLocationKeys.activeKey(driverId));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.geospatial_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+// [ZSET 생존 모드] 마지막 수신 시각이 TTL 을 넘긴 기사를
+// 생존 Sorted Set 과 (샤드별) driver_locations 에서 일괄 정리 (생존 Sorted Set 은 score 를 다시 확인하며 삭제)
+// 모든 파드에서 돌지만 삭제는 멱등이므로 별도 리더 선출 없이 동작
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "geospatial.liveness", name = "mode", havingValue = "zset")
+public class DriverLivenessReaper {
+
+    private final DriverLivenessResolver livenessResolver;
+
+    private final ReactiveRedisTemplate<String, String> cacheRedisTemplate;
+
+    private final DriverLocationShards locationShards;
+
+    private final int batchSize;
+
+    public DriverLivenessReaper(
+            DriverLivenessResolver livenessResolver,
+            @Qualifier("cacheRedisTemplate") ReactiveRedisTemplate<String, String> cacheRedisTemplate,
+            DriverLocationShards locationShards,
+            @Value("${geospatial.liveness.reap-batch-size:1000}") int batchSize) {
+        this.livenessResolver = livenessResolver;
+        this.cacheRedisTemplate = cacheRedisTemplate;
+        this.locationShards = locationShards;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${geospatial.liveness.reap-interval-ms:5000}")
+    public void reapExpired() {
+        try {
+            Long reaped = reapBatch().block(Duration.ofSeconds(5));
+            if (reaped != null && reaped > 0) {
+                log.info("만료 기사 일괄 정리: {}명", reaped);
+            }
+        } catch (Exception e) {
+            log.warn("만료 기사 정리 실패: {}", e.toString());
+        }
+    }
+
+    // 생존 Sorted Set 에서 조건부로 지운 기사(Lua, score 재확인)만 위치에서 제거
+    // 생존 정보(Storage)와 위치(Cache)는 서로 다른 Redis 이므로, 조건부 삭제 직후 되살아난 기사는 다음 위치 업데이트로 다시 추가됨
+    Mono<Long> reapBatch() {
+        return livenessResolver.findExpired(batchSize)
+                               .collectList()
+                               .filter(driverIds -> !driverIds.isEmpty())
+                               .flatMap(livenessResolver::removeExpired)
+                               .flatMap(removed -> {
+                                   if (removed.isEmpty()) {
+                                       return Mono.just(0L);
+                                   }
+                                   locationShards.forget(removed);
+                                   String[] members = toMembers(removed);
+                                   return locationShards.allShardKeys()
+                                                        .flatMap(shardKey -> cacheRedisTemplate.opsForGeo().remove(shardKey, members))
+                                                        .then()
+                                                        .thenReturn((long) removed.size());
+                               })
+                               .defaultIfEmpty(0L);
+    }
+
+    private static String[] toMembers(List<String> driverIds) {
+        String[] members = new String[driverIds.size()];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = DriverLocationKeys.member(driverIds.get(i));
+        }
+        return members;
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.geospatial_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.ReactiveStringCommands;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+// 기사 생존 여부 (Storage Redis)
+// - KEY : driver_active:{id} TTL 키 (기사마다 키 1개, 만료는 Redis keyspace expiry 에 맡김)
+// - ZSET: driver_last_seen 단일 Sorted Set (score = 마지막 수신 시각, 만료는 DriverLivenessReaper 가 일괄 정리)
+@Component
+@Slf4j
+public class DriverLivenessResolver {
+
+    static final String DRIVER_LAST_SEEN_KEY = "driver_last_seen";
+
+    // ARGV[1]: cutoff, ARGV[2..]: 기사 ID / score 가 cutoff 미만인 기사만 ZREM
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> REMOVE_EXPIRED_SCRIPT = RedisScript.of("""
+            local cutoff = tonumber(ARGV[1])
+            local removed = {}
+            for i = 2, #ARGV do
+                local score = redis.call('ZSCORE', KEYS[1], ARGV[i])
+                if score and tonumber(score) < cutoff then
+                    redis.call('ZREM', KEYS[1], ARGV[i])
+                    removed[#removed + 1] = ARGV[i]
+                end
+            end
+            return removed
+            """, List.class);
+
+    private final ReactiveRedisTemplate<String, String> storageRedisTemplate;
+
+    private final LivenessMode mode;
+
+    private final Duration ttl;
+
+    private final Duration timeout;
+
+    private final LongSupplier clock;
+
+    @Autowired
+    public DriverLivenessResolver(
+            @Qualifier("storageRedisTemplate") ReactiveRedisTemplate<String, String> storageRedisTemplate,
+            @Value("${geospatial.liveness.mode:key}") LivenessMode mode,
+            @Value("${geospatial.liveness.ttl-seconds:30}") long ttlSeconds,
+            @Value("${geospatial.liveness.timeout-ms:200}") long timeoutMs) {
+        this(storageRedisTemplate, mode, ttlSeconds, timeoutMs, System::currentTimeMillis);
+    }
+
+    DriverLivenessResolver(ReactiveRedisTemplate<String, String> storageRedisTemplate, LivenessMode mode,
+                           long ttlSeconds, long timeoutMs, LongSupplier clock) {
+        this.storageRedisTemplate = storageRedisTemplate;
+        this.mode = mode;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.clock = clock;
+    }
+
+    public LivenessMode mode() {
+        return mode;
+    }
+
+    // 생존 신고 (TTL 갱신)
+    // 기사가 앱을 끄면 갱신되지 않아 TTL 뒤 사라짐 -> 오프라인 처리됨
+    public Mono<Boolean> markAlive(String driverId) {
+        return markAlive(DriverKeys.of(driverId));
+    }
+
+    // 세션에 캐시된 키를 그대로 사용 (업데이트마다 키 문자열을 만들지 않음)
+    public Mono<Boolean> markAlive(DriverKeys driverKeys) {
+        if (mode == LivenessMode.ZSET) {
+            return storageRedisTemplate.opsForZSet()
+                                       .add(DRIVER_LAST_SEEN_KEY, driverKeys.driverId(), clock.getAsLong());
+        }
+        return storageRedisTemplate.opsForValue()
+                                   .set(driverKeys.activeKey(), "1", ttl);
+    }
+
+    // 여러 기사의 생존 신고를 한 번에 전송 (KEY: SET EX 파이프라인, ZSET: 다중 멤버 ZADD)
+    public Mono<Void> markAlive(Collection<String> driverIds) {
+        if (driverIds.isEmpty()) {
+            return Mono.empty();
+        }
+
+        if (mode == LivenessMode.ZSET) {
+            double now = clock.getAsLong();
+            List<ZSetOperations.TypedTuple<String>> tuples = new ArrayList<>(driverIds.size());
+            for (String driverId : driverIds) {
+                tuples.add(ZSetOperations.TypedTuple.of(driverId, now));
+            }
+            return storageRedisTemplate.opsForZSet()
+                                       .addAll(DRIVER_LAST_SEEN_KEY, tuples)
+                                       .then();
+        }
+
+        ByteBuffer value = ByteBuffer.wrap("1".getBytes(StandardCharsets.UTF_8));
+        Expiration expiration = Expiration.from(ttl);
+
+        return storageRedisTemplate.execute(connection -> connection.stringCommands().set(
+                                           Flux.fromIterable(driverIds)
+                                               .map(driverId -> ReactiveStringCommands.SetCommand
+                                                       .set(ByteBuffer.wrap(DriverLocationKeys.activeKey(driverId).getBytes(StandardCharsets.UTF_8)))
+                                                       .value(value.duplicate())
+                                                       .expiring(expiration))))
+                                   .then();
+    }
+
+    // 후보 기사 전체를 한 번에 확인하여 살아있는 기사 ID 만 반환 (KEY: MGET, ZSET: ZMSCORE)
+    // 조회가 지연/실패하면 에러를 그대로 전달하므로 호출 측에서 정책(결과 제외 등)을 결정
+    public Mono<Set<String>> resolveAlive(List<String> driverIds) {
+        if (driverIds.isEmpty()) {
+            return Mono.just(Set.of());
+        }
+
+        Mono<Set<String>> alive = mode == LivenessMode.ZSET ? resolveByLastSeen(driverIds) : resolveByActiveKeys(driverIds);
+
+        return alive.timeout(timeout)
+                    .doOnError(e -> log.warn("기사 생존 일괄 확인 실패 (후보 {}명): {}", driverIds.size(), e.toString()));
+    }
+
+    // [ZSET] 마지막 수신 시각이 TTL 을 넘긴 기사 (오래된 순, 최대 limit 명)
+    public Flux<String> findExpired(int limit) {
+        Range<Double> expired = Range.of(Range.Bound.unbounded(), Range.Bound.exclusive((double) cutoff()));
+        return storageRedisTemplate.opsForZSet()
+                                   .rangeByScore(DRIVER_LAST_SEEN_KEY, expired, Limit.limit().count(limit));
+    }
+
+    // [ZSET] 만료 기사 중 지금도 score 가 cutoff 미만인 기사만 삭제하고, 실제로 삭제한 기사 ID 를 반환
+    // (조회 이후 ZADD 로 다시 살아난 기사는 남겨둠)
+    public Mono<List<String>> removeExpired(Collection<String> driverIds) {
+        List<String> args = new ArrayList<>(driverIds.size() + 1);
+        args.add(Long.toString(cutoff()));
+        args.addAll(driverIds);
+        return storageRedisTemplate.execute(REMOVE_EXPIRED_SCRIPT, List.of(DRIVER_LAST_SEEN_KEY), args)
+                                   .next()
+                                   .map(removed -> {
+                                       List<String> result = new ArrayList<>(removed.size());
+                                       for (Object driverId : removed) {
+                                           result.add(String.valueOf(driverId));
+                                       }
+                                       return result;
+                                   })
+                                   .defaultIfEmpty(List.of());
+    }
+
+    private Mono<Set<String>> resolveByActiveKeys(List<String> driverIds) {
+        List<String> keys = new ArrayList<>(driverIds.size());
+        for (String driverId : driverIds) {
+            keys.add(DriverLocationKeys.activeKey(driverId));
+        }
+
+        return storageRedisTemplate.opsForValue()
+                                   .multiGet(keys)
+                                   .map(values -> {
+                                       Set<String> alive = new HashSet<>(values.size());
+                                       for (int i = 0; i < values.size(); i++) {
+                                           if (values.get(i) != null) {
+                                               alive.add(driverIds.get(i));
+                                           }
+                                       }
+                                       return alive;
+                                   });
+    }
+
+    private Mono<Set<String>> resolveByLastSeen(List<String> driverIds) {
+        long cutoff = cutoff();
+        return storageRedisTemplate.opsForZSet()
+                                   .score(DRIVER_LAST_SEEN_KEY, driverIds.toArray())
+                                   .map(scores -> {
+                                       Set<String> alive = new HashSet<>(scores.size());
+                                       for (int i = 0; i < scores.size(); i++) {
+                                           Double lastSeen = scores.get(i);
+                                           if (lastSeen != null && lastSeen >= cutoff) {
+                                               alive.add(driverIds.get(i));
+                                           }
+                                       }
+                                       return alive;
+                                   });
+    }
+
+    private long cutoff() {
+        return clock.getAsLong() - ttl.toMillis();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.geospatial_service.service;
+
+// 기사 위치 관련 Redis 키/멤버 이름 규칙
+public final class DriverLocationKeys {
+
+    public static final String DRIVER_LOCATIONS_KEY = "driver_locations";
+    public static final String DRIVER_MEMBER_PREFIX = "driver:";
+    public static final String DRIVER_ACTIVE_KEY_PREFIX = "driver_active:";
+
+    private DriverLocationKeys() {
+    }
+
+    public static String member(String driverId) {
+        return DRIVER_MEMBER_PREFIX + driverId;
+    }
+
+    public static String activeKey(String driverId) {
+        return DRIVER_ACTIVE_KEY_PREFIX + driverId;
+    }
+
+    public static String driverId(String member) {
+        return member.substring(DRIVER_MEMBER_PREFIX.length());
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.geospatial_service.service;
+
+import com.example.geospatial_service.geo.GeoHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import static com.example.geospatial_service.service.DriverLocationKeys.DRIVER_LOCATIONS_KEY;
+
+// 기사 위치 Geo Set 샤딩 (geospatial.shard.enabled)
+// - 비활성: 단일 키 driver_locations
+// - 활성  : 거친 geohash 셀마다 driver_locations:{wydm} 키 (hash tag 로 셀마다 다른 클러스터 슬롯에 배치)
+@Component
+@Slf4j
+public class DriverLocationShards {
+
+    // 사용 중인 샤드 키 목록 (클러스터에서 SCAN 없이 전체 샤드를 찾기 위함)
+    static final String SHARD_REGISTRY_KEY = "driver_locations:shards";
+
+    private static final double KM_PER_DEGREE = 111.2;
+
+    private final ReactiveRedisTemplate<String, String> cacheRedisTemplate;
+
+    private final boolean enabled;
+
+    private final int precision;
+
+    private final long registryRefreshMillis;
+
+    private final LongSupplier clock;
+
+    // 이 파드에 연결된 기사별 마지막 샤드 (샤드가 바뀌면 이전 샤드에서 제거, 연결 종료/만료 정리 시 제거)
+    private final ConcurrentHashMap<String, String> lastShardByDriver = new ConcurrentHashMap<>();
+
+    // 샤드 키 -> 마지막으로 SADD 한 시각
+    private final ConcurrentHashMap<String, Long> registeredShards = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DriverLocationShards(
+            @Qualifier("cacheRedisTemplate") ReactiveRedisTemplate<String, String> cacheRedisTemplate,
+            @Value("${geospatial.shard.enabled:false}") boolean enabled,
+            @Value("${geospatial.shard.precision:4}") int precision,
+            @Value("${geospatial.shard.registry-refresh-ms:30000}") long registryRefreshMillis) {
+        this(cacheRedisTemplate, enabled, precision, registryRefreshMillis, System::currentTimeMillis);
+    }
+
+    DriverLocationShards(ReactiveRedisTemplate<String, String> cacheRedisTemplate, boolean enabled, int precision) {
+        this(cacheRedisTemplate, enabled, precision, 30_000, System::currentTimeMillis);
+    }
+
+    DriverLocationShards(ReactiveRedisTemplate<String, String> cacheRedisTemplate, boolean enabled, int precision,
+                         long registryRefreshMillis, LongSupplier clock) {
+        this.cacheRedisTemplate = cacheRedisTemplate;
+        this.enabled = enabled;
+        this.precision = precision;
+        this.registryRefreshMillis = registryRefreshMillis;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String shardKey(double longitude, double latitude) {
+        if (!enabled) {
+            return DRIVER_LOCATIONS_KEY;
+        }
+        return keyOf(GeoHash.encode(latitude, longitude, precision));
+    }
+
+    // 검색 원의 외접 사각형과 겹치는 샤드만 반환
+    public List<String> shardKeys(double longitude, double latitude, double radiusKm) {
+        if (!enabled) {
+            return List.of(DRIVER_LOCATIONS_KEY);
+        }
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        double lonDelta = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+        return GeoHash.covering(latitude - latDelta, longitude - lonDelta, latitude + latDelta, longitude + lonDelta, precision)
+                      .stream()
+                      .map(DriverLocationShards::keyOf)
+                      .toList();
+    }
+
+    // 기사가 새 샤드에 기록될 때, 예전 위치가 남아있을 수 있는 샤드 목록
+    // 이 파드에서 처음 보는 기사(재접속 등)는 이전 샤드를 모르므로 인접 샤드를 모두 정리 대상으로 봄
+    public List<String> staleShardKeys(String driverId, String currentKey) {
+        if (!enabled) {
+            return List.of();
+        }
+        String previousKey = lastShardByDriver.put(driverId, currentKey);
+        if (previousKey == null) {
+            String cell = currentKey.substring(currentKey.indexOf('{') + 1, currentKey.length() - 1);
+            return GeoHash.withNeighbors(cell).stream()
+                          .map(DriverLocationShards::keyOf)
+                          .filter(key -> !key.equals(currentKey))
+                          .toList();
+        }
+        return previousKey.equals(currentKey) ? List.of() : List.of(previousKey);
+    }
+
+    // 연결이 끊기거나 만료 정리된 기사 (다시 접속하면 처음 보는 기사로 보고 인접 샤드를 정리)
+    public void forget(String driverId) {
+        lastShardByDriver.remove(driverId);
+    }
+
+    public void forget(Collection<String> driverIds) {
+        driverIds.forEach(lastShardByDriver::remove);
+    }
+
+    // 샤드 키를 레지스트리에 등록 (키마다 registry-refresh-ms 에 한 번 SADD)
+    // Cache Redis 가 비워져도 다음 갱신 주기 안에 쓰기가 있는 샤드는 다시 등록됨
+    // 이미 등록했던 키가 새로 추가됐다면 레지스트리가 사라진 것이므로 다른 샤드도 다음 쓰기에서 바로 다시 등록
+    public Mono<Void> register(String shardKey) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        long now = clock.getAsLong();
+        Long registeredAt = registeredShards.get(shardKey);
+        if (registeredAt != null && now - registeredAt < registryRefreshMillis) {
+            return Mono.empty();
+        }
+        return cacheRedisTemplate.opsForSet()
+                                 .add(SHARD_REGISTRY_KEY, shardKey)
+                                 .doOnSuccess(added -> {
+                                     if (registeredAt != null && added != null && added > 0) {
+                                         log.warn("샤드 레지스트리에서 사라진 샤드 재등록: {}", shardKey);
+                                         registeredShards.clear();
+                                     }
+                                     registeredShards.put(shardKey, now);
+                                 })
+                                 .then();
+    }
+
+    public Flux<String> allShardKeys() {
+        if (!enabled) {
+            return Flux.just(DRIVER_LOCATIONS_KEY);
+        }
+        return cacheRedisTemplate.opsForSet().members(SHARD_REGISTRY_KEY);
+    }
+
+    private static String keyOf(String cell) {
+        return DRIVER_LOCATIONS_KEY + ":{" + cell + "}";
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.geospatial_service.service;
+
+// 기사 생존 정보 저장 방식 (geospatial.liveness.mode)
+public enum LivenessMode {
+    // 기사별 driver_active:{id} 문자열 키 + TTL
+    KEY,
+    // 단일 Sorted Set (member: 기사 ID, score: 마지막 수신 시각 ms) + 주기적 일괄 정리
+    ZSET
+}
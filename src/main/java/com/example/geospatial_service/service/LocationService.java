@@ -1,21 +1,37 @@
 package com.example.geospatial_service.service;
 
 import com.example.geospatial_service.dto.NearbyDriverResponse;
-import com.example.geospatial_service.kafka.dto.DriverLocationUpdatedEvent;
+import com.example.geospatial_service.dto.NearbySearchQuery;
+import com.example.geospatial_service.dto.NearbySearchResult;
+import com.example.geospatial_service.index.DriverLocationIndex;
+import com.example.geospatial_service.index.SearchEngine;
+import com.example.geospatial_service.kafka.LocationEventPublisher;
+import com.example.geospatial_service.trajectory.DriverTrajectoryStore;
+import com.example.geospatial_service.zone.DriverZoneTracker;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.geo.Circle;
 import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
 import org.springframework.data.geo.Metrics;
 import org.springframework.data.geo.Point;
 import org.springframework.data.redis.connection.RedisGeoCommands;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
 
 @Service
 @Slf4j
@@ -23,77 +39,526 @@ public class LocationService {
 
     private final ReactiveRedisTemplate<String, String> cacheRedisTemplate;
 
-    private final ReactiveRedisTemplate<String, String> storageRedisTemplate;
+    private final DriverLivenessResolver livenessResolver;
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final DriverAvailability availability;
 
-    private static final String LOCATION_EVENTS_TOPIC = "location_events";
-    private static final String DRIVER_LOCATIONS_KEY = "driver_locations";
-    private static final String DRIVER_ACTIVE_KEY_PREFIX = "driver_active:";
+    private final LocationWriteBehindBuffer writeBehindBuffer;
+
+    private final DriverLocationShards locationShards;
+
+    private final LocationEventPublisher locationEventPublisher;
+
+    private final DriverLocationIndex locationIndex;
+
+    private final NearbySearchCache searchCache;
+
+    private final DriverCellNearCache nearCache;
+
+    private final DriverTrajectoryStore trajectoryStore;
+
+    private final DriverZoneTracker zoneTracker;
+
+    private final SearchEngine searchEngine;
+
+    private final SearchMetrics metrics;
+
+    private static final int SEARCH_LIMIT = 50;
+
+    // KNN 링 확장: 1km 부터 반경을 두 배씩
+    // 한 링에서 가져오는 후보는 400명까지 두 배씩, 그래도 잘리면 400명씩 더 (운행 중/유령 기사가 몰린 지역)
+    private static final double KNN_INITIAL_RADIUS_KM = 1.0;
+    private static final int KNN_MAX_FETCH = 400;
+
+    // 일괄 검색에서 한 번에 파이프라인으로 보내고 생존 확인을 공유하는 질의 수
+    private static final int BATCH_SEARCH_CHUNK = 64;
 
     public LocationService(
             @Qualifier("cacheRedisTemplate") ReactiveRedisTemplate<String, String> cacheRedisTemplate,
-            @Qualifier("storageRedisTemplate") ReactiveRedisTemplate<String, String> storageRedisTemplate,
-            KafkaTemplate<String, Object> kafkaTemplate) {
+            DriverLivenessResolver livenessResolver,
+            DriverAvailability availability,
+            LocationWriteBehindBuffer writeBehindBuffer,
+            DriverLocationShards locationShards,
+            LocationEventPublisher locationEventPublisher,
+            DriverLocationIndex locationIndex,
+            NearbySearchCache searchCache,
+            DriverCellNearCache nearCache,
+            DriverTrajectoryStore trajectoryStore,
+            DriverZoneTracker zoneTracker,
+            MeterRegistry meterRegistry,
+            @Value("${geospatial.search.engine:redis}") SearchEngine searchEngine) {
         this.cacheRedisTemplate = cacheRedisTemplate;
-        this.storageRedisTemplate = storageRedisTemplate;
-        this.kafkaTemplate = kafkaTemplate;
+        this.livenessResolver = livenessResolver;
+        this.availability = availability;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.locationShards = locationShards;
+        this.locationEventPublisher = locationEventPublisher;
+        this.locationIndex = locationIndex;
+        this.searchCache = searchCache;
+        this.nearCache = nearCache;
+        this.trajectoryStore = trajectoryStore;
+        this.zoneTracker = zoneTracker;
+        this.searchEngine = searchEngine;
+        this.metrics = new SearchMetrics(meterRegistry);
     }
 
     public Mono<Void> updateDriverLocation(String driverId, double longitude, double latitude) {
+        return updateDriverLocation(DriverKeys.of(driverId), longitude, latitude);
+    }
+
+    public Mono<Void> updateDriverLocation(DriverKeys driverKeys, double longitude, double latitude) {
+        return updateDriverLocation(driverKeys, longitude, latitude, UnaryOperator.identity());
+    }
+
+    // 저장은 구독 시점에 시작하고, 궤적/구역/인덱스/location_events 반영은 저장이 끝난 뒤에 함
+    // (조립만 하고 구독하지 않거나 저장이 실패하면 아무것도 반영하지 않음)
+    // Write-Behind 면 그 위치가 flush 로 Redis 에 반영된 뒤에 완료되고, flush 실패/대기열 초과는 에러로 끝남
+    // 반환 Mono 는 location_events 의 브로커 ack 까지 기다리고, storeTracker 는 Redis 저장 구간만 감쌈 (부하 판단에 Kafka 지연을 넣지 않음)
+    public Mono<Void> updateDriverLocation(DriverKeys driverKeys, double longitude, double latitude,
+                                           UnaryOperator<Mono<Void>> storeTracker) {
+        String driverId = driverKeys.driverId();
+        return storeTracker.apply(Mono.defer(() -> store(driverKeys, longitude, latitude)))
+                           .then(Mono.defer(() -> {
+                               onStored(driverId, longitude, latitude);
+                               // [Kafka] 전송 스레드에서 보내고 ack 까지 기다림
+                               return locationEventPublisher.publish(driverId, latitude, longitude);
+                           }));
+    }
+
+    private Mono<Void> store(DriverKeys driverKeys, double longitude, double latitude) {
+        String driverId = driverKeys.driverId();
+
+        // [Write-Behind] 기사별 마지막 위치만 모아 다중 GEOADD / 파이프라인 SET EX 로 반영 (반영될 때까지 기다림)
+        if (writeBehindBuffer.isEnabled()) {
+            return writeBehindBuffer.enqueue(driverId, longitude, latitude);
+        }
+
         Point point = new Point(longitude, latitude);
+        String member = driverKeys.member();
+        String shardKey = locationShards.shardKey(longitude, latitude);
 
-        kafkaTemplate.send(LOCATION_EVENTS_TOPIC, new DriverLocationUpdatedEvent(driverId, latitude, longitude));
+        Mono<Long> geoAdd = locationShards.register(shardKey)
+                                          .then(cacheRedisTemplate.opsForGeo().add(shardKey, point, member));
 
-        Mono<Long> geoAdd = cacheRedisTemplate.opsForGeo()
-                                              .add(DRIVER_LOCATIONS_KEY, point, "driver:" + driverId);
+        // [Shard] 다른 샤드로 이동했다면 이전 샤드에 남은 위치 제거
+        Mono<Void> leaveShards = Flux.fromIterable(locationShards.staleShardKeys(driverId, shardKey))
+                                     .flatMap(staleKey -> cacheRedisTemplate.opsForGeo().remove(staleKey, member))
+                                     .then();
 
         // [Storage] 생존 신고 (30초 TTL)
-        // 기사가 앱을 끄면 이 키가 갱신되지 않아 30초 뒤 사라짐 -> 오프라인 처리됨
-        Mono<Boolean> setAlive = storageRedisTemplate.opsForValue()
-                                                     .set(DRIVER_ACTIVE_KEY_PREFIX + driverId, "1", Duration.ofSeconds(30));
+        Mono<Boolean> setAlive = livenessResolver.markAlive(driverKeys);
+
+        return Mono.when(geoAdd, leaveShards, setAlive);
+    }
+
+    private void onStored(String driverId, double longitude, double latitude) {
+        // [Trajectory] 기사별 궤적 버퍼에 추가 (세그먼트 저장은 비동기)
+        trajectoryStore.record(driverId, longitude, latitude);
+
+        // [Zone] 속한 구역이 바뀐 경우에만 zone_events 발행
+        zoneTracker.onLocation(driverId, longitude, latitude);
 
-        return Mono.zip(geoAdd, setAlive)
-                   .doOnSuccess(t -> log.debug("위치 업데이트 완료: {}", driverId))
-                   .then();
+        // [Memory] 로컬 인덱스에 바로 반영 (다른 파드의 기사는 location_events 로 반영됨)
+        if (searchEngine == SearchEngine.MEMORY) {
+            locationIndex.upsert(driverId, longitude, latitude);
+        }
+
+        log.debug("위치 저장 완료: {}", driverId);
+    }
+
+    // 이 파드에서 기사 연결이 끊김: 파드 로컬 기사별 상태 정리 (위치 자체는 생존 TTL 로 정리됨)
+    public void driverDisconnected(String driverId) {
+        locationShards.forget(driverId);
     }
 
+    // 같은 셀/반경의 짧은 시간 내 반복 검색은 캐시에서 응답 (geospatial.search.cache.enabled)
     public Flux<NearbyDriverResponse> findNearbyDrivers(double longitude, double latitude, int radiusKm) {
+        return searchCache.get(longitude, latitude, radiusKm, () -> searchNearbyDrivers(longitude, latitude, radiusKm));
+    }
+
+    private Flux<NearbyDriverResponse> searchNearbyDrivers(double longitude, double latitude, int radiusKm) {
+        // 인덱스가 워밍업되기 전(기동 직후 TTL 한 주기)에는 원본인 Redis 로 검색
+        if (searchEngine == SearchEngine.MEMORY && locationIndex.isWarm()) {
+            return metrics.search(SearchMetrics.NEARBY, SearchEngine.MEMORY,
+                                  Flux.defer(() -> Flux.fromIterable(assignableLocally(
+                                          locationIndex.findWithinRadius(longitude, latitude, radiusKm, availability.fetchLimit(SEARCH_LIMIT)), SEARCH_LIMIT))))
+                          .doOnSubscribe(s -> log.debug("주변 기사 검색 (Memory). Center: ({}, {}), Radius: {}km", longitude, latitude, radiusKm));
+        }
+
         Point center = new Point(longitude, latitude);
         Distance radius = new Distance(radiusKm, Metrics.KILOMETERS);
         Circle circle = new Circle(center, radius);
 
+        // 운행 중 기사를 거르고도 50명을 채우도록 후보는 fetchLimit 만큼
+        int fetchLimit = availability.fetchLimit(SEARCH_LIMIT);
+        RedisGeoCommands.GeoRadiusCommandArgs args = RedisGeoCommands.GeoRadiusCommandArgs.newGeoRadiusArgs()
+                                                                                          .includeDistance()
+                                                                                          .sortAscending()
+                                                                                          .limit(fetchLimit);
+
+        return metrics.search(SearchMetrics.NEARBY, SearchEngine.REDIS,
+                              metrics.georadius(findCandidates(SearchMetrics.NEARBY, circle, args, fetchLimit)
+                                                        .take(fetchLimit)
+                                                        .collectList())
+                                     .flatMapMany(this::filterAlive)
+                                     .take(SEARCH_LIMIT))
+                      .doOnSubscribe(s -> log.info("주변 기사 검색 시작. Center: {}, Radius: {}km", center, radiusKm));
+    }
+
+    // 여러 질의를 묶음 단위로 처리: 묶음 안의 GEORADIUS 는 한 커넥션에 파이프라인으로 보내고,
+    // 겹치는 후보 기사는 한 번만 생존 확인한 뒤 질의 순서대로 결과를 흘려보냄
+    public Flux<NearbySearchResult> findNearbyDriversBatch(List<NearbySearchQuery> queries) {
+        if (searchEngine == SearchEngine.MEMORY && locationIndex.isWarm()) {
+            return metrics.search(SearchMetrics.BATCH, SearchEngine.MEMORY,
+                                  Flux.fromIterable(queries)
+                                      .map(query -> new NearbySearchResult(query.queryId(), assignableLocally(
+                                              locationIndex.findWithinRadius(query.longitude(), query.latitude(), query.radius(),
+                                                                             availability.fetchLimit(SEARCH_LIMIT)), SEARCH_LIMIT))));
+        }
+
+        return metrics.search(SearchMetrics.BATCH, SearchEngine.REDIS,
+                              Flux.fromIterable(queries)
+                                  .buffer(BATCH_SEARCH_CHUNK)
+                                  .concatMap(this::searchChunk))
+                      .doOnSubscribe(s -> log.info("주변 기사 일괄 검색 시작. 질의 {}건", queries.size()));
+    }
+
+    private Flux<NearbySearchResult> searchChunk(List<NearbySearchQuery> chunk) {
+        // 같은 위치/반경의 질의는 GEORADIUS 한 번으로 처리
+        Map<SearchArea, Integer> areaIndex = new LinkedHashMap<>();
+        for (NearbySearchQuery query : chunk) {
+            areaIndex.putIfAbsent(SearchArea.of(query), areaIndex.size());
+        }
+
+        return metrics.georadius(Flux.fromIterable(areaIndex.keySet())
+                                     .flatMapSequential(area -> searchArea(area).collectList(), areaIndex.size())
+                                     .collectList())
+                   .flatMapMany(candidatesByArea -> {
+                       Set<String> driverIds = new LinkedHashSet<>();
+                       for (List<GeoCandidate> candidates : candidatesByArea) {
+                           for (GeoCandidate candidate : candidates) {
+                               driverIds.add(candidate.driverId());
+                           }
+                       }
+
+                       if (driverIds.isEmpty()) {
+                           return Flux.fromIterable(toBatchResults(chunk, areaIndex, List.of()));
+                       }
+
+                       return metrics.liveness(resolveAssignable(new ArrayList<>(driverIds)), driverIds.size())
+                                     .map(status -> {
+                                         List<GeoCandidate> stale = new ArrayList<>();
+                                         List<List<NearbyDriverResponse>> driversByArea = new ArrayList<>(candidatesByArea.size());
+                                         for (List<GeoCandidate> candidates : candidatesByArea) {
+                                             List<NearbyDriverResponse> drivers = new ArrayList<>(Math.min(candidates.size(), SEARCH_LIMIT));
+                                             for (GeoCandidate candidate : candidates) {
+                                                 if (!status.isAlive(candidate.driverId())) {
+                                                     stale.add(candidate);
+                                                 } else if (status.isAssignable(candidate.driverId()) && drivers.size() < SEARCH_LIMIT) {
+                                                     drivers.add(new NearbyDriverResponse(candidate.driverId(), candidate.distanceKm()));
+                                                 }
+                                             }
+                                             driversByArea.add(drivers);
+                                         }
+                                         evictStaleMembers(stale);
+                                         return toBatchResults(chunk, areaIndex, driversByArea);
+                                     })
+                                     // 생존 확인이 지연/실패하면 단건 검색과 같이 이 묶음은 빈 결과로 응답
+                                     .onErrorResume(e -> {
+                                         metrics.recordLivenessFailure(e);
+                                         log.warn("일괄 검색 생존 확인 중 오류/타임아웃 발생 (후보 {}명), 결과에서 제외합니다.", driverIds.size());
+                                         return Mono.just(toBatchResults(chunk, areaIndex, List.of()));
+                                     })
+                                     .flatMapIterable(results -> results);
+                   });
+    }
+
+    // 질의 순서대로 해당 영역의 결과를 짝지음 (driversByArea 가 비어 있으면 모두 빈 결과)
+    private static List<NearbySearchResult> toBatchResults(List<NearbySearchQuery> chunk, Map<SearchArea, Integer> areaIndex,
+                                                           List<List<NearbyDriverResponse>> driversByArea) {
+        List<NearbySearchResult> results = new ArrayList<>(chunk.size());
+        for (NearbySearchQuery query : chunk) {
+            List<NearbyDriverResponse> drivers = driversByArea.isEmpty() ? List.of() : driversByArea.get(areaIndex.get(SearchArea.of(query)));
+            results.add(new NearbySearchResult(query.queryId(), drivers));
+        }
+        return results;
+    }
+
+    private Flux<GeoCandidate> searchArea(SearchArea area) {
+        Circle circle = new Circle(new Point(area.longitude(), area.latitude()), new Distance(area.radiusKm(), Metrics.KILOMETERS));
+        int fetchLimit = availability.fetchLimit(SEARCH_LIMIT);
+        RedisGeoCommands.GeoRadiusCommandArgs args = RedisGeoCommands.GeoRadiusCommandArgs.newGeoRadiusArgs()
+                                                                                          .includeDistance()
+                                                                                          .sortAscending()
+                                                                                          .limit(fetchLimit);
+        return findCandidates(SearchMetrics.BATCH, circle, args, fetchLimit).take(fetchLimit);
+    }
+
+    // 살아있는 기사 중 가까운 K명 (maxRadiusKm 안에서 링을 넓혀가며 K명을 채우면 바로 종료)
+    public Flux<NearbyDriverResponse> findNearestDrivers(double longitude, double latitude, int k, double maxRadiusKm) {
+        if (searchEngine == SearchEngine.MEMORY && locationIndex.isWarm()) {
+            return metrics.search(SearchMetrics.NEAREST, SearchEngine.MEMORY,
+                                  Flux.defer(() -> Flux.fromIterable(assignableLocally(
+                                          locationIndex.findNearest(longitude, latitude, availability.fetchLimit(k), maxRadiusKm), k))))
+                          .doOnSubscribe(s -> log.debug("가까운 기사 {}명 검색 (Memory). Center: ({}, {})", k, longitude, latitude));
+        }
+
+        return metrics.search(SearchMetrics.NEAREST, SearchEngine.REDIS,
+                              Mono.defer(() -> searchRing(new NearestSearch(longitude, latitude, k, maxRadiusKm),
+                                                          Math.min(KNN_INITIAL_RADIUS_KM, maxRadiusKm), Math.min(k * 2, KNN_MAX_FETCH)))
+                                  .flatMapIterable(drivers -> drivers)
+                                  // 생존 확인이 지연/실패하면 반경 검색과 같이 빈 결과로 응답
+                                  .onErrorResume(e -> {
+                                      metrics.recordLivenessFailure(e);
+                                      log.warn("가까운 기사 검색 중 생존 확인 실패, 결과에서 제외합니다. ({})", e.toString());
+                                      return Flux.empty();
+                                  }))
+                      .doOnSubscribe(s -> log.info("가까운 기사 {}명 검색 시작. Center: ({}, {}), Max Radius: {}km", k, longitude, latitude, maxRadiusKm));
+    }
+
+    // 거리순 후보를 limit 명까지 가져와 처음 보는 기사만 생존 확인
+    // - 살아있는 기사가 K명 이상이면 종료 (링 안의 거리순 앞부분이므로 전체에서도 가장 가까운 K명)
+    // - 후보가 limit 에 걸려 잘렸다면 같은 링에서 limit 을 늘리고 (K명을 채우거나 링을 다 볼 때까지), 링을 다 봤다면 반경을 넓힘
+    private Mono<List<NearbyDriverResponse>> searchRing(NearestSearch search, double radiusKm, int limit) {
+        Circle circle = new Circle(new Point(search.longitude, search.latitude), new Distance(radiusKm, Metrics.KILOMETERS));
         RedisGeoCommands.GeoRadiusCommandArgs args = RedisGeoCommands.GeoRadiusCommandArgs.newGeoRadiusArgs()
                                                                                           .includeDistance()
                                                                                           .sortAscending()
-                                                                                          .limit(50);
-
-        return cacheRedisTemplate.opsForGeo()
-                                 .radius(DRIVER_LOCATIONS_KEY, circle, args)
-                                 // flatMap -> flatMapSequential (순서 보장)
-                                 .flatMapSequential(geoResult -> {
-                                     String memberName = geoResult.getContent().getName();
-                                     String driverId = memberName.split(":")[1];
-                                     double distance = geoResult.getDistance().getValue();
-
-                                     return storageRedisTemplate.hasKey(DRIVER_ACTIVE_KEY_PREFIX + driverId)
-                                                                .flatMap(isAlive -> {
-                                                                    if (isAlive) {
-                                                                        return Mono.just(new NearbyDriverResponse(driverId, distance));
-                                                                    } else {
-                                                                        return cacheRedisTemplate.opsForGeo()
-                                                                                                 .remove(DRIVER_LOCATIONS_KEY, memberName)
-                                                                                                 .then(Mono.empty());
-                                                                    }
-                                                                })
-                                                                 // 특정 기사 조회가 지연되어 전체 배차 순서가 밀리는 것을 방지합니다.
-                                                                .timeout(Duration.ofMillis(200))
-                                                                 // 타임아웃이나 Redis 에러 발생 시 해당 기사는 패스(Mono.empty)하고 다음 순서 기사로 넘어갑니다.
-                                                                .onErrorResume(e -> {
-                                                                    log.warn("기사 상태 확인 중 오류/타임아웃 발생 (DriverID: {}), 건너뜁니다.", driverId);
-                                                                    return Mono.empty();
-                                                                });
-                                 }, 10) // 동시성 수 제한
-                                 .doOnSubscribe(s -> log.info("주변 기사 검색 시작. Center: {}, Radius: {}km", center, radiusKm));
-    }
-}
\ No newline at end of file
+                                                                                          .limit(limit);
+
+        return metrics.georadius(findCandidates(SearchMetrics.NEAREST, circle, args, limit)
+                                         .take(limit)
+                                         .collectList())
+                .flatMap(candidates -> resolveUnknown(search, candidates).thenReturn(candidates))
+                .flatMap(candidates -> {
+                    search.rings++;
+                    List<NearbyDriverResponse> drivers = search.aliveInOrder(candidates);
+                    if (drivers.size() >= search.k) {
+                        log.debug("가까운 기사 {}명 확보 (반경 {}km, 링 {}회)", search.k, radiusKm, search.rings);
+                        return Mono.just(drivers);
+                    }
+                    if (candidates.size() >= limit) {
+                        return searchRing(search, radiusKm, nextLimit(limit));
+                    }
+                    if (candidates.size() < limit && radiusKm < search.maxRadiusKm) {
+                        return searchRing(search, Math.min(radiusKm * 2, search.maxRadiusKm), limit);
+                    }
+                    return Mono.just(drivers);
+                });
+    }
+
+    // GEORADIUS 는 offset 이 없으므로 limit 을 늘려 다음 구간을 가져옴 (앞부분은 이미 확인했으므로 생존 확인을 다시 하지 않음)
+    private static int nextLimit(int limit) {
+        return limit < KNN_MAX_FETCH ? Math.min(limit * 2, KNN_MAX_FETCH) : limit + KNN_MAX_FETCH;
+    }
+
+    // 이전 링에서 이미 확인한 기사는 다시 조회하지 않음
+    private Mono<Void> resolveUnknown(NearestSearch search, List<GeoCandidate> candidates) {
+        List<String> unknown = new ArrayList<>();
+        for (GeoCandidate candidate : candidates) {
+            if (!search.aliveById.containsKey(candidate.driverId())) {
+                unknown.add(candidate.driverId());
+            }
+        }
+        if (unknown.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return metrics.liveness(resolveAssignable(unknown), unknown.size())
+                      .doOnNext(status -> {
+                          List<GeoCandidate> stale = new ArrayList<>();
+                          for (GeoCandidate candidate : candidates) {
+                              String driverId = candidate.driverId();
+                              if (search.aliveById.containsKey(driverId)) {
+                                  continue;
+                              }
+                              // 운행 중 기사는 결과에서만 빠지고 (살아있으므로) Geo 인덱스에서는 지우지 않음
+                              search.aliveById.put(driverId, status.isAssignable(driverId));
+                              if (!status.isAlive(driverId)) {
+                                  stale.add(candidate);
+                              }
+                          }
+                          evictStaleMembers(stale);
+                      })
+                      .then();
+    }
+
+    // 검색 원을 덮는 셀이 near-cache 에 신선하게 있으면 로컬에서, 아니면 Cache Redis 에서 거리순 후보를 가져옴
+    private Flux<GeoCandidate> findCandidates(String searchType, Circle circle, RedisGeoCommands.GeoRadiusCommandArgs args, int limit) {
+        double longitude = circle.getCenter().getX();
+        double latitude = circle.getCenter().getY();
+        double radiusKm = circle.getRadius().getValue();
+        return Flux.defer(() -> {
+            List<DriverCellNearCache.Candidate> cached = nearCache.lookup(searchType, longitude, latitude, radiusKm, limit);
+            if (cached != null) {
+                return Flux.fromIterable(cached)
+                           .map(candidate -> new GeoCandidate(locationShards.shardKey(candidate.longitude(), candidate.latitude()),
+                                                              DriverLocationKeys.member(candidate.driverId()),
+                                                              candidate.driverId(), candidate.distanceKm()));
+            }
+            return searchShards(locationShards.shardKeys(longitude, latitude, radiusKm), circle, args);
+        });
+    }
+
+    // 검색 원과 겹치는 샤드에만 GEORADIUS 를 보내고, 샤드별 거리순 결과를 거리순으로 병합
+    @SuppressWarnings("unchecked")
+    private Flux<GeoCandidate> searchShards(List<String> shardKeys, Circle circle, RedisGeoCommands.GeoRadiusCommandArgs args) {
+        if (shardKeys.size() == 1) {
+            String shardKey = shardKeys.get(0);
+            return cacheRedisTemplate.opsForGeo()
+                                     .radius(shardKey, circle, args)
+                                     .map(result -> GeoCandidate.of(shardKey, result));
+        }
+
+        Flux<GeoCandidate>[] perShard = shardKeys.stream()
+                                                 .map(shardKey -> cacheRedisTemplate.opsForGeo()
+                                                                                    .radius(shardKey, circle, args)
+                                                                                    .map(result -> GeoCandidate.of(shardKey, result)))
+                                                 .toArray(Flux[]::new);
+
+        // 샤드 이동 직후 이전 샤드에 남은 위치가 있을 수 있으므로 가까운 쪽 하나만 남김
+        return Flux.mergeComparing(Comparator.comparingDouble(GeoCandidate::distanceKm), perShard)
+                   .distinct(GeoCandidate::driverId);
+    }
+
+    // 후보 전체의 생존 여부를 한 번에 확인하고, 거리순을 유지한 채 살아있는 기사만 반환
+    private Flux<NearbyDriverResponse> filterAlive(List<GeoCandidate> candidates) {
+        if (candidates.isEmpty()) {
+            return Flux.empty();
+        }
+
+        List<String> driverIds = new ArrayList<>(candidates.size());
+        for (GeoCandidate candidate : candidates) {
+            driverIds.add(candidate.driverId());
+        }
+
+        return metrics.liveness(resolveAssignable(driverIds), driverIds.size())
+                      .flatMapMany(status -> {
+                          List<NearbyDriverResponse> drivers = new ArrayList<>(candidates.size());
+                          List<GeoCandidate> stale = new ArrayList<>();
+
+                          for (GeoCandidate candidate : candidates) {
+                              if (!status.isAlive(candidate.driverId())) {
+                                  stale.add(candidate);
+                              } else if (status.isAssignable(candidate.driverId())) {
+                                  drivers.add(new NearbyDriverResponse(candidate.driverId(), candidate.distanceKm()));
+                              }
+                          }
+
+                          evictStaleMembers(stale);
+                          return Flux.fromIterable(drivers);
+                      })
+                      // 생존 확인이 지연/실패하면 배차가 유령 기사로 향하지 않도록 이번 검색은 빈 결과로 응답합니다.
+                      .onErrorResume(e -> {
+                          metrics.recordLivenessFailure(e);
+                          log.warn("기사 상태 일괄 확인 중 오류/타임아웃 발생 (후보 {}명), 결과에서 제외합니다.", candidates.size());
+                          return Flux.empty();
+                      });
+    }
+
+    // 생존 확인(MGET / ZMSCORE)과 운행 중 확인(ZMSCORE)을 동시에 보냄 (같은 Lettuce 커넥션에 파이프라인되어 왕복 한 번)
+    private Mono<CandidateStatus> resolveAssignable(List<String> driverIds) {
+        return Mono.zip(livenessResolver.resolveAlive(driverIds), availability.findOnTrip(driverIds), CandidateStatus::new);
+    }
+
+    // memory 엔진: 파드 메모리의 운행 중 목록으로 거름 (거리순 유지, 최대 limit 명)
+    private List<NearbyDriverResponse> assignableLocally(List<NearbyDriverResponse> drivers, int limit) {
+        if (!availability.isEnabled()) {
+            return drivers;
+        }
+        List<NearbyDriverResponse> assignable = new ArrayList<>(Math.min(drivers.size(), limit));
+        for (NearbyDriverResponse driver : drivers) {
+            if (assignable.size() >= limit) {
+                break;
+            }
+            if (!availability.isOnTripLocally(driver.driverId())) {
+                assignable.add(driver);
+            }
+        }
+        return assignable;
+    }
+
+    // 유령 기사는 샤드별 ZREM 한 번으로 일괄 삭제 (검색 응답을 기다리게 하지 않음)
+    private void evictStaleMembers(List<GeoCandidate> stale) {
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        // 일괄 검색에서는 같은 기사가 여러 질의의 후보로 나올 수 있으므로 샤드별로 중복 제거
+        Map<String, Set<String>> membersByShard = new HashMap<>();
+        for (GeoCandidate candidate : stale) {
+            membersByShard.computeIfAbsent(candidate.shardKey(), k -> new LinkedHashSet<>()).add(candidate.member());
+            nearCache.evict(candidate.driverId());
+        }
+
+        metrics.evict(Flux.fromIterable(membersByShard.entrySet())
+                          .flatMap(entry -> cacheRedisTemplate.opsForGeo()
+                                                              .remove(entry.getKey(), entry.getValue().toArray(new String[0])))
+                          .reduce(0L, Long::sum))
+               .subscribe(
+                       removed -> {
+                           metrics.recordStaleEvicted(removed);
+                           log.debug("유령 기사 {}명 Geo 인덱스에서 삭제", removed);
+                       },
+                       e -> log.warn("유령 기사 일괄 삭제 실패 ({}명)", stale.size(), e)
+               );
+    }
+
+    // 후보의 생존 / 운행 중 여부 (살아있지 않은 기사만 Geo 인덱스에서 삭제 대상)
+    private record CandidateStatus(Set<String> alive, Set<String> onTrip) {
+
+        boolean isAlive(String driverId) {
+            return alive.contains(driverId);
+        }
+
+        boolean isAssignable(String driverId) {
+            return alive.contains(driverId) && !onTrip.contains(driverId);
+        }
+    }
+
+    // KNN 검색 한 건의 상태 (링 사이에서 생존 확인 결과를 재사용)
+    private static final class NearestSearch {
+
+        private final double longitude;
+        private final double latitude;
+        private final int k;
+        private final double maxRadiusKm;
+        private final Map<String, Boolean> aliveById = new HashMap<>();
+        private int rings;
+
+        private NearestSearch(double longitude, double latitude, int k, double maxRadiusKm) {
+            this.longitude = longitude;
+            this.latitude = latitude;
+            this.k = k;
+            this.maxRadiusKm = maxRadiusKm;
+        }
+
+        private List<NearbyDriverResponse> aliveInOrder(List<GeoCandidate> candidates) {
+            List<NearbyDriverResponse> drivers = new ArrayList<>(k);
+            for (GeoCandidate candidate : candidates) {
+                if (Boolean.TRUE.equals(aliveById.get(candidate.driverId()))) {
+                    drivers.add(new NearbyDriverResponse(candidate.driverId(), candidate.distanceKm()));
+                    if (drivers.size() == k) {
+                        break;
+                    }
+                }
+            }
+            return drivers;
+        }
+    }
+
+    private record SearchArea(double longitude, double latitude, int radiusKm) {
+
+        static SearchArea of(NearbySearchQuery query) {
+            return new SearchArea(query.longitude(), query.latitude(), query.radius());
+        }
+    }
+
+    private record GeoCandidate(String shardKey, String member, String driverId, double distanceKm) {
+
+        static GeoCandidate of(String shardKey, GeoResult<RedisGeoCommands.GeoLocation<String>> result) {
+            String member = result.getContent().getName();
+            return new GeoCandidate(shardKey, member, DriverLocationKeys.driverId(member), result.getDistance().getValue());
+        }
+    }
+}
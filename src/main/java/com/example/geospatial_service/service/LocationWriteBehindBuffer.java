@@ -0,0 +1,246 @@
+package com.example.geospatial_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.geo.Point;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// 위치 업데이트 Write-Behind 버퍼
+// - 짧은 윈도우 동안 기사별 마지막 위치만 남기고(last-write-wins)
+// - 샤드별 다중 멤버 GEOADD + 파이프라인 SET EX 로 한꺼번에 반영
+// - enqueue 의 Mono 는 그 위치(또는 그 위치를 덮은 같은 기사의 더 새 위치)가 실제로 반영된 뒤 완료되고,
+//   반영 실패/대기열 초과는 에러로 알림 (호출 측이 저장되지 않은 위치로 후속 처리를 하지 않도록)
+@Component
+@Slf4j
+public class LocationWriteBehindBuffer {
+
+    private final ReactiveRedisTemplate<String, String> cacheRedisTemplate;
+
+    private final DriverLivenessResolver livenessResolver;
+
+    private final DriverLocationShards locationShards;
+
+    private final boolean enabled;
+
+    private final Duration window;
+
+    private final int maxPending;
+
+    private final int maxBatchSize;
+
+    private final ConcurrentHashMap<String, PendingLocation> pending = new ConcurrentHashMap<>();
+
+    // 대기열이 가득 찬 요청이 기다릴 "다음 flush 완료" 신호
+    private final AtomicReference<Sinks.Empty<Void>> nextFlush = new AtomicReference<>(Sinks.empty());
+
+    private final DistributionSummary batchSize;
+
+    private final Timer flushTimer;
+
+    private final Counter droppedCounter;
+
+    private Disposable flushLoop;
+
+    public LocationWriteBehindBuffer(
+            @Qualifier("cacheRedisTemplate") ReactiveRedisTemplate<String, String> cacheRedisTemplate,
+            DriverLivenessResolver livenessResolver,
+            DriverLocationShards locationShards,
+            MeterRegistry meterRegistry,
+            @Value("${geospatial.write-behind.enabled:false}") boolean enabled,
+            @Value("${geospatial.write-behind.window-ms:5}") long windowMs,
+            @Value("${geospatial.write-behind.max-pending:50000}") int maxPending,
+            @Value("${geospatial.write-behind.max-batch-size:1000}") int maxBatchSize) {
+        this.cacheRedisTemplate = cacheRedisTemplate;
+        this.livenessResolver = livenessResolver;
+        this.locationShards = locationShards;
+        this.enabled = enabled;
+        this.window = Duration.ofMillis(windowMs);
+        this.maxPending = maxPending;
+        this.maxBatchSize = maxBatchSize;
+
+        this.batchSize = DistributionSummary.builder("geospatial.location.flush.batch.size")
+                                            .description("Write-Behind flush 한 번에 반영된 기사 수")
+                                            .publishPercentiles(0.5, 0.99)
+                                            .register(meterRegistry);
+        this.flushTimer = Timer.builder("geospatial.location.flush")
+                               .description("Write-Behind flush 소요 시간 (GEOADD + SET EX)")
+                               .publishPercentiles(0.5, 0.99)
+                               .register(meterRegistry);
+        this.droppedCounter = Counter.builder("geospatial.location.flush.dropped")
+                                     .description("대기열 초과로 버려진 위치 업데이트 수")
+                                     .register(meterRegistry);
+        Gauge.builder("geospatial.location.flush.pending", pending, Map::size)
+             .description("flush 대기 중인 기사 수")
+             .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        // 이전 flush 가 끝나지 않았으면 그 사이의 tick 은 버림 (다음 flush 가 모두 가져감)
+        flushLoop = Flux.interval(window)
+                        .onBackpressureDrop()
+                        .concatMap(tick -> flush(), 1)
+                        .subscribe();
+        log.info("위치 Write-Behind 활성화 (window: {}ms, maxPending: {})", window.toMillis(), maxPending);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flushLoop == null) {
+            return;
+        }
+        flushLoop.dispose();
+        // 종료 직전 남은 위치를 반영
+        flush().block(Duration.ofSeconds(5));
+    }
+
+    // 대기열에 넣고 반영될 때까지 기다림. 가득 찼다면 다음 flush 가 끝날 때까지 기다린 뒤 한 번 더 시도하고, 그래도 차 있으면 에러
+    public Mono<Void> enqueue(String driverId, double longitude, double latitude) {
+        Point point = new Point(longitude, latitude);
+        return Mono.defer(() -> {
+            PendingLocation queued = offer(driverId, point);
+            if (queued != null) {
+                return queued.written.asMono();
+            }
+            return nextFlush.get()
+                            .asMono()
+                            .then(Mono.defer(() -> {
+                                PendingLocation retried = offer(driverId, point);
+                                if (retried == null) {
+                                    droppedCounter.increment();
+                                    return Mono.error(new IllegalStateException("위치 Write-Behind 대기열 초과: " + driverId));
+                                }
+                                return retried.written.asMono();
+                            }));
+        });
+    }
+
+    // 대기열에 넣은 항목 (가득 차서 넣지 못했으면 null)
+    // 같은 기사의 이전 위치를 덮으면 그 완료 신호를 이어받아, 이전 호출도 새 위치가 반영될 때 함께 완료
+    private PendingLocation offer(String driverId, Point point) {
+        if (pending.size() >= maxPending) {
+            // 이미 대기 중인 기사는 덮어쓰기만 하므로 대기열이 늘지 않음
+            return pending.computeIfPresent(driverId, (id, previous) -> new PendingLocation(point, previous.written));
+        }
+        return pending.compute(driverId, (id, previous) -> new PendingLocation(point, previous != null ? previous.written : Sinks.empty()));
+    }
+
+    Mono<Void> flush() {
+        Sinks.Empty<Void> completed = nextFlush.getAndSet(Sinks.empty());
+        if (pending.isEmpty()) {
+            completed.tryEmitEmpty();
+            return Mono.empty();
+        }
+
+        List<Map<String, PendingLocation>> batches = drain();
+        long startNanos = System.nanoTime();
+
+        return Flux.fromIterable(batches)
+                   .concatMap(this::write)
+                   .doFinally(signal -> {
+                       flushTimer.record(Duration.ofNanos(System.nanoTime() - startNanos));
+                       completed.tryEmitEmpty();
+                   })
+                   .then();
+    }
+
+    // 현재 대기 중인 위치를 꺼내 maxBatchSize 단위로 나눔
+    private List<Map<String, PendingLocation>> drain() {
+        List<Map<String, PendingLocation>> batches = new ArrayList<>();
+        Map<String, PendingLocation> batch = new HashMap<>();
+
+        Iterator<Map.Entry<String, PendingLocation>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, PendingLocation> entry = iterator.next();
+            // 꺼내는 사이 새 위치로 덮였다면 그 값은 다음 flush 로 넘김
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+            }
+            if (batch.size() >= maxBatchSize) {
+                batches.add(batch);
+                batch = new HashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    // 배치 결과를 기다리는 호출자에게 알리고, flush 루프는 실패해도 계속
+    private Mono<Void> write(Map<String, PendingLocation> batch) {
+        // 샤드별 다중 멤버 GEOADD, 샤드를 옮긴 기사는 이전 샤드에서 ZREM
+        Map<String, Map<String, Point>> membersByShard = new HashMap<>();
+        Map<String, List<String>> staleByShard = new HashMap<>();
+        batch.forEach((driverId, location) -> {
+            Point point = location.point;
+            String member = DriverLocationKeys.member(driverId);
+            String shardKey = locationShards.shardKey(point.getX(), point.getY());
+            membersByShard.computeIfAbsent(shardKey, k -> new HashMap<>()).put(member, point);
+            for (String staleKey : locationShards.staleShardKeys(driverId, shardKey)) {
+                staleByShard.computeIfAbsent(staleKey, k -> new ArrayList<>()).add(member);
+            }
+        });
+
+        Mono<Void> geoAdd = Flux.fromIterable(membersByShard.entrySet())
+                                .flatMap(entry -> locationShards.register(entry.getKey())
+                                                                .then(cacheRedisTemplate.opsForGeo().add(entry.getKey(), entry.getValue())))
+                                .then();
+        Mono<Void> leaveShards = Flux.fromIterable(staleByShard.entrySet())
+                                     .flatMap(entry -> cacheRedisTemplate.opsForGeo()
+                                                                         .remove(entry.getKey(), entry.getValue().toArray(new String[0])))
+                                     .then();
+        Mono<Void> setAlive = livenessResolver.markAlive(batch.keySet());
+
+        return Mono.when(geoAdd, leaveShards, setAlive)
+                   .doOnSuccess(v -> {
+                       batchSize.record(batch.size());
+                       batch.values().forEach(location -> location.written.tryEmitEmpty());
+                   })
+                   .doOnError(e -> {
+                       log.error("위치 Write-Behind flush 실패 ({}명)", batch.size(), e);
+                       batch.values().forEach(location -> location.written.tryEmitError(e));
+                   })
+                   .onErrorResume(e -> Mono.empty());
+    }
+
+    private static final class PendingLocation {
+        final Point point;
+        // 이 기사의 대기 중인 위치가 반영되면 완료 (덮인 이전 위치의 호출자와 공유)
+        final Sinks.Empty<Void> written;
+
+        PendingLocation(Point point, Sinks.Empty<Void> written) {
+            this.point = point;
+            this.written = written;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.geospatial_service.service;
+
+import com.example.geospatial_service.dto.NearbyDriverResponse;
+import com.example.geospatial_service.geo.GeoHash;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// 주변 기사 검색 결과 단기 캐시 (geospatial.search.cache.enabled)
+// - 키: 검색 중심의 geohash 셀(precision) + 반경 -> 같은 장소(경기장, 공항 등)의 동시 요청을 한 번의 검색으로 처리
+// - 진행 중인 검색이 있으면 결과를 함께 기다림 (single-flight)
+// - 기사 위치 갱신으로 결과를 버리지 않음: 이동한 기사는 검색 중심 셀이 아니라 반경이 덮는 모든 셀의 결과에 영향을 주므로
+//   위치 갱신마다 그 셀들을 찾아 버리는 대신 짧은 TTL 로 오래된 정도를 제한 (진행 중인 검색도 끊지 않음)
+@Component
+public class NearbySearchCache {
+
+    private final boolean enabled;
+
+    private final int precision;
+
+    private final long ttlMillis;
+
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<Integer, Entry>> cells = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+
+    private final Counter coalescedCounter;
+
+    private final Counter missCounter;
+
+    private final DistributionSummary staleness;
+
+    @Autowired
+    public NearbySearchCache(
+            MeterRegistry meterRegistry,
+            @Value("${geospatial.search.cache.enabled:false}") boolean enabled,
+            @Value("${geospatial.search.cache.precision:7}") int precision,
+            @Value("${geospatial.search.cache.ttl-ms:500}") long ttlMillis) {
+        this(meterRegistry, enabled, precision, ttlMillis, System::currentTimeMillis);
+    }
+
+    NearbySearchCache(MeterRegistry meterRegistry, boolean enabled, int precision, long ttlMillis, LongSupplier clock) {
+        this.enabled = enabled;
+        this.precision = precision;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+
+        this.hitCounter = requestCounter(meterRegistry, "hit");
+        this.coalescedCounter = requestCounter(meterRegistry, "coalesced");
+        this.missCounter = requestCounter(meterRegistry, "miss");
+        this.staleness = DistributionSummary.builder("geospatial.search.cache.staleness")
+                                            .description("캐시에서 응답한 결과의 나이")
+                                            .baseUnit("milliseconds")
+                                            .publishPercentiles(0.5, 0.99)
+                                            .register(meterRegistry);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("geospatial.search.cache.requests")
+                      .description("주변 기사 검색 캐시 조회 결과 (hit / coalesced / miss)")
+                      .tag("result", result)
+                      .register(meterRegistry);
+    }
+
+    public Flux<NearbyDriverResponse> get(double longitude, double latitude, int radiusKm,
+                                          Supplier<Flux<NearbyDriverResponse>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        return Flux.defer(() -> {
+            long now = clock.getAsLong();
+            ConcurrentHashMap<Integer, Entry> byRadius = cells.computeIfAbsent(GeoHash.encode(latitude, longitude, precision),
+                                                                               cell -> new ConcurrentHashMap<>());
+
+            // 만료/없음이면 새 검색을 조립만 해서 넣음 (구독은 compute 밖에서)
+            boolean[] created = {false};
+            Entry entry = byRadius.compute(radiusKm, (radius, existing) -> {
+                if (existing != null && now - existing.createdAt < ttlMillis) {
+                    return existing;
+                }
+                created[0] = true;
+                return new Entry(now, loader.get());
+            });
+
+            if (created[0]) {
+                missCounter.increment();
+            } else if (entry.completedAt > 0) {
+                hitCounter.increment();
+                staleness.record(now - entry.completedAt);
+            } else {
+                coalescedCounter.increment();
+            }
+
+            return entry.result
+                        .doOnError(e -> byRadius.remove(radiusKm, entry))
+                        .flatMapIterable(drivers -> drivers);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${geospatial.search.cache.sweep-interval-ms:5000}")
+    public void evictExpired() {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        cells.values().forEach(byRadius -> byRadius.values().removeIf(entry -> now - entry.createdAt >= ttlMillis));
+        cells.values().removeIf(ConcurrentHashMap::isEmpty);
+    }
+
+    int size() {
+        return cells.values().stream().mapToInt(ConcurrentHashMap::size).sum();
+    }
+
+    private final class Entry {
+
+        private final long createdAt;
+
+        private final Mono<List<NearbyDriverResponse>> result;
+
+        private volatile long completedAt;
+
+        private Entry(long createdAt, Flux<NearbyDriverResponse> search) {
+            this.createdAt = createdAt;
+            this.result = search.collectList()
+                                .doOnSuccess(drivers -> completedAt = clock.getAsLong())
+                                .cache();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.geospatial_service.service;
+
+import com.example.geospatial_service.index.SearchEngine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// 검색 경로 지표 (태그는 검색 종류/엔진/단계처럼 값이 몇 개뿐인 것만 사용)
+// - geospatial.search{type, engine}: 검색 전체 지연
+// - geospatial.search.stage{stage}: GEORADIUS / 생존 확인 / 유령 기사 삭제 단계별 지연
+// - geospatial.search.liveness.failures{reason}: 생존 확인 타임아웃/오류로 빈 결과를 돌려준 횟수
+final class SearchMetrics {
+
+    static final String NEARBY = "nearby";
+    static final String NEAREST = "nearest";
+    static final String BATCH = "batch";
+
+    private final Map<SearchEngine, Timer> nearbyTimers;
+
+    private final Map<SearchEngine, Timer> nearestTimers;
+
+    private final Map<SearchEngine, Timer> batchTimers;
+
+    private final Timer georadiusTimer;
+
+    private final Timer livenessTimer;
+
+    private final Timer evictTimer;
+
+    private final DistributionSummary candidates;
+
+    private final Counter staleEvictedCounter;
+
+    private final Counter livenessTimeoutCounter;
+
+    private final Counter livenessErrorCounter;
+
+    SearchMetrics(MeterRegistry meterRegistry) {
+        this.nearbyTimers = searchTimers(meterRegistry, NEARBY);
+        this.nearestTimers = searchTimers(meterRegistry, NEAREST);
+        this.batchTimers = searchTimers(meterRegistry, BATCH);
+
+        this.georadiusTimer = stageTimer(meterRegistry, "georadius");
+        this.livenessTimer = stageTimer(meterRegistry, "liveness");
+        this.evictTimer = stageTimer(meterRegistry, "evict");
+
+        this.candidates = DistributionSummary.builder("geospatial.search.candidates")
+                                             .description("생존 확인에 넘긴 후보 기사 수 (요청 1회 기준)")
+                                             .publishPercentiles(0.5, 0.99)
+                                             .register(meterRegistry);
+        this.staleEvictedCounter = Counter.builder("geospatial.search.stale.evicted")
+                                          .description("검색 중 발견해 Geo 인덱스에서 삭제한 유령 기사 수")
+                                          .register(meterRegistry);
+        this.livenessTimeoutCounter = livenessFailureCounter(meterRegistry, "timeout");
+        this.livenessErrorCounter = livenessFailureCounter(meterRegistry, "error");
+    }
+
+    private static Map<SearchEngine, Timer> searchTimers(MeterRegistry meterRegistry, String type) {
+        Map<SearchEngine, Timer> timers = new EnumMap<>(SearchEngine.class);
+        for (SearchEngine engine : SearchEngine.values()) {
+            timers.put(engine, Timer.builder("geospatial.search")
+                                    .description("주변 기사 검색 전체 지연")
+                                    .tag("type", type)
+                                    .tag("engine", engine.name().toLowerCase(Locale.ROOT))
+                                    .publishPercentileHistogram()
+                                    .register(meterRegistry));
+        }
+        return timers;
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("geospatial.search.stage")
+                    .description("Redis 검색 경로의 단계별 지연")
+                    .tag("stage", stage)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+    }
+
+    private static Counter livenessFailureCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("geospatial.search.liveness.failures")
+                      .description("생존 확인 실패로 후보를 결과에서 제외한 횟수")
+                      .tag("reason", reason)
+                      .register(meterRegistry);
+    }
+
+    <T> Flux<T> search(String type, SearchEngine engine, Flux<T> search) {
+        Timer timer = switch (type) {
+            case NEAREST -> nearestTimers.get(engine);
+            case BATCH -> batchTimers.get(engine);
+            default -> nearbyTimers.get(engine);
+        };
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return search.doFinally(signal -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    <T> Mono<T> georadius(Mono<T> stage) {
+        return timed(stage, georadiusTimer);
+    }
+
+    <T> Mono<T> liveness(Mono<T> stage, int candidateCount) {
+        candidates.record(candidateCount);
+        return timed(stage, livenessTimer);
+    }
+
+    <T> Mono<T> evict(Mono<T> stage) {
+        return timed(stage, evictTimer);
+    }
+
+    void recordStaleEvicted(long count) {
+        staleEvictedCounter.increment(count);
+    }
+
+    void recordLivenessFailure(Throwable e) {
+        (e instanceof TimeoutException ? livenessTimeoutCounter : livenessErrorCounter).increment();
+    }
+
+    private static <T> Mono<T> timed(Mono<T> stage, Timer timer) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return stage.doFinally(signal -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+}
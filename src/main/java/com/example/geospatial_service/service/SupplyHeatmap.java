@@ -0,0 +1,204 @@
+package com.example.geospatial_service.service;
+
+import com.example.geospatial_service.dto.SupplyCell;
+import com.example.geospatial_service.dto.SupplyHeatmapResponse;
+import com.example.geospatial_service.geo.GeoHash;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+// 셀별 공급(기사 수) 히트맵 (geospatial.heatmap.enabled)
+// - location_events 로 받은 위치를 geohash 셀(precision)에 배정하고, 셀 사이를 이동할 때만 두 셀의 카운터를 -1/+1
+// - 같은 셀 안의 업데이트는 마지막 수신 시각만 갱신 (기사별 compute 안에서 해서 정리 작업과 겹치지 않음)
+// - 생존 TTL 동안 위치가 없는 기사는 주기적으로 셀에서 빠지고, 그때 기사가 없는 셀도 지움
+//   (카운터 증감과 삭제 모두 cells.compute 안에서 하므로 지운 셀에 증가가 묻히지 않음)
+// - 카운터는 셀 잠금(compute) 안에서만 바꾸는 plain long (volatile 로 조회만 잠금 없이)
+//   증감은 기사가 셀 경계를 넘을 때만 일어나 셀별 경합이 거의 없으므로, LongAdder + 삭제 표시(tombstone)로
+//   잠금을 없애는 복잡도(삭제된 셀에 더한 값 되돌리기/재시도)를 들이지 않음
+// - 조회는 범위를 덮는 셀만 찾아 카운터를 읽음 (기사 수와 무관, 범위가 집계 중인 셀 수보다 넓으면 셀 전체를 훑음)
+@Component
+@Slf4j
+public class SupplyHeatmap {
+
+    private final boolean enabled;
+
+    private final int precision;
+
+    private final long staleMillis;
+
+    private final LongSupplier clock;
+
+    // 기사 -> 현재 셀 (갱신/정리는 compute 로 기사별 직렬화)
+    private final ConcurrentHashMap<String, DriverCell> drivers = new ConcurrentHashMap<>();
+
+    // 셀 -> 기사 수 (증감/삭제는 compute 로 셀별 직렬화, 조회는 잠금 없이 읽음)
+    private final ConcurrentHashMap<Long, CellCounter> cells = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SupplyHeatmap(
+            MeterRegistry meterRegistry,
+            @Value("${geospatial.heatmap.enabled:false}") boolean enabled,
+            @Value("${geospatial.heatmap.precision:6}") int precision,
+            @Value("${geospatial.liveness.ttl-seconds:30}") long livenessTtlSeconds) {
+        this(meterRegistry, enabled, precision, livenessTtlSeconds * 1000L, System::currentTimeMillis);
+    }
+
+    SupplyHeatmap(MeterRegistry meterRegistry, boolean enabled, int precision, long staleMillis, LongSupplier clock) {
+        if (precision < 1 || precision > 12) {
+            throw new IllegalArgumentException("heatmap precision 은 1~12 범위여야 합니다: " + precision);
+        }
+        this.enabled = enabled;
+        this.precision = precision;
+        this.staleMillis = staleMillis;
+        this.clock = clock;
+
+        Gauge.builder("geospatial.heatmap.drivers", drivers, Map::size)
+             .description("히트맵에 집계된 기사 수")
+             .register(meterRegistry);
+        Gauge.builder("geospatial.heatmap.cells", cells, Map::size)
+             .description("히트맵 셀 카운터 수")
+             .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void onLocation(String driverId, double longitude, double latitude) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long cell = GeoHash.encodeBits(latitude, longitude, precision * 5);
+
+        // 같은 셀 안의 이동은 카운터는 그대로, 수신 시각만
+        // compute 밖에서 시각만 바꾸면 정리 작업이 막 지운 기사를 되살리지 못해 집계에서 빠질 수 있음
+        drivers.compute(driverId, (id, existing) -> {
+            DriverCell target = existing != null ? existing : new DriverCell();
+            if (existing == null || existing.cell != cell) {
+                if (existing != null) {
+                    adjust(existing.cell, -1);
+                }
+                adjust(cell, 1);
+                target.cell = cell;
+            }
+            target.lastSeenAt = now;
+            return target;
+        });
+    }
+
+    // 생존 TTL 동안 위치가 없는 기사를 셀에서 빼고 기사가 없는 셀을 지움
+    @Scheduled(fixedDelayString = "${geospatial.heatmap.sweep-interval-ms:5000}")
+    public void expireStale() {
+        if (!enabled) {
+            return;
+        }
+        long threshold = clock.getAsLong() - staleMillis;
+        int expired = 0;
+        for (Map.Entry<String, DriverCell> entry : drivers.entrySet()) {
+            if (entry.getValue().lastSeenAt > threshold) {
+                continue;
+            }
+            boolean[] removed = new boolean[1];
+            drivers.computeIfPresent(entry.getKey(), (id, driver) -> {
+                if (driver.lastSeenAt > threshold) {
+                    return driver;
+                }
+                adjust(driver.cell, -1);
+                removed[0] = true;
+                return null;
+            });
+            if (removed[0]) {
+                expired++;
+            }
+        }
+        int emptied = 0;
+        for (Map.Entry<Long, CellCounter> entry : cells.entrySet()) {
+            if (entry.getValue().count > 0) {
+                continue;
+            }
+            // 확인과 삭제 사이에 들어온 증가가 있으면 남김
+            if (cells.computeIfPresent(entry.getKey(), (bits, counter) -> counter.count == 0 ? null : counter) == null) {
+                emptied++;
+            }
+        }
+        if (expired > 0 || emptied > 0) {
+            log.debug("히트맵에서 위치가 끊긴 기사 {}명 제외, 빈 셀 {}개 삭제", expired, emptied);
+        }
+    }
+
+    // 범위와 겹치고 기사가 있는 셀
+    public SupplyHeatmapResponse region(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude) {
+        double width = GeoHash.cellWidthDeg(precision);
+        double height = GeoHash.cellHeightDeg(precision);
+        List<SupplyCell> result = new ArrayList<>();
+
+        // 범위를 덮는 셀 수(상한)가 집계 중인 셀 수보다 적을 때만 커버를 만들어 조회
+        double coverCells = (Math.floor((maxLongitude - minLongitude) / width) + 2)
+                * (Math.floor((maxLatitude - minLatitude) / height) + 2);
+        if (coverCells <= cells.size()) {
+            for (long bits : GeoHash.coveringBits(minLatitude, minLongitude, maxLatitude, maxLongitude, precision)) {
+                CellCounter counter = cells.get(bits);
+                if (counter != null) {
+                    addIfOccupied(result, counter);
+                }
+            }
+        } else {
+            for (CellCounter counter : cells.values()) {
+                if (counter.longitude + width / 2 < minLongitude || counter.longitude - width / 2 > maxLongitude
+                        || counter.latitude + height / 2 < minLatitude || counter.latitude - height / 2 > maxLatitude) {
+                    continue;
+                }
+                addIfOccupied(result, counter);
+            }
+        }
+        return new SupplyHeatmapResponse(precision, clock.getAsLong(), result);
+    }
+
+    private static void addIfOccupied(List<SupplyCell> result, CellCounter counter) {
+        long count = counter.count;
+        if (count > 0) {
+            result.add(new SupplyCell(counter.geohash, counter.latitude, counter.longitude, count));
+        }
+    }
+
+    // 증감은 셀별 compute 안에서: 정리 작업의 빈 셀 삭제와 직렬화
+    private void adjust(long cell, int delta) {
+        cells.compute(cell, (bits, counter) -> {
+            CellCounter target = counter != null ? counter : new CellCounter(bits, precision);
+            target.count += delta;
+            return target;
+        });
+    }
+
+    private static final class DriverCell {
+        // compute 안에서만 바뀜
+        volatile long cell;
+        volatile long lastSeenAt;
+    }
+
+    private static final class CellCounter {
+        final String geohash;
+        final double latitude;
+        final double longitude;
+        // cells.compute 안에서만 바뀜
+        volatile long count;
+
+        CellCounter(long bits, int precision) {
+            double[] center = GeoHash.center(bits, precision);
+            this.latitude = center[0];
+            this.longitude = center[1];
+            this.geohash = GeoHash.encode(latitude, longitude, precision);
+        }
+    }
+}
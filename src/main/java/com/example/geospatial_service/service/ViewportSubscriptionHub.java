@@ -0,0 +1,347 @@
+package com.example.geospatial_service.service;
+
+import com.example.geospatial_service.dto.DriverPosition;
+import com.example.geospatial_service.dto.ViewportUpdate;
+import com.example.geospatial_service.geo.GeoHash;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// 지도 화면(뷰포트) 안의 기사 변화 구독 (geospatial.viewport.enabled)
+// - location_events 로 받은 위치는 기사별 마지막 값만 모아두었다가 tick 마다 한 번에 반영
+// - 구독은 geohash 셀 단위로 색인해 위치가 바뀐 기사 주변의 구독만 확인
+// - 구독별로 들어옴(entered) / 이동(moved) / 나감(left) 을 한 이벤트로 묶어 전송
+// - 느린 클라이언트의 버퍼가 차면 변화를 버리고, 다음 tick 에 전체 스냅샷으로 다시 맞춤
+// 상태는 tick 스레드에서만 바꾸고, 다른 스레드는 큐/맵에 넣기만 함
+@Component
+@Slf4j
+public class ViewportSubscriptionHub {
+
+    private final boolean enabled;
+
+    private final int precision;
+
+    private final long staleMillis;
+
+    private final int bufferSize;
+
+    private final LongSupplier clock;
+
+    // 수신 스레드 -> tick (기사별 마지막 위치만 유지)
+    private final ConcurrentHashMap<String, DriverPosition> pending = new ConcurrentHashMap<>();
+
+    private final ConcurrentLinkedQueue<Subscription> added = new ConcurrentLinkedQueue<>();
+
+    private final ConcurrentLinkedQueue<Subscription> removed = new ConcurrentLinkedQueue<>();
+
+    // 이하 tick 스레드 전용
+    private final Map<String, TrackedDriver> drivers = new HashMap<>();
+
+    private final Map<String, Set<String>> driversByCell = new HashMap<>();
+
+    private final Map<String, Set<Subscription>> subscriptionsByCell = new HashMap<>();
+
+    private final List<Subscription> resyncing = new ArrayList<>();
+
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+
+    private final Counter resyncCounter;
+
+    @Autowired
+    public ViewportSubscriptionHub(
+            MeterRegistry meterRegistry,
+            @Value("${geospatial.viewport.enabled:false}") boolean enabled,
+            @Value("${geospatial.viewport.precision:4}") int precision,
+            @Value("${geospatial.liveness.ttl-seconds:30}") long livenessTtlSeconds,
+            @Value("${geospatial.viewport.buffer-size:16}") int bufferSize) {
+        this(meterRegistry, enabled, precision, livenessTtlSeconds * 1000L, bufferSize, System::currentTimeMillis);
+    }
+
+    ViewportSubscriptionHub(MeterRegistry meterRegistry, boolean enabled, int precision, long staleMillis, int bufferSize,
+                            LongSupplier clock) {
+        this.enabled = enabled;
+        this.precision = precision;
+        this.staleMillis = staleMillis;
+        this.bufferSize = bufferSize;
+        this.clock = clock;
+
+        Gauge.builder("geospatial.viewport.subscriptions", subscriptionCount, AtomicInteger::get)
+             .description("뷰포트 구독 수")
+             .register(meterRegistry);
+        this.resyncCounter = Counter.builder("geospatial.viewport.resyncs")
+                                    .description("버퍼가 가득 차 스냅샷으로 다시 맞춘 횟수")
+                                    .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void onLocation(String driverId, double longitude, double latitude) {
+        if (enabled) {
+            pending.put(driverId, new DriverPosition(driverId, longitude, latitude));
+        }
+    }
+
+    // 첫 이벤트는 다음 tick 의 스냅샷
+    public Flux<ViewportUpdate> subscribe(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude) {
+        return Flux.defer(() -> {
+            Subscription subscription = new Subscription(minLongitude, minLatitude, maxLongitude, maxLatitude,
+                                                         GeoHash.covering(minLatitude, minLongitude, maxLatitude, maxLongitude, precision),
+                                                         Sinks.many().unicast().onBackpressureBuffer(Queues.<ViewportUpdate>get(bufferSize).get()));
+            added.add(subscription);
+            subscriptionCount.incrementAndGet();
+            return subscription.sink.asFlux()
+                                    .doFinally(signal -> {
+                                        subscriptionCount.decrementAndGet();
+                                        removed.add(subscription);
+                                    });
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${geospatial.viewport.tick-ms:1000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        List<Subscription> dirty = new ArrayList<>();
+
+        Subscription subscription;
+        while ((subscription = removed.poll()) != null) {
+            unindex(subscription);
+            subscription.closed = true;
+        }
+
+        // 1. 위치 반영 (기사별 마지막 값)
+        for (String driverId : pending.keySet()) {
+            DriverPosition position = pending.remove(driverId);
+            if (position != null) {
+                move(position, now, dirty);
+            }
+        }
+
+        // 2. 생존 TTL 동안 위치가 없던 기사는 화면에서 내림
+        long staleBefore = now - staleMillis;
+        Iterator<TrackedDriver> iterator = drivers.values().iterator();
+        while (iterator.hasNext()) {
+            TrackedDriver driver = iterator.next();
+            if (driver.updatedAt < staleBefore) {
+                iterator.remove();
+                removeFromCell(driver.cell, driver.position.driverId());
+                for (Subscription candidate : subscriptionsByCell.getOrDefault(driver.cell, Set.of())) {
+                    candidate.leave(driver.position.driverId(), dirty);
+                }
+            }
+        }
+
+        // 3. 새 구독은 현재 상태로 스냅샷
+        while ((subscription = added.poll()) != null) {
+            if (subscription.closed) {
+                continue;
+            }
+            index(subscription);
+            subscription.resync = true;
+            subscription.markDirty(dirty);
+        }
+        for (Subscription target : resyncing) {
+            target.markDirty(dirty);
+        }
+        resyncing.clear();
+
+        // 4. 전송
+        for (Subscription target : dirty) {
+            if (!target.closed) {
+                flush(target);
+            }
+        }
+    }
+
+    private void move(DriverPosition position, long now, List<Subscription> dirty) {
+        String driverId = position.driverId();
+        String cell = GeoHash.encode(position.latitude(), position.longitude(), precision);
+
+        TrackedDriver driver = drivers.get(driverId);
+        String previousCell = null;
+        if (driver == null) {
+            driver = new TrackedDriver();
+            drivers.put(driverId, driver);
+        } else {
+            previousCell = driver.cell;
+        }
+        driver.position = position;
+        driver.cell = cell;
+        driver.updatedAt = now;
+
+        if (!cell.equals(previousCell)) {
+            if (previousCell != null) {
+                removeFromCell(previousCell, driverId);
+            }
+            driversByCell.computeIfAbsent(cell, c -> new HashSet<>()).add(driverId);
+        }
+
+        for (Subscription candidate : subscriptionsByCell.getOrDefault(cell, Set.of())) {
+            candidate.update(position, dirty);
+        }
+        // 셀을 넘어간 경우 이전 셀만 보던 구독에서는 나감
+        if (previousCell != null && !previousCell.equals(cell)) {
+            for (Subscription candidate : subscriptionsByCell.getOrDefault(previousCell, Set.of())) {
+                if (!candidate.cells.contains(cell)) {
+                    candidate.leave(driverId, dirty);
+                }
+            }
+        }
+    }
+
+    private void flush(Subscription subscription) {
+        ViewportUpdate update;
+        if (subscription.resync) {
+            update = new ViewportUpdate(true, new ArrayList<>(subscription.visible.values()), List.of(), List.of());
+        } else {
+            update = new ViewportUpdate(false, subscription.entered, subscription.moved, subscription.left);
+        }
+        subscription.clearChanges();
+
+        Sinks.EmitResult result = subscription.sink.tryEmitNext(update);
+        if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+            // 변화를 하나라도 놓치면 누적이 어긋나므로 다음 tick 에 스냅샷으로 다시 맞춤
+            subscription.resync = true;
+            resyncing.add(subscription);
+            resyncCounter.increment();
+        } else if (result.isFailure()) {
+            log.debug("뷰포트 이벤트 전송 실패 ({})", result);
+        } else {
+            subscription.resync = false;
+        }
+    }
+
+    private void index(Subscription subscription) {
+        for (String cell : subscription.cells) {
+            subscriptionsByCell.computeIfAbsent(cell, c -> new HashSet<>()).add(subscription);
+            for (String driverId : driversByCell.getOrDefault(cell, Set.of())) {
+                DriverPosition position = drivers.get(driverId).position;
+                if (subscription.contains(position)) {
+                    subscription.visible.put(driverId, position);
+                }
+            }
+        }
+    }
+
+    private void unindex(Subscription subscription) {
+        for (String cell : subscription.cells) {
+            Set<Subscription> subscriptions = subscriptionsByCell.get(cell);
+            if (subscriptions != null) {
+                subscriptions.remove(subscription);
+                if (subscriptions.isEmpty()) {
+                    subscriptionsByCell.remove(cell);
+                }
+            }
+        }
+    }
+
+    private void removeFromCell(String cell, String driverId) {
+        Set<String> driverIds = driversByCell.get(cell);
+        if (driverIds != null) {
+            driverIds.remove(driverId);
+            if (driverIds.isEmpty()) {
+                driversByCell.remove(cell);
+            }
+        }
+    }
+
+    private static final class TrackedDriver {
+
+        private DriverPosition position;
+        private String cell;
+        private long updatedAt;
+    }
+
+    private static final class Subscription {
+
+        private final double minLongitude;
+        private final double minLatitude;
+        private final double maxLongitude;
+        private final double maxLatitude;
+        private final Set<String> cells;
+        private final Sinks.Many<ViewportUpdate> sink;
+
+        private final Map<String, DriverPosition> visible = new LinkedHashMap<>();
+
+        private List<DriverPosition> entered = new ArrayList<>();
+        private List<DriverPosition> moved = new ArrayList<>();
+        private List<String> left = new ArrayList<>();
+        private boolean dirty;
+        private boolean resync;
+        private volatile boolean closed;
+
+        private Subscription(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude,
+                             List<String> cells, Sinks.Many<ViewportUpdate> sink) {
+            this.minLongitude = minLongitude;
+            this.minLatitude = minLatitude;
+            this.maxLongitude = maxLongitude;
+            this.maxLatitude = maxLatitude;
+            this.cells = new HashSet<>(cells);
+            this.sink = sink;
+        }
+
+        private boolean contains(DriverPosition position) {
+            return position.longitude() >= minLongitude && position.longitude() <= maxLongitude
+                    && position.latitude() >= minLatitude && position.latitude() <= maxLatitude;
+        }
+
+        private void update(DriverPosition position, List<Subscription> dirtyList) {
+            if (!contains(position)) {
+                leave(position.driverId(), dirtyList);
+                return;
+            }
+            if (visible.put(position.driverId(), position) == null) {
+                entered.add(position);
+            } else {
+                moved.add(position);
+            }
+            markDirty(dirtyList);
+        }
+
+        private void leave(String driverId, List<Subscription> dirtyList) {
+            if (visible.remove(driverId) != null) {
+                left.add(driverId);
+                markDirty(dirtyList);
+            }
+        }
+
+        private void markDirty(List<Subscription> dirtyList) {
+            if (!dirty) {
+                dirty = true;
+                dirtyList.add(this);
+            }
+        }
+
+        private void clearChanges() {
+            entered = new ArrayList<>();
+            moved = new ArrayList<>();
+            left = new ArrayList<>();
+            dirty = false;
+        }
+    }
+}
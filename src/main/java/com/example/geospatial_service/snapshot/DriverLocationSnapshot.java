@@ -0,0 +1,9 @@
+package com.example.geospatial_service.snapshot;
+
+import java.util.Map;
+
+// 스냅샷 한 건
+// eventOffsets: 스냅샷을 읽기 직전의 location_events 파티션별 끝 오프셋 (복원 후 여기부터 재생)
+// scores: driverId -> Redis GEO score (52비트 geohash)
+record DriverLocationSnapshot(long createdAtMs, Map<Integer, Long> eventOffsets, Map<String, Long> scores) {
+}
@@ -0,0 +1,101 @@
+package com.example.geospatial_service.snapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+// 스냅샷 바이너리 형식 (전체를 Deflate 압축)
+// [magic][version][createdAt] [partition 수]([partition][offset])* [기사 수]([driverId UTF][score 차이 varint])*
+// 기사는 score 오름차순으로 정렬해 직전 기사와의 차이만 기록 (가까운 기사끼리 score 가 가까움)
+final class DriverLocationSnapshotCodec {
+
+    private static final int MAGIC = 0x47534E50; // "GSNP"
+    private static final int VERSION = 1;
+
+    private DriverLocationSnapshotCodec() {
+    }
+
+    static byte[] encode(DriverLocationSnapshot snapshot) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(snapshot.createdAtMs());
+
+            out.writeInt(snapshot.eventOffsets().size());
+            for (Map.Entry<Integer, Long> entry : snapshot.eventOffsets().entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+
+            List<Map.Entry<String, Long>> drivers = new ArrayList<>(snapshot.scores().entrySet());
+            drivers.sort(Map.Entry.comparingByValue());
+            out.writeInt(drivers.size());
+            long previousScore = 0;
+            for (Map.Entry<String, Long> driver : drivers) {
+                out.writeUTF(driver.getKey());
+                writeVarint(out, driver.getValue() - previousScore);
+                previousScore = driver.getValue();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static DriverLocationSnapshot decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IllegalArgumentException("지원하지 않는 스냅샷 형식입니다.");
+            }
+            long createdAtMs = in.readLong();
+
+            int partitionCount = in.readInt();
+            Map<Integer, Long> eventOffsets = new HashMap<>(partitionCount * 2);
+            for (int i = 0; i < partitionCount; i++) {
+                eventOffsets.put(in.readInt(), in.readLong());
+            }
+
+            int driverCount = in.readInt();
+            Map<String, Long> scores = new HashMap<>(driverCount * 2);
+            long score = 0;
+            for (int i = 0; i < driverCount; i++) {
+                String driverId = in.readUTF();
+                score += readVarint(in);
+                scores.put(driverId, score);
+            }
+            return new DriverLocationSnapshot(createdAtMs, eventOffsets, scores);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
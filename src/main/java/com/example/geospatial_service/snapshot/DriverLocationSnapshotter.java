@@ -0,0 +1,380 @@
+package com.example.geospatial_service.snapshot;
+
+import com.example.geospatial_service.geo.RedisGeoScore;
+import com.example.geospatial_service.index.DriverLocationIndex;
+import com.example.geospatial_service.index.SearchEngine;
+import com.example.geospatial_service.kafka.dto.DriverLocationUpdatedEvent;
+import com.example.geospatial_service.service.DriverLivenessResolver;
+import com.example.geospatial_service.service.DriverLocationKeys;
+import com.example.geospatial_service.service.DriverLocationShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.ReactiveZSetCommands;
+import org.springframework.data.redis.connection.zset.DefaultTuple;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// 기사 위치 스냅샷 / 빠른 웜 스타트 (geospatial.snapshot.enabled)
+// - 주기적으로 한 파드만(잠금) Cache Redis 의 위치 Geo Set 전체를 읽어 Storage Redis 에 압축 스냅샷으로 저장
+// - 파드 시작 시 스냅샷 기사들이 속한 위치 키가 Cache Redis 에서 모두 비어 있으면 스냅샷 + 스냅샷 이후
+//   location_events 재생으로 Cache Redis 와 인메모리 인덱스를 복원하고, 그중 생존 TTL 이 남은 기사만 반영
+// - 복원은 ZADD NX 로 하므로 복원 중 들어온 실시간 위치를 덮어쓰지 않음
+// - 복원은 시작 시에만: 실행 중 Cache Redis 가 재시작되면 실시간 위치로 다시 채워지고, 읽은 위치가 없으면 스냅샷을 덮어쓰지 않음
+// Redis / Kafka 호출을 블로킹으로 기다리므로 전용 스레드(또는 시작 스레드)에서만 실행
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "geospatial.snapshot", name = "enabled", havingValue = "true")
+public class DriverLocationSnapshotter {
+
+    static final String SNAPSHOT_KEY = "driver_locations:snapshot";
+    static final String SNAPSHOT_LOCK_KEY = "driver_locations:snapshot:lock";
+    static final String RESTORE_LOCK_KEY = "driver_locations:snapshot:restore_lock";
+
+    private static final String LOCATION_EVENTS_TOPIC = "location_events";
+
+    // 복원 시 한 번에 보내는 ZADD 멤버 수 / 생존 확인 기사 수
+    private static final int RESTORE_CHUNK = 1000;
+
+    private final ReactiveRedisTemplate<String, String> cacheRedisTemplate;
+
+    private final ReactiveRedisTemplate<String, String> storageRedisTemplate;
+
+    private final DriverLocationShards locationShards;
+
+    private final DriverLivenessResolver livenessResolver;
+
+    private final DriverLocationIndex locationIndex;
+
+    private final ConsumerFactory<String, Object> consumerFactory;
+
+    private final SearchEngine searchEngine;
+
+    private final Duration interval;
+
+    private final Duration timeout;
+
+    private final LongSupplier clock;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Timer writeTimer;
+
+    private final Timer restoreTimer;
+
+    private final DistributionSummary snapshotBytes;
+
+    private final Counter restoredCounter;
+
+    // Redis 응답 / Kafka poll 을 block 으로 기다리므로 Reactor non-blocking 스레드가 아닌 가상 스레드에서 실행
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public DriverLocationSnapshotter(
+            @Qualifier("cacheRedisTemplate") ReactiveRedisTemplate<String, String> cacheRedisTemplate,
+            @Qualifier("storageRedisTemplate") ReactiveRedisTemplate<String, String> storageRedisTemplate,
+            DriverLocationShards locationShards,
+            DriverLivenessResolver livenessResolver,
+            DriverLocationIndex locationIndex,
+            ConsumerFactory<String, Object> consumerFactory,
+            MeterRegistry meterRegistry,
+            @Value("${geospatial.search.engine:redis}") SearchEngine searchEngine,
+            @Value("${geospatial.snapshot.interval-ms:30000}") long intervalMs,
+            @Value("${geospatial.snapshot.timeout-ms:30000}") long timeoutMs) {
+        this(cacheRedisTemplate, storageRedisTemplate, locationShards, livenessResolver, locationIndex, consumerFactory,
+             meterRegistry, searchEngine, intervalMs, timeoutMs, System::currentTimeMillis);
+    }
+
+    DriverLocationSnapshotter(ReactiveRedisTemplate<String, String> cacheRedisTemplate,
+                              ReactiveRedisTemplate<String, String> storageRedisTemplate,
+                              DriverLocationShards locationShards,
+                              DriverLivenessResolver livenessResolver,
+                              DriverLocationIndex locationIndex,
+                              ConsumerFactory<String, Object> consumerFactory,
+                              MeterRegistry meterRegistry,
+                              SearchEngine searchEngine,
+                              long intervalMs,
+                              long timeoutMs,
+                              LongSupplier clock) {
+        this.cacheRedisTemplate = cacheRedisTemplate;
+        this.storageRedisTemplate = storageRedisTemplate;
+        this.locationShards = locationShards;
+        this.livenessResolver = livenessResolver;
+        this.locationIndex = locationIndex;
+        this.consumerFactory = consumerFactory;
+        this.searchEngine = searchEngine;
+        this.interval = Duration.ofMillis(intervalMs);
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.clock = clock;
+
+        this.writeTimer = Timer.builder("geospatial.snapshot")
+                               .description("스냅샷 저장 / 웜 스타트 복원 소요 시간")
+                               .tag("operation", "write")
+                               .register(meterRegistry);
+        this.restoreTimer = Timer.builder("geospatial.snapshot")
+                                 .description("스냅샷 저장 / 웜 스타트 복원 소요 시간")
+                                 .tag("operation", "restore")
+                                 .register(meterRegistry);
+        this.snapshotBytes = DistributionSummary.builder("geospatial.snapshot.bytes")
+                                                .description("저장한 스냅샷 크기 (압축 후)")
+                                                .baseUnit("bytes")
+                                                .register(meterRegistry);
+        this.restoredCounter = Counter.builder("geospatial.snapshot.restored.drivers")
+                                      .description("웜 스타트로 복원한 기사 수")
+                                      .register(meterRegistry);
+    }
+
+    // 준비(readiness) 전에 끝나도록 시작 이벤트에서 블로킹으로 복원 (복원은 여기서만)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmStart() {
+        try {
+            restoreTimer.record(this::restore);
+        } catch (Exception e) {
+            log.error("웜 스타트 실패, 실시간 위치로 채워질 때까지 대기", e);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("location-snapshot").factory());
+        scheduler.scheduleWithFixedDelay(this::safeTick, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void safeTick() {
+        try {
+            tick();
+        } catch (Exception e) {
+            log.error("위치 스냅샷 처리 중 오류", e);
+        }
+    }
+
+    void tick() {
+        Boolean acquired = storageRedisTemplate.opsForValue()
+                                               .setIfAbsent(SNAPSHOT_LOCK_KEY, instanceId, interval)
+                                               .block(timeout);
+        if (Boolean.TRUE.equals(acquired)) {
+            writeTimer.record(this::writeSnapshot);
+        }
+    }
+
+    private void writeSnapshot() {
+        // 오프셋을 먼저 기록: 이후의 위치는 복원 시 재생으로 채워짐
+        Map<Integer, Long> offsets = endOffsets();
+        Map<String, Long> scores = readScores().block(timeout);
+        // Cache Redis 가 재시작되어 위치가 비었으면 마지막 스냅샷을 빈 상태로 덮어쓰지 않음
+        if (scores.isEmpty()) {
+            log.warn("Cache Redis 에 위치가 없어 스냅샷 저장 생략");
+            return;
+        }
+        byte[] data = DriverLocationSnapshotCodec.encode(new DriverLocationSnapshot(clock.getAsLong(), offsets, scores));
+
+        storageRedisTemplate.opsForValue()
+                            .set(SNAPSHOT_KEY, Base64.getEncoder().encodeToString(data))
+                            .block(timeout);
+        snapshotBytes.record(data.length);
+        log.debug("위치 스냅샷 저장: 기사 {}명, {}바이트", scores.size(), data.length);
+    }
+
+    void restore() {
+        String encoded = storageRedisTemplate.opsForValue().get(SNAPSHOT_KEY).block(timeout);
+        DriverLocationSnapshot snapshot = encoded != null
+                ? DriverLocationSnapshotCodec.decode(Base64.getDecoder().decode(encoded))
+                : null;
+        boolean restoreCache = snapshot != null
+                && Boolean.TRUE.equals(isCacheEmpty(snapshot.scores()).block(timeout))
+                && Boolean.TRUE.equals(storageRedisTemplate.opsForValue()
+                                                           .setIfAbsent(RESTORE_LOCK_KEY, instanceId, timeout)
+                                                           .block(timeout));
+        boolean restoreIndex = searchEngine == SearchEngine.MEMORY;
+        if (!restoreCache && !restoreIndex) {
+            if (snapshot == null) {
+                log.debug("위치 스냅샷 없음, 웜 스타트 생략");
+            }
+            return;
+        }
+
+        Map<String, Long> scores;
+        boolean complete;
+        if (!restoreCache) {
+            // Cache Redis 는 살아있음(또는 다른 파드가 복원 중): 현재 위치를 그대로 인덱스로 (이후 위치는 location_events 소비자가 반영)
+            // 읽은 위치가 없으면 준비 완료로 보지 않고 생존 TTL 동안 실시간 위치로 채움
+            scores = readScores().block(timeout);
+            complete = !scores.isEmpty();
+        } else {
+            scores = new HashMap<>(snapshot.scores());
+            complete = replay(snapshot.eventOffsets(), scores);
+        }
+
+        Map<String, Long> alive = filterAlive(scores);
+        if (restoreCache) {
+            addIfAbsent(alive).block(timeout);
+        }
+        if (restoreIndex) {
+            alive.forEach((driverId, score) -> locationIndex.upsert(driverId, RedisGeoScore.longitude(score), RedisGeoScore.latitude(score)));
+            if (complete) {
+                locationIndex.markWarm();
+            }
+        }
+        restoredCounter.increment(alive.size());
+        log.info("웜 스타트 복원: 기사 {}명 (Cache Redis: {}, 인메모리 인덱스: {}, 재생 완료: {})",
+                 alive.size(), restoreCache, restoreIndex, complete);
+    }
+
+    // 스냅샷 오프셋부터 현재 끝까지 location_events 를 읽어 기사별 마지막 위치로 덮어씀
+    // 제한 시간 안에 끝까지 읽지 못하면 false
+    private boolean replay(Map<Integer, Long> fromOffsets, Map<String, Long> scores) {
+        long deadline = clock.getAsLong() + timeout.toMillis();
+        try (Consumer<String, Object> consumer = createConsumer()) {
+            List<TopicPartition> partitions = assignAll(consumer);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            for (TopicPartition partition : partitions) {
+                Long from = fromOffsets.get(partition.partition());
+                consumer.seek(partition, from != null ? from : endOffsets.get(partition));
+            }
+
+            long replayed = 0;
+            while (!caughtUp(consumer, partitions, endOffsets)) {
+                if (clock.getAsLong() > deadline) {
+                    log.warn("location_events 재생 시간 초과 ({}건 재생)", replayed);
+                    return false;
+                }
+                for (ConsumerRecord<String, Object> record : consumer.poll(Duration.ofMillis(200))) {
+                    if (record.value() instanceof DriverLocationUpdatedEvent event) {
+                        scores.put(event.driverId(), RedisGeoScore.encode(event.longitude(), event.latitude()));
+                        replayed++;
+                    }
+                }
+            }
+            log.info("location_events 재생 완료: {}건", replayed);
+            return true;
+        }
+    }
+
+    private Map<Integer, Long> endOffsets() {
+        try (Consumer<String, Object> consumer = createConsumer()) {
+            List<TopicPartition> partitions = assignAll(consumer);
+            Map<Integer, Long> offsets = new HashMap<>();
+            consumer.endOffsets(partitions).forEach((partition, offset) -> offsets.put(partition.partition(), offset));
+            return offsets;
+        }
+    }
+
+    // 오프셋 커밋 없이 파티션을 직접 지정해 읽는 일회용 소비자
+    private Consumer<String, Object> createConsumer() {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, "5000");
+        return consumerFactory.createConsumer("geospatial-snapshot", "snapshot", null, overrides);
+    }
+
+    private static List<TopicPartition> assignAll(Consumer<String, Object> consumer) {
+        List<TopicPartition> partitions = consumer.partitionsFor(LOCATION_EVENTS_TOPIC)
+                                                  .stream()
+                                                  .map(info -> new TopicPartition(LOCATION_EVENTS_TOPIC, info.partition()))
+                                                  .toList();
+        consumer.assign(partitions);
+        return partitions;
+    }
+
+    private static boolean caughtUp(Consumer<String, Object> consumer, List<TopicPartition> partitions,
+                                    Map<TopicPartition, Long> endOffsets) {
+        for (TopicPartition partition : partitions) {
+            if (consumer.position(partition) < endOffsets.get(partition)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 스냅샷 기사들이 속한 위치 키를 직접 확인 (샤드 레지스트리는 위치 키와 따로 비워지거나 늦게 채워질 수 있음)
+    private Mono<Boolean> isCacheEmpty(Map<String, Long> scores) {
+        Set<String> keys = new HashSet<>();
+        scores.values().forEach(score -> keys.add(locationShards.shardKey(RedisGeoScore.longitude(score), RedisGeoScore.latitude(score))));
+        return Flux.fromIterable(keys)
+                   .flatMap(key -> cacheRedisTemplate.opsForZSet().size(key))
+                   .any(size -> size > 0)
+                   .map(hasLocations -> !hasLocations);
+    }
+
+    // 모든 샤드의 driverId -> score
+    private Mono<Map<String, Long>> readScores() {
+        return locationShards.allShardKeys()
+                             .flatMap(key -> cacheRedisTemplate.opsForZSet().rangeWithScores(key, Range.closed(0L, -1L)))
+                             .filter(tuple -> tuple.getValue() != null && tuple.getValue().startsWith(DriverLocationKeys.DRIVER_MEMBER_PREFIX))
+                             .collect(HashMap::new, (scores, tuple) -> scores.put(DriverLocationKeys.driverId(tuple.getValue()),
+                                                                                  tuple.getScore().longValue()));
+    }
+
+    // 생존 TTL 이 남은 기사만 (생존 확인이 실패하면 검색 단계의 생존 확인에 맡기고 모두 복원)
+    private Map<String, Long> filterAlive(Map<String, Long> scores) {
+        Set<String> alive = Flux.fromIterable(scores.keySet())
+                                .buffer(RESTORE_CHUNK)
+                                .concatMap(driverIds -> livenessResolver.resolveAlive(driverIds)
+                                                                        .onErrorResume(e -> Mono.just(Set.copyOf(driverIds))))
+                                .collect(HashSet<String>::new, Set::addAll)
+                                .block(timeout);
+        Map<String, Long> result = new HashMap<>(alive.size() * 2);
+        for (String driverId : alive) {
+            result.put(driverId, scores.get(driverId));
+        }
+        return result;
+    }
+
+    private Mono<Void> addIfAbsent(Map<String, Long> scores) {
+        Map<String, List<Tuple>> byShard = new HashMap<>();
+        scores.forEach((driverId, score) -> {
+            String shardKey = locationShards.shardKey(RedisGeoScore.longitude(score), RedisGeoScore.latitude(score));
+            byShard.computeIfAbsent(shardKey, key -> new ArrayList<>())
+                   .add(new DefaultTuple(DriverLocationKeys.member(driverId).getBytes(StandardCharsets.UTF_8), score.doubleValue()));
+        });
+
+        return Flux.fromIterable(byShard.entrySet())
+                   .concatMap(entry -> {
+                       ByteBuffer key = ByteBuffer.wrap(entry.getKey().getBytes(StandardCharsets.UTF_8));
+                       return locationShards.register(entry.getKey())
+                                            .thenMany(Flux.fromIterable(entry.getValue())
+                                                          .buffer(RESTORE_CHUNK)
+                                                          .concatMap(chunk -> cacheRedisTemplate.execute(connection -> connection.zSetCommands().zAdd(
+                                                                  Mono.just(ReactiveZSetCommands.ZAddCommand.tuples(chunk).nx().to(key.duplicate()))))));
+                   })
+                   .then();
+    }
+}
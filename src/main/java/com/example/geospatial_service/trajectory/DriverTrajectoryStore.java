@@ -0,0 +1,193 @@
+package com.example.geospatial_service.trajectory;
+
+import com.example.geospatial_service.dto.TrajectoryPoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+// 기사 궤적 저장 (geospatial.trajectory.enabled)
+// - 저장된 위치 업데이트를 기사별 고정 크기 버퍼(primitive 배열)에 쌓고
+// - 버퍼가 차거나 flush-interval 이 지나면 delta/varint 세그먼트로 인코딩해 저장소에 추가
+// - "최근 N분 경로" 조회는 저장된 세그먼트 + 아직 버퍼에 있는 점을 이어 붙여 응답 (Kafka 재조회 없음)
+// 시각은 서버 수신 시각 (기기 시각은 기기마다 어긋날 수 있음)
+@Component
+@Slf4j
+public class DriverTrajectoryStore {
+
+    private final TrajectorySegmentStore segmentStore;
+
+    private final boolean enabled;
+
+    private final int segmentPoints;
+
+    private final long flushIntervalMillis;
+
+    private final LongSupplier clock;
+
+    // 기사별 추가/flush 는 compute 로 직렬화
+    private final ConcurrentHashMap<String, PointBuffer> buffers = new ConcurrentHashMap<>();
+
+    private final DistributionSummary segmentBytes;
+
+    private final Counter flushFailureCounter;
+
+    @Autowired
+    public DriverTrajectoryStore(
+            TrajectorySegmentStore segmentStore,
+            MeterRegistry meterRegistry,
+            @Value("${geospatial.trajectory.enabled:false}") boolean enabled,
+            @Value("${geospatial.trajectory.segment-points:32}") int segmentPoints,
+            @Value("${geospatial.trajectory.flush-interval-ms:30000}") long flushIntervalMillis) {
+        this(segmentStore, meterRegistry, enabled, segmentPoints, flushIntervalMillis, System::currentTimeMillis);
+    }
+
+    DriverTrajectoryStore(TrajectorySegmentStore segmentStore, MeterRegistry meterRegistry, boolean enabled,
+                          int segmentPoints, long flushIntervalMillis, LongSupplier clock) {
+        this.segmentStore = segmentStore;
+        this.enabled = enabled;
+        this.segmentPoints = segmentPoints;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.clock = clock;
+
+        Gauge.builder("geospatial.trajectory.drivers", buffers, Map::size)
+             .description("궤적 버퍼를 가진 기사 수")
+             .register(meterRegistry);
+        this.segmentBytes = DistributionSummary.builder("geospatial.trajectory.segment.bytes")
+                                               .description("저장한 궤적 세그먼트 크기")
+                                               .baseUnit("bytes")
+                                               .publishPercentiles(0.5, 0.99)
+                                               .register(meterRegistry);
+        this.flushFailureCounter = Counter.builder("geospatial.trajectory.flush.failures")
+                                          .description("저장소 오류로 버린 궤적 세그먼트 수")
+                                          .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(String driverId, double longitude, double latitude) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        TrajectorySegment[] full = new TrajectorySegment[1];
+        buffers.compute(driverId, (id, buffer) -> {
+            PointBuffer target = buffer != null ? buffer : new PointBuffer(segmentPoints);
+            target.append(now, TrajectorySegmentCodec.toE7(latitude), TrajectorySegmentCodec.toE7(longitude));
+            if (target.size == segmentPoints) {
+                full[0] = target.drain();
+            }
+            return target;
+        });
+        if (full[0] != null) {
+            flush(driverId, full[0]);
+        }
+    }
+
+    // 최근 minutes 분 동안의 경로 (시간 순서)
+    public Flux<TrajectoryPoint> recentPath(String driverId, int minutes) {
+        return Flux.defer(() -> {
+            long since = clock.getAsLong() - minutes * 60_000L;
+            Flux<TrajectoryPoint> stored = segmentStore.segmentsSince(driverId, since)
+                                                       .concatMapIterable(segment -> TrajectorySegmentCodec.decode(segment.data()));
+            Flux<TrajectoryPoint> buffered = Flux.defer(() -> Flux.fromIterable(bufferedPoints(driverId)));
+            return Flux.concat(stored, buffered)
+                       .filter(point -> point.timestampMs() >= since);
+        });
+    }
+
+    // flush-interval 이 지난 버퍼는 차지 않았어도 저장하고, 그 뒤로도 위치가 없는 기사는 버퍼를 지움
+    @Scheduled(fixedDelayString = "${geospatial.trajectory.sweep-interval-ms:5000}")
+    public void flushIdle() {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        for (String driverId : buffers.keySet()) {
+            TrajectorySegment[] due = new TrajectorySegment[1];
+            buffers.computeIfPresent(driverId, (id, buffer) -> {
+                if (buffer.size > 0 && now - buffer.timestamps[0] >= flushIntervalMillis) {
+                    due[0] = buffer.drain();
+                    return buffer;
+                }
+                return buffer.size == 0 && now - buffer.lastAppendAt >= flushIntervalMillis ? null : buffer;
+            });
+            if (due[0] != null) {
+                flush(driverId, due[0]);
+            }
+        }
+    }
+
+    private void flush(String driverId, TrajectorySegment segment) {
+        segmentBytes.record(segment.data().length);
+        segmentStore.append(driverId, segment)
+                    .subscribe(null, e -> {
+                        // 위치 원본은 location_events 에 남아 있으므로 재시도 없이 버림
+                        flushFailureCounter.increment();
+                        log.warn("궤적 세그먼트 저장 실패: {}", driverId, e);
+                    });
+    }
+
+    private List<TrajectoryPoint> bufferedPoints(String driverId) {
+        List<TrajectoryPoint> points = new ArrayList<>();
+        buffers.computeIfPresent(driverId, (id, buffer) -> {
+            for (int i = 0; i < buffer.size; i++) {
+                points.add(new TrajectoryPoint(buffer.timestamps[i],
+                                               buffer.longitudesE7[i] / TrajectorySegmentCodec.E7,
+                                               buffer.latitudesE7[i] / TrajectorySegmentCodec.E7));
+            }
+            return buffer;
+        });
+        return points;
+    }
+
+    int bufferedDriverCount() {
+        return buffers.size();
+    }
+
+    private static final class PointBuffer {
+
+        private final long[] timestamps;
+        private final int[] latitudesE7;
+        private final int[] longitudesE7;
+        private int size;
+        private long lastAppendAt;
+
+        private PointBuffer(int capacity) {
+            this.timestamps = new long[capacity];
+            this.latitudesE7 = new int[capacity];
+            this.longitudesE7 = new int[capacity];
+        }
+
+        private void append(long timestamp, int latitudeE7, int longitudeE7) {
+            timestamps[size] = timestamp;
+            latitudesE7[size] = latitudeE7;
+            longitudesE7[size] = longitudeE7;
+            size++;
+            lastAppendAt = timestamp;
+        }
+
+        // 인코딩 후 비움 (배열은 재사용)
+        private TrajectorySegment drain() {
+            TrajectorySegment segment = new TrajectorySegment(
+                    timestamps[0], timestamps[size - 1],
+                    TrajectorySegmentCodec.encode(timestamps, latitudesE7, longitudesE7, size));
+            size = 0;
+            return segment;
+        }
+    }
+}
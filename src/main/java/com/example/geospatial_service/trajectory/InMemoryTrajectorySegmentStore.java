@@ -0,0 +1,92 @@
+package com.example.geospatial_service.trajectory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.LongSupplier;
+
+// 파드 메모리에 세그먼트 보관 (기사가 연결된 파드에서만 조회 가능, 재시작 시 사라짐)
+// - 기사별 세그먼트 수는 max-segments-per-driver 로 제한 (Redis Stream 저장소의 MAXLEN 과 같은 기준)
+@Component
+@ConditionalOnProperty(prefix = "geospatial.trajectory", name = "backend", havingValue = "memory")
+public class InMemoryTrajectorySegmentStore implements TrajectorySegmentStore {
+
+    private final long retentionMillis;
+
+    private final int maxSegments;
+
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<String, Deque<TrajectorySegment>> segments = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InMemoryTrajectorySegmentStore(
+            @Value("${geospatial.trajectory.retention-minutes:60}") long retentionMinutes,
+            @Value("${geospatial.trajectory.max-segments-per-driver:256}") int maxSegments) {
+        this(retentionMinutes * 60_000L, maxSegments, System::currentTimeMillis);
+    }
+
+    InMemoryTrajectorySegmentStore(long retentionMillis, int maxSegments, LongSupplier clock) {
+        this.retentionMillis = retentionMillis;
+        this.maxSegments = maxSegments;
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<Void> append(String driverId, TrajectorySegment segment) {
+        // 기사별 추가/정리는 compute 로 직렬화 (정리 중 빈 목록을 지우는 사이에 추가된 세그먼트를 잃지 않도록)
+        return Mono.fromRunnable(() -> segments.compute(driverId, (id, driverSegments) -> {
+            Deque<TrajectorySegment> target = driverSegments != null ? driverSegments : new ConcurrentLinkedDeque<>();
+            target.addLast(segment);
+            trim(target, clock.getAsLong() - retentionMillis);
+            // 보관 기간 안이라도 개수 한도를 넘으면 오래된 것부터 버림 (목록이 한도 + 1 을 넘지 않으므로 size 순회도 그만큼)
+            while (target.size() > maxSegments) {
+                target.pollFirst();
+            }
+            return target;
+        }));
+    }
+
+    @Override
+    public Flux<TrajectorySegment> segmentsSince(String driverId, long sinceMs) {
+        return Flux.defer(() -> {
+            Deque<TrajectorySegment> driverSegments = segments.get(driverId);
+            if (driverSegments == null) {
+                return Flux.empty();
+            }
+            return Flux.fromIterable(driverSegments)
+                       .filter(segment -> segment.lastTimestampMs() >= sinceMs);
+        });
+    }
+
+    // 보관 기간이 지난 세그먼트와 빈 기사 정리
+    @Scheduled(fixedDelayString = "${geospatial.trajectory.sweep-interval-ms:5000}")
+    public void evictExpired() {
+        long expireBefore = clock.getAsLong() - retentionMillis;
+        for (String driverId : segments.keySet()) {
+            segments.computeIfPresent(driverId, (id, driverSegments) -> {
+                trim(driverSegments, expireBefore);
+                return driverSegments.isEmpty() ? null : driverSegments;
+            });
+        }
+    }
+
+    int driverCount() {
+        return segments.size();
+    }
+
+    private static void trim(Deque<TrajectorySegment> driverSegments, long expireBefore) {
+        TrajectorySegment oldest;
+        while ((oldest = driverSegments.peekFirst()) != null && oldest.lastTimestampMs() < expireBefore) {
+            driverSegments.pollFirst();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.geospatial_service.trajectory;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+
+// Storage Redis 의 기사별 Stream(driver_trajectory:{id}) 에 세그먼트 1건 = 항목 1건으로 저장
+// - 항목 ID 는 저장 시각(ms)이고 세그먼트의 마지막 점보다 늦으므로, "sinceMs 이후" 조회는 XRANGE sinceMs + 로 충분
+// - 항목 수는 MAXLEN ~ 으로, 접속이 끊긴 기사의 키는 보관 기간 EXPIRE 로 정리
+@Component
+@ConditionalOnProperty(prefix = "geospatial.trajectory", name = "backend", havingValue = "redis", matchIfMissing = true)
+public class RedisStreamTrajectorySegmentStore implements TrajectorySegmentStore {
+
+    private static final String KEY_PREFIX = "driver_trajectory:";
+
+    // 항목 ID 는 Redis 서버 시각이므로 파드와의 시각 차이만큼 앞에서부터 조회
+    private static final long CLOCK_SKEW_MARGIN_MS = 60_000;
+
+    private static final String FIELD_FROM = "from";
+    private static final String FIELD_TO = "to";
+    private static final String FIELD_DATA = "data";
+
+    private final ReactiveRedisTemplate<String, String> storageRedisTemplate;
+
+    private final Duration retention;
+
+    private final long maxSegments;
+
+    public RedisStreamTrajectorySegmentStore(
+            @Qualifier("storageRedisTemplate") ReactiveRedisTemplate<String, String> storageRedisTemplate,
+            @Value("${geospatial.trajectory.retention-minutes:60}") long retentionMinutes,
+            @Value("${geospatial.trajectory.max-segments-per-driver:256}") long maxSegments) {
+        this.storageRedisTemplate = storageRedisTemplate;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.maxSegments = maxSegments;
+    }
+
+    @Override
+    public Mono<Void> append(String driverId, TrajectorySegment segment) {
+        String key = KEY_PREFIX + driverId;
+        MapRecord<String, String, String> record = StreamRecords.newRecord()
+                                                                .in(key)
+                                                                .ofMap(Map.of(
+                                                                        FIELD_FROM, Long.toString(segment.firstTimestampMs()),
+                                                                        FIELD_TO, Long.toString(segment.lastTimestampMs()),
+                                                                        FIELD_DATA, Base64.getEncoder().encodeToString(segment.data())));
+
+        return storageRedisTemplate.<String, String>opsForStream()
+                                   .add(record)
+                                   .then(Mono.when(
+                                           storageRedisTemplate.<String, String>opsForStream().trim(key, maxSegments, true),
+                                           storageRedisTemplate.expire(key, retention)));
+    }
+
+    @Override
+    public Flux<TrajectorySegment> segmentsSince(String driverId, long sinceMs) {
+        return storageRedisTemplate.<String, String>opsForStream()
+                                   .range(KEY_PREFIX + driverId, Range.rightUnbounded(Range.Bound.inclusive(Math.max(0, sinceMs - CLOCK_SKEW_MARGIN_MS) + "-0")))
+                                   .map(entry -> {
+                                       Map<String, String> value = entry.getValue();
+                                       return new TrajectorySegment(
+                                               Long.parseLong(value.get(FIELD_FROM)),
+                                               Long.parseLong(value.get(FIELD_TO)),
+                                               Base64.getDecoder().decode(value.get(FIELD_DATA)));
+                                   })
+                                   .filter(segment -> segment.lastTimestampMs() >= sinceMs);
+    }
+}
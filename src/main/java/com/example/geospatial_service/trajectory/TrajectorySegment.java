@@ -0,0 +1,5 @@
+package com.example.geospatial_service.trajectory;
+
+// 기사 한 명의 연속된 위치 묶음 (data 는 TrajectorySegmentCodec 형식)
+public record TrajectorySegment(long firstTimestampMs, long lastTimestampMs, byte[] data) {
+}
@@ -0,0 +1,93 @@
+package com.example.geospatial_service.trajectory;
+
+import com.example.geospatial_service.dto.TrajectoryPoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// 궤적 세그먼트 인코딩
+// [count] [t0][lat0][lon0] 이후 각 점은 직전 점과의 차이, 모든 값은 zigzag varint
+// 좌표는 1e-7도 정수 (바이너리 위치 프레임과 같은 단위), 시간은 epoch ms
+// 1초 간격으로 수십 m 씩 움직이는 기사는 점당 약 6~8바이트 (double 2개 + long = 24바이트 대비)
+final class TrajectorySegmentCodec {
+
+    static final double E7 = 1e7;
+
+    // varint 최대 길이 (long 10바이트, int 5바이트)
+    private static final int MAX_POINT_BYTES = 10 + 5 + 5;
+
+    private TrajectorySegmentCodec() {
+    }
+
+    static byte[] encode(long[] timestamps, int[] latitudesE7, int[] longitudesE7, int count) {
+        byte[] out = new byte[5 + count * MAX_POINT_BYTES];
+        int position = writeVarint(out, 0, count);
+
+        long previousTime = 0;
+        int previousLatitude = 0;
+        int previousLongitude = 0;
+        for (int i = 0; i < count; i++) {
+            position = writeVarint(out, position, zigzag(timestamps[i] - previousTime));
+            position = writeVarint(out, position, zigzag((long) latitudesE7[i] - previousLatitude));
+            position = writeVarint(out, position, zigzag((long) longitudesE7[i] - previousLongitude));
+            previousTime = timestamps[i];
+            previousLatitude = latitudesE7[i];
+            previousLongitude = longitudesE7[i];
+        }
+        return Arrays.copyOf(out, position);
+    }
+
+    static List<TrajectoryPoint> decode(byte[] segment) {
+        int[] position = {0};
+        int count = (int) readVarint(segment, position);
+        List<TrajectoryPoint> points = new ArrayList<>(count);
+
+        long time = 0;
+        long latitude = 0;
+        long longitude = 0;
+        for (int i = 0; i < count; i++) {
+            time += unzigzag(readVarint(segment, position));
+            latitude += unzigzag(readVarint(segment, position));
+            longitude += unzigzag(readVarint(segment, position));
+            points.add(new TrajectoryPoint(time, longitude / E7, latitude / E7));
+        }
+        return points;
+    }
+
+    static int toE7(double degrees) {
+        return (int) Math.round(degrees * E7);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int writeVarint(byte[] out, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[position++] = (byte) value;
+        return position;
+    }
+
+    private static long readVarint(byte[] in, int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (position[0] >= in.length || shift > 63) {
+                throw new IllegalArgumentException("궤적 세그먼트 형식이 올바르지 않습니다.");
+            }
+            b = in[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.geospatial_service.trajectory;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// 궤적 세그먼트 저장소 (geospatial.trajectory.backend)
+public interface TrajectorySegmentStore {
+
+    Mono<Void> append(String driverId, TrajectorySegment segment);
+
+    // lastTimestampMs >= sinceMs 인 세그먼트를 저장 순서대로 반환 (그 이전 점이 섞여 있을 수 있음)
+    Flux<TrajectorySegment> segmentsSince(String driverId, long sinceMs);
+}
@@ -0,0 +1,210 @@
+package com.example.geospatial_service.zone;
+
+import com.example.geospatial_service.kafka.ZoneEventPublisher;
+import com.example.geospatial_service.kafka.dto.DriverZoneEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+// 지오펜스 구역 추적 (geospatial.zone.enabled)
+// - 기동 시 구역 정의(JSON)를 읽어 격자 셀 커버(ZoneIndex)로 색인
+// - 저장되는 위치마다 속한 구역을 찾고, 직전과 달라졌을 때만 zone_events 로 들어옴/나감 발행
+// - 구역 안에 있는 기사만 상태를 보관하고, 전이가 없는 업데이트는 조회/시각 갱신만 함 (할당 없음)
+// - idle-timeout 동안 위치가 없는 기사는 마지막 위치/시각으로 나감을 발행하고 정리
+//   (다른 파드로 재연결된 기사는 새 파드의 들어옴이 먼저 도착할 수 있으므로 소비 측은 occurredAt 으로 순서를 판단)
+@Component
+@Slf4j
+public class DriverZoneTracker {
+
+    private final ZoneEventPublisher eventPublisher;
+
+    private final boolean enabled;
+
+    private final ZoneIndex index;
+
+    private final long idleTimeoutMillis;
+
+    private final LongSupplier clock;
+
+    // 구역 안에 있는 기사만 (전이는 compute 로 기사별 직렬화)
+    private final ConcurrentHashMap<String, DriverZoneState> states = new ConcurrentHashMap<>();
+
+    private final Map<ZoneType, Counter> enterCounters = new EnumMap<>(ZoneType.class);
+
+    private final Map<ZoneType, Counter> exitCounters = new EnumMap<>(ZoneType.class);
+
+    private final Counter expiredCounter;
+
+    @Autowired
+    public DriverZoneTracker(
+            ZoneEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${geospatial.zone.enabled:false}") boolean enabled,
+            @Value("${geospatial.zone.definitions:classpath:zones.json}") Resource definitions,
+            @Value("${geospatial.zone.cell-size-deg:0.005}") double cellSizeDeg,
+            @Value("${geospatial.zone.max-cells:1000000}") int maxCells,
+            @Value("${geospatial.zone.idle-timeout-ms:30000}") long idleTimeoutMillis) {
+        this(eventPublisher, enabled ? load(objectMapper, definitions) : List.of(), meterRegistry, enabled,
+             cellSizeDeg, maxCells, idleTimeoutMillis, System::currentTimeMillis);
+    }
+
+    DriverZoneTracker(ZoneEventPublisher eventPublisher, List<GeofenceZone> zones, MeterRegistry meterRegistry, boolean enabled,
+                      double cellSizeDeg, int maxCells, long idleTimeoutMillis, LongSupplier clock) {
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.index = ZoneIndex.build(zones, cellSizeDeg, maxCells);
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.clock = clock;
+
+        for (ZoneType type : ZoneType.values()) {
+            enterCounters.put(type, transitionCounter(meterRegistry, type, "enter"));
+            exitCounters.put(type, transitionCounter(meterRegistry, type, "exit"));
+        }
+        this.expiredCounter = Counter.builder("geospatial.zone.expired")
+                                     .description("idle-timeout 동안 위치가 없어 구역 상태를 정리한 기사 수")
+                                     .register(meterRegistry);
+        Gauge.builder("geospatial.zone.drivers", states, Map::size)
+             .description("구역 안에 있는 기사 수 (이 파드)")
+             .register(meterRegistry);
+
+        if (enabled) {
+            log.info("구역 색인 완료: 구역 {}개, 셀 {}도, 구역이 걸친 셀 {}개", index.size(), index.cellSizeDeg(), index.occupiedCells());
+        }
+    }
+
+    private static Counter transitionCounter(MeterRegistry meterRegistry, ZoneType type, String transition) {
+        return Counter.builder("geospatial.zone.transitions")
+                      .description("구역 들어옴/나감 이벤트 수")
+                      .tag("type", type.name().toLowerCase())
+                      .tag("transition", transition)
+                      .register(meterRegistry);
+    }
+
+    private static List<GeofenceZone> load(ObjectMapper objectMapper, Resource definitions) {
+        try (InputStream in = definitions.getInputStream()) {
+            return objectMapper.readValue(in, new TypeReference<List<GeofenceZone>>() {});
+        } catch (IOException e) {
+            throw new IllegalStateException("구역 정의를 읽지 못했습니다: " + definitions, e);
+        }
+    }
+
+    public void onLocation(String driverId, double longitude, double latitude) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        DriverZoneState state = states.get(driverId);
+        int[] previous = state != null ? state.zones : ZoneIndex.NONE;
+        int[] current = index.zonesAt(longitude, latitude, previous);
+        if (current == previous) {
+            if (state != null) {
+                state.touch(now, longitude, latitude);
+            }
+            return;
+        }
+
+        // 전이: 같은 기사의 동시 업데이트/정리와 겹치지 않도록 compute 안에서 다시 판단하고, 발행은 밖에서
+        List<DriverZoneEvent> events = new ArrayList<>(2);
+        states.compute(driverId, (id, existing) -> {
+            int[] before = existing != null ? existing.zones : ZoneIndex.NONE;
+            int[] after = index.zonesAt(longitude, latitude, before);
+            collectTransitions(events, id, before, after, longitude, latitude, now);
+            if (after.length == 0) {
+                return null;
+            }
+            DriverZoneState target = existing != null ? existing : new DriverZoneState();
+            target.zones = after;
+            target.touch(now, longitude, latitude);
+            return target;
+        });
+        publish(events);
+    }
+
+    @Scheduled(fixedDelayString = "${geospatial.zone.sweep-interval-ms:5000}")
+    public void expireIdle() {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        for (Map.Entry<String, DriverZoneState> entry : states.entrySet()) {
+            if (now - entry.getValue().lastSeenAt < idleTimeoutMillis) {
+                continue;
+            }
+            List<DriverZoneEvent> events = new ArrayList<>(1);
+            states.computeIfPresent(entry.getKey(), (id, state) -> {
+                if (now - state.lastSeenAt < idleTimeoutMillis) {
+                    return state;
+                }
+                collectTransitions(events, id, state.zones, ZoneIndex.NONE, state.longitude, state.latitude, state.lastSeenAt);
+                return null;
+            });
+            if (!events.isEmpty()) {
+                expiredCounter.increment();
+                publish(events);
+            }
+        }
+    }
+
+    // 두 배열 모두 구역 번호 오름차순: 병합하며 나감(before 에만) / 들어옴(after 에만) 수집
+    private void collectTransitions(List<DriverZoneEvent> events, String driverId, int[] before, int[] after,
+                                    double longitude, double latitude, long occurredAt) {
+        int i = 0;
+        int j = 0;
+        while (i < before.length || j < after.length) {
+            if (j == after.length || (i < before.length && before[i] < after[j])) {
+                events.add(event(driverId, before[i++], DriverZoneEvent.Transition.EXIT, longitude, latitude, occurredAt));
+            } else if (i == before.length || after[j] < before[i]) {
+                events.add(event(driverId, after[j++], DriverZoneEvent.Transition.ENTER, longitude, latitude, occurredAt));
+            } else {
+                i++;
+                j++;
+            }
+        }
+    }
+
+    private DriverZoneEvent event(String driverId, int zone, DriverZoneEvent.Transition transition,
+                                  double longitude, double latitude, long occurredAt) {
+        GeofenceZone definition = index.zone(zone);
+        return new DriverZoneEvent(driverId, definition.id(), definition.type().name(), transition, latitude, longitude, occurredAt);
+    }
+
+    private void publish(List<DriverZoneEvent> events) {
+        for (DriverZoneEvent event : events) {
+            ZoneType type = ZoneType.valueOf(event.zoneType());
+            (event.transition() == DriverZoneEvent.Transition.ENTER ? enterCounters : exitCounters).get(type).increment();
+            eventPublisher.publish(event);
+        }
+    }
+
+    private static final class DriverZoneState {
+        // 현재 속한 구역 번호 (compute 안에서만 교체)
+        volatile int[] zones = ZoneIndex.NONE;
+        volatile long lastSeenAt;
+        double longitude;
+        double latitude;
+
+        void touch(long now, double longitude, double latitude) {
+            this.longitude = longitude;
+            this.latitude = latitude;
+            this.lastSeenAt = now;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.geospatial_service.zone;
+
+// 구역 정의 (geospatial.zone.definitions 의 JSON 배열 원소)
+// polygon: [경도, 위도] 꼭짓점 목록, 단일 외곽선 (처음과 끝이 같지 않아도 닫힌 것으로 봄)
+public record GeofenceZone(
+        String id,
+        ZoneType type,
+        double[][] polygon
+) {}
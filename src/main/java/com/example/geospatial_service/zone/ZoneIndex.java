@@ -0,0 +1,300 @@
+package com.example.geospatial_service.zone;
+
+import java.util.Arrays;
+import java.util.List;
+
+// 구역 폴리곤의 격자 셀 커버 (생성 후 읽기 전용, 여러 스레드에서 잠금 없이 조회)
+// - 모든 구역을 덮는 경계 상자를 cellSizeDeg 격자로 나누고, 셀마다 걸친 구역을 "내부"/"경계" 로 구분해 보관
+// - 내부 셀은 폴리곤 판정 없이 포함, 경계 셀만 ray casting 으로 판정
+// - 조회는 primitive 배열만 읽고, 결과가 직전과 같으면 전달받은 배열을 그대로 돌려줌 (전이가 없으면 할당 없음)
+final class ZoneIndex {
+
+    static final int[] NONE = new int[0];
+
+    private static final byte OUTSIDE = 0;
+    private static final byte INTERIOR = 1;
+    private static final byte BOUNDARY = 2;
+
+    private final GeofenceZone[] zones;
+
+    // 구역별 꼭짓점 / 경계 상자
+    private final double[][] ringLongitudes;
+    private final double[][] ringLatitudes;
+    private final double[] zoneBounds; // [minLon, minLat, maxLon, maxLat] * 구역 수
+
+    private final double minLongitude;
+    private final double minLatitude;
+    private final double cellSizeDeg;
+    private final int lonCells;
+    private final int latCells;
+
+    // 셀별 (구역 번호 << 1 | 경계 여부), 구역 번호 오름차순 (구역이 없는 셀은 null)
+    private final int[][] cells;
+
+    private ZoneIndex(GeofenceZone[] zones, double[][] ringLongitudes, double[][] ringLatitudes, double[] zoneBounds,
+                      double minLongitude, double minLatitude, double cellSizeDeg, int lonCells, int latCells) {
+        this.zones = zones;
+        this.ringLongitudes = ringLongitudes;
+        this.ringLatitudes = ringLatitudes;
+        this.zoneBounds = zoneBounds;
+        this.minLongitude = minLongitude;
+        this.minLatitude = minLatitude;
+        this.cellSizeDeg = cellSizeDeg;
+        this.lonCells = lonCells;
+        this.latCells = latCells;
+        this.cells = new int[lonCells * latCells][];
+    }
+
+    // 셀 수가 maxCells 를 넘으면 셀 크기를 두 배씩 키움 (전국에 흩어진 구역)
+    static ZoneIndex build(List<GeofenceZone> definitions, double cellSizeDeg, int maxCells) {
+        if (cellSizeDeg <= 0 || cellSizeDeg > 10) {
+            throw new IllegalArgumentException("cell-size-deg 는 (0, 10] 범위여야 합니다: " + cellSizeDeg);
+        }
+        int count = definitions.size();
+        GeofenceZone[] zones = definitions.toArray(new GeofenceZone[0]);
+        double[][] ringLongitudes = new double[count][];
+        double[][] ringLatitudes = new double[count][];
+        double[] zoneBounds = new double[count * 4];
+
+        double minLon = Double.POSITIVE_INFINITY, minLat = Double.POSITIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY, maxLat = Double.NEGATIVE_INFINITY;
+        for (int z = 0; z < count; z++) {
+            GeofenceZone zone = zones[z];
+            double[][] polygon = zone.polygon();
+            if (zone.id() == null || zone.type() == null || polygon == null || polygon.length < 3) {
+                throw new IllegalArgumentException("구역에는 id, type 과 3개 이상의 꼭짓점이 필요합니다: " + zone.id());
+            }
+            // 닫는 꼭짓점(처음과 같은 끝점)은 제외
+            int vertices = Arrays.equals(polygon[0], polygon[polygon.length - 1]) ? polygon.length - 1 : polygon.length;
+            ringLongitudes[z] = new double[vertices];
+            ringLatitudes[z] = new double[vertices];
+            double zMinLon = Double.POSITIVE_INFINITY, zMinLat = Double.POSITIVE_INFINITY;
+            double zMaxLon = Double.NEGATIVE_INFINITY, zMaxLat = Double.NEGATIVE_INFINITY;
+            for (int v = 0; v < vertices; v++) {
+                double lon = polygon[v][0];
+                double lat = polygon[v][1];
+                ringLongitudes[z][v] = lon;
+                ringLatitudes[z][v] = lat;
+                zMinLon = Math.min(zMinLon, lon);
+                zMinLat = Math.min(zMinLat, lat);
+                zMaxLon = Math.max(zMaxLon, lon);
+                zMaxLat = Math.max(zMaxLat, lat);
+            }
+            zoneBounds[z * 4] = zMinLon;
+            zoneBounds[z * 4 + 1] = zMinLat;
+            zoneBounds[z * 4 + 2] = zMaxLon;
+            zoneBounds[z * 4 + 3] = zMaxLat;
+            minLon = Math.min(minLon, zMinLon);
+            minLat = Math.min(minLat, zMinLat);
+            maxLon = Math.max(maxLon, zMaxLon);
+            maxLat = Math.max(maxLat, zMaxLat);
+        }
+        if (count == 0) {
+            return new ZoneIndex(zones, ringLongitudes, ringLatitudes, zoneBounds, 0, 0, cellSizeDeg, 0, 0);
+        }
+
+        double size = cellSizeDeg;
+        long lonCells = cellCount(maxLon - minLon, size);
+        long latCells = cellCount(maxLat - minLat, size);
+        while (lonCells * latCells > maxCells) {
+            size *= 2;
+            lonCells = cellCount(maxLon - minLon, size);
+            latCells = cellCount(maxLat - minLat, size);
+        }
+
+        ZoneIndex index = new ZoneIndex(zones, ringLongitudes, ringLatitudes, zoneBounds,
+                                        minLon, minLat, size, (int) lonCells, (int) latCells);
+        for (int z = 0; z < count; z++) {
+            index.cover(z);
+        }
+        return index;
+    }
+
+    private static long cellCount(double span, double size) {
+        // 최대 경계가 마지막 셀 안에 들어오도록 +1
+        return (long) Math.floor(span / size) + 1;
+    }
+
+    int size() {
+        return zones.length;
+    }
+
+    GeofenceZone zone(int zone) {
+        return zones[zone];
+    }
+
+    double cellSizeDeg() {
+        return cellSizeDeg;
+    }
+
+    // (longitude, latitude) 가 속한 구역 번호 (오름차순)
+    // 결과가 previous 와 같으면 previous 를 그대로 반환
+    int[] zonesAt(double longitude, double latitude, int[] previous) {
+        int[] entries = cellEntries(longitude, latitude);
+        if (entries == null) {
+            return previous.length == 0 ? previous : NONE;
+        }
+
+        int matched = 0;
+        boolean same = true;
+        for (int entry : entries) {
+            int zone = entry >>> 1;
+            if ((entry & 1) != 0 && !contains(zone, longitude, latitude)) {
+                continue;
+            }
+            if (same && (matched >= previous.length || previous[matched] != zone)) {
+                same = false;
+            }
+            matched++;
+        }
+        if (same && matched == previous.length) {
+            return previous;
+        }
+        if (matched == 0) {
+            return NONE;
+        }
+
+        // 전이가 있을 때만 새 배열
+        int[] result = new int[matched];
+        int i = 0;
+        for (int entry : entries) {
+            int zone = entry >>> 1;
+            if ((entry & 1) == 0 || contains(zone, longitude, latitude)) {
+                result[i++] = zone;
+            }
+        }
+        return result;
+    }
+
+    private int[] cellEntries(double longitude, double latitude) {
+        if (cells.length == 0) {
+            return null;
+        }
+        double lonOffset = (longitude - minLongitude) / cellSizeDeg;
+        double latOffset = (latitude - minLatitude) / cellSizeDeg;
+        // NaN 도 범위 밖으로 처리
+        if (!(lonOffset >= 0 && lonOffset < lonCells && latOffset >= 0 && latOffset < latCells)) {
+            return null;
+        }
+        return cells[(int) latOffset * lonCells + (int) lonOffset];
+    }
+
+    // even-odd ray casting (경계 셀에서만 호출)
+    private boolean contains(int zone, double longitude, double latitude) {
+        int b = zone * 4;
+        if (longitude < zoneBounds[b] || latitude < zoneBounds[b + 1] || longitude > zoneBounds[b + 2] || latitude > zoneBounds[b + 3]) {
+            return false;
+        }
+        double[] xs = ringLongitudes[zone];
+        double[] ys = ringLatitudes[zone];
+        boolean inside = false;
+        for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+            if ((ys[i] > latitude) != (ys[j] > latitude)
+                    && longitude < (xs[j] - xs[i]) * (latitude - ys[i]) / (ys[j] - ys[i]) + xs[i]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    // 구역 경계 상자 안의 셀을 경계(변이 지나는 셀) / 내부(셀 중심이 폴리곤 안) / 밖으로 분류해 등록
+    private void cover(int zone) {
+        int b = zone * 4;
+        int fromX = lonIndex(zoneBounds[b]);
+        int fromY = latIndex(zoneBounds[b + 1]);
+        int toX = lonIndex(zoneBounds[b + 2]);
+        int toY = latIndex(zoneBounds[b + 3]);
+        int width = toX - fromX + 1;
+        byte[] marks = new byte[width * (toY - fromY + 1)];
+
+        double[] xs = ringLongitudes[zone];
+        double[] ys = ringLatitudes[zone];
+        for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+            int edgeFromX = lonIndex(Math.min(xs[i], xs[j]));
+            int edgeToX = lonIndex(Math.max(xs[i], xs[j]));
+            int edgeFromY = latIndex(Math.min(ys[i], ys[j]));
+            int edgeToY = latIndex(Math.max(ys[i], ys[j]));
+            for (int y = edgeFromY; y <= edgeToY; y++) {
+                for (int x = edgeFromX; x <= edgeToX; x++) {
+                    if (segmentCrossesCell(xs[j], ys[j], xs[i], ys[i], x, y)) {
+                        marks[(y - fromY) * width + (x - fromX)] = BOUNDARY;
+                    }
+                }
+            }
+        }
+
+        for (int y = fromY; y <= toY; y++) {
+            for (int x = fromX; x <= toX; x++) {
+                int mark = (y - fromY) * width + (x - fromX);
+                if (marks[mark] == OUTSIDE
+                        && contains(zone, minLongitude + (x + 0.5) * cellSizeDeg, minLatitude + (y + 0.5) * cellSizeDeg)) {
+                    marks[mark] = INTERIOR;
+                }
+                if (marks[mark] != OUTSIDE) {
+                    append(y * lonCells + x, zone << 1 | (marks[mark] == BOUNDARY ? 1 : 0));
+                }
+            }
+        }
+    }
+
+    // 구역은 번호 순서로 등록하므로 끝에 붙이면 오름차순 유지
+    private void append(int cell, int entry) {
+        int[] entries = cells[cell];
+        if (entries == null) {
+            cells[cell] = new int[]{entry};
+            return;
+        }
+        int[] grown = Arrays.copyOf(entries, entries.length + 1);
+        grown[entries.length] = entry;
+        cells[cell] = grown;
+    }
+
+    // 선분이 셀 사각형(경계 포함)과 만나는지 (Liang-Barsky 클리핑)
+    private boolean segmentCrossesCell(double x0, double y0, double x1, double y1, int cellX, int cellY) {
+        double left = minLongitude + cellX * cellSizeDeg;
+        double bottom = minLatitude + cellY * cellSizeDeg;
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double[] p = {-dx, dx, -dy, dy};
+        double[] q = {x0 - left, left + cellSizeDeg - x0, y0 - bottom, bottom + cellSizeDeg - y0};
+        double enter = 0;
+        double exit = 1;
+        for (int k = 0; k < 4; k++) {
+            if (p[k] == 0) {
+                if (q[k] < 0) {
+                    return false;
+                }
+                continue;
+            }
+            double t = q[k] / p[k];
+            if (p[k] < 0) {
+                enter = Math.max(enter, t);
+            } else {
+                exit = Math.min(exit, t);
+            }
+            if (enter > exit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int lonIndex(double longitude) {
+        return Math.min(lonCells - 1, Math.max(0, (int) ((longitude - minLongitude) / cellSizeDeg)));
+    }
+
+    private int latIndex(double latitude) {
+        return Math.min(latCells - 1, Math.max(0, (int) ((latitude - minLatitude) / cellSizeDeg)));
+    }
+
+    // 구역이 하나라도 걸친 셀 수 (기동 로그용)
+    int occupiedCells() {
+        int occupied = 0;
+        for (int[] entries : cells) {
+            if (entries != null) {
+                occupied++;
+            }
+        }
+        return occupied;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.geospatial_service.zone;
+
+// 지오펜스 구역 종류 (zone_events 소비 측에서 구분)
+public enum ZoneType {
+    // 공항 대기열
+    AIRPORT,
+    // 할증 구역
+    SURGE,
+    // 승차 금지 구역
+    NO_PICKUP
+}
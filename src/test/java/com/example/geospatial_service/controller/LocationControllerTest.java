@@ -1,7 +1,16 @@
 package com.example.geospatial_service.controller;
 
 import com.example.geospatial_service.dto.NearbyDriverResponse;
+import com.example.geospatial_service.dto.DriverPosition;
+import com.example.geospatial_service.dto.NearbySearchResult;
+import com.example.geospatial_service.dto.SupplyCell;
+import com.example.geospatial_service.dto.SupplyHeatmapResponse;
+import com.example.geospatial_service.dto.TrajectoryPoint;
+import com.example.geospatial_service.dto.ViewportUpdate;
 import com.example.geospatial_service.service.LocationService;
+import com.example.geospatial_service.service.SupplyHeatmap;
+import com.example.geospatial_service.service.ViewportSubscriptionHub;
+import com.example.geospatial_service.trajectory.DriverTrajectoryStore;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +20,9 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 
@@ -24,6 +36,15 @@ class LocationControllerTest {
     @MockitoBean
     private LocationService locationService;
 
+    @MockitoBean
+    private ViewportSubscriptionHub viewportSubscriptionHub;
+
+    @MockitoBean
+    private DriverTrajectoryStore trajectoryStore;
+
+    @MockitoBean
+    private SupplyHeatmap supplyHeatmap;
+
     @Test
     @DisplayName("정상 파라미터로 주변 기사 조회 시 200 OK와 데이터 스트림을 반환한다")
     void searchNearbyDrivers_Success() {
@@ -110,4 +131,181 @@ class LocationControllerTest {
                      .expectBodyList(NearbyDriverResponse.class)
                      .hasSize(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("가까운 기사 K명 조회 시 K와 최대 반경을 서비스로 전달해야 한다")
+    void searchNearestDrivers_Success() {
+        // Given
+        NearbyDriverResponse driver1 = new NearbyDriverResponse("DriverA", 0.4);
+
+        given(locationService.findNearestDrivers(anyDouble(), anyDouble(), eq(3), eq(10.0)))
+                .willReturn(Flux.just(driver1));
+
+        // When & Then
+        webTestClient.get()
+                     .uri(uriBuilder -> uriBuilder
+                             .path("/api/locations/nearest")
+                             .queryParam("longitude", 127.0)
+                             .queryParam("latitude", 37.0)
+                             .queryParam("k", 3)
+                             .queryParam("maxRadius", 10)
+                             .build())
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectBodyList(NearbyDriverResponse.class)
+                     .containsExactly(driver1);
+    }
+
+    @Test
+    @DisplayName("K가 허용 범위를 벗어나면 400 Bad Request를 반환한다")
+    void searchNearestDrivers_InvalidK() {
+        webTestClient.get()
+                     .uri(uriBuilder -> uriBuilder
+                             .path("/api/locations/nearest")
+                             .queryParam("longitude", 127.0)
+                             .queryParam("latitude", 37.0)
+                             .queryParam("k", 51)
+                             .build())
+                     .exchange()
+                     .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("일괄 검색은 질의별 결과를 NDJSON 으로 스트리밍한다")
+    void searchNearbyDriversBatch_Success() {
+        // Given
+        NearbySearchResult riderA = new NearbySearchResult("riderA", List.of(new NearbyDriverResponse("DriverA", 1.2)));
+        NearbySearchResult riderB = new NearbySearchResult("riderB", List.of());
+
+        given(locationService.findNearbyDriversBatch(anyList()))
+                .willReturn(Flux.just(riderA, riderB));
+
+        // When & Then
+        webTestClient.post()
+                     .uri("/api/locations/search/batch")
+                     .contentType(MediaType.APPLICATION_JSON)
+                     .accept(MediaType.APPLICATION_NDJSON)
+                     .bodyValue(List.of(
+                             Map.of("queryId", "riderA", "longitude", 127.0, "latitude", 37.5),
+                             Map.of("queryId", "riderB", "longitude", 127.1, "latitude", 37.6, "radius", 3)))
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                     .expectBodyList(NearbySearchResult.class)
+                     .containsExactly(riderA, riderB);
+    }
+
+    @Test
+    @DisplayName("일괄 검색 질의의 좌표가 범위를 벗어나면 400 Bad Request를 반환한다")
+    void searchNearbyDriversBatch_InvalidQuery() {
+        webTestClient.post()
+                     .uri("/api/locations/search/batch")
+                     .contentType(MediaType.APPLICATION_JSON)
+                     .bodyValue(List.of(Map.of("queryId", "riderA", "longitude", 200.0, "latitude", 37.5)))
+                     .exchange()
+                     .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("뷰포트 구독은 스냅샷과 변화 이벤트를 SSE 로 전송한다")
+    void subscribeViewport_Success() {
+        // Given
+        ViewportUpdate snapshot = new ViewportUpdate(true, List.of(new DriverPosition("DriverA", 127.01, 37.51)), List.of(), List.of());
+        ViewportUpdate delta = new ViewportUpdate(false, List.of(), List.of(new DriverPosition("DriverA", 127.02, 37.52)), List.of());
+
+        given(viewportSubscriptionHub.isEnabled()).willReturn(true);
+        given(viewportSubscriptionHub.subscribe(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .willReturn(Flux.just(snapshot, delta));
+
+        // When & Then
+        webTestClient.get()
+                     .uri(uriBuilder -> uriBuilder
+                             .path("/api/locations/viewport")
+                             .queryParam("minLongitude", 127.0)
+                             .queryParam("minLatitude", 37.5)
+                             .queryParam("maxLongitude", 127.1)
+                             .queryParam("maxLatitude", 37.6)
+                             .build())
+                     .accept(MediaType.TEXT_EVENT_STREAM)
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectBodyList(ViewportUpdate.class)
+                     .containsExactly(snapshot, delta);
+    }
+
+    @Test
+    @DisplayName("뷰포트 범위가 너무 넓으면 400 Bad Request를 반환한다")
+    void subscribeViewport_TooLarge() {
+        given(viewportSubscriptionHub.isEnabled()).willReturn(true);
+
+        webTestClient.get()
+                     .uri(uriBuilder -> uriBuilder
+                             .path("/api/locations/viewport")
+                             .queryParam("minLongitude", 126.0)
+                             .queryParam("minLatitude", 37.0)
+                             .queryParam("maxLongitude", 128.0)
+                             .queryParam("maxLatitude", 38.0)
+                             .build())
+                     .exchange()
+                     .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("기사 궤적 조회 시 최근 경로를 시간 순서로 반환한다")
+    void getDriverTrajectory_Success() {
+        // Given
+        TrajectoryPoint first = new TrajectoryPoint(1_000L, 127.01, 37.51);
+        TrajectoryPoint second = new TrajectoryPoint(2_000L, 127.02, 37.52);
+
+        given(trajectoryStore.isEnabled()).willReturn(true);
+        given(trajectoryStore.recentPath("DriverA", 10)).willReturn(Flux.just(first, second));
+
+        // When & Then
+        webTestClient.get()
+                     .uri("/api/locations/drivers/DriverA/trajectory?minutes=10")
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectBodyList(TrajectoryPoint.class)
+                     .containsExactly(first, second);
+    }
+
+    @Test
+    @DisplayName("궤적 저장이 비활성화되어 있으면 404 Not Found를 반환한다")
+    void getDriverTrajectory_Disabled() {
+        given(trajectoryStore.isEnabled()).willReturn(false);
+
+        webTestClient.get()
+                     .uri("/api/locations/drivers/DriverA/trajectory")
+                     .exchange()
+                     .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("공급 히트맵 조회 시 범위 안 셀별 기사 수를 반환한다")
+    void getSupplyHeatmap_Success() {
+        // Given
+        SupplyHeatmapResponse heatmap = new SupplyHeatmapResponse(6, 1_000L, List.of(new SupplyCell("wydm9q", 37.5, 127.0, 3)));
+
+        given(supplyHeatmap.isEnabled()).willReturn(true);
+        given(supplyHeatmap.region(126.9, 37.4, 127.1, 37.6)).willReturn(heatmap);
+
+        // When & Then
+        webTestClient.get()
+                     .uri("/api/locations/heatmap?minLongitude=126.9&minLatitude=37.4&maxLongitude=127.1&maxLatitude=37.6")
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectBody(SupplyHeatmapResponse.class)
+                     .isEqualTo(heatmap);
+    }
+
+    @Test
+    @DisplayName("공급 히트맵이 비활성화되어 있으면 404 Not Found를 반환한다")
+    void getSupplyHeatmap_Disabled() {
+        given(supplyHeatmap.isEnabled()).willReturn(false);
+
+        webTestClient.get()
+                     .uri("/api/locations/heatmap?minLongitude=126.9&minLatitude=37.4&maxLongitude=127.1&maxLatitude=37.6")
+                     .exchange()
+                     .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.geospatial_service.geo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GeoHashTest {
+
+    @Test
+    @DisplayName("표준 Geohash 값과 동일하게 인코딩되어야 한다")
+    void encode_MatchesReference() {
+        assertThat(GeoHash.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+        assertThat(GeoHash.encode(37.5665, 126.9780, 4)).isEqualTo("wydm");
+    }
+
+    @Test
+    @DisplayName("셀 중심 좌표를 다시 인코딩하면 같은 셀이어야 한다")
+    void center_RoundTrip() {
+        double[] center = GeoHash.center("wydm9qy");
+
+        assertThat(GeoHash.encode(center[0], center[1], 7)).isEqualTo("wydm9qy");
+        assertThat(center[0]).isCloseTo(37.5665, within(0.001));
+        assertThat(center[1]).isCloseTo(126.9780, within(0.001));
+    }
+
+    @Test
+    @DisplayName("주변 셀 조회는 자기 자신을 포함한 3x3 셀을 반환해야 한다")
+    void withNeighbors_ReturnsNineCells() {
+        assertThat(GeoHash.withNeighbors("wydm"))
+                .hasSize(9)
+                .contains("wydm", "wydq", "wydj", "wydk", "wydt");
+    }
+
+    @Test
+    @DisplayName("사각형 커버링은 경계에 걸친 셀을 모두 포함해야 한다")
+    void covering_IncludesBoundaryCells() {
+        // 한 셀 안쪽
+        assertThat(GeoHash.covering(37.45, 126.95, 37.55, 127.05, 4)).containsExactly("wydm");
+        // 경도 방향 셀 경계(127.265625)를 가로지름
+        assertThat(GeoHash.covering(37.45, 127.2, 37.55, 127.3, 4)).containsExactlyInAnyOrder("wydm", "wydt");
+    }
+
+    @Test
+    @DisplayName("비트 값 커버링과 중심 좌표는 문자열 셀과 같은 셀을 가리켜야 한다")
+    void coveringBits_MatchesStringCells() {
+        long[] bits = GeoHash.coveringBits(37.45, 127.2, 37.55, 127.3, 4);
+
+        assertThat(bits).containsExactlyInAnyOrder(GeoHash.encodeBits(37.5, 127.0, 20), GeoHash.encodeBits(37.5, 127.3, 20));
+        for (long cell : bits) {
+            double[] center = GeoHash.center(cell, 4);
+            assertThat(GeoHash.encodeBits(center[0], center[1], 20)).isEqualTo(cell);
+        }
+    }
+}
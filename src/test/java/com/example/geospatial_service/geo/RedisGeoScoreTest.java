@@ -0,0 +1,26 @@
+package com.example.geospatial_service.geo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RedisGeoScoreTest {
+
+    @Test
+    @DisplayName("Redis GEOADD 와 같은 score 를 만들어야 한다")
+    void encode_MatchesRedis() {
+        // GEOADD Sicily 13.361389 38.115556 "Palermo" -> ZSCORE 3479099956230698
+        assertThat(RedisGeoScore.encode(13.361389, 38.115556)).isEqualTo(3479099956230698L);
+    }
+
+    @Test
+    @DisplayName("score 에서 복원한 좌표는 원래 좌표와 1m 이내여야 한다")
+    void decode_RoundTrip() {
+        long score = RedisGeoScore.encode(127.0276368, 37.4979502);
+
+        assertThat(RedisGeoScore.longitude(score)).isCloseTo(127.0276368, within(0.00001));
+        assertThat(RedisGeoScore.latitude(score)).isCloseTo(37.4979502, within(0.00001));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.geospatial_service.handler;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryLocationFramesTest {
+
+    @Test
+    @DisplayName("위치 프레임은 1e-7도 고정소수 좌표와 epoch 초 시각으로 해석되어야 한다")
+    void decode_LocationFrame() {
+        // given
+        DataBuffer payload = buffer(location(374979502, 1270276368, 1_700_000_000L));
+
+        // when
+        LocationFrame frame = BinaryLocationFrames.decode(payload);
+
+        // then
+        assertThat(frame).isEqualTo(new LocationFrame(127.0276368, 37.4979502, 1_700_000_000_000L));
+    }
+
+    @Test
+    @DisplayName("uint32 시각은 부호 없이 해석되어야 한다 (2038년 이후)")
+    void decode_UnsignedTimestamp() {
+        // given: 0xF0000000 초
+        DataBuffer payload = buffer(location(0, 0, 0xF0000000L));
+
+        // when
+        LocationFrame frame = BinaryLocationFrames.decode(payload);
+
+        // then
+        assertThat(frame.timestampMs()).isEqualTo(0xF0000000L * 1000L);
+    }
+
+    @Test
+    @DisplayName("길이가 20바이트가 아니거나 위치 타입이 아니면 null 이어야 한다")
+    void decode_MalformedFrames() {
+        // given
+        byte[] valid = location(374979502, 1270276368, 1_700_000_000L);
+        byte[] truncated = ByteBuffer.allocate(19).put(valid, 0, 19).array();
+        byte[] oversized = ByteBuffer.allocate(21).put(valid).array();
+        byte[] wrongType = valid.clone();
+        wrongType[0] = BinaryLocationFrames.TYPE_PING;
+
+        // when & then
+        assertThat(BinaryLocationFrames.decode(buffer(truncated))).isNull();
+        assertThat(BinaryLocationFrames.decode(buffer(oversized))).isNull();
+        assertThat(BinaryLocationFrames.decode(buffer(wrongType))).isNull();
+        assertThat(BinaryLocationFrames.decode(buffer(new byte[0]))).isNull();
+    }
+
+    @Test
+    @DisplayName("위도 ±90, 경도 ±180 을 벗어난 좌표는 null 이어야 한다 (int 최솟값 포함)")
+    void decode_OutOfRangeCoordinates() {
+        // when & then
+        assertThat(BinaryLocationFrames.decode(buffer(location(900_000_001, 0, 0)))).isNull();
+        assertThat(BinaryLocationFrames.decode(buffer(location(0, -1_800_000_001, 0)))).isNull();
+        assertThat(BinaryLocationFrames.decode(buffer(location(Integer.MIN_VALUE, 0, 0)))).isNull();
+        assertThat(BinaryLocationFrames.decode(buffer(location(0, Integer.MIN_VALUE, 0)))).isNull();
+        assertThat(BinaryLocationFrames.decode(buffer(location(-900_000_000, 1_800_000_000, 0))))
+                .isEqualTo(new LocationFrame(180.0, -90.0, 0L));
+    }
+
+    @Test
+    @DisplayName("1바이트 PONG 만 PONG 으로 보고, PING 프레임은 1바이트 0x03 이어야 한다")
+    void pingPong() {
+        // when & then
+        assertThat(BinaryLocationFrames.isPong(buffer(new byte[]{BinaryLocationFrames.TYPE_PONG}))).isTrue();
+        assertThat(BinaryLocationFrames.isPong(buffer(new byte[]{BinaryLocationFrames.TYPE_PING}))).isFalse();
+        assertThat(BinaryLocationFrames.isPong(buffer(new byte[]{BinaryLocationFrames.TYPE_PONG, 0}))).isFalse();
+        assertThat(BinaryLocationFrames.pingFrame()).containsExactly(BinaryLocationFrames.TYPE_PING);
+    }
+
+    @Test
+    @DisplayName("읽기 위치가 0이 아닌 버퍼에서도 프레임 시작부터 해석해야 한다")
+    void decode_NonZeroReadPosition() {
+        // given
+        byte[] frame = location(374979502, 1270276368, 1_700_000_000L);
+        DataBuffer payload = buffer(ByteBuffer.allocate(frame.length + 3).put(new byte[3]).put(frame).array());
+        payload.readPosition(3);
+
+        // when & then
+        assertThat(BinaryLocationFrames.decode(payload)).isEqualTo(new LocationFrame(127.0276368, 37.4979502, 1_700_000_000_000L));
+    }
+
+    private static byte[] location(int latitudeE7, int longitudeE7, long timestampSec) {
+        return ByteBuffer.allocate(BinaryLocationFrames.LOCATION_FRAME_LENGTH)
+                         .put(BinaryLocationFrames.TYPE_LOCATION)
+                         .put((byte) 0)
+                         .putShort((short) 0)
+                         .putInt(latitudeE7)
+                         .putInt(longitudeE7)
+                         .putInt((int) timestampSec)
+                         .putInt(0)
+                         .array();
+    }
+
+    private static DataBuffer buffer(byte[] bytes) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(bytes);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.geospatial_service.handler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class DriverConfigRouterTest {
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> cacheRedisTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DriverConfigRouter router;
+
+    @BeforeEach
+    void setUp() {
+        // 패턴 구독(start)은 띄우지 않고 라우팅만 검증, 세션별 미전송 한도 16건
+        router = new DriverConfigRouter(cacheRedisTemplate, meterRegistry, 16);
+    }
+
+    @Test
+    @DisplayName("설정 메시지는 해당 기사의 세션에만 전달되어야 한다")
+    void route_ToRegisteredSession() {
+        // given
+        Flux<String> driver1 = router.register("101");
+        Flux<String> driver2 = router.register("102");
+
+        // when
+        router.route("driver:config:101", "{\"type\":\"CONFIG_UPDATE\"}");
+        router.route("driver:config:999", "{\"type\":\"CONFIG_UPDATE\"}"); // 다른 파드의 기사
+
+        // then
+        StepVerifier.create(driver1.take(1))
+                    .expectNext("{\"type\":\"CONFIG_UPDATE\"}")
+                    .verifyComplete();
+        StepVerifier.create(driver2)
+                    .expectSubscription()
+                    .thenCancel()
+                    .verify();
+    }
+
+    @Test
+    @DisplayName("같은 기사가 재접속하면 이전 세션 스트림은 종료되고 새 세션으로 전달되어야 한다")
+    void register_Reconnect_CompletesPrevious() {
+        // given
+        Flux<String> previous = router.register("101");
+        Flux<String> current = router.register("101");
+
+        // when
+        router.route("driver:config:101", "config");
+
+        // then
+        StepVerifier.create(previous).verifyComplete();
+        StepVerifier.create(current.take(1)).expectNext("config").verifyComplete();
+    }
+
+    @Test
+    @DisplayName("세션이 끝나면 라우팅 맵에서 제거되어야 한다")
+    void register_RemovedOnCancel() {
+        // given
+        Flux<String> driver1 = router.register("101");
+
+        // when
+        StepVerifier.create(driver1).thenCancel().verify();
+
+        // then
+        assertThat(router.sessionCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("전송하지 못한 설정 메시지는 한도까지만 쌓고 나머지는 버려야 한다")
+    void route_BoundedOutboundQueue() {
+        // given: 세션이 메시지를 읽지 못하는 상태
+        Flux<String> driver1 = router.register("101");
+
+        // when
+        for (int i = 0; i < 20; i++) {
+            router.route("driver:config:101", "config-" + i);
+        }
+
+        // then
+        assertThat(meterRegistry.get("geospatial.config.router.messages").tag("result", "delivered").counter().count()).isEqualTo(16);
+        assertThat(meterRegistry.get("geospatial.config.router.messages").tag("result", "failed").counter().count()).isEqualTo(4);
+        StepVerifier.create(driver1.take(16).count())
+                    .expectNext(16L)
+                    .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("재접속과 라우팅이 동시에 일어나도 메시지를 잃지 않아야 한다")
+    void route_ConcurrentReconnect_NoLoss() {
+        // given: 미전송 한도가 충분한 라우터
+        DriverConfigRouter wideRouter = new DriverConfigRouter(cacheRedisTemplate, meterRegistry, 1024);
+        wideRouter.register("101");
+
+        // when: 한 스레드는 재접속, 다른 스레드는 라우팅
+        CompletableFuture<Void> reconnects = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 500; i++) {
+                wideRouter.register("101");
+            }
+        });
+        for (int i = 0; i < 500; i++) {
+            wideRouter.route("driver:config:101", "config-" + i);
+        }
+        reconnects.join();
+
+        // then
+        assertThat(meterRegistry.get("geospatial.config.router.messages").tag("result", "delivered").counter().count()).isEqualTo(500);
+        assertThat(meterRegistry.get("geospatial.config.router.messages").tag("result", "failed").counter().count()).isZero();
+    }
+}
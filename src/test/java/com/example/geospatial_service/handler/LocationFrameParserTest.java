@@ -0,0 +1,66 @@
+package com.example.geospatial_service.handler;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocationFrameParserTest {
+
+    private final LocationFrameParser parser = new LocationFrameParser();
+
+    @Test
+    @DisplayName("위치 프레임은 필드 순서/공백/추가 필드와 관계없이 primitive 좌표로 파싱되어야 한다")
+    void parse_LocationFrame() {
+        // given
+        DataBuffer compact = buffer("{\"longitude\":127.0276368,\"latitude\":37.4979502}");
+        DataBuffer reordered = buffer(" { \"latitude\" : -37.5 , \"ts\": 1700000000, \"longitude\": 127, \"memo\": \"a\\\"b\" } ");
+
+        // when
+        LocationFrame first = parser.parse(compact);
+        LocationFrame second = parser.parse(reordered);
+
+        // then
+        assertThat(first).isEqualTo(LocationFrame.position(127.0276368, 37.4979502));
+        assertThat(second).isEqualTo(LocationFrame.position(127.0, -37.5));
+    }
+
+    @Test
+    @DisplayName("지수 표기나 긴 소수도 JDK 파싱 결과와 같아야 한다")
+    void parse_SlowPathNumbers() {
+        // given
+        DataBuffer payload = buffer("{\"longitude\":1.27e2,\"latitude\":37.49795021234567891}");
+
+        // when
+        LocationFrame frame = parser.parse(payload);
+
+        // then
+        assertThat(frame).isEqualTo(LocationFrame.position(127.0, Double.parseDouble("37.49795021234567891")));
+    }
+
+    @Test
+    @DisplayName("빠른 경로로 처리할 수 없는 프레임은 null 을 반환하여 Jackson 으로 넘겨야 한다")
+    void parse_UnsupportedFrame_ReturnsNull() {
+        assertThat(parser.parse(buffer("{\"longitude\":127.0}"))).isNull();
+        assertThat(parser.parse(buffer("{\"longitude\":\"127.0\",\"latitude\":37.5}"))).isNull();
+        assertThat(parser.parse(buffer("{\"meta\":{\"v\":1},\"longitude\":127.0,\"latitude\":37.5}"))).isNull();
+        assertThat(parser.parse(buffer("PONG"))).isNull();
+    }
+
+    @Test
+    @DisplayName("PONG 은 대소문자와 관계없이 판별되어야 한다")
+    void isPong() {
+        assertThat(LocationFrameParser.isPong(buffer("PONG"))).isTrue();
+        assertThat(LocationFrameParser.isPong(buffer("pong"))).isTrue();
+        assertThat(LocationFrameParser.isPong(buffer("PING"))).isFalse();
+        assertThat(LocationFrameParser.isPong(buffer("PONG!"))).isFalse();
+    }
+
+    private static DataBuffer buffer(String payload) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
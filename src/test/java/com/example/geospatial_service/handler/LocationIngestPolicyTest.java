@@ -0,0 +1,121 @@
+package com.example.geospatial_service.handler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocationIngestPolicyTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    private LocationIngestPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        // deadband 15m, 운행 1초, 대기 5초, 최대 무음 10초, 부하 한도 1건
+        policy = new LocationIngestPolicy(new SimpleMeterRegistry(), 15, 1000, 5000, 10_000, 1, now::get);
+    }
+
+    @Test
+    @DisplayName("대기 기사는 대기 주기 안의 업데이트를 버리고, 운행 중이면 높은 주기로 저장해야 한다")
+    void shouldStore_RateByTripState() {
+        // given
+        LocationIngestPolicy.Session session = policy.newSession();
+        assertThat(session.shouldStore(127.0, 37.5)).isTrue();
+
+        // when & then: 대기 (5초 주기)
+        now.addAndGet(1000);
+        assertThat(session.shouldStore(127.001, 37.5)).isFalse();
+
+        // 운행 시작 (1초 주기)
+        session.applyLocationInterval(1000);
+        now.addAndGet(1000);
+        assertThat(session.shouldStore(127.002, 37.5)).isTrue();
+    }
+
+    @Test
+    @DisplayName("deadband 미만 이동은 버리지만, 최대 무음 시간이 지나면 생존 신고로 저장해야 한다")
+    void shouldStore_Deadband() {
+        // given
+        LocationIngestPolicy.Session session = policy.newSession();
+        session.applyLocationInterval(1000);
+        session.shouldStore(127.0, 37.5);
+
+        // when & then: 약 5m 이동
+        now.addAndGet(2000);
+        assertThat(session.shouldStore(127.00005, 37.5)).isFalse();
+
+        // 약 50m 이동
+        now.addAndGet(1000);
+        assertThat(session.shouldStore(127.0005, 37.5)).isTrue();
+
+        // 정지 상태로 10초 경과
+        now.addAndGet(10_000);
+        assertThat(session.shouldStore(127.0005, 37.5)).isTrue();
+    }
+
+    @Test
+    @DisplayName("노드 부하가 한도를 넘으면 대기 기사 업데이트만 버려야 한다")
+    void shouldStore_ShedIdleDriversUnderPressure() {
+        // given
+        LocationIngestPolicy.Session idle = policy.newSession();
+        LocationIngestPolicy.Session onTrip = policy.newSession();
+        onTrip.applyLocationInterval(1000);
+        idle.shouldStore(127.0, 37.5);
+        onTrip.shouldStore(127.0, 37.5);
+
+        Sinks.Empty<Void> pending = Sinks.empty();
+        policy.track(pending.asMono()).subscribe();
+
+        // when
+        now.addAndGet(6000);
+
+        // then
+        assertThat(idle.shouldStore(127.01, 37.5)).isFalse();
+        assertThat(onTrip.shouldStore(127.01, 37.5)).isTrue();
+
+        pending.tryEmitEmpty();
+        assertThat(policy.underPressure()).isFalse();
+    }
+
+    @Test
+    @DisplayName("측정 시각이 직전 프레임보다 이른 프레임은 버리고, 시각이 없는 프레임은 순서를 따지지 않아야 한다")
+    void shouldStore_DropsOutOfOrderFrames() {
+        // given
+        LocationIngestPolicy.Session session = policy.newSession();
+        session.applyLocationInterval(1000);
+        assertThat(session.shouldStore(127.0, 37.5, 1_700_000_010_000L)).isTrue();
+
+        // when
+        now.addAndGet(2000);
+
+        // then: 10초 전에 측정된 프레임이 늦게 도착
+        assertThat(session.shouldStore(127.01, 37.5, 1_700_000_000_000L)).isFalse();
+        assertThat(session.shouldStore(127.01, 37.5, 0L)).isTrue();
+        now.addAndGet(2000);
+        assertThat(session.shouldStore(127.02, 37.5, 1_700_000_012_000L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("세션 시작 시 조회한 운행 여부로 저장 주기를 정하되, 먼저 도착한 설정 메시지가 있으면 그것을 따라야 한다")
+    void seedOnTrip_UnlessConfigured() {
+        // given
+        LocationIngestPolicy.Session reconnected = policy.newSession();
+        LocationIngestPolicy.Session configuredFirst = policy.newSession();
+        configuredFirst.applyLocationInterval(5000);
+
+        // when
+        reconnected.seedOnTrip(true);
+        configuredFirst.seedOnTrip(true);
+
+        // then
+        assertThat(reconnected.isOnTrip()).isTrue();
+        assertThat(configuredFirst.isOnTrip()).isFalse();
+    }
+}
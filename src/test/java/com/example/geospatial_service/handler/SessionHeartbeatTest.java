@@ -0,0 +1,92 @@
+package com.example.geospatial_service.handler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionHeartbeatTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    private final AtomicInteger pings = new AtomicInteger();
+
+    private final AtomicInteger expired = new AtomicInteger();
+
+    private SessionHeartbeat heartbeat;
+
+    @BeforeEach
+    void setUp() {
+        // tick 1초, PING 10초, 유휴 30초 (스케줄러는 띄우지 않고 tick 을 직접 호출)
+        heartbeat = new SessionHeartbeat(new SimpleMeterRegistry(), 1000, 10_000, 30_000, now::get);
+    }
+
+    private void advanceSeconds(int seconds) {
+        for (int i = 0; i < seconds; i++) {
+            now.addAndGet(1000);
+            heartbeat.tick();
+        }
+    }
+
+    @Test
+    @DisplayName("PING 주기마다 한 번씩 PING 을 보내야 한다")
+    void tick_PingsEveryInterval() {
+        // given
+        SessionHeartbeat.Registration registration = heartbeat.register(pings::incrementAndGet, expired::incrementAndGet);
+
+        // when
+        advanceSeconds(9);
+        int beforeInterval = pings.get();
+        advanceSeconds(1);
+        registration.touch();
+        advanceSeconds(10);
+
+        // then
+        assertThat(beforeInterval).isZero();
+        assertThat(pings.get()).isEqualTo(2);
+        assertThat(expired.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("유휴 타임아웃 동안 수신이 없으면 세션을 만료시키고, 수신이 있으면 미뤄야 한다")
+    void tick_ExpiresIdleSession() {
+        // given
+        SessionHeartbeat.Registration active = heartbeat.register(() -> { }, expired::incrementAndGet);
+        heartbeat.register(() -> { }, expired::incrementAndGet);
+
+        // when: 20초에 한 번 수신
+        advanceSeconds(20);
+        active.touch();
+        advanceSeconds(11);
+
+        // then: 수신이 없던 세션만 만료
+        assertThat(expired.get()).isEqualTo(1);
+        assertThat(heartbeat.registeredCount()).isEqualTo(1);
+
+        // 마지막 수신 후 30초
+        advanceSeconds(20);
+        assertThat(expired.get()).isEqualTo(2);
+        assertThat(heartbeat.registeredCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("종료된 세션에는 PING 도 만료 처리도 하지 않아야 한다")
+    void cancel_StopsHeartbeat() {
+        // given
+        SessionHeartbeat.Registration registration = heartbeat.register(pings::incrementAndGet, expired::incrementAndGet);
+
+        // when
+        registration.cancel();
+        advanceSeconds(40);
+
+        // then
+        assertThat(pings.get()).isZero();
+        assertThat(expired.get()).isZero();
+        assertThat(heartbeat.registeredCount()).isZero();
+    }
+}
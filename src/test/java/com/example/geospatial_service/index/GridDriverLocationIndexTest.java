@@ -0,0 +1,151 @@
+package com.example.geospatial_service.index;
+
+import com.example.geospatial_service.dto.NearbyDriverResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GridDriverLocationIndexTest {
+
+    private final AtomicLong now = new AtomicLong(1_000L);
+
+    private GridDriverLocationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // 셀 0.01도, TTL 30초
+        index = new GridDriverLocationIndex(0.01, 16, 30_000L, now::get);
+    }
+
+    @Test
+    @DisplayName("반경 검색은 반경 내 기사만 거리 오름차순으로 반환해야 한다")
+    void findWithinRadius_SortedByDistance() {
+        // given
+        index.upsert("driver1", 127.001, 37.501); // 약 0.15km
+        index.upsert("driver2", 127.005, 37.505); // 약 0.78km
+        index.upsert("driver3", 127.020, 37.520); // 약 2.9km
+        index.upsert("driver4", 127.050, 37.550); // 약 7.8km (검색 반경 밖)
+
+        // when
+        List<NearbyDriverResponse> drivers = index.findWithinRadius(127.0, 37.5, 5, 50);
+
+        // then
+        assertThat(drivers).map(NearbyDriverResponse::driverId)
+                           .containsExactly("driver1", "driver2", "driver3");
+        assertThat(drivers.get(0).distanceKm()).isBetween(0.1, 0.2);
+        assertThat(drivers.get(2).distanceKm()).isBetween(2.8, 3.0);
+    }
+
+    @Test
+    @DisplayName("결과 수는 limit 으로 제한되고 가장 가까운 기사부터 채워져야 한다")
+    void findWithinRadius_Limit() {
+        // given
+        for (int i = 0; i < 100; i++) {
+            index.upsert("driver" + i, 127.0 + i * 0.0005, 37.5);
+        }
+
+        // when
+        List<NearbyDriverResponse> drivers = index.findWithinRadius(127.0, 37.5, 20, 10);
+
+        // then
+        assertThat(drivers).hasSize(10);
+        assertThat(drivers).map(NearbyDriverResponse::driverId)
+                           .containsExactly("driver0", "driver1", "driver2", "driver3", "driver4",
+                                            "driver5", "driver6", "driver7", "driver8", "driver9");
+    }
+
+    @Test
+    @DisplayName("KNN 검색은 셀 경계를 넘어서도 가장 가까운 K명을 찾아야 한다")
+    void findNearest_AcrossCells() {
+        // given
+        index.upsert("far", 127.100, 37.500);    // 약 8.8km
+        index.upsert("near", 127.030, 37.500);   // 약 2.6km
+        index.upsert("nearest", 127.000, 37.510); // 약 1.1km
+
+        // when
+        List<NearbyDriverResponse> drivers = index.findNearest(127.0, 37.5, 2, 20);
+
+        // then
+        assertThat(drivers).map(NearbyDriverResponse::driverId)
+                           .containsExactly("nearest", "near");
+    }
+
+    @Test
+    @DisplayName("기사가 이동하면 이전 셀에서는 사라지고 새 위치에서만 검색되어야 한다")
+    void upsert_MoveBetweenCells() {
+        // given
+        index.upsert("driver1", 127.0, 37.5);
+
+        // when
+        index.upsert("driver1", 127.2, 37.7);
+
+        // then
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.findWithinRadius(127.0, 37.5, 1, 50)).isEmpty();
+        assertThat(index.findWithinRadius(127.2, 37.7, 1, 50)).map(NearbyDriverResponse::driverId)
+                                                                .containsExactly("driver1");
+    }
+
+    @Test
+    @DisplayName("기사가 몰린 셀에서 중간 기사를 빼고 다시 넣어도 나머지 기사 위치가 섞이지 않아야 한다")
+    void upsert_DenseCellSwapRemove() {
+        // given: 한 셀(0.01도) 안에 100명
+        for (int i = 0; i < 100; i++) {
+            index.upsert("driver" + i, 127.0001 + i * 0.00005, 37.5001);
+        }
+
+        // when: 앞쪽 기사를 다른 셀로 옮긴 뒤, 마지막 자리로 옮겨진 기사를 갱신
+        index.upsert("driver0", 127.5, 37.9);
+        index.remove("driver1");
+        index.upsert("driver99", 127.0001, 37.5001);
+
+        // then
+        assertThat(index.size()).isEqualTo(99);
+        assertThat(index.findNearest(127.0001, 37.5001, 1, 1))
+                .map(NearbyDriverResponse::driverId)
+                .containsExactly("driver99");
+        assertThat(index.findWithinRadius(127.0, 37.5, 5, 200))
+                .map(NearbyDriverResponse::driverId)
+                .hasSize(98)
+                .doesNotContain("driver0", "driver1")
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("생존 TTL 이 지난 기사는 검색에서 제외되고 정리 시 인덱스에서 삭제되어야 한다")
+    void evictExpired_RemovesStaleDrivers() {
+        // given
+        index.upsert("stale", 127.001, 37.501);
+        now.addAndGet(31_000L);
+        index.upsert("alive", 127.002, 37.502);
+
+        // when
+        List<NearbyDriverResponse> drivers = index.findWithinRadius(127.0, 37.5, 5, 50);
+        index.evictExpired();
+
+        // then
+        assertThat(drivers).map(NearbyDriverResponse::driverId).containsExactly("alive");
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.isWarm()).isTrue();
+    }
+
+    @Test
+    @DisplayName("스냅샷으로 채운 인덱스는 TTL 을 기다리지 않고 바로 사용할 수 있어야 한다")
+    void markWarm_SkipsTtlWait() {
+        // given
+        index.upsert("restored", 127.0, 37.5);
+        assertThat(index.isWarm()).isFalse();
+
+        // when
+        index.markWarm();
+
+        // then
+        assertThat(index.isWarm()).isTrue();
+        assertThat(index.findWithinRadius(127.0, 37.5, 1, 10)).map(NearbyDriverResponse::driverId).containsExactly("restored");
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.geospatial_service.kafka;
+
+import com.example.geospatial_service.kafka.dto.TripCanceledEvent;
+import com.example.geospatial_service.kafka.dto.TripCompletedEvent;
+import com.example.geospatial_service.kafka.dto.TripMatchedEvent;
+import com.example.geospatial_service.service.DriverAvailability;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DriverConfigConsumerTest {
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+
+    @Mock
+    private DriverAvailability availability;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DriverConfigConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new DriverConfigConsumer(reactiveRedisTemplate, new ObjectMapper(), availability, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("한 배치 안의 같은 기사 이벤트는 마지막 상태 하나만 방송되어야 한다")
+    void handleTripEvents_CoalescesPerDriver() {
+        // given
+        given(reactiveRedisTemplate.convertAndSend(anyString(), anyString())).willReturn(Mono.just(1L));
+        given(availability.recordTrips(anyMap())).willReturn(Mono.empty());
+
+        List<Object> events = Arrays.asList(
+                new TripMatchedEvent("t1", "u1", "101", null, null, null),
+                new TripMatchedEvent("t2", "u2", "102", null, null, null),
+                null, // 역직렬화 실패
+                new TripCompletedEvent("t1", "u1", "101", 1000, 300, null)
+        );
+
+        // when
+        consumer.handleTripEvents(events);
+
+        // then
+        verify(reactiveRedisTemplate, times(1)).convertAndSend(eq("driver:config:101"), contains("5000"));
+        verify(reactiveRedisTemplate, times(1)).convertAndSend(eq("driver:config:102"), contains("1000"));
+        verify(reactiveRedisTemplate, never()).convertAndSend(eq("driver:config:101"), contains("1000"));
+        // 운행 중 여부도 기사별 최종 상태로 기록
+        verify(availability).recordTrips(Map.of("101", false, "102", true));
+
+        // 방송 2건, 합쳐지거나 건너뛴 이벤트 2건
+        assertThat(meterRegistry.get("geospatial.config.events").tag("result", "published").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("geospatial.config.events").tag("result", "skipped").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("방송이 실패하면 배치 재시도를 위해 예외를 던져야 한다")
+    void handleTripEvents_PublishFailure_Throws() {
+        // given
+        given(reactiveRedisTemplate.convertAndSend(anyString(), anyString()))
+                .willReturn(Mono.error(new RuntimeException("Redis down")));
+        given(availability.recordTrips(anyMap())).willReturn(Mono.empty());
+
+        // when & then
+        assertThatThrownBy(() -> consumer.handleTripEvents(List.of(new TripCanceledEvent("t1", "101", "USER"))))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("재시도");
+        assertThat(meterRegistry.get("geospatial.config.publish.failures").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.geospatial_service.kafka;
+
+import com.example.geospatial_service.kafka.dto.DriverLocationUpdatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DriverLocationEventSerializerTest {
+
+    private final DriverLocationEventSerializer serializer = new DriverLocationEventSerializer();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("직접 만든 JSON 은 Jackson 으로 그대로 역직렬화되어야 한다")
+    void serialize_CompatibleWithJackson() throws Exception {
+        // given
+        DriverLocationUpdatedEvent event = new DriverLocationUpdatedEvent("driver\"1", 37.4979502, 127.0276368);
+
+        // when
+        byte[] bytes = serializer.serialize("location_events", event);
+
+        // then
+        assertThat(objectMapper.readValue(bytes, DriverLocationUpdatedEvent.class)).isEqualTo(event);
+        assertThat(bytes).isEqualTo(objectMapper.writeValueAsBytes(event));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.geospatial_service.kafka;
+
+import com.example.geospatial_service.index.DriverLocationIndex;
+import com.example.geospatial_service.index.SearchEngine;
+import com.example.geospatial_service.kafka.dto.DriverLocationUpdatedEvent;
+import com.example.geospatial_service.service.DriverCellNearCache;
+import com.example.geospatial_service.service.SupplyHeatmap;
+import com.example.geospatial_service.service.ViewportSubscriptionHub;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class LocationEventConsumerTest {
+
+    @Mock
+    private ConsumerFactory<String, Object> consumerFactory;
+
+    @Mock
+    private DriverLocationIndex locationIndex;
+
+    @Mock
+    private ViewportSubscriptionHub subscriptionHub;
+
+    @Mock
+    private DriverCellNearCache nearCache;
+
+    @Mock
+    private SupplyHeatmap heatmap;
+
+    @Test
+    @DisplayName("위치 이벤트 하나를 뷰포트 구독, near-cache, 히트맵, 인메모리 인덱스에 모두 전달해야 한다")
+    void consume_FansOutToAllTargets() {
+        // given
+        LocationEventConsumer consumer = new LocationEventConsumer(consumerFactory, locationIndex, subscriptionHub, nearCache, heatmap, SearchEngine.MEMORY);
+
+        // when
+        consumer.consume(new DriverLocationUpdatedEvent("101", 37.5, 127.0));
+
+        // then
+        verify(locationIndex).upsert("101", 127.0, 37.5);
+        verify(subscriptionHub).onLocation("101", 127.0, 37.5);
+        verify(nearCache).onLocation("101", 127.0, 37.5);
+        verify(heatmap).onLocation("101", 127.0, 37.5);
+    }
+
+    @Test
+    @DisplayName("redis 엔진에서는 인메모리 인덱스를 채우지 않아야 한다")
+    void consume_RedisEngine_SkipsIndex() {
+        // given
+        LocationEventConsumer consumer = new LocationEventConsumer(consumerFactory, locationIndex, subscriptionHub, nearCache, heatmap, SearchEngine.REDIS);
+
+        // when
+        consumer.consume(new DriverLocationUpdatedEvent("101", 37.5, 127.0));
+
+        // then
+        verifyNoInteractions(locationIndex);
+        verify(heatmap).onLocation("101", 127.0, 37.5);
+    }
+
+    @Test
+    @DisplayName("그룹 없이 전체 파티션을 끝에서부터 읽어 반영하고 오프셋은 커밋하지 않아야 한다")
+    void start_AssignsAllPartitionsWithoutCommit() {
+        // given: 파티션 2개, 시작 시점 끝 오프셋 이후의 이벤트 하나
+        TopicPartition partition0 = new TopicPartition("location_events", 0);
+        TopicPartition partition1 = new TopicPartition("location_events", 1);
+        MockConsumer<String, Object> kafkaConsumer = new MockConsumer<>(OffsetResetStrategy.LATEST);
+        kafkaConsumer.updatePartitions("location_events", List.of(new PartitionInfo("location_events", 0, null, null, null),
+                                                                  new PartitionInfo("location_events", 1, null, null, null)));
+        kafkaConsumer.updateBeginningOffsets(Map.of(partition0, 0L, partition1, 0L));
+        kafkaConsumer.updateEndOffsets(Map.of(partition0, 10L, partition1, 5L));
+        kafkaConsumer.schedulePollTask(() -> kafkaConsumer.addRecord(
+                new ConsumerRecord<>("location_events", 1, 5L, "101", new DriverLocationUpdatedEvent("101", 37.5, 127.0))));
+        given(consumerFactory.createConsumer(any(), any(), isNull(), any(Properties.class))).willReturn(kafkaConsumer);
+        LocationEventConsumer consumer = new LocationEventConsumer(consumerFactory, locationIndex, subscriptionHub, nearCache, heatmap, SearchEngine.REDIS);
+
+        // when
+        consumer.start();
+
+        // then
+        try {
+            verify(heatmap, timeout(5_000)).onLocation("101", 127.0, 37.5);
+            assertThat(kafkaConsumer.assignment()).containsExactlyInAnyOrder(partition0, partition1);
+            assertThat(kafkaConsumer.committed(Set.of(partition0, partition1))).isEmpty();
+        } finally {
+            consumer.stop();
+        }
+    }
+}
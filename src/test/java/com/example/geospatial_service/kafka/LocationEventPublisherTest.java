@@ -0,0 +1,156 @@
+package com.example.geospatial_service.kafka;
+
+import com.example.geospatial_service.kafka.dto.DriverLocationUpdatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class LocationEventPublisherTest {
+
+    @Mock
+    private DefaultKafkaProducerFactory<String, DriverLocationUpdatedEvent> producerFactory;
+
+    @Mock
+    private KafkaTemplate<String, DriverLocationUpdatedEvent> kafkaTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LocationEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        // ack 를 기다리는 전송은 최대 2건, send 는 구독한 스레드에서 바로 호출
+        publisher = new LocationEventPublisher(producerFactory, kafkaTemplate, Schedulers.immediate(), meterRegistry, 2);
+    }
+
+    @Test
+    @DisplayName("ack 를 기다리는 전송이 한도에 차면 버리고(에러), ack 가 오면 완료되고 다시 보내야 한다")
+    @SuppressWarnings("unchecked")
+    void publish_DropsBeyondMaxInFlight() {
+        // given: 브로커 ack 가 아직 오지 않음
+        CompletableFuture<SendResult<String, DriverLocationUpdatedEvent>> first = new CompletableFuture<>();
+        CompletableFuture<SendResult<String, DriverLocationUpdatedEvent>> second = new CompletableFuture<>();
+        given(kafkaTemplate.send(any(ProducerRecord.class))).willReturn(first, second, new CompletableFuture<>());
+
+        // when
+        CompletableFuture<Void> acked = publisher.publish("101", 37.5, 127.0).toFuture();
+        publisher.publish("102", 37.5, 127.0).toFuture();
+        CompletableFuture<Void> dropped = publisher.publish("103", 37.5, 127.0).toFuture();
+
+        // then
+        verify(kafkaTemplate, times(2)).send(any(ProducerRecord.class));
+        assertThat(acked).isNotDone();
+        assertThat(dropped).isCompletedExceptionally();
+        assertThat(counter("geospatial.location.events.dropped")).isEqualTo(1);
+        assertThat(inFlight()).isEqualTo(2);
+
+        // when: 한 건 ack
+        first.complete(null);
+        publisher.publish("104", 37.5, 127.0).toFuture();
+
+        // then
+        assertThat(acked).isCompleted();
+        verify(kafkaTemplate, times(3)).send(any(ProducerRecord.class));
+        assertThat(counter("geospatial.location.events.dropped")).isEqualTo(1);
+        assertThat(meterRegistry.get("geospatial.location.events.ack").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("전송 실패나 send 호출 예외는 에러로 끝나고, in-flight 자리를 돌려주고 실패로 기록해야 한다")
+    @SuppressWarnings("unchecked")
+    void publish_FailureReleasesPermit() {
+        // given
+        given(kafkaTemplate.send(any(ProducerRecord.class)))
+                .willReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .willThrow(new IllegalStateException("metadata timeout"));
+
+        // when & then
+        StepVerifier.create(publisher.publish("101", 37.5, 127.0)).verifyErrorMessage("broker down");
+        StepVerifier.create(publisher.publish("102", 37.5, 127.0)).verifyErrorMessage("metadata timeout");
+        assertThat(counter("geospatial.location.events.failed")).isEqualTo(2);
+        assertThat(counter("geospatial.location.events.dropped")).isZero();
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("driverId 를 키로 location_events 에 보내고 타입 헤더를 붙여야 한다")
+    @SuppressWarnings("unchecked")
+    void publish_RecordKeyAndHeader() {
+        // given
+        given(kafkaTemplate.send(any(ProducerRecord.class))).willReturn(new CompletableFuture<>());
+        ArgumentCaptor<ProducerRecord<String, DriverLocationUpdatedEvent>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+
+        // when: 조립만 해서는 보내지 않음
+        Mono<Void> publish = publisher.publish("101", 37.5, 127.0);
+        verifyNoInteractions(kafkaTemplate);
+        publish.subscribe();
+
+        // then
+        verify(kafkaTemplate).send(captor.capture());
+        ProducerRecord<String, DriverLocationUpdatedEvent> record = captor.getValue();
+        assertThat(record.topic()).isEqualTo(LocationEventPublisher.LOCATION_EVENTS_TOPIC);
+        assertThat(record.key()).isEqualTo("101");
+        assertThat(record.value()).isEqualTo(new DriverLocationUpdatedEvent("101", 37.5, 127.0));
+        assertThat(record.headers().lastHeader("__TypeId__")).isNotNull();
+    }
+
+    @Test
+    @Tag("blockhound")
+    @DisplayName("브로커가 없어 KafkaProducer.send 가 max.block.ms 동안 막혀도 non-blocking 스레드를 막지 않아야 한다")
+    void publish_RealProducerDoesNotBlock() {
+        // given: 닿지 않는 브로커 (실제 KafkaProducer 가 메타데이터를 max.block.ms 동안 기다림)
+        // BlockHound 는 JVM 전역으로 설치되므로 ./gradlew blockHoundTest (별도 JVM) 에서만 실행
+        BlockHound.install(builder -> builder.allowBlockingCallsInside("ch.qos.logback.core.OutputStreamAppender", "writeBytes"));
+        KafkaProperties kafkaProperties = new KafkaProperties();
+        kafkaProperties.setBootstrapServers(List.of("localhost:1"));
+        kafkaProperties.getProducer().getProperties().put(ProducerConfig.MAX_BLOCK_MS_CONFIG, "200");
+        LocationEventPublisher realPublisher = new LocationEventPublisher(kafkaProperties, new SimpleMeterRegistry(), 10);
+
+        // when & then: 블로킹 검출(BlockingOperationError)이 아니라 메타데이터 대기 시간 초과로 끝남
+        try {
+            StepVerifier.create(realPublisher.publish("101", 37.5, 127.0)
+                                             .subscribeOn(Schedulers.parallel()))
+                        .expectErrorSatisfies(e -> assertThat(e).hasRootCauseInstanceOf(TimeoutException.class))
+                        .verify(Duration.ofSeconds(10));
+        } finally {
+            realPublisher.close();
+        }
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("geospatial.location.events.in.flight").gauge().value();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.geospatial_service.service;
+
+import com.example.geospatial_service.index.SearchEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class DriverAvailabilityTest {
+
+    private static final long MAX_TRIP_MILLIS = 60_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> storageRedisTemplate;
+
+    @Mock
+    private ReactiveZSetOperations<String, String> zSetOperations;
+
+    private DriverAvailability availability;
+
+    @BeforeEach
+    void setUp() {
+        availability = new DriverAvailability(storageRedisTemplate, true, SearchEngine.REDIS, 2, MAX_TRIP_MILLIS, 200, now::get);
+    }
+
+    @Test
+    @DisplayName("배차된 기사는 배차 시각으로 추가하고, 완료/취소된 기사는 제거하며 오래된 기록을 함께 정리해야 한다")
+    void recordTrips_AddsRemovesAndExpires() {
+        // given
+        given(storageRedisTemplate.opsForZSet()).willReturn(zSetOperations);
+        given(zSetOperations.addAll(eq(DriverAvailability.DRIVERS_ON_TRIP_KEY), anyCollection())).willReturn(Mono.just(1L));
+        given(zSetOperations.remove(DriverAvailability.DRIVERS_ON_TRIP_KEY, "101")).willReturn(Mono.just(1L));
+        given(zSetOperations.removeRangeByScore(anyString(), any())).willReturn(Mono.just(0L));
+
+        Map<String, Boolean> states = new LinkedHashMap<>();
+        states.put("101", false);
+        states.put("102", true);
+
+        // when
+        StepVerifier.create(availability.recordTrips(states)).verifyComplete();
+
+        // then
+        verify(zSetOperations).removeRangeByScore(DriverAvailability.DRIVERS_ON_TRIP_KEY,
+                                                  Range.of(Range.Bound.unbounded(), Range.Bound.exclusive((double) (now.get() - MAX_TRIP_MILLIS))));
+    }
+
+    @Test
+    @DisplayName("max-trip-hours 가 지난 기록은 운행 중으로 보지 않아야 한다")
+    void findOnTrip_IgnoresExpiredTrips() {
+        // given
+        given(storageRedisTemplate.opsForZSet()).willReturn(zSetOperations);
+        given(zSetOperations.score(DriverAvailability.DRIVERS_ON_TRIP_KEY, "101", "102", "103"))
+                .willReturn(Mono.just(Arrays.asList((double) now.get() - 1_000, (double) now.get() - MAX_TRIP_MILLIS - 1, null)));
+
+        // when & then
+        StepVerifier.create(availability.findOnTrip(List.of("101", "102", "103")))
+                    .expectNext(Set.of("101"))
+                    .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("운행 중 확인이 실패하면 거르지 않아야 한다")
+    void findOnTrip_FailureFiltersNothing() {
+        // given
+        given(storageRedisTemplate.opsForZSet()).willReturn(zSetOperations);
+        given(zSetOperations.score(DriverAvailability.DRIVERS_ON_TRIP_KEY, "101"))
+                .willReturn(Mono.error(new IllegalStateException("storage down")));
+
+        // when & then
+        StepVerifier.create(availability.findOnTrip(List.of("101")))
+                    .expectNext(Set.of())
+                    .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("비활성화 상태에서는 조회 없이 거르지 않고, 후보도 더 가져오지 않아야 한다")
+    void findOnTrip_Disabled() {
+        // given
+        DriverAvailability disabled = new DriverAvailability(storageRedisTemplate, false, SearchEngine.REDIS, 2, MAX_TRIP_MILLIS, 200, now::get);
+
+        // when & then
+        StepVerifier.create(disabled.findOnTrip(List.of("101")))
+                    .expectNext(Set.of())
+                    .verifyComplete();
+        assertThat(disabled.fetchLimit(50)).isEqualTo(50);
+        assertThat(availability.fetchLimit(50)).isEqualTo(100);
+        verifyNoInteractions(storageRedisTemplate);
+    }
+
+    @Test
+    @DisplayName("세션 시작 시 운행 여부는 max-trip-hours 안의 배차 기록이 있을 때만 운행 중이어야 한다")
+    void isOnTrip_ByMatchedAt() {
+        // given
+        given(storageRedisTemplate.opsForZSet()).willReturn(zSetOperations);
+        given(zSetOperations.score(DriverAvailability.DRIVERS_ON_TRIP_KEY, (Object) "101")).willReturn(Mono.just((double) now.get() - 1_000));
+        given(zSetOperations.score(DriverAvailability.DRIVERS_ON_TRIP_KEY, (Object) "102")).willReturn(Mono.just((double) now.get() - MAX_TRIP_MILLIS - 1));
+        given(zSetOperations.score(DriverAvailability.DRIVERS_ON_TRIP_KEY, (Object) "103")).willReturn(Mono.empty());
+        given(zSetOperations.score(DriverAvailability.DRIVERS_ON_TRIP_KEY, (Object) "104")).willReturn(Mono.error(new IllegalStateException("down")));
+
+        // when & then
+        StepVerifier.create(availability.isOnTrip("101")).expectNext(true).verifyComplete();
+        StepVerifier.create(availability.isOnTrip("102")).expectNext(false).verifyComplete();
+        StepVerifier.create(availability.isOnTrip("103")).expectNext(false).verifyComplete();
+        StepVerifier.create(availability.isOnTrip("104")).expectNext(false).verifyComplete();
+    }
+}
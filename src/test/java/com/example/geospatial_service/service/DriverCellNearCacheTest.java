@@ -0,0 +1,165 @@
+package com.example.geospatial_service.service;
+
+import com.example.geospatial_service.geo.GeoHash;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.geo.Circle;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.redis.connection.RedisGeoCommands;
+import org.springframework.data.redis.core.ReactiveGeoOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class DriverCellNearCacheTest {
+
+    // precision 5 셀 중심 (서울)
+    private static final double[] CENTER = GeoHash.center(GeoHash.encodeBits(37.5, 127.0, 25), 5);
+    private static final double LAT = CENTER[0];
+    private static final double LON = CENTER[1];
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> cacheRedisTemplate;
+
+    @Mock
+    private ReactiveGeoOperations<String, String> geoOperations;
+
+    private DriverCellNearCache nearCache;
+
+    @BeforeEach
+    void setUp() {
+        nearCache = newNearCache(true, 1024);
+    }
+
+    private DriverCellNearCache newNearCache(boolean enabled, int maxCells) {
+        return new DriverCellNearCache(cacheRedisTemplate, new DriverLocationShards(cacheRedisTemplate, false, 4),
+                                       new SimpleMeterRegistry(), enabled, 5, maxCells, 2000, 16,
+                                       Map.of(SearchMetrics.NEARBY, 5000L, SearchMetrics.NEAREST, 3000L), now::get);
+    }
+
+    private static GeoResult<RedisGeoCommands.GeoLocation<String>> member(String driverId, double longitude, double latitude) {
+        return new GeoResult<>(new RedisGeoCommands.GeoLocation<>("driver:" + driverId, new Point(longitude, latitude)),
+                               new Distance(0, Metrics.KILOMETERS));
+    }
+
+    @Test
+    @DisplayName("셀이 없으면 Redis 로 넘기고 셀을 채운 뒤, 이후 검색은 로컬에서 거리순으로 응답해야 한다")
+    void lookup_LoadsCellThenServesLocally() {
+        // given: C 는 셀 안이지만 반경 밖, D 는 외접원에만 걸린 다른 셀
+        given(cacheRedisTemplate.opsForGeo()).willReturn(geoOperations);
+        given(geoOperations.radius(anyString(), any(Circle.class), any(RedisGeoCommands.GeoRadiusCommandArgs.class)))
+                .willReturn(Flux.just(member("B", LON + 0.003, LAT),
+                                      member("A", LON + 0.001, LAT),
+                                      member("C", LON + 0.01, LAT),
+                                      member("D", LON + 0.03, LAT)));
+
+        // when & then
+        assertThat(nearCache.lookup(SearchMetrics.NEARBY, LON, LAT, 0.5, 50)).isNull();
+        assertThat(nearCache.lookup(SearchMetrics.NEARBY, LON, LAT, 0.5, 50))
+                .extracting(DriverCellNearCache.Candidate::driverId)
+                .containsExactly("A", "B");
+        assertThat(nearCache.lookup(SearchMetrics.NEARBY, LON, LAT, 0.5, 1))
+                .extracting(DriverCellNearCache.Candidate::driverId)
+                .containsExactly("A");
+        verify(geoOperations, times(1)).radius(anyString(), any(Circle.class), any(RedisGeoCommands.GeoRadiusCommandArgs.class));
+    }
+
+    @Test
+    @DisplayName("location_events 로 셀에 들어오고 나가는 기사를 반영해야 한다")
+    void onLocation_KeepsCellCoherent() {
+        // given
+        given(cacheRedisTemplate.opsForGeo()).willReturn(geoOperations);
+        given(geoOperations.radius(anyString(), any(Circle.class), any(RedisGeoCommands.GeoRadiusCommandArgs.class)))
+                .willReturn(Flux.just(member("A", LON + 0.001, LAT), member("B", LON + 0.003, LAT)));
+        nearCache.lookup(SearchMetrics.NEARBY, LON, LAT, 0.5, 50);
+
+        // when: A 는 다른 셀로, E 는 셀 안으로
+        nearCache.onLocation("A", LON + 1.0, LAT);
+        nearCache.onLocation("E", LON + 0.002, LAT);
+
+        // then
+        assertThat(nearCache.lookup(SearchMetrics.NEARBY, LON, LAT, 0.5, 50))
+                .extracting(DriverCellNearCache.Candidate::driverId)
+                .containsExactly("E", "B");
+    }
+
+    @Test
+    @DisplayName("셀의 나이는 검색 종류별 허용 범위로 판단해야 한다")
+    void lookup_StalenessPerSearchType() {
+        // given
+        given(cacheRedisTemplate.opsForGeo()).willReturn(geoOperations);
+        given(geoOperations.radius(anyString(), any(Circle.class), any(RedisGeoCommands.GeoRadiusCommandArgs.class)))
+                .willReturn(Flux.just(member("A", LON + 0.001, LAT)));
+        nearCache.lookup(SearchMetrics.NEARBY, LON, LAT, 0.5, 50);
+
+        // when
+        now.addAndGet(4000);
+
+        // then: nearby(5초)는 로컬, nearest(3초)는 Redis 로 넘기고 셀을 다시 받음
+        assertThat(nearCache.lookup(SearchMetrics.NEARBY, LON, LAT, 0.5, 50)).isNotNull();
+        assertThat(nearCache.lookup(SearchMetrics.NEAREST, LON, LAT, 0.5, 50)).isNull();
+        assertThat(nearCache.lookup(SearchMetrics.NEAREST, LON, LAT, 0.5, 50)).isNotNull();
+        verify(geoOperations, times(2)).radius(anyString(), any(Circle.class), any(RedisGeoCommands.GeoRadiusCommandArgs.class));
+    }
+
+    @Test
+    @DisplayName("max-cells 에 차면 새 셀은 보관하지 않고, sweep 이 가장 오래 쓰이지 않은 셀부터 버려야 한다")
+    void load_EvictsLeastRecentlyUsed() {
+        // given
+        DriverCellNearCache small = newNearCache(true, 2);
+        given(cacheRedisTemplate.opsForGeo()).willReturn(geoOperations);
+        given(geoOperations.radius(anyString(), any(Circle.class), any(RedisGeoCommands.GeoRadiusCommandArgs.class)))
+                .willReturn(Flux.empty());
+
+        // when: 서로 다른 셀 세 개
+        small.lookup(SearchMetrics.NEARBY, LON, LAT, 0.1, 50);
+        now.addAndGet(10);
+        small.lookup(SearchMetrics.NEARBY, LON + 1.0, LAT, 0.1, 50);
+        now.addAndGet(10);
+        small.lookup(SearchMetrics.NEARBY, LON + 2.0, LAT, 0.1, 50);
+
+        // then: 요청 경로에서는 버리지 않음
+        assertThat(small.size()).isEqualTo(2);
+
+        // when
+        small.evictLeastRecentlyUsed();
+
+        // then: 가장 오래 쓰이지 않은 첫 셀만 버려지고, 두 번째 셀은 로컬에서 응답
+        assertThat(small.size()).isEqualTo(1);
+        assertThat(small.lookup(SearchMetrics.NEARBY, LON + 1.0, LAT, 0.1, 50)).isEmpty();
+        assertThat(small.lookup(SearchMetrics.NEARBY, LON, LAT, 0.1, 50)).isNull();
+    }
+
+    @Test
+    @DisplayName("비활성화 상태에서는 Redis 를 호출하지 않고 항상 Redis 검색으로 넘겨야 한다")
+    void lookup_Disabled() {
+        // given
+        DriverCellNearCache disabled = newNearCache(false, 1024);
+
+        // when & then
+        assertThat(disabled.lookup(SearchMetrics.NEARBY, LON, LAT, 0.5, 50)).isNull();
+        disabled.onLocation("A", LON, LAT);
+        verifyNoInteractions(cacheRedisTemplate);
+    }
+}
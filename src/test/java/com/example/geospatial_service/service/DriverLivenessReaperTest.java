@@ -0,0 +1,74 @@
+package com.example.geospatial_service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveGeoOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class DriverLivenessReaperTest {
+
+    @Mock
+    private DriverLivenessResolver livenessResolver;
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> cacheRedisTemplate;
+
+    @Mock
+    private ReactiveGeoOperations<String, String> geoOperations;
+
+    @Mock
+    private DriverLocationShards locationShards;
+
+    private DriverLivenessReaper reaper;
+
+    @BeforeEach
+    void setUp() {
+        reaper = new DriverLivenessReaper(livenessResolver, cacheRedisTemplate, locationShards, 1000);
+    }
+
+    @Test
+    @DisplayName("조회 이후 다시 살아난 기사는 위치에서 지우지 않고, 조건부 삭제된 기사만 지워야 한다")
+    void reapBatch_RemovesOnlyConditionallyExpired() {
+        // given: 102 는 조회와 삭제 사이에 ZADD 로 갱신됨
+        given(livenessResolver.findExpired(1000)).willReturn(Flux.just("101", "102"));
+        given(livenessResolver.removeExpired(List.of("101", "102"))).willReturn(Mono.just(List.of("101")));
+        given(locationShards.allShardKeys()).willReturn(Flux.just("driver_locations"));
+        given(cacheRedisTemplate.opsForGeo()).willReturn(geoOperations);
+        given(geoOperations.remove("driver_locations", "driver:101")).willReturn(Mono.just(1L));
+
+        // when & then
+        StepVerifier.create(reaper.reapBatch())
+                    .expectNext(1L)
+                    .verifyComplete();
+        verify(geoOperations).remove("driver_locations", "driver:101");
+        verify(locationShards).forget(List.of("101"));
+    }
+
+    @Test
+    @DisplayName("조건부 삭제로 지워진 기사가 없으면 위치를 건드리지 않아야 한다")
+    void reapBatch_NothingRemoved() {
+        // given
+        given(livenessResolver.findExpired(1000)).willReturn(Flux.just("101"));
+        given(livenessResolver.removeExpired(List.of("101"))).willReturn(Mono.just(List.of()));
+
+        // when & then
+        StepVerifier.create(reaper.reapBatch())
+                    .expectNext(0L)
+                    .verifyComplete();
+        verifyNoInteractions(cacheRedisTemplate, locationShards);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.geospatial_service.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class DriverLivenessResolverTest {
+
+    private static final long NOW = 100_000L;
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> storageRedisTemplate;
+
+    @Mock
+    private ReactiveZSetOperations<String, String> zSetOperations;
+
+    @Test
+    @DisplayName("[ZSET] 마지막 수신 시각이 TTL 이내인 기사만 살아있는 것으로 판단해야 한다")
+    void resolveAlive_ZSet_FiltersByLastSeen() {
+        // given
+        DriverLivenessResolver resolver = new DriverLivenessResolver(storageRedisTemplate, LivenessMode.ZSET, 30, 200, () -> NOW);
+
+        given(storageRedisTemplate.opsForZSet()).willReturn(zSetOperations);
+        given(zSetOperations.score("driver_last_seen", "101", "102", "103"))
+                .willReturn(Mono.just(Arrays.asList(
+                        (double) NOW - 1_000,  // 1초 전
+                        (double) NOW - 31_000, // 31초 전 (만료)
+                        null)));               // 기록 없음
+
+        // when & then
+        StepVerifier.create(resolver.resolveAlive(List.of("101", "102", "103")))
+                    .assertNext(alive -> assertThat(alive).containsExactly("101"))
+                    .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("[ZSET] 여러 기사의 생존 신고는 현재 시각 score 로 ZADD 한 번에 전송되어야 한다")
+    void markAlive_ZSet_SingleZAdd() {
+        // given
+        DriverLivenessResolver resolver = new DriverLivenessResolver(storageRedisTemplate, LivenessMode.ZSET, 30, 200, () -> NOW);
+
+        given(storageRedisTemplate.opsForZSet()).willReturn(zSetOperations);
+        given(zSetOperations.addAll(eq("driver_last_seen"),
+                                    argThat(tuples -> tuples.size() == 2 && tuples.stream().allMatch(t -> t.getScore() == NOW))))
+                .willReturn(Mono.just(2L));
+
+        // when & then
+        StepVerifier.create(resolver.markAlive(List.of("101", "102")))
+                    .verifyComplete();
+    }
+}
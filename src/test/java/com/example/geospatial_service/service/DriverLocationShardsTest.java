@@ -0,0 +1,94 @@
+package com.example.geospatial_service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveSetOperations;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DriverLocationShardsTest {
+
+    private static final String SHARD_A = "driver_locations:{wydm}";
+    private static final String SHARD_B = "driver_locations:{wydq}";
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> cacheRedisTemplate;
+
+    @Mock
+    private ReactiveSetOperations<String, String> setOperations;
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    private DriverLocationShards shards;
+
+    @BeforeEach
+    void setUp() {
+        shards = new DriverLocationShards(cacheRedisTemplate, true, 4, 30_000, now::get);
+    }
+
+    @Test
+    @DisplayName("갱신 주기 안에는 다시 SADD 하지 않고, 주기가 지나면 다시 등록해야 한다")
+    void register_RefreshesAfterInterval() {
+        // given
+        given(cacheRedisTemplate.opsForSet()).willReturn(setOperations);
+        given(setOperations.add(DriverLocationShards.SHARD_REGISTRY_KEY, SHARD_A)).willReturn(Mono.just(1L), Mono.just(0L));
+
+        // when
+        StepVerifier.create(shards.register(SHARD_A)).verifyComplete();
+        now.addAndGet(10_000);
+        StepVerifier.create(shards.register(SHARD_A)).verifyComplete();
+        now.addAndGet(30_000);
+        StepVerifier.create(shards.register(SHARD_A)).verifyComplete();
+
+        // then
+        verify(setOperations, times(2)).add(DriverLocationShards.SHARD_REGISTRY_KEY, SHARD_A);
+    }
+
+    @Test
+    @DisplayName("이미 등록했던 샤드가 새로 추가되면 레지스트리가 비워진 것으로 보고 다른 샤드도 바로 다시 등록해야 한다")
+    void register_RegistryLost_ReRegistersAllShards() {
+        // given: 두 샤드를 등록한 뒤 Cache Redis 가 비워짐 (재등록 SADD 결과가 1)
+        given(cacheRedisTemplate.opsForSet()).willReturn(setOperations);
+        given(setOperations.add(eq(DriverLocationShards.SHARD_REGISTRY_KEY), anyString())).willReturn(Mono.just(1L));
+        StepVerifier.create(shards.register(SHARD_A)).verifyComplete();
+        StepVerifier.create(shards.register(SHARD_B)).verifyComplete();
+        now.addAndGet(30_000);
+
+        // when
+        StepVerifier.create(shards.register(SHARD_A)).verifyComplete();
+        StepVerifier.create(shards.register(SHARD_B)).verifyComplete();
+
+        // then: B 는 갱신 주기 전이지만 다시 SADD
+        verify(setOperations, times(2)).add(DriverLocationShards.SHARD_REGISTRY_KEY, SHARD_B);
+    }
+
+    @Test
+    @DisplayName("연결이 끊긴 기사는 이전 샤드를 잊고, 다시 오면 인접 샤드를 정리 대상으로 봐야 한다")
+    void forget_TreatsDriverAsNew() {
+        // given
+        shards.staleShardKeys("101", SHARD_A);
+        assertThat(shards.staleShardKeys("101", SHARD_A)).isEmpty();
+
+        // when
+        shards.forget("101");
+
+        // then: 자기 셀을 뺀 인접 셀
+        assertThat(shards.staleShardKeys("101", SHARD_A)).isNotEmpty()
+                                                         .doesNotContain(SHARD_A);
+    }
+}
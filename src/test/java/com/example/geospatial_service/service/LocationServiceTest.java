@@ -1,6 +1,14 @@
 package com.example.geospatial_service.service;
 
 import com.example.geospatial_service.dto.NearbyDriverResponse;
+import com.example.geospatial_service.dto.NearbySearchQuery;
+import com.example.geospatial_service.index.DriverLocationIndex;
+import com.example.geospatial_service.index.SearchEngine;
+import com.example.geospatial_service.kafka.LocationEventPublisher;
+import com.example.geospatial_service.trajectory.DriverTrajectoryStore;
+import com.example.geospatial_service.zone.DriverZoneTracker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,16 +19,28 @@ import org.springframework.data.geo.*;
 import org.springframework.data.redis.connection.RedisGeoCommands;
 import org.springframework.data.redis.core.ReactiveGeoOperations;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class LocationServiceTest {
@@ -35,15 +55,133 @@ class LocationServiceTest {
     private ReactiveRedisTemplate<String, String> storageRedisTemplate;
 
     @Mock
-    private KafkaTemplate<String, Object> kafkaTemplate;
+    private LocationEventPublisher locationEventPublisher;
 
     @Mock
     private ReactiveGeoOperations<String, String> reactiveGeoOperations;
 
+    @Mock
+    private ReactiveValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ReactiveZSetOperations<String, String> zSetOperations;
+
+    @Mock
+    private DriverLocationIndex locationIndex;
+
+    @Mock
+    private LocationWriteBehindBuffer writeBehindBuffer;
+
     @BeforeEach
     void setUp() {
         // 같은 타입의 Mock이 2개일 때는 직접 생성자로 주입하는 것이 가장 안전
-        locationService = new LocationService(cacheRedisTemplate, storageRedisTemplate, kafkaTemplate);
+        locationService = newLocationService(false);
+    }
+
+    private LocationService newLocationService(boolean availabilityEnabled) {
+        return newLocationService(availabilityEnabled, writeBehindBuffer);
+    }
+
+    private LocationService newLocationService(boolean availabilityEnabled, LocationWriteBehindBuffer writeBehindBuffer) {
+        return new LocationService(cacheRedisTemplate, new DriverLivenessResolver(storageRedisTemplate, LivenessMode.KEY, 30, 200),
+                                   new DriverAvailability(storageRedisTemplate, availabilityEnabled, SearchEngine.REDIS, 2,
+                                                          12 * 3_600_000L, 200, System::currentTimeMillis),
+                                   writeBehindBuffer, new DriverLocationShards(cacheRedisTemplate, false, 4),
+                                   locationEventPublisher, locationIndex,
+                                   new NearbySearchCache(new SimpleMeterRegistry(), false, 7, 500),
+                                   new DriverCellNearCache(cacheRedisTemplate, new DriverLocationShards(cacheRedisTemplate, false, 4), new SimpleMeterRegistry(), false, 5, 1024, 2000, 16,
+                                                           Map.of(), System::currentTimeMillis),
+                                   new DriverTrajectoryStore(null, new SimpleMeterRegistry(), false, 32, 30_000),
+                                   new DriverZoneTracker(null, new ObjectMapper(), new SimpleMeterRegistry(), false, null, 0.005, 1_000_000, 30_000),
+                                   new SimpleMeterRegistry(), SearchEngine.REDIS);
+    }
+
+    @Test
+    @DisplayName("위치 업데이트는 구독 전에는 아무것도 하지 않고, 저장이 끝난 뒤에만 location_events 를 발행해야 한다")
+    void updateDriverLocation_SideEffectsAfterWrite() {
+        // given
+        given(writeBehindBuffer.isEnabled()).willReturn(true);
+        given(writeBehindBuffer.enqueue("101", 127.0, 37.5)).willReturn(Mono.empty());
+        given(locationEventPublisher.publish("101", 37.5, 127.0)).willReturn(Mono.empty());
+
+        // when: 조립만 함
+        Mono<Void> update = locationService.updateDriverLocation("101", 127.0, 37.5);
+
+        // then
+        verifyNoInteractions(writeBehindBuffer, locationEventPublisher);
+
+        // when: 구독
+        StepVerifier.create(update).verifyComplete();
+
+        // then
+        verify(locationEventPublisher).publish("101", 37.5, 127.0);
+    }
+
+    @Test
+    @DisplayName("위치 업데이트는 location_events ack 까지 기다리고, storeTracker 는 저장 구간만 감싸야 한다")
+    void updateDriverLocation_TracksStoreOnly_WaitsForAck() {
+        // given: 브로커 ack 가 아직 오지 않음
+        Sinks.Empty<Void> ack = Sinks.empty();
+        given(writeBehindBuffer.isEnabled()).willReturn(true);
+        given(writeBehindBuffer.enqueue("101", 127.0, 37.5)).willReturn(Mono.empty());
+        given(locationEventPublisher.publish("101", 37.5, 127.0)).willReturn(ack.asMono());
+        CompletableFuture<Void> stored = new CompletableFuture<>();
+
+        // when
+        CompletableFuture<Void> update = locationService.updateDriverLocation(
+                DriverKeys.of("101"), 127.0, 37.5,
+                store -> store.doOnSuccess(v -> stored.complete(null))).toFuture();
+
+        // then: 저장 구간은 끝났지만 업데이트는 ack 를 기다림
+        assertThat(stored).isCompleted();
+        assertThat(update).isNotDone();
+
+        // when
+        ack.tryEmitEmpty();
+
+        // then
+        assertThat(update).isCompleted();
+    }
+
+    @Test
+    @DisplayName("위치 저장이 실패하면 location_events 를 발행하지 않아야 한다")
+    void updateDriverLocation_WriteFailure_NoPublish() {
+        // given
+        given(writeBehindBuffer.isEnabled()).willReturn(true);
+        given(writeBehindBuffer.enqueue("101", 127.0, 37.5)).willReturn(Mono.error(new IllegalStateException("buffer closed")));
+
+        // when & then
+        StepVerifier.create(locationService.updateDriverLocation("101", 127.0, 37.5))
+                    .verifyError(IllegalStateException.class);
+        verifyNoInteractions(locationEventPublisher);
+    }
+
+    @Test
+    @DisplayName("Write-Behind 대기열 초과로 버려진 위치는 location_events 를 발행하지 않아야 한다")
+    void updateDriverLocation_WriteBehindFull_NoPublish() {
+        // given: 최대 대기 1명, 첫 flush 의 GEOADD 가 끝나기 전에 다른 기사가 다시 대기열을 채움
+        DriverLivenessResolver livenessResolver = mock(DriverLivenessResolver.class);
+        LocationWriteBehindBuffer buffer = new LocationWriteBehindBuffer(cacheRedisTemplate, livenessResolver,
+                                                                         new DriverLocationShards(cacheRedisTemplate, false, 4),
+                                                                         new SimpleMeterRegistry(), true, 5, 1, 1000);
+        LocationService service = newLocationService(false, buffer);
+
+        Sinks.One<Long> geoAdd = Sinks.one();
+        given(cacheRedisTemplate.opsForGeo()).willReturn(reactiveGeoOperations);
+        given(reactiveGeoOperations.add(eq("driver_locations"), anyMap())).willReturn(geoAdd.asMono());
+        given(livenessResolver.markAlive(anyCollection())).willReturn(Mono.empty());
+
+        buffer.enqueue("100", 127.0, 37.5).toFuture();
+        CompletableFuture<Void> update = service.updateDriverLocation("101", 127.0, 37.5).toFuture();
+        buffer.flush().toFuture();
+        buffer.enqueue("102", 127.0, 37.5).toFuture();
+
+        // when
+        geoAdd.tryEmitValue(1L);
+
+        // then
+        assertThat(update).isCompletedExceptionally();
+        verifyNoInteractions(locationEventPublisher);
     }
 
     @Test
@@ -67,8 +205,10 @@ class LocationServiceTest {
         given(reactiveGeoOperations.radius(anyString(), any(Circle.class), any(RedisGeoCommands.GeoRadiusCommandArgs.class)))
                 .willReturn(Flux.just(result1, result2));
 
-        given(storageRedisTemplate.hasKey("driver_active:101")).willReturn(Mono.just(true));
-        given(storageRedisTemplate.hasKey("driver_active:102")).willReturn(Mono.just(true));
+        // 후보 전체를 MGET 한 번으로 확인
+        given(storageRedisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.multiGet(List.of("driver_active:101", "driver_active:102")))
+                .willReturn(Mono.just(List.of("1", "1")));
 
         // when
         Flux<NearbyDriverResponse> resultFlux = locationService.findNearbyDrivers(lon, lat, radius);
@@ -80,6 +220,53 @@ class LocationServiceTest {
                     .verifyComplete();
     }
 
+    @Test
+    @DisplayName("일괄 검색은 겹치는 후보를 한 번만 생존 확인하고, 질의 순서대로 결과를 반환해야 한다")
+    void findNearbyDriversBatch_SharedLivenessCheck() {
+        // given
+        var driver101 = new GeoResult<>(new RedisGeoCommands.GeoLocation<>("driver:101", new Point(127.01, 37.51)),
+                                        new Distance(1.0, Metrics.KILOMETERS));
+        var driver999 = new GeoResult<>(new RedisGeoCommands.GeoLocation<>("driver:999", new Point(127.02, 37.52)),
+                                        new Distance(2.0, Metrics.KILOMETERS));
+        var driver102 = new GeoResult<>(new RedisGeoCommands.GeoLocation<>("driver:102", new Point(127.03, 37.53)),
+                                        new Distance(0.5, Metrics.KILOMETERS));
+
+        given(cacheRedisTemplate.opsForGeo()).willReturn(reactiveGeoOperations);
+        given(reactiveGeoOperations.radius(anyString(), argThat((Circle c) -> c != null && c.getCenter().getX() == 127.0), any(RedisGeoCommands.GeoRadiusCommandArgs.class)))
+                .willReturn(Flux.just(driver101, driver999));
+        given(reactiveGeoOperations.radius(anyString(), argThat((Circle c) -> c != null && c.getCenter().getX() == 127.03), any(RedisGeoCommands.GeoRadiusCommandArgs.class)))
+                .willReturn(Flux.just(driver102, driver101));
+
+        // 두 질의의 후보 3명을 MGET 한 번으로 확인
+        given(storageRedisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.multiGet(List.of("driver_active:101", "driver_active:999", "driver_active:102")))
+                .willReturn(Mono.just(Arrays.asList("1", null, "1")));
+        given(reactiveGeoOperations.remove(anyString(), eq("driver:999"))).willReturn(Mono.just(1L));
+
+        List<NearbySearchQuery> queries = List.of(
+                new NearbySearchQuery("riderA", 127.0, 37.5, 5),
+                new NearbySearchQuery("riderB", 127.03, 37.53, 5),
+                new NearbySearchQuery("riderC", 127.0, 37.5, 5));
+
+        // when & then
+        StepVerifier.create(locationService.findNearbyDriversBatch(queries))
+                    .assertNext(result -> {
+                        assertThat(result.queryId()).isEqualTo("riderA");
+                        assertThat(result.drivers()).extracting(NearbyDriverResponse::driverId).containsExactly("101");
+                    })
+                    .assertNext(result -> {
+                        assertThat(result.queryId()).isEqualTo("riderB");
+                        assertThat(result.drivers()).extracting(NearbyDriverResponse::driverId).containsExactly("102", "101");
+                    })
+                    .assertNext(result -> assertThat(result.queryId()).isEqualTo("riderC"))
+                    .verifyComplete();
+
+        // 같은 위치/반경의 질의(riderA, riderC)는 GEORADIUS 한 번
+        verify(reactiveGeoOperations, times(2)).radius(anyString(), any(Circle.class), any(RedisGeoCommands.GeoRadiusCommandArgs.class));
+        verify(valueOperations, times(1)).multiGet(anyCollection());
+        verify(reactiveGeoOperations).remove(anyString(), eq("driver:999"));
+    }
+
     @Test
     @DisplayName("생존 신고(Active Key)가 만료된 '유령 기사'는 결과에서 제외되고 삭제되어야 한다")
     void findNearbyDrivers_LazyEviction_ZombieDriverRemoved() {
@@ -100,8 +287,9 @@ class LocationServiceTest {
         given(reactiveGeoOperations.radius(anyString(), any(Circle.class), any(RedisGeoCommands.GeoRadiusCommandArgs.class)))
                 .willReturn(Flux.just(activeDriver, zombieDriver));
 
-        given(storageRedisTemplate.hasKey("driver_active:101")).willReturn(Mono.just(true));
-        given(storageRedisTemplate.hasKey("driver_active:999")).willReturn(Mono.just(false));
+        given(storageRedisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.multiGet(List.of("driver_active:101", "driver_active:999")))
+                .willReturn(Mono.just(Arrays.asList("1", null)));
 
         given(cacheRedisTemplate.opsForGeo().remove(anyString(), eq("driver:999")))
                 .willReturn(Mono.just(1L));
@@ -118,4 +306,159 @@ class LocationServiceTest {
         verify(reactiveGeoOperations).remove(anyString(), eq("driver:999"));
         verify(reactiveGeoOperations, never()).remove(anyString(), eq("driver:101"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("생존 확인이 실패하면 유령 기사 삭제 없이 빈 결과를 반환해야 한다")
+    void findNearbyDrivers_LivenessFailure_ReturnsEmpty() {
+        // given
+        var driver = new GeoResult<>(
+                new RedisGeoCommands.GeoLocation<>("driver:101", new Point(127.01, 37.51)),
+                new Distance(1.0, Metrics.KILOMETERS)
+        );
+
+        given(cacheRedisTemplate.opsForGeo()).willReturn(reactiveGeoOperations);
+        given(reactiveGeoOperations.radius(anyString(), any(Circle.class), any(RedisGeoCommands.GeoRadiusCommandArgs.class)))
+                .willReturn(Flux.just(driver));
+
+        given(storageRedisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.multiGet(anyList())).willReturn(Mono.error(new IllegalStateException("storage down")));
+
+        // when
+        Flux<NearbyDriverResponse> resultFlux = locationService.findNearbyDrivers(127.0, 37.5, 5);
+
+        // then
+        StepVerifier.create(resultFlux)
+                    .verifyComplete();
+
+        verify(reactiveGeoOperations, never()).remove(anyString(), any(String[].class));
+    }
+
+    @Test
+    @DisplayName("KNN 검색은 살아있는 기사가 K명이 될 때까지 반경을 넓히고, 이미 확인한 기사는 다시 조회하지 않아야 한다")
+    void findNearestDrivers_ExpandsRingUntilK() {
+        // given
+        var near = new GeoResult<>(
+                new RedisGeoCommands.GeoLocation<>("driver:101", new Point(127.001, 37.5)),
+                new Distance(0.1, Metrics.KILOMETERS)
+        );
+        var zombie = new GeoResult<>(
+                new RedisGeoCommands.GeoLocation<>("driver:999", new Point(127.005, 37.5)),
+                new Distance(0.5, Metrics.KILOMETERS)
+        );
+        var far = new GeoResult<>(
+                new RedisGeoCommands.GeoLocation<>("driver:102", new Point(127.015, 37.5)),
+                new Distance(1.5, Metrics.KILOMETERS)
+        );
+
+        given(cacheRedisTemplate.opsForGeo()).willReturn(reactiveGeoOperations);
+        given(reactiveGeoOperations.radius(anyString(), argThat((Circle c) -> c != null && c.getRadius().getValue() == 1.0),
+                                           any(RedisGeoCommands.GeoRadiusCommandArgs.class)))
+                .willReturn(Flux.just(near, zombie));
+        given(reactiveGeoOperations.radius(anyString(), argThat((Circle c) -> c != null && c.getRadius().getValue() == 2.0),
+                                           any(RedisGeoCommands.GeoRadiusCommandArgs.class)))
+                .willReturn(Flux.just(near, zombie, far));
+        given(reactiveGeoOperations.remove(anyString(), eq("driver:999"))).willReturn(Mono.just(1L));
+
+        given(storageRedisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.multiGet(List.of("driver_active:101", "driver_active:999")))
+                .willReturn(Mono.just(Arrays.asList("1", null)));
+        given(valueOperations.multiGet(List.of("driver_active:102")))
+                .willReturn(Mono.just(List.of("1")));
+
+        // when
+        Flux<NearbyDriverResponse> resultFlux = locationService.findNearestDrivers(127.0, 37.5, 2, 20);
+
+        // then
+        StepVerifier.create(resultFlux)
+                    .assertNext(driver -> assertThat(driver.driverId()).isEqualTo("101"))
+                    .assertNext(driver -> assertThat(driver.driverId()).isEqualTo("102"))
+                    .verifyComplete();
+
+        verify(valueOperations).multiGet(List.of("driver_active:102"));
+        verify(reactiveGeoOperations).remove(anyString(), eq("driver:999"));
+    }
+
+    @Test
+    @DisplayName("KNN 링의 후보가 최대 조회 수(400명)에서 잘리고 대부분 걸러지면, 같은 링에서 다음 구간을 더 가져와 K명을 채워야 한다")
+    void findNearestDrivers_PagesPastMaxFetch() {
+        // given: 1km 안에 500명, 가까운 450명은 운행 중
+        LocationService availabilityAware = newLocationService(true);
+        List<GeoResult<RedisGeoCommands.GeoLocation<String>>> candidates = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            candidates.add(new GeoResult<>(new RedisGeoCommands.GeoLocation<>("driver:" + i, new Point(127.0, 37.5)),
+                                           new Distance(0.001 * i, Metrics.KILOMETERS)));
+        }
+
+        given(cacheRedisTemplate.opsForGeo()).willReturn(reactiveGeoOperations);
+        given(reactiveGeoOperations.radius(anyString(), any(Circle.class), any(RedisGeoCommands.GeoRadiusCommandArgs.class)))
+                .willAnswer(invocation -> {
+                    RedisGeoCommands.GeoRadiusCommandArgs args = invocation.getArgument(2);
+                    return Flux.fromIterable(candidates).take(args.getLimit());
+                });
+
+        given(storageRedisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.multiGet(anyList()))
+                .willAnswer(invocation -> Mono.just(Collections.nCopies(invocation.<List<?>>getArgument(0).size(), "1")));
+        given(storageRedisTemplate.opsForZSet()).willReturn(zSetOperations);
+        given(zSetOperations.score(eq("drivers_on_trip"), any(Object[].class)))
+                .willAnswer(invocation -> {
+                    List<Double> scores = new ArrayList<>();
+                    for (Object driverId : Arrays.copyOfRange(invocation.getArguments(), 1, invocation.getArguments().length)) {
+                        scores.add(Integer.parseInt((String) driverId) < 450 ? (double) System.currentTimeMillis() : null);
+                    }
+                    return Mono.just(scores);
+                });
+
+        // when
+        Flux<NearbyDriverResponse> resultFlux = availabilityAware.findNearestDrivers(127.0, 37.5, 2, 1);
+
+        // then
+        StepVerifier.create(resultFlux)
+                    .assertNext(driver -> assertThat(driver.driverId()).isEqualTo("450"))
+                    .assertNext(driver -> assertThat(driver.driverId()).isEqualTo("451"))
+                    .verifyComplete();
+
+        // 400명에서 잘린 뒤 800명으로 한 번 더 가져오고, 새로 나온 100명만 생존 확인
+        verify(reactiveGeoOperations).radius(anyString(), any(Circle.class),
+                                             argThat((RedisGeoCommands.GeoRadiusCommandArgs args) -> args != null && args.getLimit() == 800));
+        verify(valueOperations).multiGet(argThat((List<String> keys) -> keys != null && keys.size() == 100));
+    }
+
+    @Test
+    @DisplayName("운행 중인 기사는 결과에서 빠지되 살아있으므로 Geo 인덱스에서 삭제하지 않아야 한다")
+    void findNearbyDrivers_Availability_SkipsOnTripDrivers() {
+        // given
+        LocationService availabilityAware = newLocationService(true);
+
+        var onTrip = new GeoResult<>(
+                new RedisGeoCommands.GeoLocation<>("driver:101", new Point(127.01, 37.51)),
+                new Distance(1.0, Metrics.KILOMETERS)
+        );
+        var idle = new GeoResult<>(
+                new RedisGeoCommands.GeoLocation<>("driver:102", new Point(127.02, 37.52)),
+                new Distance(2.0, Metrics.KILOMETERS)
+        );
+
+        given(cacheRedisTemplate.opsForGeo()).willReturn(reactiveGeoOperations);
+        given(reactiveGeoOperations.radius(anyString(), any(Circle.class),
+                                           argThat((RedisGeoCommands.GeoRadiusCommandArgs args) -> args != null && args.getLimit() == 100)))
+                .willReturn(Flux.just(onTrip, idle));
+
+        given(storageRedisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.multiGet(List.of("driver_active:101", "driver_active:102")))
+                .willReturn(Mono.just(List.of("1", "1")));
+        given(storageRedisTemplate.opsForZSet()).willReturn(zSetOperations);
+        given(zSetOperations.score("drivers_on_trip", "101", "102"))
+                .willReturn(Mono.just(Arrays.asList((double) System.currentTimeMillis(), null)));
+
+        // when
+        Flux<NearbyDriverResponse> resultFlux = availabilityAware.findNearbyDrivers(127.0, 37.5, 5);
+
+        // then: 후보는 2배(100명)까지 가져오고 배차 가능한 기사만 반환
+        StepVerifier.create(resultFlux)
+                    .assertNext(driver -> assertThat(driver.driverId()).isEqualTo("102"))
+                    .verifyComplete();
+
+        verify(reactiveGeoOperations, never()).remove(anyString(), any(String[].class));
+    }
+}
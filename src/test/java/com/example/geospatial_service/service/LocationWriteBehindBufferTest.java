@@ -0,0 +1,156 @@
+package com.example.geospatial_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.geo.Point;
+import org.springframework.data.redis.core.ReactiveGeoOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class LocationWriteBehindBufferTest {
+
+    private LocationWriteBehindBuffer buffer;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> cacheRedisTemplate;
+
+    @Mock
+    private ReactiveGeoOperations<String, String> reactiveGeoOperations;
+
+    @Mock
+    private DriverLivenessResolver livenessResolver;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 최대 대기 2명, 배치 1000명
+        buffer = new LocationWriteBehindBuffer(cacheRedisTemplate, livenessResolver,
+                                               new DriverLocationShards(cacheRedisTemplate, false, 4), meterRegistry,
+                                               true, 5, 2, 1000);
+    }
+
+    @Test
+    @DisplayName("같은 기사의 연속 업데이트는 마지막 위치 하나로 합쳐져 한 번에 반영되어야 한다")
+    void flush_CoalescesPerDriver() {
+        // given
+        given(cacheRedisTemplate.opsForGeo()).willReturn(reactiveGeoOperations);
+        given(reactiveGeoOperations.add(eq("driver_locations"), anyMap())).willReturn(Mono.just(2L));
+        given(livenessResolver.markAlive(anyCollection())).willReturn(Mono.empty());
+
+        CompletableFuture<Void> first = buffer.enqueue("101", 127.0, 37.5).toFuture();
+        CompletableFuture<Void> second = buffer.enqueue("101", 127.1, 37.6).toFuture();
+        CompletableFuture<Void> third = buffer.enqueue("102", 127.2, 37.7).toFuture();
+        assertThat(first).isNotDone();
+
+        // when
+        StepVerifier.create(buffer.flush()).verifyComplete();
+
+        // then: 덮인 이전 위치의 호출도 새 위치가 반영되면 함께 완료
+        assertThat(first).isCompleted();
+        assertThat(second).isCompleted();
+        assertThat(third).isCompleted();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Point>> members = ArgumentCaptor.forClass(Map.class);
+        verify(reactiveGeoOperations, times(1)).add(eq("driver_locations"), members.capture());
+        assertThat(members.getValue()).containsOnly(
+                Map.entry("driver:101", new Point(127.1, 37.6)),
+                Map.entry("driver:102", new Point(127.2, 37.7)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> alive = ArgumentCaptor.forClass(Collection.class);
+        verify(livenessResolver).markAlive(alive.capture());
+        assertThat(alive.getValue()).containsExactlyInAnyOrder("101", "102");
+
+        assertThat(meterRegistry.get("geospatial.location.flush.batch.size").summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("대기열이 가득 차면 다음 flush 이후에 반영되어야 한다")
+    void enqueue_WaitsForFlushWhenFull() {
+        // given
+        given(cacheRedisTemplate.opsForGeo()).willReturn(reactiveGeoOperations);
+        given(reactiveGeoOperations.add(eq("driver_locations"), anyMap())).willReturn(Mono.just(2L));
+        given(livenessResolver.markAlive(anyCollection())).willReturn(Mono.empty());
+
+        CompletableFuture<Void> first = buffer.enqueue("101", 127.0, 37.5).toFuture();
+        buffer.enqueue("102", 127.0, 37.5).toFuture();
+
+        // when: 세 번째 기사는 대기열이 비워질 때까지 대기열에 들어가지 못함
+        CompletableFuture<Void> blocked = buffer.enqueue("103", 127.0, 37.5).toFuture();
+        StepVerifier.create(buffer.flush()).verifyComplete();
+
+        // then: 첫 flush 뒤 대기열에 들어가고, 다음 flush 에서 반영되어야 완료
+        assertThat(first).isCompleted();
+        assertThat(blocked).isNotDone();
+
+        StepVerifier.create(buffer.flush()).verifyComplete();
+        assertThat(blocked).isCompleted();
+        verify(reactiveGeoOperations, times(2)).add(eq("driver_locations"), anyMap());
+        assertThat(meterRegistry.get("geospatial.location.flush.dropped").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("flush 를 기다린 뒤에도 대기열이 차 있으면 버리고 에러로 알려야 한다")
+    void enqueue_StillFull_FailsWithError() {
+        // given: 첫 flush 의 GEOADD 가 끝나기 전에 다른 기사들이 다시 대기열을 채움
+        Sinks.One<Long> geoAdd = Sinks.one();
+        given(cacheRedisTemplate.opsForGeo()).willReturn(reactiveGeoOperations);
+        given(reactiveGeoOperations.add(eq("driver_locations"), anyMap())).willReturn(geoAdd.asMono());
+        given(livenessResolver.markAlive(anyCollection())).willReturn(Mono.empty());
+
+        buffer.enqueue("101", 127.0, 37.5).toFuture();
+        buffer.enqueue("102", 127.0, 37.5).toFuture();
+        CompletableFuture<Void> blocked = buffer.enqueue("103", 127.0, 37.5).toFuture();
+        CompletableFuture<Void> flushing = buffer.flush().toFuture();
+        buffer.enqueue("104", 127.0, 37.5).toFuture();
+        buffer.enqueue("105", 127.0, 37.5).toFuture();
+
+        // when
+        geoAdd.tryEmitValue(2L);
+
+        // then
+        assertThat(flushing).isCompleted();
+        assertThat(blocked).isCompletedExceptionally();
+        assertThat(meterRegistry.get("geospatial.location.flush.dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Redis 반영에 실패하면 기다리던 호출은 에러로 끝나고, flush 는 에러 없이 끝나야 한다")
+    void flush_ErrorIsContained() {
+        // given
+        given(cacheRedisTemplate.opsForGeo()).willReturn(reactiveGeoOperations);
+        given(reactiveGeoOperations.add(eq("driver_locations"), anyMap()))
+                .willReturn(Mono.error(new IllegalStateException("cache down")));
+        given(livenessResolver.markAlive(any(Collection.class))).willReturn(Mono.empty());
+
+        CompletableFuture<Void> update = buffer.enqueue("101", 127.0, 37.5).toFuture();
+
+        // when & then
+        StepVerifier.create(buffer.flush()).verifyComplete();
+        assertThat(update).isCompletedExceptionally();
+    }
+}
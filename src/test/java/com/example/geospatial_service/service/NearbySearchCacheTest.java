@@ -0,0 +1,127 @@
+package com.example.geospatial_service.service;
+
+import com.example.geospatial_service.dto.NearbyDriverResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearbySearchCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private NearbySearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        // precision 7 (약 150m 셀), TTL 500ms
+        cache = new NearbySearchCache(new SimpleMeterRegistry(), true, 7, 500, now::get);
+    }
+
+    private Flux<NearbyDriverResponse> search() {
+        return Flux.defer(() -> {
+            loads.incrementAndGet();
+            return Flux.just(new NearbyDriverResponse("driver1", 0.1));
+        });
+    }
+
+    @Test
+    @DisplayName("TTL 안의 같은 셀/반경 검색은 한 번만 실행하고 결과를 재사용해야 한다")
+    void get_HitWithinTtl() {
+        // when
+        StepVerifier.create(cache.get(127.0, 37.5, 5, this::search)).expectNextCount(1).verifyComplete();
+        now.addAndGet(100);
+        StepVerifier.create(cache.get(127.00001, 37.50001, 5, this::search)).expectNextCount(1).verifyComplete();
+
+        // then
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("진행 중인 검색이 있으면 새 검색 없이 같은 결과를 기다려야 한다")
+    void get_CoalescesInFlight() {
+        // given
+        Sinks.One<NearbyDriverResponse> pending = Sinks.one();
+        Flux<NearbyDriverResponse> slowSearch = Flux.defer(() -> {
+            loads.incrementAndGet();
+            return pending.asMono().flux();
+        });
+
+        // when
+        Flux<NearbyDriverResponse> first = cache.get(127.0, 37.5, 5, () -> slowSearch);
+        Flux<NearbyDriverResponse> second = cache.get(127.0, 37.5, 5, () -> slowSearch);
+
+        // then
+        StepVerifier.create(Flux.merge(first, second))
+                    .then(() -> pending.tryEmitValue(new NearbyDriverResponse("driver1", 0.1)))
+                    .expectNextCount(2)
+                    .verifyComplete();
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("TTL 이 지나거나 반경이 다르면 새로 검색해야 한다")
+    void get_MissAfterTtlOrOtherRadius() {
+        // when
+        cache.get(127.0, 37.5, 5, this::search).blockLast();
+        cache.get(127.0, 37.5, 3, this::search).blockLast();
+        now.addAndGet(500);
+        cache.get(127.0, 37.5, 5, this::search).blockLast();
+
+        // then
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("검색이 실패하면 결과를 남기지 않아야 한다")
+    void get_ErrorNotCached() {
+        // when
+        StepVerifier.create(cache.get(127.0, 37.5, 5, () -> Flux.error(new RuntimeException("Redis 오류"))))
+                    .verifyError();
+        cache.get(127.0, 37.5, 5, this::search).blockLast();
+
+        // then
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("주기 정리는 만료된 결과만 지워야 한다")
+    void evictExpired_RemovesOnlyExpired() {
+        // given
+        cache.get(127.0, 37.5, 5, this::search).blockLast();
+        now.addAndGet(400);
+        cache.get(126.9, 37.4, 5, this::search).blockLast();
+
+        // when
+        now.addAndGet(200);
+        cache.evictExpired();
+
+        // then
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("비활성화 상태에서는 매번 검색해야 한다")
+    void get_Disabled() {
+        // given
+        NearbySearchCache disabled = new NearbySearchCache(new SimpleMeterRegistry(), false, 7, 500, now::get);
+
+        // when
+        disabled.get(127.0, 37.5, 5, this::search).blockLast();
+        disabled.get(127.0, 37.5, 5, this::search).blockLast();
+
+        // then
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(disabled.size()).isZero();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.geospatial_service.service;
+
+import com.example.geospatial_service.dto.NearbyDriverResponse;
+import com.example.geospatial_service.index.DriverLocationIndex;
+import com.example.geospatial_service.index.SearchEngine;
+import com.example.geospatial_service.kafka.DriverConfigConsumer;
+import com.example.geospatial_service.kafka.LocationEventPublisher;
+import com.example.geospatial_service.kafka.dto.TripMatchedEvent;
+import com.example.geospatial_service.trajectory.DriverTrajectoryStore;
+import com.example.geospatial_service.zone.DriverZoneTracker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.geo.Circle;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.redis.connection.RedisGeoCommands;
+import org.springframework.data.redis.core.ReactiveGeoOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+// Netty 이벤트 루프와 같은 Reactor non-blocking 스레드에서 요청 경로가 블로킹 호출 없이 끝나는지 확인
+// BlockHound 는 JVM 전역으로 설치되므로 ./gradlew blockHoundTest (별도 JVM) 에서만 실행
+@Tag("blockhound")
+class NonBlockingPathsTest {
+
+    private ReactiveRedisTemplate<String, String> cacheRedisTemplate;
+
+    private ReactiveRedisTemplate<String, String> storageRedisTemplate;
+
+    private LocationService locationService;
+
+    @BeforeAll
+    static void installBlockHound() {
+        // 콘솔 로그 출력은 테스트 환경의 동기 Appender 이므로 허용
+        BlockHound.install(builder -> builder.allowBlockingCallsInside("ch.qos.logback.core.OutputStreamAppender", "writeBytes"));
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        cacheRedisTemplate = mock(ReactiveRedisTemplate.class);
+        storageRedisTemplate = mock(ReactiveRedisTemplate.class);
+        ReactiveGeoOperations<String, String> geoOperations = mock(ReactiveGeoOperations.class);
+        ReactiveValueOperations<String, String> valueOperations = mock(ReactiveValueOperations.class);
+        // location_events 실제 전송(KafkaProducer.send)은 LocationEventPublisherTest.publish_RealProducerDoesNotBlock 에서 확인
+        LocationEventPublisher eventPublisher = mock(LocationEventPublisher.class);
+
+        given(cacheRedisTemplate.opsForGeo()).willReturn(geoOperations);
+        given(eventPublisher.publish(anyString(), anyDouble(), anyDouble())).willReturn(Mono.empty());
+        given(geoOperations.add(anyString(), any(Point.class), anyString())).willReturn(Mono.just(1L));
+        given(geoOperations.radius(anyString(), any(Circle.class), any(RedisGeoCommands.GeoRadiusCommandArgs.class)))
+                .willReturn(Flux.just(new GeoResult<>(new RedisGeoCommands.GeoLocation<>("driver:101", new Point(127.01, 37.51)),
+                                                      new Distance(1.0, Metrics.KILOMETERS))));
+        given(storageRedisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.set(anyString(), eq("1"), any(Duration.class))).willReturn(Mono.just(true));
+        given(valueOperations.multiGet(anyCollection())).willReturn(Mono.just(List.of("1")));
+
+        DriverLocationShards shards = new DriverLocationShards(cacheRedisTemplate, false, 4);
+        DriverLivenessResolver livenessResolver = new DriverLivenessResolver(storageRedisTemplate, LivenessMode.KEY, 30, 200);
+        locationService = new LocationService(cacheRedisTemplate, livenessResolver,
+                                              new DriverAvailability(storageRedisTemplate, false, SearchEngine.REDIS, 2,
+                                                                     12 * 3_600_000L, 200, System::currentTimeMillis),
+                                              new LocationWriteBehindBuffer(cacheRedisTemplate, livenessResolver, shards,
+                                                                            new SimpleMeterRegistry(), false, 5, 1000, 1000),
+                                              shards, eventPublisher, mock(DriverLocationIndex.class),
+                                              new NearbySearchCache(new SimpleMeterRegistry(), false, 7, 500),
+                                              new DriverCellNearCache(cacheRedisTemplate, shards, new SimpleMeterRegistry(), true, 5, 1024, 2000, 16,
+                                                                      Map.of(SearchMetrics.NEARBY, 5000L), System::currentTimeMillis),
+                                              new DriverTrajectoryStore(null, new SimpleMeterRegistry(), false, 32, 30_000),
+                                              new DriverZoneTracker(null, new ObjectMapper(), new SimpleMeterRegistry(), false, null, 0.005, 1_000_000, 30_000),
+                                              new SimpleMeterRegistry(), SearchEngine.REDIS);
+    }
+
+    @Test
+    @DisplayName("BlockHound 가 설치되어 non-blocking 스레드의 블로킹 호출을 잡아야 한다")
+    void blockHound_DetectsBlockingCall() {
+        StepVerifier.create(Mono.fromCallable(() -> {
+                                    Thread.sleep(1);
+                                    return 1;
+                                })
+                                .subscribeOn(Schedulers.parallel()))
+                    .expectError(BlockingOperationError.class)
+                    .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("위치 저장과 주변 기사 검색(near-cache 포함)은 non-blocking 스레드에서 블로킹 없이 끝나야 한다")
+    void locationPaths_DoNotBlock() {
+        StepVerifier.create(locationService.updateDriverLocation("101", 127.01, 37.51)
+                                           .subscribeOn(Schedulers.parallel()))
+                    .verifyComplete();
+
+        // 첫 검색은 near-cache 셀을 채우고, 두 번째 검색은 셀에서 응답
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(locationService.findNearbyDrivers(127.0, 37.5, 2)
+                                               .map(NearbyDriverResponse::driverId)
+                                               .subscribeOn(Schedulers.parallel()))
+                        .expectNext("101")
+                        .verifyComplete();
+        }
+    }
+
+    @Test
+    @DisplayName("운행 이벤트 배치는 가상 스레드에서는 block 으로 기다릴 수 있고, non-blocking 스레드에서는 거부되어야 한다")
+    void tripEvents_BlockOnlyOnVirtualThreads() throws InterruptedException {
+        // given
+        given(cacheRedisTemplate.convertAndSend(anyString(), anyString())).willReturn(Mono.just(1L));
+        DriverAvailability availability = mock(DriverAvailability.class);
+        given(availability.recordTrips(anyMap())).willReturn(Mono.empty());
+        DriverConfigConsumer consumer = new DriverConfigConsumer(cacheRedisTemplate, new ObjectMapper(), availability, new SimpleMeterRegistry());
+        List<Object> events = List.of(new TripMatchedEvent("t1", "u1", "101", null, null, null));
+
+        // when: 가상 스레드 (KafkaConsumerConfig 의 리스너 실행기)
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread virtual = Thread.ofVirtual().start(() -> {
+            try {
+                consumer.handleTripEvents(events);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        virtual.join(5_000);
+
+        // then
+        assertThat(failure.get()).isNull();
+        StepVerifier.create(Mono.fromRunnable(() -> consumer.handleTripEvents(events)).subscribeOn(Schedulers.parallel()))
+                    .expectError()
+                    .verify(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.geospatial_service.service;
+
+import com.example.geospatial_service.dto.SupplyCell;
+import com.example.geospatial_service.dto.SupplyHeatmapResponse;
+import com.example.geospatial_service.geo.GeoHash;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SupplyHeatmapTest {
+
+    private static final long STALE_MILLIS = 30_000;
+
+    // precision 6 셀 중심 두 개 (서울)
+    private static final double[] CELL_A = GeoHash.center(GeoHash.encodeBits(37.5, 127.0, 30), 6);
+    private static final double[] CELL_B = GeoHash.center(GeoHash.encodeBits(37.5, 127.05, 30), 6);
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SupplyHeatmap heatmap;
+
+    @BeforeEach
+    void setUp() {
+        heatmap = new SupplyHeatmap(meterRegistry, true, 6, STALE_MILLIS, now::get);
+    }
+
+    private double cellCount() {
+        return meterRegistry.get("geospatial.heatmap.cells").gauge().value();
+    }
+
+    private SupplyHeatmapResponse seoul() {
+        return heatmap.region(126.8, 37.4, 127.2, 37.7);
+    }
+
+    @Test
+    @DisplayName("셀 사이를 이동하면 이전 셀은 줄고 새 셀은 늘어야 하며, 같은 셀 안의 이동은 수를 바꾸지 않아야 한다")
+    void onLocation_MovesBetweenCells() {
+        // when
+        heatmap.onLocation("101", CELL_A[1], CELL_A[0]);
+        heatmap.onLocation("102", CELL_A[1], CELL_A[0]);
+        heatmap.onLocation("102", CELL_A[1] + 0.0001, CELL_A[0]);
+        heatmap.onLocation("103", CELL_B[1], CELL_B[0]);
+        heatmap.onLocation("101", CELL_B[1], CELL_B[0]);
+
+        // then
+        assertThat(seoul().cells())
+                .extracting(SupplyCell::geohash, SupplyCell::drivers)
+                .containsExactlyInAnyOrder(tuple(GeoHash.encode(CELL_A[0], CELL_A[1], 6), 1L),
+                                           tuple(GeoHash.encode(CELL_B[0], CELL_B[1], 6), 2L));
+    }
+
+    @Test
+    @DisplayName("생존 TTL 동안 위치가 없는 기사는 셀에서 빠지고, 빈 셀은 응답하지 않아야 한다")
+    void expireStale_RemovesSilentDrivers() {
+        // given
+        heatmap.onLocation("101", CELL_A[1], CELL_A[0]);
+        heatmap.onLocation("102", CELL_B[1], CELL_B[0]);
+        now.addAndGet(20_000);
+        heatmap.onLocation("102", CELL_B[1], CELL_B[0]);
+
+        // when
+        now.addAndGet(15_000);
+        heatmap.expireStale();
+
+        // then
+        assertThat(seoul().cells())
+                .extracting(SupplyCell::geohash, SupplyCell::drivers)
+                .containsExactly(tuple(GeoHash.encode(CELL_B[0], CELL_B[1], 6), 1L));
+    }
+
+    @Test
+    @DisplayName("기사가 모두 빠진 셀은 정리 시 지우고, 다시 들어오면 새로 집계해야 한다")
+    void expireStale_RemovesEmptyCells() {
+        // given: 101 이 A 에서 B 로 이동해 A 가 비고, 102 는 위치가 끊김
+        heatmap.onLocation("101", CELL_A[1], CELL_A[0]);
+        heatmap.onLocation("102", CELL_B[1], CELL_B[0]);
+        heatmap.onLocation("101", CELL_B[1], CELL_B[0]);
+        now.addAndGet(STALE_MILLIS - 1_000);
+        heatmap.onLocation("101", CELL_B[1], CELL_B[0]);
+        now.addAndGet(2_000);
+
+        // when
+        heatmap.expireStale();
+
+        // then
+        assertThat(cellCount()).isEqualTo(1);
+
+        // when: 지운 셀로 다시 들어옴
+        heatmap.onLocation("103", CELL_A[1], CELL_A[0]);
+
+        // then
+        assertThat(cellCount()).isEqualTo(2);
+        assertThat(seoul().cells())
+                .extracting(SupplyCell::geohash, SupplyCell::drivers)
+                .containsExactlyInAnyOrder(tuple(GeoHash.encode(CELL_A[0], CELL_A[1], 6), 1L),
+                                           tuple(GeoHash.encode(CELL_B[0], CELL_B[1], 6), 1L));
+    }
+
+    @Test
+    @DisplayName("셀 이동과 빈 셀 정리가 동시에 일어나도 기사 수가 어긋나지 않아야 한다")
+    void onLocation_ConcurrentWithSweep_KeepsCounts() throws Exception {
+        // given: 기사 8명이 A/B 를 오가는 동안 정리 작업이 계속 빈 셀을 지움
+        int drivers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(drivers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean moving = new AtomicBoolean(true);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < drivers; i++) {
+                String driverId = "driver-" + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int n = 0; n < 5_000; n++) {
+                        double[] cell = n % 2 == 0 ? CELL_A : CELL_B;
+                        heatmap.onLocation(driverId, cell[1], cell[0]);
+                    }
+                    return null;
+                }));
+            }
+            Future<?> sweeper = executor.submit(() -> {
+                start.await();
+                while (moving.get()) {
+                    heatmap.expireStale();
+                }
+                return null;
+            });
+
+            // when
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            moving.set(false);
+            sweeper.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // then: 마지막 위치는 모두 B
+        assertThat(seoul().cells())
+                .extracting(SupplyCell::geohash, SupplyCell::drivers)
+                .containsExactly(tuple(GeoHash.encode(CELL_B[0], CELL_B[1], 6), (long) drivers));
+    }
+
+    @Test
+    @DisplayName("좁은 범위는 범위를 덮는 셀의 카운터만 읽어야 한다")
+    void region_NarrowBounds_ReadsCoveringCells() {
+        // given: 집계 중인 셀 4개
+        heatmap.onLocation("101", CELL_A[1], CELL_A[0]);
+        heatmap.onLocation("102", CELL_B[1], CELL_B[0]);
+        heatmap.onLocation("201", 129.07, 35.18); // 부산
+        heatmap.onLocation("301", 126.70, 37.45); // 인천
+
+        // when: A 셀 안의 작은 사각형
+        SupplyHeatmapResponse response = heatmap.region(CELL_A[1] - 0.001, CELL_A[0] - 0.001, CELL_A[1] + 0.001, CELL_A[0] + 0.001);
+
+        // then
+        assertThat(response.cells())
+                .extracting(SupplyCell::geohash, SupplyCell::drivers)
+                .containsExactly(tuple(GeoHash.encode(CELL_A[0], CELL_A[1], 6), 1L));
+    }
+
+    @Test
+    @DisplayName("범위가 집계 중인 셀보다 넓으면 셀 전체를 훑어 같은 결과를 응답해야 한다")
+    void region_WideBounds_ScansCells() {
+        // given
+        heatmap.onLocation("101", CELL_A[1], CELL_A[0]);
+        heatmap.onLocation("201", 129.07, 35.18); // 부산
+
+        // when
+        SupplyHeatmapResponse response = heatmap.region(-180, -90, 180, 90);
+
+        // then
+        assertThat(response.cells())
+                .extracting(SupplyCell::geohash)
+                .containsExactlyInAnyOrder(GeoHash.encode(CELL_A[0], CELL_A[1], 6), GeoHash.encode(35.18, 129.07, 6));
+    }
+
+    @Test
+    @DisplayName("범위 밖 셀은 응답하지 않아야 한다")
+    void region_FiltersByBounds() {
+        // given
+        heatmap.onLocation("101", CELL_A[1], CELL_A[0]);
+        heatmap.onLocation("201", 129.07, 35.18); // 부산
+
+        // when
+        SupplyHeatmapResponse response = seoul();
+
+        // then
+        assertThat(response.precision()).isEqualTo(6);
+        assertThat(response.cells()).extracting(SupplyCell::drivers).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("비활성화 상태에서는 집계하지 않아야 한다")
+    void onLocation_Disabled() {
+        // given
+        SupplyHeatmap disabled = new SupplyHeatmap(new SimpleMeterRegistry(), false, 6, STALE_MILLIS, now::get);
+
+        // when
+        disabled.onLocation("101", CELL_A[1], CELL_A[0]);
+
+        // then
+        assertThat(disabled.region(126.8, 37.4, 127.2, 37.7).cells()).isEmpty();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.geospatial_service.service;
+
+import com.example.geospatial_service.dto.DriverPosition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ViewportSubscriptionHubTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    private ViewportSubscriptionHub hub;
+
+    @BeforeEach
+    void setUp() {
+        // precision 4, 위치 없이 30초 지나면 내림, 구독별 버퍼 1건
+        hub = new ViewportSubscriptionHub(new SimpleMeterRegistry(), true, 4, 30_000, 1, now::get);
+    }
+
+    @Test
+    @DisplayName("구독 직후 화면 안의 기사를 스냅샷으로 보내고, 이후 들어옴/이동/나감을 tick 단위로 보내야 한다")
+    void subscribe_SnapshotThenDeltas() {
+        // given: 구독 전에 이미 화면 안에 있는 기사
+        hub.onLocation("driverA", 127.01, 37.51);
+        hub.tick();
+
+        StepVerifier.create(hub.subscribe(127.0, 37.5, 127.1, 37.6))
+                    .then(hub::tick)
+                    .assertNext(update -> {
+                        assertThat(update.snapshot()).isTrue();
+                        assertThat(update.entered()).containsExactly(new DriverPosition("driverA", 127.01, 37.51));
+                    })
+                    // 들어옴 + 이동 (같은 tick 안의 여러 업데이트는 마지막 값만)
+                    .then(() -> {
+                        hub.onLocation("driverB", 127.05, 37.55);
+                        hub.onLocation("driverA", 127.015, 37.51);
+                        hub.onLocation("driverA", 127.02, 37.52);
+                        hub.tick();
+                    })
+                    .assertNext(update -> {
+                        assertThat(update.snapshot()).isFalse();
+                        assertThat(update.entered()).extracting(DriverPosition::driverId).containsExactly("driverB");
+                        assertThat(update.moved()).containsExactly(new DriverPosition("driverA", 127.02, 37.52));
+                    })
+                    // 화면 밖으로 이동 (다른 셀)
+                    .then(() -> {
+                        hub.onLocation("driverB", 128.5, 36.0);
+                        hub.tick();
+                    })
+                    .assertNext(update -> assertThat(update.left()).containsExactly("driverB"))
+                    .thenCancel()
+                    .verify();
+    }
+
+    @Test
+    @DisplayName("변화가 없는 tick 에는 이벤트를 보내지 않고, 위치가 끊긴 기사는 나감으로 보내야 한다")
+    void tick_StaleDriverLeaves() {
+        StepVerifier.create(hub.subscribe(127.0, 37.5, 127.1, 37.6))
+                    .then(() -> {
+                        hub.onLocation("driverA", 127.01, 37.51);
+                        hub.tick();
+                    })
+                    .assertNext(update -> assertThat(update.entered()).extracting(DriverPosition::driverId).containsExactly("driverA"))
+                    .then(() -> {
+                        now.addAndGet(10_000);
+                        hub.tick();
+                    })
+                    .expectNoEvent(Duration.ZERO)
+                    .then(() -> {
+                        now.addAndGet(30_000);
+                        hub.tick();
+                    })
+                    .assertNext(update -> assertThat(update.left()).containsExactly("driverA"))
+                    .thenCancel()
+                    .verify();
+    }
+
+    @Test
+    @DisplayName("느린 구독자의 버퍼가 차면 변화를 버리고 다음 tick 에 스냅샷으로 다시 맞춰야 한다")
+    void tick_OverflowResyncsWithSnapshot() {
+        StepVerifier.create(hub.subscribe(127.0, 37.5, 127.1, 37.6), 0)
+                    .then(hub::tick) // 빈 스냅샷이 버퍼를 채움
+                    .then(() -> {
+                        hub.onLocation("driverA", 127.01, 37.51);
+                        hub.tick(); // 버퍼가 가득 차 변화를 버림
+                    })
+                    .thenRequest(1)
+                    .assertNext(update -> {
+                        assertThat(update.snapshot()).isTrue();
+                        assertThat(update.entered()).isEmpty();
+                    })
+                    .then(hub::tick) // 변화가 없어도 재동기화 스냅샷 전송
+                    .thenRequest(1)
+                    .assertNext(update -> {
+                        assertThat(update.snapshot()).isTrue();
+                        assertThat(update.entered()).extracting(DriverPosition::driverId).containsExactly("driverA");
+                    })
+                    .thenCancel()
+                    .verify();
+    }
+
+    @Test
+    @DisplayName("비활성화 상태에서는 위치를 모으지 않아야 한다")
+    void onLocation_Disabled() {
+        // given
+        ViewportSubscriptionHub disabled = new ViewportSubscriptionHub(new SimpleMeterRegistry(), false, 4, 30_000, 16, now::get);
+
+        // when
+        disabled.onLocation("driverA", 127.01, 37.51);
+        disabled.tick();
+
+        // then
+        StepVerifier.create(disabled.subscribe(127.0, 37.5, 127.1, 37.6))
+                    .then(disabled::tick)
+                    .expectNoEvent(Duration.ZERO)
+                    .thenCancel()
+                    .verify();
+    }
+}
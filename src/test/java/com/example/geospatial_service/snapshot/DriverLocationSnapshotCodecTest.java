@@ -0,0 +1,59 @@
+package com.example.geospatial_service.snapshot;
+
+import com.example.geospatial_service.geo.RedisGeoScore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DriverLocationSnapshotCodecTest {
+
+    @Test
+    @DisplayName("스냅샷을 인코딩 후 디코딩하면 오프셋과 기사별 score 가 그대로여야 한다")
+    void roundTrip() {
+        // given
+        Map<String, Long> scores = Map.of(
+                "driverA", RedisGeoScore.encode(127.0276, 37.4979),
+                "driverB", RedisGeoScore.encode(126.9780, 37.5665),
+                "driverC", RedisGeoScore.encode(-73.9857, 40.7484));
+        DriverLocationSnapshot snapshot = new DriverLocationSnapshot(1_700_000_000_000L, Map.of(0, 120L, 1, 98_765L), scores);
+
+        // when
+        DriverLocationSnapshot decoded = DriverLocationSnapshotCodec.decode(DriverLocationSnapshotCodec.encode(snapshot));
+
+        // then
+        assertThat(decoded.createdAtMs()).isEqualTo(1_700_000_000_000L);
+        assertThat(decoded.eventOffsets()).isEqualTo(Map.of(0, 120L, 1, 98_765L));
+        assertThat(decoded.scores()).isEqualTo(scores);
+    }
+
+    @Test
+    @DisplayName("가까운 기사가 많은 스냅샷은 기사당 수 바이트로 저장되어야 한다")
+    void encode_IsCompact() {
+        // given: 서울 시내 1만 명
+        Map<String, Long> scores = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            scores.put("driver-" + i, RedisGeoScore.encode(126.9 + (i % 100) * 0.002, 37.45 + (i / 100) * 0.0015));
+        }
+
+        // when
+        byte[] data = DriverLocationSnapshotCodec.encode(new DriverLocationSnapshot(0L, Map.of(), scores));
+
+        // then: ID 문자열(약 11바이트) + score(8바이트) 원본 대비
+        assertThat(data.length).isLessThan(10_000 * 12);
+    }
+
+    @Test
+    @DisplayName("형식이 다른 데이터는 거부해야 한다")
+    void decode_RejectsUnknownFormat() {
+        byte[] data = "driver:1,127.0,37.5".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> DriverLocationSnapshotCodec.decode(data)).isInstanceOf(UncheckedIOException.class);
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.geospatial_service.snapshot;
+
+import com.example.geospatial_service.geo.RedisGeoScore;
+import com.example.geospatial_service.index.DriverLocationIndex;
+import com.example.geospatial_service.index.SearchEngine;
+import com.example.geospatial_service.kafka.dto.DriverLocationUpdatedEvent;
+import com.example.geospatial_service.service.DriverLivenessResolver;
+import com.example.geospatial_service.service.DriverLocationShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.AdditionalMatchers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveRedisCallback;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.kafka.core.ConsumerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class DriverLocationSnapshotterTest {
+
+    private static final String TOPIC = "location_events";
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+    private static final String LOCATION_KEY = "driver_locations";
+
+    private static final long GANGNAM = RedisGeoScore.encode(127.0276, 37.4979);
+    private static final long CITY_HALL = RedisGeoScore.encode(126.9780, 37.5665);
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> cacheRedisTemplate;
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> storageRedisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, String> storageValueOperations;
+
+    @Mock
+    private ReactiveZSetOperations<String, String> cacheZSetOperations;
+
+    @Mock
+    private DriverLocationShards locationShards;
+
+    @Mock
+    private DriverLivenessResolver livenessResolver;
+
+    @Mock
+    private DriverLocationIndex locationIndex;
+
+    @Mock
+    private ConsumerFactory<String, Object> consumerFactory;
+
+    private final MockConsumer<String, Object> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+
+    // 호출마다 1초씩 흐르는 시계 (재생 제한 시간 확인용)
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+
+    private DriverLocationSnapshotter snapshotter(SearchEngine searchEngine) {
+        return new DriverLocationSnapshotter(cacheRedisTemplate, storageRedisTemplate, locationShards, livenessResolver,
+                                             locationIndex, consumerFactory, new SimpleMeterRegistry(), searchEngine,
+                                             30_000, 10_000, () -> now.addAndGet(1_000));
+    }
+
+    @Test
+    @DisplayName("다른 파드가 저장 잠금을 잡고 있으면 스냅샷을 저장하지 않아야 한다")
+    void tick_LockHeld_SkipsWrite() {
+        // given
+        given(storageRedisTemplate.opsForValue()).willReturn(storageValueOperations);
+        given(storageValueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(Mono.just(false));
+
+        // when
+        snapshotter(SearchEngine.REDIS).tick();
+
+        // then
+        verify(storageValueOperations).setIfAbsent(any(), anyString(), any(Duration.class));
+        verify(storageValueOperations, never()).set(anyString(), anyString());
+        verifyNoInteractions(consumerFactory, cacheRedisTemplate);
+    }
+
+    @Test
+    @DisplayName("잠금을 잡으면 위치와 읽기 직전의 location_events 오프셋을 함께 스냅샷으로 저장해야 한다")
+    void tick_LockAcquired_WritesSnapshot() {
+        // given
+        givenPartition(120L);
+        givenSnapshotLock(true);
+        givenCacheScores(Map.of("driver:101", GANGNAM, "driver:102", CITY_HALL));
+        given(storageValueOperations.set(anyString(), anyString())).willReturn(Mono.just(true));
+
+        // when
+        snapshotter(SearchEngine.REDIS).tick();
+
+        // then
+        ArgumentCaptor<String> encoded = ArgumentCaptor.forClass(String.class);
+        verify(storageValueOperations).set(eq(DriverLocationSnapshotter.SNAPSHOT_KEY), encoded.capture());
+        DriverLocationSnapshot snapshot = DriverLocationSnapshotCodec.decode(Base64.getDecoder().decode(encoded.getValue()));
+        assertThat(snapshot.eventOffsets()).isEqualTo(Map.of(0, 120L));
+        assertThat(snapshot.scores()).isEqualTo(Map.of("101", GANGNAM, "102", CITY_HALL));
+    }
+
+    @Test
+    @DisplayName("Cache Redis 에 위치가 없으면 주기 작업은 복원하지 않고 마지막 스냅샷도 덮어쓰지 않아야 한다")
+    void tick_CacheEmpty_KeepsSnapshot() {
+        // given
+        givenPartition(120L);
+        givenSnapshotLock(true);
+        givenCacheScores(Map.of());
+
+        // when
+        snapshotter(SearchEngine.REDIS).tick();
+
+        // then
+        verify(storageValueOperations, never()).set(anyString(), anyString());
+        verify(storageValueOperations, never()).get(anyString());
+        verify(cacheRedisTemplate, never()).execute(any(ReactiveRedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("스냅샷 기사들의 위치 키에 위치가 남아 있으면 Cache Redis 를 복원하지 않아야 한다")
+    void restore_CacheWarm_SkipsRestore() {
+        // given
+        givenStoredSnapshot(Map.of(0, 100L), Map.of("101", GANGNAM));
+        given(locationShards.shardKey(anyDouble(), anyDouble())).willReturn(LOCATION_KEY);
+        given(cacheRedisTemplate.opsForZSet()).willReturn(cacheZSetOperations);
+        given(cacheZSetOperations.size(LOCATION_KEY)).willReturn(Mono.just(3L));
+
+        // when
+        snapshotter(SearchEngine.REDIS).restore();
+
+        // then
+        verify(storageValueOperations, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+        verify(cacheRedisTemplate, never()).execute(any(ReactiveRedisCallback.class));
+        verifyNoInteractions(consumerFactory, locationIndex);
+    }
+
+    @Test
+    @DisplayName("위치 키가 비어 있어도 다른 파드가 복원 잠금을 잡았으면 복원하지 않아야 한다")
+    void restore_RestoreLockHeld_SkipsRestore() {
+        // given
+        givenStoredSnapshot(Map.of(0, 100L), Map.of("101", GANGNAM));
+        givenCacheEmpty();
+        given(storageValueOperations.setIfAbsent(eq(DriverLocationSnapshotter.RESTORE_LOCK_KEY),
+                                                 anyString(), any(Duration.class))).willReturn(Mono.just(false));
+
+        // when
+        snapshotter(SearchEngine.REDIS).restore();
+
+        // then
+        verify(cacheRedisTemplate, never()).execute(any(ReactiveRedisCallback.class));
+        verifyNoInteractions(consumerFactory, livenessResolver);
+    }
+
+    @Test
+    @DisplayName("위치 키가 비어 있으면 스냅샷 이후 이벤트를 재생한 마지막 위치로 생존 기사만 복원해야 한다")
+    void restore_CacheEmpty_ReplaysAndRestoresAliveDrivers() {
+        // given: 스냅샷 이후 101 이 시청으로 이동, 102 는 생존 TTL 만료
+        givenStoredSnapshot(Map.of(0, 100L), Map.of("101", GANGNAM, "102", GANGNAM));
+        givenCacheEmpty();
+        givenRestoreLock();
+        givenPartition(101L);
+        consumer.schedulePollTask(() -> consumer.addRecord(
+                new ConsumerRecord<>(TOPIC, 0, 100L, "101", new DriverLocationUpdatedEvent("101", 37.5665, 126.9780))));
+        given(livenessResolver.resolveAlive(any())).willReturn(Mono.just(Set.of("101")));
+        given(locationShards.register(LOCATION_KEY)).willReturn(Mono.empty());
+        given(cacheRedisTemplate.execute(any(ReactiveRedisCallback.class))).willReturn(Flux.empty());
+
+        // when
+        snapshotter(SearchEngine.MEMORY).restore();
+
+        // then
+        verify(cacheRedisTemplate).execute(any(ReactiveRedisCallback.class));
+        verify(locationIndex).upsert(eq("101"), AdditionalMatchers.eq(126.9780, 1e-5), AdditionalMatchers.eq(37.5665, 1e-5));
+        verify(locationIndex, never()).upsert(eq("102"), anyDouble(), anyDouble());
+        verify(locationIndex).markWarm();
+    }
+
+    @Test
+    @DisplayName("제한 시간 안에 재생을 끝내지 못하면 복원은 하되 인메모리 인덱스를 준비 완료로 표시하지 않아야 한다")
+    void restore_ReplayTimeout_DoesNotMarkWarm() {
+        // given: 끝 오프셋까지의 이벤트가 도착하지 않음
+        givenStoredSnapshot(Map.of(0, 100L), Map.of("101", GANGNAM));
+        givenCacheEmpty();
+        givenRestoreLock();
+        givenPartition(500L);
+        given(livenessResolver.resolveAlive(any())).willReturn(Mono.just(Set.of("101")));
+        given(locationShards.register(LOCATION_KEY)).willReturn(Mono.empty());
+        given(cacheRedisTemplate.execute(any(ReactiveRedisCallback.class))).willReturn(Flux.empty());
+
+        // when
+        snapshotter(SearchEngine.MEMORY).restore();
+
+        // then
+        verify(cacheRedisTemplate).execute(any(ReactiveRedisCallback.class));
+        verify(locationIndex).upsert(eq("101"), anyDouble(), anyDouble());
+        verify(locationIndex, never()).markWarm();
+    }
+
+    private void givenPartition(long endOffset) {
+        consumer.updatePartitions(TOPIC, List.of(new PartitionInfo(TOPIC, 0, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(PARTITION, 0L));
+        consumer.updateEndOffsets(Map.of(PARTITION, endOffset));
+        given(consumerFactory.createConsumer(any(), any(), isNull(), any(Properties.class))).willReturn(consumer);
+    }
+
+    private void givenSnapshotLock(boolean acquired) {
+        given(storageRedisTemplate.opsForValue()).willReturn(storageValueOperations);
+        given(storageValueOperations.setIfAbsent(eq(DriverLocationSnapshotter.SNAPSHOT_LOCK_KEY),
+                                                 anyString(), any(Duration.class))).willReturn(Mono.just(acquired));
+    }
+
+    private void givenRestoreLock() {
+        given(storageValueOperations.setIfAbsent(eq(DriverLocationSnapshotter.RESTORE_LOCK_KEY),
+                                                 anyString(), any(Duration.class))).willReturn(Mono.just(true));
+    }
+
+    private void givenCacheScores(Map<String, Long> scores) {
+        given(locationShards.allShardKeys()).willReturn(Flux.just(LOCATION_KEY));
+        given(cacheRedisTemplate.opsForZSet()).willReturn(cacheZSetOperations);
+        given(cacheZSetOperations.rangeWithScores(LOCATION_KEY, Range.closed(0L, -1L)))
+                .willReturn(Flux.fromIterable(scores.entrySet())
+                                .map(entry -> ZSetOperations.TypedTuple.of(entry.getKey(), entry.getValue().doubleValue())));
+    }
+
+    private void givenStoredSnapshot(Map<Integer, Long> offsets, Map<String, Long> scores) {
+        byte[] data = DriverLocationSnapshotCodec.encode(new DriverLocationSnapshot(now.get(), offsets, scores));
+        given(storageRedisTemplate.opsForValue()).willReturn(storageValueOperations);
+        given(storageValueOperations.get(DriverLocationSnapshotter.SNAPSHOT_KEY))
+                .willReturn(Mono.just(Base64.getEncoder().encodeToString(data)));
+    }
+
+    private void givenCacheEmpty() {
+        given(locationShards.shardKey(anyDouble(), anyDouble())).willReturn(LOCATION_KEY);
+        given(cacheRedisTemplate.opsForZSet()).willReturn(cacheZSetOperations);
+        given(cacheZSetOperations.size(LOCATION_KEY)).willReturn(Mono.just(0L));
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.geospatial_service.trajectory;
+
+import com.example.geospatial_service.dto.TrajectoryPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DriverTrajectoryStoreTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    private InMemoryTrajectorySegmentStore segmentStore;
+
+    private DriverTrajectoryStore store;
+
+    @BeforeEach
+    void setUp() {
+        // 세그먼트당 4점, 30초 지나면 차지 않아도 저장, 보관 60분, 기사별 세그먼트 최대 3개
+        segmentStore = new InMemoryTrajectorySegmentStore(60 * 60_000L, 3, now::get);
+        store = new DriverTrajectoryStore(segmentStore, new SimpleMeterRegistry(), true, 4, 30_000, now::get);
+    }
+
+    private void recordEverySecond(String driverId, int count) {
+        for (int i = 0; i < count; i++) {
+            store.record(driverId, 127.0 + i * 0.0001, 37.5 + i * 0.0001);
+            now.addAndGet(1_000);
+        }
+    }
+
+    @Test
+    @DisplayName("세그먼트 인코딩은 좌표를 1e-7도 단위로, 시간은 그대로 복원해야 한다")
+    void codec_RoundTrip() {
+        // given
+        long[] timestamps = {1_700_000_000_000L, 1_700_000_001_000L, 1_700_000_001_500L};
+        int[] latitudes = {375_123_456, 375_123_900, -10};
+        int[] longitudes = {1_270_276_368, 1_270_276_000, -1_799_999_999};
+
+        // when
+        byte[] segment = TrajectorySegmentCodec.encode(timestamps, latitudes, longitudes, 3);
+        List<TrajectoryPoint> points = TrajectorySegmentCodec.decode(segment);
+
+        // then
+        assertThat(points).extracting(TrajectoryPoint::timestampMs).containsExactly(timestamps[0], timestamps[1], timestamps[2]);
+        assertThat(points.get(0).latitude()).isCloseTo(37.5123456, within(1e-9));
+        assertThat(points.get(2).longitude()).isCloseTo(-179.9999999, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("가까운 점의 차이만 저장하므로 점당 크기가 원본보다 작아야 한다")
+    void codec_DeltaIsCompact() {
+        // given: 1초 간격, 약 10m 이동
+        int count = 32;
+        long[] timestamps = new long[count];
+        int[] latitudes = new int[count];
+        int[] longitudes = new int[count];
+        for (int i = 0; i < count; i++) {
+            timestamps[i] = 1_700_000_000_000L + i * 1_000L;
+            latitudes[i] = 375_000_000 + i * 900;
+            longitudes[i] = 1_270_000_000 + i * 1_100;
+        }
+
+        // when
+        byte[] segment = TrajectorySegmentCodec.encode(timestamps, latitudes, longitudes, count);
+
+        // then: double 2개 + long = 24바이트/점 대비
+        assertThat(segment.length).isLessThan(count * 8);
+    }
+
+    @Test
+    @DisplayName("버퍼가 차면 세그먼트로 저장하고, 조회는 저장된 점과 버퍼의 점을 이어서 반환해야 한다")
+    void recentPath_StoredAndBuffered() {
+        // when: 4점은 세그먼트로, 2점은 버퍼에
+        recordEverySecond("driverA", 6);
+
+        // then
+        assertThat(segmentStore.segmentsSince("driverA", 0).collectList().block()).hasSize(1);
+        List<TrajectoryPoint> path = store.recentPath("driverA", 5).collectList().block();
+        assertThat(path).hasSize(6);
+        assertThat(path).extracting(TrajectoryPoint::timestampMs).isSorted();
+        assertThat(path.get(5).longitude()).isCloseTo(127.0005, within(1e-7));
+    }
+
+    @Test
+    @DisplayName("조회 구간 이전의 점은 제외해야 한다")
+    void recentPath_FiltersOlderPoints() {
+        // given: 1분 간격 6점 (세그먼트 1개 + 버퍼 2점)
+        for (int i = 0; i < 6; i++) {
+            store.record("driverA", 127.0, 37.5);
+            now.addAndGet(60_000);
+        }
+
+        // when: 최근 3분 (마지막 기록 후 1분 지난 시점)
+        List<TrajectoryPoint> path = store.recentPath("driverA", 3).collectList().block();
+
+        // then
+        assertThat(path).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("flush-interval 이 지난 버퍼는 차지 않아도 저장하고, 이후 위치가 없으면 버퍼를 지워야 한다")
+    void flushIdle_FlushesThenDropsBuffer() {
+        // given
+        recordEverySecond("driverA", 2);
+
+        // when
+        now.addAndGet(30_000);
+        store.flushIdle();
+
+        // then
+        assertThat(segmentStore.segmentsSince("driverA", 0).collectList().block()).hasSize(1);
+        assertThat(store.bufferedDriverCount()).isEqualTo(1);
+
+        now.addAndGet(30_000);
+        store.flushIdle();
+        assertThat(store.bufferedDriverCount()).isZero();
+        assertThat(store.recentPath("driverA", 5).collectList().block()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("메모리 저장소는 보관 기간 안이라도 기사별 세그먼트 수 한도를 넘으면 오래된 것부터 버려야 한다")
+    void inMemoryStore_CapsSegmentsPerDriver() {
+        // when: 4점씩 세그먼트 5개
+        recordEverySecond("driverA", 20);
+
+        // then
+        List<TrajectorySegment> segments = segmentStore.segmentsSince("driverA", 0).collectList().block();
+        assertThat(segments).hasSize(3);
+        List<TrajectoryPoint> path = store.recentPath("driverA", 5).collectList().block();
+        assertThat(path).hasSize(12);
+        assertThat(path.get(0).longitude()).isCloseTo(127.0008, within(1e-7));
+    }
+
+    @Test
+    @DisplayName("저장소 오류가 나도 기록은 계속되어야 한다")
+    void record_StoreFailureIsSwallowed() {
+        // given
+        TrajectorySegmentStore failing = new TrajectorySegmentStore() {
+            @Override
+            public Mono<Void> append(String driverId, TrajectorySegment segment) {
+                return Mono.error(new RuntimeException("Redis 오류"));
+            }
+
+            @Override
+            public Flux<TrajectorySegment> segmentsSince(String driverId, long sinceMs) {
+                return Flux.empty();
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DriverTrajectoryStore failingStore = new DriverTrajectoryStore(failing, registry, true, 2, 30_000, now::get);
+
+        // when
+        failingStore.record("driverA", 127.0, 37.5);
+        failingStore.record("driverA", 127.0, 37.5);
+        failingStore.record("driverA", 127.0, 37.5);
+
+        // then
+        assertThat(registry.get("geospatial.trajectory.flush.failures").counter().count()).isEqualTo(1);
+        assertThat(failingStore.recentPath("driverA", 5).collectList().block()).hasSize(1);
+    }
+}
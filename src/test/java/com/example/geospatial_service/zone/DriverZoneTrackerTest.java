@@ -0,0 +1,128 @@
+package com.example.geospatial_service.zone;
+
+import com.example.geospatial_service.kafka.ZoneEventPublisher;
+import com.example.geospatial_service.kafka.dto.DriverZoneEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class DriverZoneTrackerTest {
+
+    private static final long IDLE_TIMEOUT_MILLIS = 30_000;
+
+    // 김포공항 구역과 그 동쪽 절반에 겹친 할증 구역
+    private static final GeofenceZone AIRPORT = new GeofenceZone("GMP", ZoneType.AIRPORT,
+            new double[][]{{126.78, 37.55}, {126.82, 37.55}, {126.82, 37.57}, {126.78, 37.57}});
+    private static final GeofenceZone SURGE = new GeofenceZone("GMP-EAST", ZoneType.SURGE,
+            new double[][]{{126.80, 37.55}, {126.84, 37.55}, {126.84, 37.57}, {126.80, 37.57}});
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    @Mock
+    private ZoneEventPublisher eventPublisher;
+
+    private DriverZoneTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = newTracker(true);
+    }
+
+    private DriverZoneTracker newTracker(boolean enabled) {
+        return new DriverZoneTracker(eventPublisher, List.of(AIRPORT, SURGE), new SimpleMeterRegistry(), enabled,
+                                     0.005, 1_000_000, IDLE_TIMEOUT_MILLIS, now::get);
+    }
+
+    private List<DriverZoneEvent> publishedEvents(int count) {
+        ArgumentCaptor<DriverZoneEvent> captor = ArgumentCaptor.forClass(DriverZoneEvent.class);
+        verify(eventPublisher, times(count)).publish(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    @DisplayName("구역에 들어오고 나갈 때만 발행하고, 구역 안에서 움직이는 동안은 발행하지 않아야 한다")
+    void onLocation_PublishesOnlyTransitions() {
+        // when
+        tracker.onLocation("101", 126.70, 37.56);
+        tracker.onLocation("101", 126.79, 37.56);
+        tracker.onLocation("101", 126.791, 37.561);
+        tracker.onLocation("101", 126.792, 37.562);
+        tracker.onLocation("101", 126.70, 37.56);
+
+        // then
+        assertThat(publishedEvents(2))
+                .extracting(DriverZoneEvent::driverId, DriverZoneEvent::zoneId, DriverZoneEvent::zoneType, DriverZoneEvent::transition)
+                .containsExactly(tuple("101", "GMP", "AIRPORT", DriverZoneEvent.Transition.ENTER),
+                                 tuple("101", "GMP", "AIRPORT", DriverZoneEvent.Transition.EXIT));
+    }
+
+    @Test
+    @DisplayName("겹친 구역 사이를 이동하면 바뀐 구역만 발행해야 한다")
+    void onLocation_OverlappingZones() {
+        // when: 공항 -> 공항+할증 -> 할증
+        tracker.onLocation("101", 126.79, 37.56);
+        tracker.onLocation("101", 126.81, 37.56);
+        tracker.onLocation("101", 126.83, 37.56);
+
+        // then
+        assertThat(publishedEvents(3))
+                .extracting(DriverZoneEvent::zoneId, DriverZoneEvent::transition)
+                .containsExactly(tuple("GMP", DriverZoneEvent.Transition.ENTER),
+                                 tuple("GMP-EAST", DriverZoneEvent.Transition.ENTER),
+                                 tuple("GMP", DriverZoneEvent.Transition.EXIT));
+    }
+
+    @Test
+    @DisplayName("idle-timeout 동안 위치가 없으면 마지막 위치/시각으로 나감을 발행하고 정리해야 한다")
+    void expireIdle_PublishesExitWithLastSeen() {
+        // given
+        tracker.onLocation("101", 126.79, 37.56);
+        now.addAndGet(10_000);
+        tracker.onLocation("101", 126.791, 37.561);
+        long lastSeen = now.get();
+
+        // when
+        now.addAndGet(IDLE_TIMEOUT_MILLIS - 1);
+        tracker.expireIdle();
+        now.addAndGet(1);
+        tracker.expireIdle();
+        tracker.expireIdle();
+
+        // then
+        List<DriverZoneEvent> events = publishedEvents(2);
+        assertThat(events.get(1).transition()).isEqualTo(DriverZoneEvent.Transition.EXIT);
+        assertThat(events.get(1).occurredAt()).isEqualTo(lastSeen);
+        assertThat(events.get(1).longitude()).isEqualTo(126.791);
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("비활성화 상태에서는 구역을 판단하지 않아야 한다")
+    void onLocation_Disabled() {
+        // given
+        DriverZoneTracker disabled = newTracker(false);
+
+        // when
+        disabled.onLocation("101", 126.79, 37.56);
+        disabled.expireIdle();
+
+        // then
+        verifyNoInteractions(eventPublisher);
+    }
+}
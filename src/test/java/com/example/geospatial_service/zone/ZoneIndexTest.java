@@ -0,0 +1,80 @@
+package com.example.geospatial_service.zone;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ZoneIndexTest {
+
+    // ㄴ자 (오목) 구역: 오른쪽 위 (1~2, 1~2) 는 빠져 있음
+    private static final GeofenceZone L_SHAPE = new GeofenceZone("L", ZoneType.SURGE,
+            new double[][]{{0, 0}, {2, 0}, {2, 1}, {1, 1}, {1, 2}, {0, 2}, {0, 0}});
+
+    private static final GeofenceZone SQUARE = new GeofenceZone("S", ZoneType.AIRPORT,
+            new double[][]{{1.5, 0.5}, {3, 0.5}, {3, 1.5}, {1.5, 1.5}});
+
+    @Test
+    @DisplayName("오목 폴리곤의 내부/경계/빠진 부분을 구분해야 한다")
+    void zonesAt_ConcavePolygon() {
+        // given: 셀 경계와 폴리곤 변이 어긋나도록 0.3도 셀
+        ZoneIndex index = ZoneIndex.build(List.of(L_SHAPE), 0.3, 1_000_000);
+
+        // when & then
+        assertThat(index.zonesAt(0.5, 0.5, ZoneIndex.NONE)).containsExactly(0);
+        assertThat(index.zonesAt(1.95, 0.95, ZoneIndex.NONE)).containsExactly(0);
+        assertThat(index.zonesAt(1.05, 1.05, ZoneIndex.NONE)).isEmpty();
+        assertThat(index.zonesAt(1.5, 1.5, ZoneIndex.NONE)).isEmpty();
+        assertThat(index.zonesAt(-5, -5, ZoneIndex.NONE)).isEmpty();
+        assertThat(index.zonesAt(Double.NaN, 0.5, ZoneIndex.NONE)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("겹친 구역은 모두 구역 번호 순서로 반환해야 한다")
+    void zonesAt_OverlappingZones() {
+        // given
+        ZoneIndex index = ZoneIndex.build(List.of(SQUARE, L_SHAPE), 0.3, 1_000_000);
+
+        // when & then
+        assertThat(index.zonesAt(1.8, 0.8, ZoneIndex.NONE)).containsExactly(0, 1);
+        assertThat(index.zonesAt(2.5, 1.0, ZoneIndex.NONE)).containsExactly(0);
+        assertThat(index.zonesAt(0.5, 1.5, ZoneIndex.NONE)).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("결과가 직전과 같으면 새 배열을 만들지 않고 전달받은 배열을 돌려줘야 한다")
+    void zonesAt_ReusesPreviousWhenUnchanged() {
+        // given
+        ZoneIndex index = ZoneIndex.build(List.of(SQUARE, L_SHAPE), 0.3, 1_000_000);
+        int[] previous = index.zonesAt(1.8, 0.8, ZoneIndex.NONE);
+
+        // when & then
+        assertThat(index.zonesAt(1.81, 0.81, previous)).isSameAs(previous);
+        assertThat(index.zonesAt(-5, -5, ZoneIndex.NONE)).isSameAs(ZoneIndex.NONE);
+        assertThat(index.zonesAt(2.5, 1.0, previous)).containsExactly(0);
+    }
+
+    @Test
+    @DisplayName("셀 수가 max-cells 를 넘으면 셀을 키워도 판정 결과는 같아야 한다")
+    void build_CoarsensCellsOverMaxCells() {
+        // given
+        ZoneIndex index = ZoneIndex.build(List.of(L_SHAPE), 0.01, 100);
+
+        // when & then
+        assertThat(index.cellSizeDeg()).isGreaterThan(0.01);
+        assertThat(index.zonesAt(1.95, 0.95, ZoneIndex.NONE)).containsExactly(0);
+        assertThat(index.zonesAt(1.05, 1.05, ZoneIndex.NONE)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("꼭짓점이 3개 미만인 구역은 거부해야 한다")
+    void build_RejectsDegeneratePolygon() {
+        GeofenceZone line = new GeofenceZone("X", ZoneType.NO_PICKUP, new double[][]{{0, 0}, {1, 1}});
+
+        assertThatThrownBy(() -> ZoneIndex.build(List.of(line), 0.3, 1_000_000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}